@@ -20,14 +20,20 @@
 
 package org.matsim.contrib.drt.optimizer;
 
+import javax.annotation.Nullable;
+
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.drt.optimizer.depot.DepotFinder;
 import org.matsim.contrib.drt.optimizer.depot.NearestStartLinkAsDepot;
+import org.matsim.contrib.drt.optimizer.insertion.BatchUnplannedRequestInserter;
 import org.matsim.contrib.drt.optimizer.insertion.CostCalculationStrategy;
 import org.matsim.contrib.drt.optimizer.insertion.DefaultInsertionCostCalculator;
 import org.matsim.contrib.drt.optimizer.insertion.DefaultUnplannedRequestInserter;
+import org.matsim.contrib.drt.optimizer.insertion.DetourTimeEstimator;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
+import org.matsim.contrib.drt.optimizer.insertion.IncrementalStopDurationEstimator;
 import org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator;
+import org.matsim.contrib.drt.optimizer.insertion.InsertionGenerator;
 import org.matsim.contrib.drt.optimizer.insertion.UnplannedRequestInserter;
 import org.matsim.contrib.drt.optimizer.insertion.extensive.ExtensiveInsertionSearchParams;
 import org.matsim.contrib.drt.optimizer.insertion.extensive.ExtensiveInsertionSearchQSimModule;
@@ -50,10 +56,13 @@ import org.matsim.contrib.dvrp.optimizer.VrpOptimizer;
 import org.matsim.contrib.dvrp.passenger.PassengerHandler;
 import org.matsim.contrib.dvrp.run.AbstractDvrpModeQSimModule;
 import org.matsim.contrib.dvrp.run.DvrpConfigGroup;
+import org.matsim.contrib.dvrp.run.DvrpMode;
 import org.matsim.contrib.dvrp.run.DvrpModes;
 import org.matsim.contrib.dvrp.schedule.ScheduleTimingUpdater;
 import org.matsim.contrib.dvrp.vrpagent.VrpAgentLogic;
+import org.matsim.contrib.zone.skims.TravelTimeMatrix;
 import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.controler.MatsimServices;
 import org.matsim.core.mobsim.framework.MobsimTimer;
 import org.matsim.core.modal.ModalProviders;
 import org.matsim.core.router.costcalculators.TravelDisutilityFactory;
@@ -77,7 +86,7 @@ public class DrtModeOptimizerQSimModule extends AbstractDvrpModeQSimModule {
 	protected void configureQSim() {
 		addModalComponent(DrtOptimizer.class, modalProvider(
 				getter -> new DefaultDrtOptimizer(drtCfg, getter.getModal(Fleet.class), getter.get(MobsimTimer.class),
-						getter.getModal(DepotFinder.class), getter.getModal(RebalancingStrategy.class),
+						getter.getModal(DepotFinder.class), getRebalancingStrategy(drtCfg, getter),
 						getter.getModal(DrtScheduleInquiry.class), getter.getModal(ScheduleTimingUpdater.class),
 						getter.getModal(EmptyVehicleRelocator.class), getter.getModal(UnplannedRequestInserter.class),
 						getter.getModal(DrtRequestInsertionRetryQueue.class))));
@@ -88,16 +97,41 @@ public class DrtModeOptimizerQSimModule extends AbstractDvrpModeQSimModule {
 		bindModal(DrtRequestInsertionRetryQueue.class).toInstance(new DrtRequestInsertionRetryQueue(
 				drtCfg.getDrtRequestInsertionRetryParams().orElse(new DrtRequestInsertionRetryParams())));
 
+		if (drtCfg.writeOptimizerMetrics) {
+			addModalComponent(DrtOptimizerMetrics.class, modalProvider(
+					getter -> new DrtOptimizerMetrics(drtCfg.getMode(), getter.get(MatsimServices.class))));
+		}
+
 		addModalComponent(QSimScopeForkJoinPoolHolder.class,
 				() -> new QSimScopeForkJoinPoolHolder(drtCfg.numberOfThreads));
 
-		bindModal(UnplannedRequestInserter.class).toProvider(modalProvider(
+		bindModal(DefaultUnplannedRequestInserter.class).toProvider(modalProvider(
 				getter -> new DefaultUnplannedRequestInserter(drtCfg, getter.getModal(Fleet.class),
 						getter.get(MobsimTimer.class), getter.get(EventsManager.class),
-						getter.getModal(RequestInsertionScheduler.class),
-						getter.getModal(VehicleEntry.EntryFactory.class), getter.getModal(DrtInsertionSearch.class),
+						getRequestInsertionScheduler(drtCfg, getter),
+						getter.getModal(VehicleEntry.EntryFactory.class), getInsertionSearch(drtCfg, getter),
 						getter.getModal(DrtRequestInsertionRetryQueue.class), getter.getModal(DrtOfferAcceptor.class),
-						getter.getModal(QSimScopeForkJoinPoolHolder.class).getPool()))).asEagerSingleton();
+						getter.getModal(QSimScopeForkJoinPoolHolder.class).getPool(),
+						drtCfg.vehicleIndexCellSize > 0 && drtCfg.rejectRequestIfMaxWaitOrTravelTimeViolated ?
+								VehicleEntrySpatialIndex.create(drtCfg.vehicleIndexCellSize,
+										getter.getModal(Network.class)) :
+								null, getMetrics(drtCfg, getter)))).asEagerSingleton();
+
+		drtCfg.getBatchInsertionParams().ifPresentOrElse(batchInsertionParams -> {
+			addModalComponent(BatchUnplannedRequestInserter.class, modalProvider(
+					getter -> new BatchUnplannedRequestInserter(drtCfg, batchInsertionParams,
+							getter.get(MobsimTimer.class), getter.getModal(DefaultUnplannedRequestInserter.class),
+							getInsertionSearch(drtCfg, getter),
+							getter.getModal(DrtRequestInsertionRetryQueue.class),
+							new InsertionGenerator(getter.getModal(IncrementalStopDurationEstimator.class),
+									DetourTimeEstimator.createMatrixBasedEstimator(1,
+											getter.getModal(TravelTimeMatrix.class),
+											getter.getModal(TravelTime.class))),
+							getter.getModal(InsertionCostCalculator.class),
+							getter.getModal(QSimScopeForkJoinPoolHolder.class).getPool(),
+							getter.get(MatsimServices.class))));
+			bindModal(UnplannedRequestInserter.class).to(modalKey(BatchUnplannedRequestInserter.class));
+		}, () -> bindModal(UnplannedRequestInserter.class).to(modalKey(DefaultUnplannedRequestInserter.class)));
 
 		bindModal(InsertionCostCalculator.class).toProvider(modalProvider(
 				getter -> new DefaultInsertionCostCalculator(getter.getModal(CostCalculationStrategy.class))));
@@ -150,6 +184,36 @@ public class DrtModeOptimizerQSimModule extends AbstractDvrpModeQSimModule {
 		bindModal(VrpOptimizer.class).to(modalKey(DrtOptimizer.class));
 	}
 
+	/**
+	 * @return metrics of the mode, or null if {@link DrtConfigGroup#writeOptimizerMetrics} is off
+	 */
+	@Nullable
+	public static DrtOptimizerMetrics getMetrics(DrtConfigGroup drtCfg,
+			ModalProviders.InstanceGetter<DvrpMode> getter) {
+		return drtCfg.writeOptimizerMetrics ? getter.getModal(DrtOptimizerMetrics.class) : null;
+	}
+
+	public static DrtInsertionSearch getInsertionSearch(DrtConfigGroup drtCfg,
+			ModalProviders.InstanceGetter<DvrpMode> getter) {
+		var insertionSearch = getter.getModal(DrtInsertionSearch.class);
+		var metrics = getMetrics(drtCfg, getter);
+		return metrics == null ? insertionSearch : metrics.timed(insertionSearch);
+	}
+
+	public static RequestInsertionScheduler getRequestInsertionScheduler(DrtConfigGroup drtCfg,
+			ModalProviders.InstanceGetter<DvrpMode> getter) {
+		var insertionScheduler = getter.getModal(RequestInsertionScheduler.class);
+		var metrics = getMetrics(drtCfg, getter);
+		return metrics == null ? insertionScheduler : metrics.timed(insertionScheduler);
+	}
+
+	public static RebalancingStrategy getRebalancingStrategy(DrtConfigGroup drtCfg,
+			ModalProviders.InstanceGetter<DvrpMode> getter) {
+		var rebalancingStrategy = getter.getModal(RebalancingStrategy.class);
+		var metrics = getMetrics(drtCfg, getter);
+		return metrics == null ? rebalancingStrategy : metrics.timed(rebalancingStrategy);
+	}
+
 	public static AbstractDvrpModeQSimModule getInsertionSearchQSimModule(DrtConfigGroup drtCfg) {
 		switch (drtCfg.getDrtInsertionSearchParams().getName()) {
 			case ExtensiveInsertionSearchParams.SET_NAME:
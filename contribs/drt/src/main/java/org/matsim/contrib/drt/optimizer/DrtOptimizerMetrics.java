@@ -0,0 +1,152 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
+import org.matsim.contrib.drt.optimizer.rebalancing.RebalancingStrategy;
+import org.matsim.contrib.drt.scheduler.RequestInsertionScheduler;
+import org.matsim.core.controler.MatsimServices;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
+import org.matsim.core.mobsim.framework.listeners.MobsimBeforeCleanupListener;
+
+import com.opencsv.CSVWriter;
+
+/**
+ * Collects the wall-clock time spent in the main steps of the DRT optimizer, and the number of insertion searches and
+ * vehicles evaluated and pruned in them (counted once per request, even if a request is searched more than once, e.g. by
+ * the fallback search of the batch insertion). At the end of the mobsim, the latency percentiles of each step are written to
+ * {@code <mode>_optimizer_step_latencies.csv} and the candidate counts to {@code <mode>_optimizer_insertion_candidates.csv}.
+ * <p>
+ * Only bound if {@link org.matsim.contrib.drt.run.DrtConfigGroup#writeOptimizerMetrics} is enabled.
+ */
+public class DrtOptimizerMetrics implements MobsimBeforeCleanupListener {
+	public enum Step {
+		FIND_BEST_INSERTION, CALCULATE_DETOUR_PATHS, SCHEDULE_REQUEST, CALC_RELOCATIONS
+	}
+
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+	private final String mode;
+	private final MatsimServices matsimServices;
+
+	private final Map<Step, LatencyHistogram> histograms = new EnumMap<>(Step.class);
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder evaluatedCandidates = new LongAdder();
+	private final LongAdder prunedCandidates = new LongAdder();
+
+	public DrtOptimizerMetrics(String mode, MatsimServices matsimServices) {
+		this.mode = mode;
+		this.matsimServices = matsimServices;
+		for (Step step : Step.values()) {
+			histograms.put(step, new LatencyHistogram());
+		}
+	}
+
+	/**
+	 * @param startTime obtained from {@link System#nanoTime()} before the step started
+	 */
+	public void recordStep(Step step, long startTime) {
+		histograms.get(step).recordValue(System.nanoTime() - startTime);
+	}
+
+	/**
+	 * To be called once per request.
+	 */
+	public void recordSearch(int evaluatedCandidates, int prunedCandidates) {
+		searches.increment();
+		this.evaluatedCandidates.add(evaluatedCandidates);
+		this.prunedCandidates.add(prunedCandidates);
+	}
+
+	public DrtInsertionSearch timed(DrtInsertionSearch insertionSearch) {
+		return (drtRequest, vehicleEntries) -> {
+			long startTime = System.nanoTime();
+			var insertion = insertionSearch.findBestInsertion(drtRequest, vehicleEntries);
+			recordStep(Step.FIND_BEST_INSERTION, startTime);
+			return insertion;
+		};
+	}
+
+	public RequestInsertionScheduler timed(RequestInsertionScheduler insertionScheduler) {
+		return (request, insertion) -> {
+			long startTime = System.nanoTime();
+			var pickupDropoffTaskPair = insertionScheduler.scheduleRequest(request, insertion);
+			recordStep(Step.SCHEDULE_REQUEST, startTime);
+			return pickupDropoffTaskPair;
+		};
+	}
+
+	public RebalancingStrategy timed(RebalancingStrategy rebalancingStrategy) {
+		return (rebalancableVehicles, time) -> {
+			long startTime = System.nanoTime();
+			var relocations = rebalancingStrategy.calcRelocations(rebalancableVehicles, time);
+			recordStep(Step.CALC_RELOCATIONS, startTime);
+			return relocations;
+		};
+	}
+
+	@Override
+	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent event) {
+		int iteration = matsimServices.getIterationNumber();
+		String latenciesFile = matsimServices.getControlerIO()
+				.getIterationFilename(iteration, mode + "_optimizer_step_latencies.csv");
+		try (CSVWriter writer = new CSVWriter(Files.newBufferedWriter(Paths.get(latenciesFile)), ';', '"', '"', "\n")) {
+			writer.writeNext(new String[] { "step", "count", "total_ms", "mean_us", "p50_us", "p90_us", "p99_us",
+					"p99.9_us", "max_us" }, false);
+			for (Step step : Step.values()) {
+				LatencyHistogram histogram = histograms.get(step);
+				String[] row = new String[5 + PERCENTILES.length];
+				row[0] = step.name();
+				row[1] = histogram.getTotalCount() + "";
+				row[2] = histogram.getSum() / 1e6 + "";
+				row[3] = histogram.getMean() / 1e3 + "";
+				for (int i = 0; i < PERCENTILES.length; i++) {
+					row[4 + i] = histogram.getValueAtPercentile(PERCENTILES[i]) / 1e3 + "";
+				}
+				row[row.length - 1] = histogram.getMax() / 1e3 + "";
+				writer.writeNext(row, false);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		String candidatesFile = matsimServices.getControlerIO()
+				.getIterationFilename(iteration, mode + "_optimizer_insertion_candidates.csv");
+		try (CSVWriter writer = new CSVWriter(Files.newBufferedWriter(Paths.get(candidatesFile)), ';', '"', '"', "\n")) {
+			writer.writeNext(new String[] { "searches", "evaluated_vehicles", "pruned_vehicles" }, false);
+			writer.writeNext(new String[] { searches.sum() + "", evaluatedCandidates.sum() + "", prunedCandidates.sum() + "" }, false);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		histograms.values().forEach(LatencyHistogram::reset);
+		searches.reset();
+		evaluatedCandidates.reset();
+		prunedCandidates.reset();
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Histogram of non-negative long values (e.g. latencies in nanoseconds) with log-linear buckets, as in HdrHistogram:
+ * values below 2^SUB_BUCKET_BITS are counted exactly, higher values in 2^SUB_BUCKET_BITS buckets per power of two, so
+ * the relative error of the reported percentiles is below 1 / 2^SUB_BUCKET_BITS (ca. 3%), and the memory footprint is
+ * fixed (ca. 15 kB). Values can be recorded concurrently.
+ */
+final class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT);
+	private final LongAdder totalCount = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	void recordValue(long value) {
+		Preconditions.checkArgument(value >= 0, "Negative value: %s", value);
+		counts.incrementAndGet(bucketIndex(value));
+		totalCount.increment();
+		sum.add(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	long getTotalCount() {
+		return totalCount.sum();
+	}
+
+	long getSum() {
+		return sum.sum();
+	}
+
+	long getMax() {
+		return max.get();
+	}
+
+	double getMean() {
+		long count = getTotalCount();
+		return count == 0 ? 0 : (double)getSum() / count;
+	}
+
+	/**
+	 * @return the highest value that falls into the same bucket as the value at the given percentile (capped by the
+	 * max recorded value), or 0 if the histogram is empty
+	 */
+	long getValueAtPercentile(double percentile) {
+		Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "Percentile must be in [0, 100]");
+		long count = getTotalCount();
+		if (count == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long)Math.ceil(percentile / 100 * count));
+		long cumulativeCount = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			cumulativeCount += counts.get(i);
+			if (cumulativeCount >= target) {
+				return Math.min(highestValueInBucket(i), getMax());
+			}
+		}
+		return getMax();// only if values were recorded concurrently
+	}
+
+	void reset() {
+		for (int i = 0; i < counts.length(); i++) {
+			counts.set(i, 0);
+		}
+		totalCount.reset();
+		sum.reset();
+		max.set(0);
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int)value;
+		}
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);// >= SUB_BUCKET_BITS
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int)(value >>> shift) - SUB_BUCKET_COUNT;
+		return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long highestValueInBucket(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long lowestValue = (long)(SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+		return lowestValue + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,257 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.core.utils.geometry.CoordUtils;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Grid-based index of the start locations and stops of the vehicle entries. It is used to hand the insertion search
+ * only those vehicles that can reach the pickup link before the latest pickup time of a request.
+ * <p>
+ * The travel time from a waypoint to the pickup is bounded from below by the beeline distance divided by the maximum
+ * speed, so vehicles are pruned only if none of their waypoints (start or stops) can reach the pickup in time even
+ * under this bound. In {@link #create}, the maximum speed is the highest speed along the beeline between the nodes of
+ * any link traversed at free speed (i.e. {@code beeline * freespeed / length}), since link lengths may be shorter than
+ * the beeline. The bound holds as long as link travel times are not shorter than the free speed travel times, and the
+ * latest pickup time is a hard constraint (otherwise all vehicles need to be considered).
+ * <p>
+ * The index is updated incrementally: only entries whose waypoints moved to different cells are re-registered.
+ * Queries do not modify the index and can run concurrently, updates must not.
+ *
+ * @see org.matsim.contrib.drt.run.DrtConfigGroup#vehicleIndexCellSize
+ */
+public class VehicleEntrySpatialIndex {
+	public static VehicleEntrySpatialIndex create(double cellSize, Network network) {
+		double maxBeelineSpeed = network.getLinks()
+				.values()
+				.stream()
+				.mapToDouble(VehicleEntrySpatialIndex::getBeelineSpeed)
+				// excludes loops (0, or NaN if of zero length) and other links of zero length (infinite)
+				.filter(speed -> Double.isFinite(speed) && speed > 0)
+				.max()
+				.orElse(Double.POSITIVE_INFINITY);
+		return new VehicleEntrySpatialIndex(cellSize, maxBeelineSpeed);
+	}
+
+	/**
+	 * @return speed along the beeline between the link's nodes when the link is traversed at its free speed (higher
+	 * than the free speed if the link is shorter than the beeline; infinite for links of zero length)
+	 */
+	private static double getBeelineSpeed(Link link) {
+		double beelineDistance = CoordUtils.calcEuclideanDistance(link.getFromNode().getCoord(),
+				link.getToNode().getCoord());
+		return beelineDistance * link.getFreespeed() / link.getLength();
+	}
+
+	private static class Registration {
+		private VehicleEntry entry;
+		private long[] cells;// sorted, without duplicates
+
+		private Registration(VehicleEntry entry, long[] cells) {
+			this.entry = entry;
+			this.cells = cells;
+		}
+	}
+
+	private final double cellSize;
+	private final double maxSpeed;
+
+	private final Map<Id<DvrpVehicle>, Registration> registrations = new HashMap<>();
+	private final Map<Long, Set<Registration>> cells = new HashMap<>();
+
+	public VehicleEntrySpatialIndex(double cellSize, double maxSpeed) {
+		Preconditions.checkArgument(cellSize > 0, "cellSize must be positive");
+		Preconditions.checkArgument(maxSpeed > 0, "maxSpeed must be positive");
+		this.cellSize = cellSize;
+		this.maxSpeed = maxSpeed;
+	}
+
+	/**
+	 * Replaces the whole content of the index. Registrations of vehicles that have not moved to other cells are reused.
+	 */
+	public void updateAll(Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries) {
+		registrations.keySet().removeIf(vehicleId -> {
+			if (vehicleEntries.containsKey(vehicleId)) {
+				return false;
+			}
+			unregister(registrations.get(vehicleId));
+			return true;
+		});
+		vehicleEntries.values().forEach(this::update);
+	}
+
+	public void update(VehicleEntry entry) {
+		long[] newCells = getCells(entry);
+		Registration registration = registrations.get(entry.vehicle.getId());
+		if (registration == null) {
+			registration = new Registration(entry, newCells);
+			registrations.put(entry.vehicle.getId(), registration);
+			register(registration);
+		} else if (Arrays.equals(registration.cells, newCells)) {
+			registration.entry = entry;
+		} else {
+			unregister(registration);
+			registration.entry = entry;
+			registration.cells = newCells;
+			register(registration);
+		}
+	}
+
+	public void remove(Id<DvrpVehicle> vehicleId) {
+		Registration registration = registrations.remove(vehicleId);
+		if (registration != null) {
+			unregister(registration);
+		}
+	}
+
+	/**
+	 * @return entries of vehicles that may reach the pickup link before latestPickupTime (i.e. all other vehicles can
+	 * not)
+	 */
+	public List<VehicleEntry> getCandidates(Link pickupLink, double latestPickupTime, double now) {
+		double radius = (latestPickupTime - now) * maxSpeed;
+		if (radius < 0) {
+			return Collections.emptyList();
+		}
+		if (!Double.isFinite(radius)) {
+			// infinite latest pickup time or infinite max speed (NaN if the latest pickup time is now)
+			List<VehicleEntry> candidates = new ArrayList<>();
+			for (Registration registration : registrations.values()) {
+				if (canReachInTime(registration.entry, pickupLink.getToNode().getCoord(), latestPickupTime)) {
+					candidates.add(registration.entry);
+				}
+			}
+			return candidates;
+		}
+
+		Coord pickupCoord = pickupLink.getToNode().getCoord();
+		Set<Registration> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<VehicleEntry> candidates = new ArrayList<>();
+
+		long minX = cellIndex(pickupCoord.getX() - radius);
+		long maxX = cellIndex(pickupCoord.getX() + radius);
+		long minY = cellIndex(pickupCoord.getY() - radius);
+		long maxY = cellIndex(pickupCoord.getY() + radius);
+		if ((double)(maxX - minX + 1) * (maxY - minY + 1) > cells.size()) {
+			// fewer occupied cells than cells within the radius
+			for (var e : cells.entrySet()) {
+				long cell = e.getKey();
+				long x = cell >> 32;
+				long y = (int)cell;
+				if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+					addCandidates(e.getValue(), pickupCoord, latestPickupTime, visited, candidates);
+				}
+			}
+		} else {
+			for (long x = minX; x <= maxX; x++) {
+				for (long y = minY; y <= maxY; y++) {
+					Set<Registration> cell = cells.get(cellKey(x, y));
+					if (cell != null) {
+						addCandidates(cell, pickupCoord, latestPickupTime, visited, candidates);
+					}
+				}
+			}
+		}
+		return candidates;
+	}
+
+	private void addCandidates(Set<Registration> cell, Coord pickupCoord, double latestPickupTime,
+			Set<Registration> visited, List<VehicleEntry> candidates) {
+		for (Registration registration : cell) {
+			if (visited.add(registration) && canReachInTime(registration.entry, pickupCoord, latestPickupTime)) {
+				candidates.add(registration.entry);
+			}
+		}
+	}
+
+	private boolean canReachInTime(VehicleEntry entry, Coord pickupCoord, double latestPickupTime) {
+		if (canReachInTime(entry.start.link, entry.start.time, pickupCoord, latestPickupTime)) {
+			return true;
+		}
+		for (Waypoint.Stop stop : entry.stops) {
+			// the pickup may be merged into the stop, so the arrival time (not the departure time) is the lower bound
+			if (canReachInTime(stop.getLink(), stop.getArrivalTime(), pickupCoord, latestPickupTime)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean canReachInTime(Link link, double time, Coord pickupCoord, double latestPickupTime) {
+		double distance = CoordUtils.calcEuclideanDistance(link.getToNode().getCoord(), pickupCoord);
+		return time + distance / maxSpeed <= latestPickupTime;
+	}
+
+	private long[] getCells(VehicleEntry entry) {
+		long[] entryCells = new long[entry.stops.size() + 1];
+		entryCells[0] = cellKey(entry.start.link);
+		for (int i = 0; i < entry.stops.size(); i++) {
+			entryCells[i + 1] = cellKey(entry.stops.get(i).getLink());
+		}
+		return Arrays.stream(entryCells).sorted().distinct().toArray();
+	}
+
+	private void register(Registration registration) {
+		for (long cell : registration.cells) {
+			cells.computeIfAbsent(cell, c -> new LinkedHashSet<>()).add(registration);
+		}
+	}
+
+	private void unregister(Registration registration) {
+		for (long cell : registration.cells) {
+			Set<Registration> cellRegistrations = cells.get(cell);
+			cellRegistrations.remove(registration);
+			if (cellRegistrations.isEmpty()) {
+				cells.remove(cell);
+			}
+		}
+	}
+
+	private long cellKey(Link link) {
+		Coord coord = link.getToNode().getCoord();
+		return cellKey(cellIndex(coord.getX()), cellIndex(coord.getY()));
+	}
+
+	private long cellIndex(double coordinate) {
+		return (long)Math.floor(coordinate / cellSize);
+	}
+
+	private static long cellKey(long x, long y) {
+		return (x << 32) | (y & 0xffffffffL);
+	}
+}
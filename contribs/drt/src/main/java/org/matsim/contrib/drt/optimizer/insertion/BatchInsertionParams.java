@@ -0,0 +1,51 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer.insertion;
+
+import org.matsim.core.config.ReflectiveConfigGroup;
+
+import jakarta.validation.constraints.Positive;
+
+/**
+ * If present, requests are not inserted one by one as they are submitted, but collected and inserted in batches, see
+ * {@link BatchUnplannedRequestInserter}.
+ */
+public class BatchInsertionParams extends ReflectiveConfigGroup {
+	public static final String SET_NAME = "batchInsertion";
+
+	@Parameter
+	@Comment("Length of the time window (in seconds) over which requests are collected before they are inserted"
+			+ " together. Keep in mind that requests wait up to this time before being scheduled."
+			+ " Default value is 30 s.")
+	@Positive
+	public double batchWindow = 30;
+
+	@Parameter
+	@Comment("Number of vehicles with the lowest estimated insertion costs which are evaluated with the insertion search"
+			+ " for a request of the batch. All vehicles are evaluated if none of them allows an insertion."
+			+ " Default value is 3.")
+	@Positive
+	public int candidateVehicles = 3;
+
+	public BatchInsertionParams() {
+		super(SET_NAME);
+	}
+}
@@ -0,0 +1,261 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer.insertion;
+
+import static org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator.INFEASIBLE_SOLUTION_COST;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryQueue;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.run.DrtConfigGroup;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.core.controler.MatsimServices;
+import org.matsim.core.mobsim.framework.MobsimTimer;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
+import org.matsim.core.mobsim.framework.listeners.MobsimBeforeCleanupListener;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.opencsv.CSVWriter;
+
+/**
+ * Collects the requests over a time window ({@link BatchInsertionParams#batchWindow}) and inserts them together:
+ * <ol>
+ * <li>For every pair of request and vehicle, the cost of the best insertion is estimated with the (cheap) detour time
+ * estimator, in parallel for all requests.</li>
+ * <li>The requests are ordered by their regret, i.e. the difference between the estimated costs of their second best
+ * and best vehicle, so that requests with few good options are inserted first, before their best vehicles are taken by
+ * other requests.</li>
+ * <li>In this order, each request is inserted with the {@link DrtInsertionSearch}, restricted to the vehicles with the
+ * lowest estimated costs ({@link BatchInsertionParams#candidateVehicles}). Only if none of them allows an insertion, all
+ * vehicles are searched. The entries of the vehicles are updated after each insertion, as in
+ * {@link DefaultUnplannedRequestInserter}.</li>
+ * </ol>
+ * The solve time of each batch is written to a csv file at the end of the mobsim.
+ */
+public class BatchUnplannedRequestInserter implements UnplannedRequestInserter, MobsimBeforeCleanupListener {
+	private static final Logger log = LogManager.getLogger(BatchUnplannedRequestInserter.class);
+
+	private final String mode;
+	private final BatchInsertionParams params;
+	private final DoubleSupplier timeOfDay;
+	private final DefaultUnplannedRequestInserter delegate;
+	private final DrtInsertionSearch insertionSearch;
+	private final DrtRequestInsertionRetryQueue insertionRetryQueue;
+	private final InsertionGenerator insertionGenerator;
+	private final InsertionCostCalculator insertionCostCalculator;
+	private final ForkJoinPool forkJoinPool;
+	private final MatsimServices matsimServices;
+
+	private double nextBatchTime = Double.NEGATIVE_INFINITY;
+
+	private final List<BatchStats> batchStats = new ArrayList<>();
+
+	public BatchUnplannedRequestInserter(DrtConfigGroup drtCfg, BatchInsertionParams params, MobsimTimer mobsimTimer,
+			DefaultUnplannedRequestInserter delegate, DrtInsertionSearch insertionSearch,
+			DrtRequestInsertionRetryQueue insertionRetryQueue, InsertionGenerator insertionGenerator,
+			InsertionCostCalculator insertionCostCalculator, ForkJoinPool forkJoinPool, MatsimServices matsimServices) {
+		this(drtCfg.getMode(), params, mobsimTimer::getTimeOfDay, delegate, insertionSearch, insertionRetryQueue,
+				insertionGenerator, insertionCostCalculator, forkJoinPool, matsimServices);
+	}
+
+	@VisibleForTesting
+	BatchUnplannedRequestInserter(String mode, BatchInsertionParams params, DoubleSupplier timeOfDay,
+			DefaultUnplannedRequestInserter delegate, DrtInsertionSearch insertionSearch,
+			DrtRequestInsertionRetryQueue insertionRetryQueue, InsertionGenerator insertionGenerator,
+			InsertionCostCalculator insertionCostCalculator, ForkJoinPool forkJoinPool, MatsimServices matsimServices) {
+		this.mode = mode;
+		this.params = params;
+		this.timeOfDay = timeOfDay;
+		this.delegate = delegate;
+		this.insertionSearch = insertionSearch;
+		this.insertionRetryQueue = insertionRetryQueue;
+		this.insertionGenerator = insertionGenerator;
+		this.insertionCostCalculator = insertionCostCalculator;
+		this.forkJoinPool = forkJoinPool;
+		this.matsimServices = matsimServices;
+	}
+
+	@Override
+	public void scheduleUnplannedRequests(Collection<DrtRequest> unplannedRequests) {
+		double now = timeOfDay.getAsDouble();
+		if (now < nextBatchTime) {
+			return; // the requests stay in the queue until the end of the window
+		}
+		nextBatchTime = (Math.floor(now / params.batchWindow) + 1) * params.batchWindow;
+
+		List<DrtRequest> requests = insertionRetryQueue.getRequestsToRetryNow(now);
+		if (unplannedRequests.isEmpty() && requests.isEmpty()) {
+			return;
+		}
+		requests.addAll(unplannedRequests);
+		unplannedRequests.clear();
+
+		long startTime = System.nanoTime();
+		var vehicleEntries = delegate.createVehicleEntries(now);
+
+		// estimate the costs of all request-vehicle pairs in parallel
+		List<Candidates> candidatesList = forkJoinPool.submit(() -> requests.parallelStream()
+				.map(request -> {
+					var candidates = delegate.getInsertionCandidates(request, vehicleEntries, now);
+					delegate.recordSearch(vehicleEntries, candidates);// not again in the fallback search
+					return estimateCandidates(request, candidates);
+				})
+				.collect(Collectors.toList())).join();
+
+		// stable sort, so requests with the same regret keep the order of the queue
+		candidatesList.sort(Comparator.comparingDouble((Candidates c) -> -c.regret)
+				.thenComparingDouble(c -> c.bestCost));
+
+		int fullSearches = 0;
+		for (Candidates candidates : candidatesList) {
+			List<VehicleEntry> candidateEntries = candidates.vehicleIds.stream()
+					.map(vehicleEntries::get)
+					.filter(Objects::nonNull)
+					.collect(Collectors.toList());
+			Optional<InsertionWithDetourData> best = candidateEntries.isEmpty() ?
+					Optional.empty() :
+					insertionSearch.findBestInsertion(candidates.request, candidateEntries);
+			if (best.isEmpty()) {
+				fullSearches++;
+				best = insertionSearch.findBestInsertion(candidates.request,
+						delegate.getInsertionCandidates(candidates.request, vehicleEntries, now));
+			}
+			delegate.scheduleInsertion(candidates.request, best, vehicleEntries, now);
+		}
+
+		double solveTime = (System.nanoTime() - startTime) / 1e6;
+		batchStats.add(new BatchStats(now, requests.size(), vehicleEntries.size(), fullSearches, solveTime));
+		log.debug("Batch of " + requests.size() + " requests at " + now + " solved in " + solveTime + " ms");
+	}
+
+	private Candidates estimateCandidates(DrtRequest request, Collection<VehicleEntry> vehicleEntries) {
+		int k = params.candidateVehicles;
+		Id<DvrpVehicle>[] ids = newIdArray(k);
+		double[] costs = new double[k];
+		int count = 0;
+		double bestCost = INFEASIBLE_SOLUTION_COST;
+		double secondBestCost = INFEASIBLE_SOLUTION_COST;
+
+		for (VehicleEntry entry : vehicleEntries) {
+			double vehicleCost = INFEASIBLE_SOLUTION_COST;
+			for (InsertionWithDetourData insertion : insertionGenerator.generateInsertions(request, entry)) {
+				vehicleCost = Math.min(vehicleCost,
+						insertionCostCalculator.calculate(request, insertion.insertion, insertion.detourTimeInfo));
+			}
+			if (vehicleCost >= INFEASIBLE_SOLUTION_COST) {
+				continue;
+			}
+
+			if (vehicleCost < bestCost) {
+				secondBestCost = bestCost;
+				bestCost = vehicleCost;
+			} else if (vehicleCost < secondBestCost) {
+				secondBestCost = vehicleCost;
+			}
+
+			// keep the k cheapest vehicles, sorted by cost
+			if (count < k || vehicleCost < costs[count - 1]) {
+				int pos = Math.min(count, k - 1);
+				while (pos > 0 && costs[pos - 1] > vehicleCost) {
+					costs[pos] = costs[pos - 1];
+					ids[pos] = ids[pos - 1];
+					pos--;
+				}
+				costs[pos] = vehicleCost;
+				ids[pos] = entry.vehicle.getId();
+				count = Math.min(count + 1, k);
+			}
+		}
+
+		List<Id<DvrpVehicle>> vehicleIds = Arrays.asList(ids).subList(0, count);
+		// requests with a single option have an infinite regret, requests without options are inserted last
+		double regret = count == 0 ? Double.NEGATIVE_INFINITY : secondBestCost - bestCost;
+		return new Candidates(request, vehicleIds, bestCost, regret);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Id<DvrpVehicle>[] newIdArray(int size) {
+		return new Id[size];
+	}
+
+	@Override
+	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent event) {
+		String filename = matsimServices.getControlerIO()
+				.getIterationFilename(matsimServices.getIterationNumber(), mode + "_batch_insertion_stats.csv");
+		try (CSVWriter writer = new CSVWriter(Files.newBufferedWriter(Paths.get(filename)), ';', '"', '"', "\n")) {
+			writer.writeNext(new String[] { "time", "requests", "vehicles", "full_searches", "solve_time_ms" }, false);
+			for (BatchStats stats : batchStats) {
+				writer.writeNext(new String[] { stats.time + "", stats.requests + "", stats.vehicles + "",
+						stats.fullSearches + "", stats.solveTime + "" }, false);
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		batchStats.clear();
+	}
+
+	private static class Candidates {
+		private final DrtRequest request;
+		private final List<Id<DvrpVehicle>> vehicleIds;
+		private final double bestCost;
+		private final double regret;
+
+		private Candidates(DrtRequest request, List<Id<DvrpVehicle>> vehicleIds, double bestCost, double regret) {
+			this.request = request;
+			this.vehicleIds = vehicleIds;
+			this.bestCost = bestCost;
+			this.regret = regret;
+		}
+	}
+
+	private static class BatchStats {
+		private final double time;
+		private final int requests;
+		private final int vehicles;
+		private final int fullSearches;
+		private final double solveTime;
+
+		private BatchStats(double time, int requests, int vehicles, int fullSearches, double solveTime) {
+			this.time = time;
+			this.requests = requests;
+			this.vehicles = vehicles;
+			this.fullSearches = fullSearches;
+			this.solveTime = solveTime;
+		}
+	}
+}
@@ -29,11 +29,15 @@ import java.util.concurrent.ForkJoinPool;
 import java.util.function.DoubleSupplier;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.drt.optimizer.DrtOptimizerMetrics;
 import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryQueue;
 import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.optimizer.VehicleEntrySpatialIndex;
 import org.matsim.contrib.drt.passenger.DrtOfferAcceptor;
 import org.matsim.contrib.drt.passenger.DrtRequest;
 import org.matsim.contrib.drt.run.DrtConfigGroup;
@@ -65,13 +69,33 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 	private final DrtOfferAcceptor drtOfferAcceptor;
 	private final ForkJoinPool forkJoinPool;
 
+	@Nullable
+	private final VehicleEntrySpatialIndex vehicleIndex;
+	@Nullable
+	private final DrtOptimizerMetrics metrics;
+
 	public DefaultUnplannedRequestInserter(DrtConfigGroup drtCfg, Fleet fleet, MobsimTimer mobsimTimer,
 			EventsManager eventsManager, RequestInsertionScheduler insertionScheduler,
 			VehicleEntry.EntryFactory vehicleEntryFactory, DrtInsertionSearch insertionSearch,
 			DrtRequestInsertionRetryQueue insertionRetryQueue, DrtOfferAcceptor drtOfferAcceptor,
 			ForkJoinPool forkJoinPool) {
+		this(drtCfg, fleet, mobsimTimer, eventsManager, insertionScheduler, vehicleEntryFactory, insertionSearch,
+				insertionRetryQueue, drtOfferAcceptor, forkJoinPool, null, null);
+	}
+
+	/**
+	 * @param vehicleIndex if not null, only vehicles that can reach the pickup before the latest start time are
+	 *                     considered for inserting a request (requires max wait time to be a hard constraint)
+	 * @param metrics      if not null, the searches and the vehicles evaluated and pruned by the vehicleIndex are counted
+	 */
+	public DefaultUnplannedRequestInserter(DrtConfigGroup drtCfg, Fleet fleet, MobsimTimer mobsimTimer,
+			EventsManager eventsManager, RequestInsertionScheduler insertionScheduler,
+			VehicleEntry.EntryFactory vehicleEntryFactory, DrtInsertionSearch insertionSearch,
+			DrtRequestInsertionRetryQueue insertionRetryQueue, DrtOfferAcceptor drtOfferAcceptor,
+			ForkJoinPool forkJoinPool, @Nullable VehicleEntrySpatialIndex vehicleIndex,
+			@Nullable DrtOptimizerMetrics metrics) {
 		this(drtCfg.getMode(), fleet, mobsimTimer::getTimeOfDay, eventsManager, insertionScheduler, vehicleEntryFactory,
-				insertionRetryQueue, insertionSearch, drtOfferAcceptor, forkJoinPool);
+				insertionRetryQueue, insertionSearch, drtOfferAcceptor, forkJoinPool, vehicleIndex, metrics);
 	}
 
 	@VisibleForTesting
@@ -79,6 +103,16 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 			RequestInsertionScheduler insertionScheduler, VehicleEntry.EntryFactory vehicleEntryFactory,
 			DrtRequestInsertionRetryQueue insertionRetryQueue, DrtInsertionSearch insertionSearch,
 			DrtOfferAcceptor drtOfferAcceptor, ForkJoinPool forkJoinPool) {
+		this(mode, fleet, timeOfDay, eventsManager, insertionScheduler, vehicleEntryFactory, insertionRetryQueue,
+				insertionSearch, drtOfferAcceptor, forkJoinPool, null, null);
+	}
+
+	@VisibleForTesting
+	DefaultUnplannedRequestInserter(String mode, Fleet fleet, DoubleSupplier timeOfDay, EventsManager eventsManager,
+			RequestInsertionScheduler insertionScheduler, VehicleEntry.EntryFactory vehicleEntryFactory,
+			DrtRequestInsertionRetryQueue insertionRetryQueue, DrtInsertionSearch insertionSearch,
+			DrtOfferAcceptor drtOfferAcceptor, ForkJoinPool forkJoinPool,
+			@Nullable VehicleEntrySpatialIndex vehicleIndex, @Nullable DrtOptimizerMetrics metrics) {
 		this.mode = mode;
 		this.fleet = fleet;
 		this.timeOfDay = timeOfDay;
@@ -89,6 +123,8 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 		this.insertionSearch = insertionSearch;
 		this.drtOfferAcceptor = drtOfferAcceptor;
 		this.forkJoinPool = forkJoinPool;
+		this.vehicleIndex = vehicleIndex;
+		this.metrics = metrics;
 	}
 
 	@Override
@@ -100,12 +136,7 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 			return;
 		}
 
-		var vehicleEntries = forkJoinPool.submit(() -> fleet.getVehicles()
-				.values()
-				.parallelStream()
-				.map(v -> vehicleEntryFactory.create(v, now))
-				.filter(Objects::nonNull)
-				.collect(Collectors.toMap(e -> e.vehicle.getId(), e -> e))).join();
+		var vehicleEntries = createVehicleEntries(now);
 
 		//first retry scheduling old requests
 		requestsToRetry.forEach(req -> scheduleUnplannedRequest(req, vehicleEntries, now));
@@ -117,10 +148,53 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 		}
 	}
 
+	Map<Id<DvrpVehicle>, VehicleEntry> createVehicleEntries(double now) {
+		Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries = forkJoinPool.submit(() -> fleet.getVehicles()
+				.values()
+				.parallelStream()
+				.map(v -> vehicleEntryFactory.create(v, now))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toMap(e -> e.vehicle.getId(), e -> e))).join();
+		if (vehicleIndex != null) {
+			vehicleIndex.updateAll(vehicleEntries);
+		}
+		return vehicleEntries;
+	}
+
+	/**
+	 * @return entries of all vehicles that may serve the request (all entries if there is no vehicle index)
+	 */
+	Collection<VehicleEntry> getInsertionCandidates(DrtRequest req, Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries,
+			double now) {
+		return vehicleIndex == null ?
+				Collections.unmodifiableCollection(vehicleEntries.values()) :
+				vehicleIndex.getCandidates(req.getFromLink(), req.getLatestStartTime(), now);
+	}
+
+	/**
+	 * Counts the search and the vehicles evaluated and pruned by the vehicle index. To be called once per request (and
+	 * not for repeated searches).
+	 */
+	void recordSearch(Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, Collection<VehicleEntry> candidates) {
+		if (metrics != null) {
+			metrics.recordSearch(candidates.size(), vehicleEntries.size() - candidates.size());
+		}
+	}
+
 	private void scheduleUnplannedRequest(DrtRequest req, Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries,
 			double now) {
-		Optional<InsertionWithDetourData> best = insertionSearch.findBestInsertion(req,
-				Collections.unmodifiableCollection(vehicleEntries.values()));
+		var candidates = getInsertionCandidates(req, vehicleEntries, now);
+		recordSearch(vehicleEntries, candidates);
+		Optional<InsertionWithDetourData> best = insertionSearch.findBestInsertion(req, candidates);
+		scheduleInsertion(req, best, vehicleEntries, now);
+	}
+
+	/**
+	 * Schedules the request with the given insertion (or tries to retry/rejects it if there is none) and updates the
+	 * entry of the vehicle.
+	 */
+	void scheduleInsertion(DrtRequest req, Optional<InsertionWithDetourData> best,
+			Map<Id<DvrpVehicle>, VehicleEntry> vehicleEntries, double now) {
 		if (best.isEmpty()) {
 			if (!insertionRetryQueue.tryAddFailedRequest(req, now)) {
 				eventsManager.processEvent(
@@ -147,8 +221,14 @@ public class DefaultUnplannedRequestInserter implements UnplannedRequestInserter
 			VehicleEntry newVehicleEntry = vehicleEntryFactory.create(vehicle, now);
 			if (newVehicleEntry != null) {
 				vehicleEntries.put(vehicle.getId(), newVehicleEntry);
+				if (vehicleIndex != null) {
+					vehicleIndex.update(newVehicleEntry);
+				}
 			} else {
 				vehicleEntries.remove(vehicle.getId());
+				if (vehicleIndex != null) {
+					vehicleIndex.remove(vehicle.getId());
+				}
 			}
 
 			eventsManager.processEvent(
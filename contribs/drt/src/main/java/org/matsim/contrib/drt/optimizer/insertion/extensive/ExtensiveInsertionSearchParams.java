@@ -23,6 +23,7 @@ package org.matsim.contrib.drt.optimizer.insertion.extensive;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearchParams;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 
 /**
@@ -39,6 +40,20 @@ public class ExtensiveInsertionSearchParams extends DrtInsertionSearchParams {
 	@DecimalMin("1.0")
 	public double admissibleBeelineSpeedFactor = 1.0;
 
+	@Parameter
+	@Comment("Size of the time bins (in seconds) of the detour path cache, which is shared by consecutive requests."
+			+ " Paths starting within the same time bin are considered equal. The cache is cleared whenever the"
+			+ " DVRP travel time estimates are updated (i.e. after each sim step in case of online estimation)."
+			+ " 0 (default) means no caching.")
+	@PositiveOrZero
+	public double detourPathCacheTimeBinSize = 0;
+
+	@Parameter
+	@Comment("Max number of cached detour paths per search (there are 4 searches: to/from pickup/dropoff)."
+			+ " The least recently used paths are evicted. Default value is 100000.")
+	@Positive
+	public int detourPathCacheMaxSize = 100_000;
+
 	public ExtensiveInsertionSearchParams() {
 		super(SET_NAME);
 	}
@@ -20,7 +20,10 @@
 
 package org.matsim.contrib.drt.optimizer.insertion.extensive;
 
+import java.util.function.LongSupplier;
+
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.drt.optimizer.DrtOptimizerMetrics;
 import org.matsim.contrib.drt.optimizer.QSimScopeForkJoinPoolHolder;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
 import org.matsim.contrib.drt.optimizer.insertion.IncrementalStopDurationEstimator;
@@ -28,12 +31,17 @@ import org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator;
 import org.matsim.contrib.drt.run.DrtConfigGroup;
 import org.matsim.contrib.dvrp.run.AbstractDvrpModeQSimModule;
 import org.matsim.contrib.dvrp.run.DvrpModes;
+import org.matsim.contrib.dvrp.trafficmonitoring.DvrpTravelTimeEstimator;
 import org.matsim.contrib.zone.skims.TravelTimeMatrix;
+import org.matsim.core.controler.MatsimServices;
+import org.matsim.core.mobsim.framework.MobsimTimer;
 import org.matsim.core.modal.ModalProviders;
 import org.matsim.core.router.costcalculators.TravelDisutilityFactory;
 import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.core.router.util.TravelTime;
 
+import com.google.inject.Inject;
+
 /**
  * @author Michal Maciejewski (michalm)
  */
@@ -58,13 +66,28 @@ public class ExtensiveInsertionSearchQSimModule extends AbstractDvrpModeQSimModu
 
 		addModalComponent(MultiInsertionDetourPathCalculator.class,
 				new ModalProviders.AbstractProvider<>(getMode(), DvrpModes::mode) {
+					@Inject
+					private MobsimTimer timer;
+
+					@Inject
+					private MatsimServices matsimServices;
+
 					@Override
 					public MultiInsertionDetourPathCalculator get() {
 						var travelTime = getModalInstance(TravelTime.class);
 						Network network = getModalInstance(Network.class);
 						TravelDisutility travelDisutility = getModalInstance(
 								TravelDisutilityFactory.class).createTravelDisutility(travelTime);
-						return new MultiInsertionDetourPathCalculator(network, travelTime, travelDisutility, drtCfg);
+						// without DVRP travel time estimates, it is unknown when the travel times change, so the
+						// cached paths are dropped after each time step
+						LongSupplier travelTimeVersion = travelTime instanceof DvrpTravelTimeEstimator estimator ?
+								estimator::getEstimatesVersion :
+								() -> Double.doubleToLongBits(timer.getTimeOfDay());
+						DrtOptimizerMetrics metrics = drtCfg.writeOptimizerMetrics ?
+								getModalInstance(DrtOptimizerMetrics.class) :
+								null;
+						return new MultiInsertionDetourPathCalculator(network, travelTime, travelDisutility, drtCfg,
+								travelTimeVersion, matsimServices, metrics);
 					}
 				});
 	}
@@ -22,6 +22,9 @@ package org.matsim.contrib.drt.optimizer.insertion.extensive;
 
 import static org.matsim.contrib.drt.optimizer.insertion.InsertionGenerator.Insertion;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -29,17 +32,23 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.drt.optimizer.DrtOptimizerMetrics;
 import org.matsim.contrib.drt.optimizer.Waypoint;
 import org.matsim.contrib.drt.passenger.DrtRequest;
 import org.matsim.contrib.drt.run.DrtConfigGroup;
+import org.matsim.contrib.dvrp.path.OneToManyPathDataCache;
 import org.matsim.contrib.dvrp.path.OneToManyPathSearch;
 import org.matsim.contrib.dvrp.path.OneToManyPathSearch.PathData;
+import org.matsim.core.controler.MatsimServices;
 import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
 import org.matsim.core.mobsim.framework.listeners.MobsimBeforeCleanupListener;
 import org.matsim.core.router.speedy.SpeedyGraph;
@@ -47,6 +56,7 @@ import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.core.router.util.TravelTime;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.opencsv.CSVWriter;
 
 /**
  * @author michalm
@@ -59,10 +69,31 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 	private final OneToManyPathSearch toDropoffPathSearch;
 	private final OneToManyPathSearch fromDropoffPathSearch;
 
+	// caches shared by consecutive requests (null if caching is off)
+	@Nullable
+	private final OneToManyPathDataCache toPickupPathCache;
+	@Nullable
+	private final OneToManyPathDataCache fromPickupPathCache;
+	@Nullable
+	private final OneToManyPathDataCache toDropoffPathCache;
+	@Nullable
+	private final OneToManyPathDataCache fromDropoffPathCache;
+
 	private final ExecutorService executorService;
 
+	@Nullable
+	private final MatsimServices matsimServices;
+	private final String mode;
+
+	@Nullable
+	private final DrtOptimizerMetrics metrics;
+
+	/**
+	 * @param travelTimeVersion changes whenever the travel times are updated (used for invalidating the path caches)
+	 */
 	MultiInsertionDetourPathCalculator(Network network, TravelTime travelTime, TravelDisutility travelDisutility,
-			DrtConfigGroup drtCfg) {
+			DrtConfigGroup drtCfg, LongSupplier travelTimeVersion, MatsimServices matsimServices,
+			@Nullable DrtOptimizerMetrics metrics) {
 		SpeedyGraph graph = new SpeedyGraph(network);
 		IdMap<Node, Node> nodeMap = new IdMap<>(Node.class);
 		nodeMap.putAll(network.getNodes());
@@ -72,6 +103,29 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 		toDropoffPathSearch = OneToManyPathSearch.createSearch(graph, nodeMap, travelTime, travelDisutility, true);
 		fromDropoffPathSearch = OneToManyPathSearch.createSearch(graph, nodeMap, travelTime, travelDisutility, true);
 		executorService = Executors.newFixedThreadPool(Math.min(drtCfg.numberOfThreads, MAX_THREADS));
+
+		var params = (ExtensiveInsertionSearchParams)drtCfg.getDrtInsertionSearchParams();
+		if (params.detourPathCacheTimeBinSize > 0) {
+			// paths of cached entries are recalculated with a separate search (only for the selected insertions)
+			OneToManyPathSearch pathRecalculationSearch = OneToManyPathSearch.createSearch(graph, nodeMap, travelTime,
+					travelDisutility, true);
+			toPickupPathCache = new OneToManyPathDataCache(toPickupPathSearch, pathRecalculationSearch, false,
+					params.detourPathCacheTimeBinSize, params.detourPathCacheMaxSize, travelTimeVersion);
+			fromPickupPathCache = new OneToManyPathDataCache(fromPickupPathSearch, pathRecalculationSearch, true,
+					params.detourPathCacheTimeBinSize, params.detourPathCacheMaxSize, travelTimeVersion);
+			toDropoffPathCache = new OneToManyPathDataCache(toDropoffPathSearch, pathRecalculationSearch, false,
+					params.detourPathCacheTimeBinSize, params.detourPathCacheMaxSize, travelTimeVersion);
+			fromDropoffPathCache = new OneToManyPathDataCache(fromDropoffPathSearch, pathRecalculationSearch, true,
+					params.detourPathCacheTimeBinSize, params.detourPathCacheMaxSize, travelTimeVersion);
+		} else {
+			toPickupPathCache = null;
+			fromPickupPathCache = null;
+			toDropoffPathCache = null;
+			fromDropoffPathCache = null;
+		}
+		this.matsimServices = matsimServices;
+		this.mode = drtCfg.getMode();
+		this.metrics = metrics;
 	}
 
 	@VisibleForTesting
@@ -81,20 +135,32 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 		this.fromPickupPathSearch = fromPickupPathSearch;
 		this.toDropoffPathSearch = toDropoffPathSearch;
 		this.fromDropoffPathSearch = fromDropoffPathSearch;
+		this.toPickupPathCache = null;
+		this.fromPickupPathCache = null;
+		this.toDropoffPathCache = null;
+		this.fromDropoffPathCache = null;
 		executorService = Executors.newFixedThreadPool(Math.min(numberOfThreads, MAX_THREADS));
+		this.matsimServices = null;
+		this.mode = null;
+		this.metrics = null;
 	}
 
 	DetourPathDataCache calculatePaths(DrtRequest drtRequest, List<Insertion> filteredInsertions) {
 		// with vehicle insertion filtering -- pathsToPickup is the most computationally demanding task, while
 		// pathsFromDropoff is the least demanding one
+		long startTime = System.nanoTime();
 		var pathsToPickupFuture = executorService.submit(() -> calcPathsToPickup(drtRequest, filteredInsertions));
 		var pathsFromPickupFuture = executorService.submit(() -> calcPathsFromPickup(drtRequest, filteredInsertions));
 		var pathsToDropoffFuture = executorService.submit(() -> calcPathsToDropoff(drtRequest, filteredInsertions));
 		var pathsFromDropoffFuture = executorService.submit(() -> calcPathsFromDropoff(drtRequest, filteredInsertions));
 
 		try {
-			return new DetourPathDataCache(pathsToPickupFuture.get(), pathsFromPickupFuture.get(),
+			var detourPathDataCache = new DetourPathDataCache(pathsToPickupFuture.get(), pathsFromPickupFuture.get(),
 					pathsToDropoffFuture.get(), pathsFromDropoffFuture.get(), PathData.EMPTY);
+			if (metrics != null) {
+				metrics.recordStep(DrtOptimizerMetrics.Step.CALCULATE_DETOUR_PATHS, startTime);
+			}
+			return detourPathDataCache;
 		} catch (InterruptedException | ExecutionException e) {
 			throw new RuntimeException(e);
 		}
@@ -105,7 +171,8 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 		double earliestPickupTime = drtRequest.getEarliestStartTime(); // optimistic
 		Collection<Link> toLinks = getDetourLinks(filteredInsertions.stream(),
 				insertion -> insertion.pickup.previousWaypoint.getLink());
-		return toPickupPathSearch.calcPathDataMap(drtRequest.getFromLink(), toLinks, earliestPickupTime, false);
+		return calcPathDataMap(toPickupPathSearch, toPickupPathCache, drtRequest.getFromLink(), toLinks,
+				earliestPickupTime, false);
 	}
 
 	private Map<Link, PathData> calcPathsFromPickup(DrtRequest drtRequest, List<Insertion> filteredInsertions) {
@@ -113,7 +180,8 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 		double earliestPickupTime = drtRequest.getEarliestStartTime(); // optimistic
 		Collection<Link> toLinks = getDetourLinks(filteredInsertions.stream(),
 				insertion -> insertion.pickup.nextWaypoint.getLink());
-		return fromPickupPathSearch.calcPathDataMap(drtRequest.getFromLink(), toLinks, earliestPickupTime, true);
+		return calcPathDataMap(fromPickupPathSearch, fromPickupPathCache, drtRequest.getFromLink(), toLinks,
+				earliestPickupTime, true);
 	}
 
 	private Map<Link, PathData> calcPathsToDropoff(DrtRequest drtRequest, List<Insertion> filteredInsertions) {
@@ -122,7 +190,8 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 		Collection<Link> toLinks = getDetourLinks(filteredInsertions.stream()
 						.filter(insertion -> !(insertion.dropoff.previousWaypoint instanceof Waypoint.Pickup)),
 				insertion -> insertion.dropoff.previousWaypoint.getLink());
-		return toDropoffPathSearch.calcPathDataMap(drtRequest.getToLink(), toLinks, latestDropoffTime, false);
+		return calcPathDataMap(toDropoffPathSearch, toDropoffPathCache, drtRequest.getToLink(), toLinks,
+				latestDropoffTime, false);
 	}
 
 	private Map<Link, PathData> calcPathsFromDropoff(DrtRequest drtRequest, List<Insertion> filteredInsertions) {
@@ -131,7 +200,16 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 		Collection<Link> toLinks = getDetourLinks(filteredInsertions.stream()
 						.filter(insertion -> !(insertion.dropoff.nextWaypoint instanceof Waypoint.End)),
 				insertion -> insertion.dropoff.nextWaypoint.getLink());
-		return fromDropoffPathSearch.calcPathDataMap(drtRequest.getToLink(), toLinks, latestDropoffTime, true);
+		return calcPathDataMap(fromDropoffPathSearch, fromDropoffPathCache, drtRequest.getToLink(), toLinks,
+				latestDropoffTime, true);
+	}
+
+	private Map<Link, PathData> calcPathDataMap(OneToManyPathSearch pathSearch,
+			@Nullable OneToManyPathDataCache pathCache, Link fromLink, Collection<Link> toLinks, double startTime,
+			boolean forward) {
+		return pathCache == null ?
+				pathSearch.calcPathDataMap(fromLink, toLinks, startTime, forward) :
+				pathCache.calcPathDataMap(fromLink, toLinks, startTime);
 	}
 
 	private Collection<Link> getDetourLinks(Stream<Insertion> filteredInsertions,
@@ -144,5 +222,30 @@ class MultiInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 	@Override
 	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent e) {
 		executorService.shutdown();
+		if (toPickupPathCache != null && matsimServices != null) {
+			writeCacheStats();
+		}
+	}
+
+	private void writeCacheStats() {
+		String filename = matsimServices.getControlerIO()
+				.getIterationFilename(matsimServices.getIterationNumber(), mode + "_detour_path_cache_stats.csv");
+		try (CSVWriter writer = new CSVWriter(Files.newBufferedWriter(Paths.get(filename)), ';', '"', '"', "\n")) {
+			writer.writeNext(new String[] { "search", "hits", "misses", "hit_rate", "invalidations" }, false);
+			printCacheStats(writer, "to_pickup", toPickupPathCache);
+			printCacheStats(writer, "from_pickup", fromPickupPathCache);
+			printCacheStats(writer, "to_dropoff", toDropoffPathCache);
+			printCacheStats(writer, "from_dropoff", fromDropoffPathCache);
+		} catch (IOException ex) {
+			ex.printStackTrace();
+		}
+	}
+
+	private void printCacheStats(CSVWriter writer, String search, OneToManyPathDataCache cache) {
+		long hits = cache.getHits();
+		long misses = cache.getMisses();
+		double hitRate = hits + misses == 0 ? 0 : (double)hits / (hits + misses);
+		writer.writeNext(new String[] { search, hits + "", misses + "", hitRate + "", cache.getInvalidations() + "" },
+				false);
 	}
 }
@@ -21,6 +21,7 @@
 package org.matsim.contrib.drt.optimizer.insertion.selective;
 
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.drt.optimizer.DrtOptimizerMetrics;
 import org.matsim.contrib.drt.optimizer.QSimScopeForkJoinPoolHolder;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearch;
 import org.matsim.contrib.drt.optimizer.insertion.IncrementalStopDurationEstimator;
@@ -72,7 +73,11 @@ public class SelectiveInsertionSearchQSimModule extends AbstractDvrpModeQSimModu
 						Network network = getModalInstance(Network.class);
 						TravelDisutility travelDisutility = getModalInstance(
 								TravelDisutilityFactory.class).createTravelDisutility(travelTime);
-						return new SingleInsertionDetourPathCalculator(network, travelTime, travelDisutility, drtCfg);
+						DrtOptimizerMetrics metrics = drtCfg.writeOptimizerMetrics ?
+								getModalInstance(DrtOptimizerMetrics.class) :
+								null;
+						return new SingleInsertionDetourPathCalculator(network, travelTime, travelDisutility, drtCfg,
+								metrics);
 					}
 				});
 	}
@@ -30,8 +30,11 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import javax.annotation.Nullable;
+
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.contrib.drt.optimizer.DrtOptimizerMetrics;
 import org.matsim.contrib.drt.optimizer.Waypoint;
 import org.matsim.contrib.drt.passenger.DrtRequest;
 import org.matsim.contrib.drt.run.DrtConfigGroup;
@@ -64,15 +67,25 @@ class SingleInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 
 	private final ExecutorService executorService;
 
+	@Nullable
+	private final DrtOptimizerMetrics metrics;
+
 	SingleInsertionDetourPathCalculator(Network network, TravelTime travelTime,
-			TravelDisutility travelDisutility, DrtConfigGroup drtCfg) {
-		this(network, travelTime, travelDisutility, drtCfg.numberOfThreads, new SpeedyALTFactory());
+			TravelDisutility travelDisutility, DrtConfigGroup drtCfg, @Nullable DrtOptimizerMetrics metrics) {
+		this(network, travelTime, travelDisutility, drtCfg.numberOfThreads, new SpeedyALTFactory(), metrics);
 	}
 
 	@VisibleForTesting
 	SingleInsertionDetourPathCalculator(Network network, TravelTime travelTime, TravelDisutility travelDisutility,
 			int numberOfThreads, LeastCostPathCalculatorFactory pathCalculatorFactory) {
+		this(network, travelTime, travelDisutility, numberOfThreads, pathCalculatorFactory, null);
+	}
+
+	private SingleInsertionDetourPathCalculator(Network network, TravelTime travelTime,
+			TravelDisutility travelDisutility, int numberOfThreads, LeastCostPathCalculatorFactory pathCalculatorFactory,
+			@Nullable DrtOptimizerMetrics metrics) {
 		this.travelTime = travelTime;
+		this.metrics = metrics;
 
 		toPickupPathSearch = pathCalculatorFactory.createPathCalculator(network, travelDisutility, travelTime);
 		fromPickupPathSearch = pathCalculatorFactory.createPathCalculator(network, travelDisutility, travelTime);
@@ -87,6 +100,7 @@ class SingleInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 
 		double earliestPickupTime = drtRequest.getEarliestStartTime(); // optimistic
 		double latestDropoffTime = drtRequest.getLatestArrivalTime(); // pessimistic
+		long startTime = System.nanoTime();
 
 		// TODO use times from InsertionWithDetourData<Double> as approximate departure times for Dijkstra (will require
 		//  passing it as an argument, instead of Insertion)
@@ -112,8 +126,12 @@ class SingleInsertionDetourPathCalculator implements MobsimBeforeCleanupListener
 								latestDropoffTime));
 
 		try {
-			return new InsertionDetourData(toPickupFuture.get(), fromPickupFuture.get(), toDropoffFuture.get(),
-					fromDropoffFuture.get());
+			var insertionDetourData = new InsertionDetourData(toPickupFuture.get(), fromPickupFuture.get(),
+					toDropoffFuture.get(), fromDropoffFuture.get());
+			if (metrics != null) {
+				metrics.recordStep(DrtOptimizerMetrics.Step.CALCULATE_DETOUR_PATHS, startTime);
+			}
+			return insertionDetourData;
 		} catch (InterruptedException | ExecutionException e) {
 			throw new RuntimeException(e);
 		}
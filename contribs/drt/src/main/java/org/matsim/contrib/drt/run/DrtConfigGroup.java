@@ -32,6 +32,7 @@ import org.matsim.api.core.v01.TransportMode;
 import org.matsim.contrib.drt.analysis.zonal.DrtZonalSystemParams;
 import org.matsim.contrib.drt.fare.DrtFareParams;
 import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryParams;
+import org.matsim.contrib.drt.optimizer.insertion.BatchInsertionParams;
 import org.matsim.contrib.drt.optimizer.insertion.DrtInsertionSearchParams;
 import org.matsim.contrib.drt.optimizer.insertion.extensive.ExtensiveInsertionSearchParams;
 import org.matsim.contrib.drt.optimizer.insertion.selective.SelectiveInsertionSearchParams;
@@ -169,6 +170,12 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 	@Comment("Writes out detailed DRT customer stats in each iteration. True by default.")
 	public boolean plotDetailedCustomerStats = true;
 
+	@Parameter
+	@Comment("Writes out latency percentiles of the main optimizer steps (insertion search, detour path calculation,"
+			+ " request scheduling, rebalancing) and the numbers of evaluated and pruned insertion candidates"
+			+ " in each iteration. False by default.")
+	public boolean writeOptimizerMetrics = false;
+
 	@Parameter
 	@Comment("Number of threads used for parallel evaluation of request insertion into existing schedules."
 			+ " Scales well up to 4, due to path data provision, the most computationally intensive part,"
@@ -177,6 +184,15 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 	@Positive
 	public int numberOfThreads = Runtime.getRuntime().availableProcessors();
 
+	@Parameter
+	@Comment("Cell size (in meters) of the spatial index of vehicle positions and stops, which is used to consider"
+			+ " for inserting a request only vehicles that can reach the pickup within the max wait time."
+			+ " Used only if rejectRequestIfMaxWaitOrTravelTimeViolated is true."
+			+ " Recommended for large fleets (e.g. a few kilometers)."
+			+ " 0 (default) means that all vehicles are considered.")
+	@PositiveOrZero
+	public double vehicleIndexCellSize = 0;// [m]
+
 	@Parameter
 	@Comment("Store planned unshared drt route as a link sequence")
 	public boolean storeUnsharedPath = false; // If true, the planned unshared path is stored and exported in plans
@@ -202,6 +218,9 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 	@Nullable
 	private DrtRequestInsertionRetryParams drtRequestInsertionRetryParams;
 
+	@Nullable
+	private BatchInsertionParams batchInsertionParams;
+
 	public DrtConfigGroup() {
 		super(GROUP_NAME);
 		initSingletonParameterSets();
@@ -236,6 +255,10 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 		addDefinition(DrtRequestInsertionRetryParams.SET_NAME, DrtRequestInsertionRetryParams::new,
 				() -> drtRequestInsertionRetryParams,
 				params -> drtRequestInsertionRetryParams = (DrtRequestInsertionRetryParams)params);
+
+		//batch insertion (optional)
+		addDefinition(BatchInsertionParams.SET_NAME, BatchInsertionParams::new, () -> batchInsertionParams,
+				params -> batchInsertionParams = (BatchInsertionParams)params);
 	}
 
 	@Override
@@ -306,6 +329,10 @@ public class DrtConfigGroup extends ReflectiveConfigGroupWithConfigurableParamet
 		return Optional.ofNullable(drtRequestInsertionRetryParams);
 	}
 
+	public Optional<BatchInsertionParams> getBatchInsertionParams() {
+		return Optional.ofNullable(batchInsertionParams);
+	}
+
 	/**
 	 * Convenience method that brings syntax closer to syntax in, e.g., {@link PlansCalcRouteConfigGroup} or {@link PlanCalcScoreConfigGroup}
 	 */
@@ -0,0 +1,92 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+	@Test
+	public void emptyHistogram() {
+		var histogram = new LatencyHistogram();
+		assertThat(histogram.getTotalCount()).isEqualTo(0);
+		assertThat(histogram.getMean()).isEqualTo(0);
+		assertThat(histogram.getValueAtPercentile(50)).isEqualTo(0);
+	}
+
+	@Test
+	public void smallValuesAreExact() {
+		var histogram = new LatencyHistogram();
+		for (int i = 1; i <= 20; i++) {
+			histogram.recordValue(i);
+		}
+		assertThat(histogram.getTotalCount()).isEqualTo(20);
+		assertThat(histogram.getSum()).isEqualTo(210);
+		assertThat(histogram.getValueAtPercentile(0)).isEqualTo(1);
+		assertThat(histogram.getValueAtPercentile(50)).isEqualTo(10);
+		assertThat(histogram.getValueAtPercentile(100)).isEqualTo(20);
+		assertThat(histogram.getMax()).isEqualTo(20);
+	}
+
+	@Test
+	public void percentilesWithinRelativeError() {
+		var histogram = new LatencyHistogram();
+		Random random = new Random(2026);
+		long[] values = new long[10_000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long)Math.exp(random.nextDouble() * 25);// up to ~70 s in ns
+			histogram.recordValue(values[i]);
+		}
+		Arrays.sort(values);
+
+		for (double percentile : new double[] { 10, 50, 90, 99, 99.9 }) {
+			long expected = values[(int)Math.ceil(percentile / 100 * values.length) - 1];
+			assertThat((double)histogram.getValueAtPercentile(percentile)).isCloseTo(expected, within(expected / 32.));
+		}
+		assertThat(histogram.getValueAtPercentile(100)).isEqualTo(values[values.length - 1]);
+	}
+
+	@Test
+	public void bucketBoundaries() {
+		for (long value : new long[] { 0, 31, 32, 33, 63, 64, 1000, 123_456_789, Long.MAX_VALUE }) {
+			int index = LatencyHistogram.bucketIndex(value);
+			assertThat(LatencyHistogram.highestValueInBucket(index)).isGreaterThanOrEqualTo(value);
+			if (index > 0) {
+				assertThat(LatencyHistogram.highestValueInBucket(index - 1)).isLessThan(value);
+			}
+		}
+	}
+
+	@Test
+	public void reset() {
+		var histogram = new LatencyHistogram();
+		histogram.recordValue(1000);
+		histogram.reset();
+		assertThat(histogram.getTotalCount()).isEqualTo(0);
+		assertThat(histogram.getMax()).isEqualTo(0);
+		assertThat(histogram.getValueAtPercentile(99)).isEqualTo(0);
+	}
+}
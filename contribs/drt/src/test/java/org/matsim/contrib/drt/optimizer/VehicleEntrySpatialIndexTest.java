@@ -0,0 +1,212 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.drt.schedule.DefaultDrtStopTask;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicleImpl;
+import org.matsim.contrib.dvrp.fleet.ImmutableDvrpVehicleSpecification;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.utils.geometry.CoordUtils;
+
+import com.google.common.collect.ImmutableList;
+
+public class VehicleEntrySpatialIndexTest {
+	private static final double SPEED = 10;
+
+	private final Network network = NetworkUtils.createNetwork();
+	private final Link pickupLink = link(0, 0);
+	private final VehicleEntrySpatialIndex index = new VehicleEntrySpatialIndex(1000, SPEED);
+
+	@Test
+	public void onlyVehiclesReachingPickupInTime() {
+		VehicleEntry near = entry("near", new Waypoint.Start(null, link(500, 0), 0, 0));
+		VehicleEntry far = entry("far", new Waypoint.Start(null, link(5000, 0), 0, 0));
+		VehicleEntry late = entry("late", new Waypoint.Start(null, link(100, 0), 95, 0));
+		VehicleEntry nearStop = entry("nearStop", new Waypoint.Start(null, link(5000, 5000), 0, 0),
+				stop(20, link(-300, 400)));
+		index.updateAll(entries(near, far, late, nearStop));
+
+		// latest pickup at 100: near needs 50 s, far 500 s, late arrives at 105, nearStop reaches from its stop at 70
+		assertThat(index.getCandidates(pickupLink, 100, 0)).containsExactlyInAnyOrder(near, nearStop);
+		assertThat(index.getCandidates(pickupLink, 1000, 0)).containsExactlyInAnyOrder(near, far, late, nearStop);
+		assertThat(index.getCandidates(pickupLink, Double.POSITIVE_INFINITY, 0)).containsExactlyInAnyOrder(near, far,
+				late, nearStop);
+		assertThat(index.getCandidates(pickupLink, 0, 10)).isEmpty();
+	}
+
+	@Test
+	public void incrementalUpdates() {
+		VehicleEntry vehicle1 = entry("v1", new Waypoint.Start(null, link(5000, 0), 0, 0));
+		VehicleEntry vehicle2 = entry("v2", new Waypoint.Start(null, link(200, 0), 0, 0));
+		index.updateAll(entries(vehicle1, vehicle2));
+		assertThat(index.getCandidates(pickupLink, 100, 0)).containsExactly(vehicle2);
+
+		// vehicle 1 gets a stop near the pickup
+		VehicleEntry vehicle1WithStop = new VehicleEntry(vehicle1.vehicle, vehicle1.start,
+				ImmutableList.of(stop(0, link(100, 100))), new double[2]);
+		index.update(vehicle1WithStop);
+		assertThat(index.getCandidates(pickupLink, 100, 0)).containsExactlyInAnyOrder(vehicle1WithStop, vehicle2);
+
+		// vehicle 2 moves away (same cell as before), vehicle 1 is removed
+		VehicleEntry vehicle2Later = entry("v2", new Waypoint.Start(null, link(300, 0), 80, 0));
+		index.update(vehicle2Later);
+		index.remove(vehicle1.vehicle.getId());
+		assertThat(index.getCandidates(pickupLink, 100, 0)).isEmpty();
+		assertThat(index.getCandidates(pickupLink, 200, 0)).containsExactly(vehicle2Later);
+
+		// vehicle 2 is not in the fleet any more
+		index.updateAll(entries(vehicle1));
+		assertThat(index.getCandidates(pickupLink, 1000, 0)).containsExactly(vehicle1);
+	}
+
+	@Test
+	public void sameAsBruteForce() {
+		Random random = new Random(2026);
+		Map<Id<DvrpVehicle>, VehicleEntry> entries = new HashMap<>();
+		for (int i = 0; i < 500; i++) {
+			var start = new Waypoint.Start(null, randomLink(random), random.nextInt(300), 0);
+			var entry = random.nextBoolean() ?
+					entry("v" + i, start) :
+					entry("v" + i, start, stop(start.time + 300, randomLink(random)));
+			entries.put(entry.vehicle.getId(), entry);
+		}
+		index.updateAll(entries);
+
+		for (int i = 0; i < 50; i++) {
+			Link pickup = randomLink(random);
+			double now = random.nextInt(300);
+			double latestPickupTime = now + random.nextInt(2000);
+			var expected = entries.values()
+					.stream()
+					.filter(e -> canReach(e.start.link, e.start.time, pickup, latestPickupTime) || e.stops.stream()
+							.anyMatch(s -> canReach(s.getLink(), s.getArrivalTime(), pickup, latestPickupTime)))
+					.collect(Collectors.toList());
+			assertThat(index.getCandidates(pickup, latestPickupTime, now)).containsExactlyInAnyOrderElementsOf(
+					expected);
+		}
+	}
+
+	@Test
+	public void linkShorterThanBeeline() {
+		Network shortcutNetwork = NetworkUtils.createNetwork();
+		Node nodeA = NetworkUtils.createAndAddNode(shortcutNetwork, Id.createNodeId("A"), new Coord(0, 0));
+		Node nodeB = NetworkUtils.createAndAddNode(shortcutNetwork, Id.createNodeId("B"), new Coord(1000, 0));
+		Link linkAB = NetworkUtils.createAndAddLink(shortcutNetwork, Id.createLinkId("AB"), nodeA, nodeB, 1000, SPEED,
+				1000, 1);
+		// 100 m long, but the nodes are 1000 m apart: traversed in 10 s, i.e. at 100 m/s along the beeline
+		Link shortcutBA = NetworkUtils.createAndAddLink(shortcutNetwork, Id.createLinkId("BA"), nodeB, nodeA, 100,
+				SPEED, 1000, 1);
+
+		var shortcutIndex = VehicleEntrySpatialIndex.create(1000, shortcutNetwork);
+		VehicleEntry vehicle = entry("v", new Waypoint.Start(null, linkAB, 0, 0));
+		shortcutIndex.updateAll(entries(vehicle));
+
+		assertThat(shortcutIndex.getCandidates(shortcutBA, 10, 0)).containsExactly(vehicle);
+		assertThat(shortcutIndex.getCandidates(shortcutBA, 9, 0)).isEmpty();
+	}
+
+	@Test
+	public void zeroLengthLink() {
+		Network zeroLengthNetwork = NetworkUtils.createNetwork();
+		Node nodeA = NetworkUtils.createAndAddNode(zeroLengthNetwork, Id.createNodeId("A"), new Coord(0, 0));
+		Node nodeB = NetworkUtils.createAndAddNode(zeroLengthNetwork, Id.createNodeId("B"), new Coord(1000, 0));
+		Link linkAB = NetworkUtils.createAndAddLink(zeroLengthNetwork, Id.createLinkId("AB"), nodeA, nodeB, 1000, SPEED,
+				1000, 1);
+		// not a loop, but of zero length: must not make the max speed infinite
+		Link linkBA = NetworkUtils.createAndAddLink(zeroLengthNetwork, Id.createLinkId("BA"), nodeB, nodeA, 0, SPEED,
+				1000, 1);
+
+		var zeroLengthIndex = VehicleEntrySpatialIndex.create(1000, zeroLengthNetwork);
+		VehicleEntry atPickup = entry("atPickup", new Waypoint.Start(null, linkBA, 100, 0));
+		VehicleEntry far = entry("far", new Waypoint.Start(null, linkAB, 100, 0));
+		zeroLengthIndex.updateAll(entries(atPickup, far));
+
+		// latest pickup time is now
+		assertThat(zeroLengthIndex.getCandidates(linkBA, 100, 100)).containsExactly(atPickup);
+		assertThat(zeroLengthIndex.getCandidates(linkBA, 200, 100)).containsExactlyInAnyOrder(atPickup, far);
+	}
+
+	@Test
+	public void infiniteMaxSpeed() {
+		var infiniteSpeedIndex = new VehicleEntrySpatialIndex(1000, Double.POSITIVE_INFINITY);
+		VehicleEntry now = entry("now", new Waypoint.Start(null, link(5000, 0), 100, 0));
+		VehicleEntry later = entry("later", new Waypoint.Start(null, link(100, 0), 101, 0));
+		infiniteSpeedIndex.updateAll(entries(now, later));
+
+		// radius is NaN (0 * infinity): all vehicles that are available now are candidates, wherever they are
+		assertThat(infiniteSpeedIndex.getCandidates(pickupLink, 100, 100)).containsExactly(now);
+		assertThat(infiniteSpeedIndex.getCandidates(pickupLink, 101, 100)).containsExactlyInAnyOrder(now, later);
+	}
+
+	private static boolean canReach(Link from, double time, Link pickup, double latestPickupTime) {
+		return time + CoordUtils.calcEuclideanDistance(from.getToNode().getCoord(), pickup.getToNode().getCoord())
+				/ SPEED <= latestPickupTime;
+	}
+
+	private Link randomLink(Random random) {
+		return link(random.nextInt(20000) - 10000, random.nextInt(20000) - 10000);
+	}
+
+	private Link link(double x, double y) {
+		int id = network.getLinks().size();
+		Node from = NetworkUtils.createAndAddNode(network, Id.createNodeId("from_" + id), new Coord(x - 10, y));
+		Node to = NetworkUtils.createAndAddNode(network, Id.createNodeId("to_" + id), new Coord(x, y));
+		return NetworkUtils.createAndAddLink(network, Id.createLinkId(id), from, to, 10, SPEED, 1000, 1);
+	}
+
+	private static Waypoint.Stop stop(double beginTime, Link link) {
+		return new Waypoint.Stop(new DefaultDrtStopTask(beginTime, beginTime + 60, link), 0);
+	}
+
+	private static VehicleEntry entry(String id, Waypoint.Start start, Waypoint.Stop... stops) {
+		var specification = ImmutableDvrpVehicleSpecification.newBuilder()
+				.id(Id.create(id, DvrpVehicle.class))
+				.capacity(4)
+				.startLinkId(start.link.getId())
+				.serviceBeginTime(0)
+				.serviceEndTime(24 * 3600)
+				.build();
+		return new VehicleEntry(new DvrpVehicleImpl(specification, start.link), start, ImmutableList.copyOf(stops),
+				new double[stops.length + 1]);
+	}
+
+	private static Map<Id<DvrpVehicle>, VehicleEntry> entries(VehicleEntry... entries) {
+		Map<Id<DvrpVehicle>, VehicleEntry> map = new HashMap<>();
+		for (VehicleEntry entry : entries) {
+			map.put(entry.vehicle.getId(), entry);
+		}
+		return map;
+	}
+}
@@ -0,0 +1,314 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer.insertion;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.matsim.contrib.drt.optimizer.insertion.InsertionCostCalculator.INFEASIBLE_SOLUTION_COST;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Identifiable;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryParams;
+import org.matsim.contrib.drt.optimizer.DrtRequestInsertionRetryQueue;
+import org.matsim.contrib.drt.optimizer.VehicleEntry;
+import org.matsim.contrib.drt.passenger.DrtOfferAcceptor;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.schedule.DefaultDrtStopTask;
+import org.matsim.contrib.drt.scheduler.RequestInsertionScheduler;
+import org.matsim.contrib.drt.scheduler.RequestInsertionScheduler.PickupDropoffTaskPair;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.Fleet;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestScheduledEvent;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.groups.ControlerConfigGroup;
+import org.matsim.core.controler.MatsimServices;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.controler.OutputDirectoryHierarchy.OverwriteFileSetting;
+import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.testcases.fakes.FakeLink;
+import org.mockito.ArgumentCaptor;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Table;
+
+public class BatchUnplannedRequestInserterTest {
+	private static final String mode = "DRT_MODE";
+
+	@Rule
+	public final ForkJoinPoolTestRule rule = new ForkJoinPoolTestRule();
+
+	@Rule
+	public final MatsimTestUtils utils = new MatsimTestUtils();
+
+	private final EventsManager eventsManager = mock(EventsManager.class);
+
+	private final DvrpVehicle vehicle1 = vehicle("v1");
+	private final DvrpVehicle vehicle2 = vehicle("v2");
+
+	private final DrtRequest requestA = request("rA");
+	private final DrtRequest requestB = request("rB");
+
+	private final BatchInsertionParams params = new BatchInsertionParams();
+	private final DrtRequestInsertionRetryParams retryParams = new DrtRequestInsertionRetryParams();//retry OFF
+	private double now;
+
+	//estimated insertion costs of (request, vehicle), the other pairs are infeasible
+	private final Table<Id<Request>, Id<DvrpVehicle>, Double> costs = HashBasedTable.create();
+	//each vehicle can serve only one request
+	private final Set<Id<DvrpVehicle>> assignedVehicles = new HashSet<>();
+	//the insertion search fails for these vehicles, although their estimated costs are feasible
+	private final Set<Id<DvrpVehicle>> blockedVehicles = new HashSet<>();
+	//vehicles passed to each call of the insertion search
+	private final List<Set<Id<DvrpVehicle>>> searchedVehicles = new ArrayList<>();
+
+	private final InsertionDetourTimeCalculator.DetourTimeInfo detourTimeInfo = new InsertionDetourTimeCalculator.DetourTimeInfo(
+			mock(InsertionDetourTimeCalculator.PickupDetourInfo.class),
+			mock(InsertionDetourTimeCalculator.DropoffDetourInfo.class));
+
+	@Test
+	public void requestsHeldUntilEndOfWindow() {
+		costs.put(requestA.getId(), vehicle1.getId(), 10.);
+		costs.put(requestB.getId(), vehicle2.getId(), 10.);
+		var inserter = newInserter();
+
+		//the first batch is solved immediately, the next one at the end of the window: [30, 60)
+		now = 40;
+		inserter.scheduleUnplannedRequests(requests());
+
+		now = 50;
+		var unplannedRequests = requests(requestA);
+		inserter.scheduleUnplannedRequests(unplannedRequests);
+		now = 59;
+		unplannedRequests.add(requestB);
+		inserter.scheduleUnplannedRequests(unplannedRequests);
+
+		//requests stay in the queue
+		assertThat(unplannedRequests).containsExactly(requestA, requestB);
+		assertThat(searchedVehicles).isEmpty();
+		verify(eventsManager, never()).processEvent(any());
+
+		now = 60;
+		inserter.scheduleUnplannedRequests(unplannedRequests);
+
+		assertThat(unplannedRequests).isEmpty();
+		assertThat(scheduledRequests()).isEqualTo(
+				Map.of(requestA.getId(), vehicle1.getId(), requestB.getId(), vehicle2.getId()));
+	}
+
+	@Test
+	public void retriedRequestsMergedIntoBatch() {
+		retryParams.maxRequestAge = Double.POSITIVE_INFINITY;
+		retryParams.retryInterval = 10;
+		var retryQueue = new DrtRequestInsertionRetryQueue(retryParams);
+		retryQueue.tryAddFailedRequest(requestA, 5);// will be retried at time 15
+
+		costs.put(requestA.getId(), vehicle1.getId(), 10.);
+		costs.put(requestB.getId(), vehicle1.getId(), 20.);
+		costs.put(requestB.getId(), vehicle2.getId(), 10.);
+
+		now = 15;
+		var unplannedRequests = requests(requestB);
+		newInserter(retryQueue).scheduleUnplannedRequests(unplannedRequests);
+
+		//both requests are inserted in the same batch
+		assertThat(unplannedRequests).isEmpty();
+		assertThat(retryQueue.getRequestsToRetryNow(Double.POSITIVE_INFINITY)).isEmpty();
+		assertThat(scheduledRequests()).isEqualTo(
+				Map.of(requestA.getId(), vehicle1.getId(), requestB.getId(), vehicle2.getId()));
+	}
+
+	@Test
+	public void singleOptionRequestInsertedFirst() {
+		//rA: two options (regret = 1); rB: only v1 (infinite regret)
+		costs.put(requestA.getId(), vehicle1.getId(), 10.);
+		costs.put(requestA.getId(), vehicle2.getId(), 11.);
+		costs.put(requestB.getId(), vehicle1.getId(), 20.);
+
+		now = 15;
+		var unplannedRequests = requests(requestA, requestB);
+		newInserter().scheduleUnplannedRequests(unplannedRequests);
+
+		//in the queue order, rA would take v1 and rB would be rejected
+		assertThat(scheduledRequests()).isEqualTo(
+				Map.of(requestA.getId(), vehicle2.getId(), requestB.getId(), vehicle1.getId()));
+		assertThat(searchedVehicles).containsExactly(Set.of(vehicle1.getId()),
+				Set.of(vehicle1.getId(), vehicle2.getId()));
+	}
+
+	@Test
+	public void fullSearchIfNoCandidateFits() {
+		params.candidateVehicles = 1;
+		costs.put(requestA.getId(), vehicle1.getId(), 10.);
+		costs.put(requestA.getId(), vehicle2.getId(), 20.);
+		blockedVehicles.add(vehicle1.getId());
+
+		now = 15;
+		var unplannedRequests = requests(requestA);
+		newInserter().scheduleUnplannedRequests(unplannedRequests);
+
+		//the estimated best vehicle first, then all vehicles
+		assertThat(searchedVehicles).containsExactly(Set.of(vehicle1.getId()),
+				Set.of(vehicle1.getId(), vehicle2.getId()));
+		assertThat(scheduledRequests()).isEqualTo(Map.of(requestA.getId(), vehicle2.getId()));
+	}
+
+	@Test
+	public void batchStatsWritten() throws IOException {
+		var controlerIO = new OutputDirectoryHierarchy(utils.getOutputDirectory(),
+				OverwriteFileSetting.deleteDirectoryIfExists, ControlerConfigGroup.CompressionType.none);
+		controlerIO.createIterationDirectory(0);
+		var matsimServices = mock(MatsimServices.class);
+		when(matsimServices.getControlerIO()).thenReturn(controlerIO);
+		when(matsimServices.getIterationNumber()).thenReturn(0);
+
+		costs.put(requestA.getId(), vehicle1.getId(), 10.);
+		costs.put(requestB.getId(), vehicle1.getId(), 10.);
+		costs.put(requestB.getId(), vehicle2.getId(), 20.);
+		blockedVehicles.add(vehicle1.getId());
+		var inserter = newInserter(new DrtRequestInsertionRetryQueue(retryParams), matsimServices);
+
+		now = 15;
+		inserter.scheduleUnplannedRequests(requests());// empty batch: no stats
+		now = 30;
+		inserter.scheduleUnplannedRequests(requests(requestA, requestB));
+		inserter.notifyMobsimBeforeCleanup(null);
+
+		//rA: rejected after the full search, rB: inserted into its second candidate (v2)
+		List<String> lines = Files.readAllLines(
+				Paths.get(controlerIO.getIterationFilename(0, mode + "_batch_insertion_stats.csv")));
+		assertThat(lines).hasSize(2);
+		assertThat(lines.get(0)).isEqualTo("time;requests;vehicles;full_searches;solve_time_ms");
+		assertThat(lines.get(1)).startsWith("30.0;2;2;1;");
+		assertThat(Double.parseDouble(lines.get(1).split(";")[4])).isNotNegative();
+	}
+
+	private BatchUnplannedRequestInserter newInserter() {
+		return newInserter(new DrtRequestInsertionRetryQueue(retryParams));
+	}
+
+	private BatchUnplannedRequestInserter newInserter(DrtRequestInsertionRetryQueue retryQueue) {
+		return newInserter(retryQueue, null);
+	}
+
+	private BatchUnplannedRequestInserter newInserter(DrtRequestInsertionRetryQueue retryQueue,
+			MatsimServices matsimServices) {
+		Fleet fleet = fleet(vehicle1, vehicle2);
+		VehicleEntry.EntryFactory entryFactory = (vehicle, currentTime) -> new VehicleEntry(vehicle, null, null, null);
+		DrtInsertionSearch insertionSearch = this::findBestInsertion;
+		RequestInsertionScheduler insertionScheduler = (request, insertion) -> {
+			assignedVehicles.add(insertion.insertion.vehicleEntry.vehicle.getId());
+			var pickupTask = new DefaultDrtStopTask(now + 10, now + 20, request.getFromLink());
+			var dropoffTask = new DefaultDrtStopTask(now + 40, now + 50, request.getToLink());
+			return new PickupDropoffTaskPair(pickupTask, dropoffTask);
+		};
+		var delegate = new DefaultUnplannedRequestInserter(mode, fleet, () -> now, eventsManager, insertionScheduler,
+				entryFactory, retryQueue, insertionSearch, DrtOfferAcceptor.DEFAULT_ACCEPTOR, rule.forkJoinPool);
+
+		var insertionGenerator = new InsertionGenerator(null, null) {
+			@Override
+			public List<InsertionWithDetourData> generateInsertions(DrtRequest drtRequest, VehicleEntry vEntry) {
+				return List.of(insertion(vEntry));
+			}
+		};
+		InsertionCostCalculator insertionCostCalculator = (drtRequest, insertion, detourTimeInfo) -> cost(drtRequest,
+				insertion.vehicleEntry);
+
+		return new BatchUnplannedRequestInserter(mode, params, () -> now, delegate, insertionSearch, retryQueue,
+				insertionGenerator, insertionCostCalculator, rule.forkJoinPool, matsimServices);
+	}
+
+	private Optional<InsertionWithDetourData> findBestInsertion(DrtRequest drtRequest,
+			Collection<VehicleEntry> vehicleEntries) {
+		searchedVehicles.add(vehicleEntries.stream().map(e -> e.vehicle.getId()).collect(Collectors.toSet()));
+		return vehicleEntries.stream()
+				.filter(e -> !assignedVehicles.contains(e.vehicle.getId()))
+				.filter(e -> !blockedVehicles.contains(e.vehicle.getId()))
+				.filter(e -> cost(drtRequest, e) < INFEASIBLE_SOLUTION_COST)
+				.min(Comparator.comparingDouble(e -> cost(drtRequest, e)))
+				.map(this::insertion);
+	}
+
+	private double cost(DrtRequest drtRequest, VehicleEntry vehicleEntry) {
+		Double cost = costs.get(drtRequest.getId(), vehicleEntry.vehicle.getId());
+		return cost == null ? INFEASIBLE_SOLUTION_COST : cost;
+	}
+
+	private InsertionWithDetourData insertion(VehicleEntry vehicleEntry) {
+		return new InsertionWithDetourData(new InsertionGenerator.Insertion(vehicleEntry, null, null), null,
+				detourTimeInfo);
+	}
+
+	private Map<Id<Request>, Id<DvrpVehicle>> scheduledRequests() {
+		ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+		verify(eventsManager, atLeast(0)).processEvent(captor.capture());
+		return captor.getAllValues()
+				.stream()
+				.filter(e -> e instanceof PassengerRequestScheduledEvent)
+				.map(e -> (PassengerRequestScheduledEvent)e)
+				.collect(Collectors.toMap(PassengerRequestScheduledEvent::getRequestId,
+						PassengerRequestScheduledEvent::getVehicleId));
+	}
+
+	private Collection<DrtRequest> requests(DrtRequest... requests) {
+		return new ArrayList<>(Arrays.asList(requests));//returned collection needs to be modifiable
+	}
+
+	private Fleet fleet(DvrpVehicle... vehicles) {
+		var map = Arrays.stream(vehicles).collect(ImmutableMap.toImmutableMap(Identifiable::getId, v -> v));
+		return () -> map;
+	}
+
+	private DvrpVehicle vehicle(String vehicleId) {
+		var id = Id.create(vehicleId, DvrpVehicle.class);
+		var vehicle = mock(DvrpVehicle.class);
+		when(vehicle.getId()).thenReturn(id);
+		return vehicle;
+	}
+
+	private DrtRequest request(String id) {
+		return DrtRequest.newBuilder()
+				.id(Id.create(id, Request.class))
+				.passengerId(Id.createPersonId(id))
+				.fromLink(new FakeLink(Id.createLinkId("from_" + id)))
+				.toLink(new FakeLink(Id.createLinkId("to_" + id)))
+				.mode(mode)
+				.build();
+	}
+}
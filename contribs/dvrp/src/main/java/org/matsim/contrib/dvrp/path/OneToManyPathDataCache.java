@@ -0,0 +1,161 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.dvrp.path;
+
+import static org.matsim.core.router.util.LeastCostPathCalculator.Path;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.dvrp.path.OneToManyPathSearch.PathData;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+
+/**
+ * Size-bounded cache of the results of a {@link OneToManyPathSearch} (always run in the same direction), reused across
+ * many searches. The entries are keyed by (from link, to link, time bin), i.e. paths for start times within the same
+ * time bin are considered equal. Only the links not found in the cache are searched for. If the cache is full, the
+ * least recently used entries are evicted.
+ * <p>
+ * The whole cache is invalidated when the version of the travel times changes (see e.g.
+ * {@link org.matsim.contrib.dvrp.trafficmonitoring.DvrpTravelTimeEstimator#getEstimatesVersion()}).
+ * <p>
+ * The paths of {@link PathData} created lazily by {@link OneToManyPathSearch} are valid only until the next search,
+ * therefore only the travel times are cached, and the paths of cached entries are re-calculated (using a separate
+ * search) only if requested.
+ */
+public class OneToManyPathDataCache {
+	private record Key(int fromLinkIndex, int toLinkIndex, int timeBin) {
+	}
+
+	private record Entry(double startTime, double travelTime) {
+	}
+
+	private final OneToManyPathSearch pathSearch;
+	private final OneToManyPathSearch pathRecalculationSearch;
+	private final boolean forward;
+	private final double timeBinSize;
+	private final LongSupplier versionSupplier;
+
+	private final Map<Key, Entry> entries;
+	private long version;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long invalidations = 0;
+
+	public OneToManyPathDataCache(OneToManyPathSearch pathSearch, OneToManyPathSearch pathRecalculationSearch,
+			boolean forward, double timeBinSize, int maxSize, LongSupplier versionSupplier) {
+		Preconditions.checkArgument(timeBinSize > 0, "timeBinSize must be positive");
+		Preconditions.checkArgument(maxSize > 0, "maxSize must be positive");
+		this.pathSearch = pathSearch;
+		this.pathRecalculationSearch = pathRecalculationSearch;
+		this.forward = forward;
+		this.timeBinSize = timeBinSize;
+		this.versionSupplier = versionSupplier;
+		this.version = versionSupplier.getAsLong();
+
+		entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Same as {@link OneToManyPathSearch#calcPathDataMap(Link, Collection, double, boolean)}, but only the links not
+	 * in the cache are searched for.
+	 */
+	public synchronized Map<Link, PathData> calcPathDataMap(Link fromLink, Collection<Link> toLinks,
+			double startTime) {
+		long currentVersion = versionSupplier.getAsLong();
+		if (currentVersion != version) {
+			version = currentVersion;
+			if (!entries.isEmpty()) {
+				entries.clear();
+				invalidations++;
+			}
+		}
+
+		int timeBin = (int)Math.floor(startTime / timeBinSize);
+		Map<Link, PathData> pathDataMap = Maps.newHashMapWithExpectedSize(toLinks.size());
+		List<Link> missingLinks = new ArrayList<>();
+		for (Link toLink : toLinks) {
+			if (toLink == fromLink) {
+				pathDataMap.put(toLink, PathData.EMPTY);
+				continue;
+			}
+			Entry entry = entries.get(new Key(fromLink.getId().index(), toLink.getId().index(), timeBin));
+			if (entry == null) {
+				missingLinks.add(toLink);
+			} else {
+				pathDataMap.put(toLink, createPathData(fromLink, toLink, entry));
+				hits++;
+			}
+		}
+		misses += missingLinks.size();
+
+		if (!missingLinks.isEmpty()) {
+			var calculated = pathSearch.calcPathDataMap(fromLink, missingLinks, startTime, forward);
+			for (Link toLink : missingLinks) {
+				PathData pathData = calculated.get(toLink);
+				entries.put(new Key(fromLink.getId().index(), toLink.getId().index(), timeBin),
+						new Entry(startTime, pathData.getTravelTime()));
+				pathDataMap.put(toLink, pathData);
+			}
+		}
+		return pathDataMap;
+	}
+
+	private PathData createPathData(Link fromLink, Link toLink, Entry entry) {
+		if (entry.travelTime == Double.POSITIVE_INFINITY) {
+			return PathData.INFEASIBLE;
+		}
+		return new PathData(() -> recalculatePath(fromLink, toLink, entry.startTime), entry.travelTime, 0);
+	}
+
+	private Path recalculatePath(Link fromLink, Link toLink, double startTime) {
+		// the recalculation search may be shared by several caches
+		synchronized (pathRecalculationSearch) {
+			return pathRecalculationSearch.calcPathDataMap(fromLink, List.of(toLink), startTime, forward)
+					.get(toLink)
+					.getPath();
+		}
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized long getInvalidations() {
+		return invalidations;
+	}
+}
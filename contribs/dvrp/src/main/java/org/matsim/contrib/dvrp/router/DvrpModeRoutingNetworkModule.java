@@ -26,14 +26,17 @@ import java.util.Set;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.dvrp.run.AbstractDvrpModeModule;
 import org.matsim.contrib.dvrp.run.DvrpConfigGroup;
-import org.matsim.contrib.zone.skims.FreeSpeedTravelTimeMatrix;
+import org.matsim.contrib.dvrp.trafficmonitoring.DvrpTravelTimeModule;
+import org.matsim.contrib.zone.skims.TimeDependentTravelTimeMatrix;
 import org.matsim.contrib.zone.skims.TravelTimeMatrix;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.GlobalConfigGroup;
 import org.matsim.core.config.groups.QSimConfigGroup;
+import org.matsim.core.controler.ControlerListenerManager;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.network.algorithms.NetworkCleaner;
 import org.matsim.core.network.algorithms.TransportModeNetworkFilter;
+import org.matsim.core.router.util.TravelTime;
 
 import com.google.common.base.Preconditions;
 import com.google.inject.Inject;
@@ -78,9 +81,11 @@ public class DvrpModeRoutingNetworkModule extends AbstractDvrpModeModule {
 			//use mode-specific travel time matrix built for this subnetwork
 			//lazily initialised: optimisers may not need it
 			bindModal(TravelTimeMatrix.class).toProvider(modalProvider(
-					getter -> FreeSpeedTravelTimeMatrix.createFreeSpeedMatrix(getter.getModal(Network.class),
+					getter -> TimeDependentTravelTimeMatrix.createTravelTimeMatrix(getter.getModal(Network.class),
 							dvrpConfigGroup.getTravelTimeMatrixParams(), globalConfigGroup.getNumberOfThreads(),
-							qSimConfigGroup.getTimeStepSize()))).in(Singleton.class);
+							qSimConfigGroup.getTimeStepSize(), getConfig().travelTimeCalculator().getTraveltimeBinSize(),
+							() -> getter.getNamed(TravelTime.class, DvrpTravelTimeModule.DVRP_ESTIMATED),
+							getter.get(ControlerListenerManager.class)))).in(Singleton.class);
 		} else {
 			//use DVRP-routing (dvrp-global) network
 			bindModal(Network.class).to(
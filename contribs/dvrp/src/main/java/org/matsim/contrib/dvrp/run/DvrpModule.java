@@ -28,12 +28,14 @@ import org.matsim.contrib.dvrp.router.DvrpGlobalRoutingNetworkProvider;
 import org.matsim.contrib.dvrp.trafficmonitoring.DvrpTravelTimeModule;
 import org.matsim.contrib.dvrp.vrpagent.VrpAgentQueryHelper;
 import org.matsim.contrib.dynagent.run.DynActivityEngine;
-import org.matsim.contrib.zone.skims.FreeSpeedTravelTimeMatrix;
+import org.matsim.contrib.zone.skims.TimeDependentTravelTimeMatrix;
 import org.matsim.contrib.zone.skims.TravelTimeMatrix;
 import org.matsim.core.config.groups.QSimConfigGroup;
 import org.matsim.core.controler.AbstractModule;
+import org.matsim.core.controler.ControlerListenerManager;
 import org.matsim.core.mobsim.framework.MobsimTimer;
 import org.matsim.core.mobsim.qsim.AbstractQSimModule;
+import org.matsim.core.router.util.TravelTime;
 import org.matsim.vis.otfvis.OnTheFlyServer.NonPlanAgentQueryHelper;
 
 import com.google.inject.Inject;
@@ -80,12 +82,20 @@ public final class DvrpModule extends AbstractModule {
 			@Inject
 			private QSimConfigGroup qSimConfigGroup;
 
+			@Inject
+			@Named(DvrpTravelTimeModule.DVRP_ESTIMATED)
+			private Provider<TravelTime> estimatedTravelTime;
+
+			@Inject
+			private ControlerListenerManager controlerListenerManager;
+
 			@Override
 			public TravelTimeMatrix get() {
 				var numberOfThreads = getConfig().global().getNumberOfThreads();
 				var params = dvrpConfigGroup.getTravelTimeMatrixParams();
-				return FreeSpeedTravelTimeMatrix.createFreeSpeedMatrix(network, params, numberOfThreads,
-						qSimConfigGroup.getTimeStepSize());
+				return TimeDependentTravelTimeMatrix.createTravelTimeMatrix(network, params, numberOfThreads,
+						qSimConfigGroup.getTimeStepSize(), getConfig().travelTimeCalculator().getTraveltimeBinSize(),
+						estimatedTravelTime::get, controlerListenerManager);
 			}
 		}).in(Singleton.class);
 
@@ -62,6 +62,8 @@ public class DvrpOfflineTravelTimeEstimator
 	private final double[][] linkTravelTimes;
 	private final double alpha;
 
+	private volatile long estimatesVersion = 0;
+
 	@Inject
 	public DvrpOfflineTravelTimeEstimator(@Named(DvrpTravelTimeModule.DVRP_INITIAL) TravelTime initialTT,
 			@Named(DvrpTravelTimeModule.DVRP_OBSERVED) TravelTime observedTT,
@@ -114,9 +116,15 @@ public class DvrpOfflineTravelTimeEstimator
 		return intervalCount - 1;
 	}
 
+	@Override
+	public long getEstimatesVersion() {
+		return estimatesVersion;
+	}
+
 	@Override
 	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent e) {
 		updateTTs(observedTT, alpha);
+		estimatesVersion++;
 	}
 
 	@Override
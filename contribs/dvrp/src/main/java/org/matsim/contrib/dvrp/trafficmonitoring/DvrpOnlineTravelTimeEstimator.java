@@ -24,8 +24,10 @@ import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.contrib.dvrp.run.DvrpConfigGroup;
 import org.matsim.core.mobsim.framework.MobsimTimer;
+import org.matsim.core.mobsim.framework.events.MobsimAfterSimStepEvent;
 import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
 import org.matsim.core.mobsim.framework.events.MobsimInitializedEvent;
+import org.matsim.core.mobsim.framework.listeners.MobsimAfterSimStepListener;
 import org.matsim.core.mobsim.framework.listeners.MobsimBeforeCleanupListener;
 import org.matsim.core.mobsim.framework.listeners.MobsimInitializedListener;
 import org.matsim.core.mobsim.qsim.QSim;
@@ -41,12 +43,16 @@ import org.matsim.withinday.trafficmonitoring.WithinDayTravelTime;
  * @author michalm
  */
 public class DvrpOnlineTravelTimeEstimator
-		implements DvrpTravelTimeEstimator, MobsimInitializedListener, MobsimBeforeCleanupListener {
+		implements DvrpTravelTimeEstimator, MobsimInitializedListener, MobsimAfterSimStepListener,
+		MobsimBeforeCleanupListener {
 	private final WithinDayTravelTime withinDayTT;
 	private final DvrpOfflineTravelTimeEstimator offlineTTEstimator;
 	private MobsimTimer mobsimTimer;
 	private final double beta;
 
+	// the online estimates change with the current time and the updates of WithinDayTravelTime (after each sim step)
+	private volatile long onlineUpdates = 0;
+
 	@Inject
 	public DvrpOnlineTravelTimeEstimator(WithinDayTravelTime withinDayTT,
 			DvrpOfflineTravelTimeEstimator offlineTTEstimator, DvrpConfigGroup dvrpConfig) {
@@ -76,13 +82,26 @@ public class DvrpOnlineTravelTimeEstimator
 		// return correction * currentTT * offlineTT / currentOfflineTT + (1-correction) * offlineTT
 	}
 
+	@Override
+	public long getEstimatesVersion() {
+		// both summands only increase, so the sum changes with any update
+		return offlineTTEstimator.getEstimatesVersion() + onlineUpdates;
+	}
+
 	@Override
 	public void notifyMobsimInitialized(@SuppressWarnings("rawtypes") MobsimInitializedEvent e) {
 		mobsimTimer = ((QSim)e.getQueueSimulation()).getSimTimer();
+		onlineUpdates++;
+	}
+
+	@Override
+	public void notifyMobsimAfterSimStep(@SuppressWarnings("rawtypes") MobsimAfterSimStepEvent e) {
+		onlineUpdates++;
 	}
 
 	@Override
 	public void notifyMobsimBeforeCleanup(MobsimBeforeCleanupEvent e) {
 		mobsimTimer = null;
+		onlineUpdates++;
 	}
 }
@@ -19,10 +19,29 @@
 
 package org.matsim.contrib.dvrp.trafficmonitoring;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.matsim.core.router.util.TravelTime;
 
 /**
  * @author michalm
  */
 public interface DvrpTravelTimeEstimator extends TravelTime {
+	/**
+	 * The version changes whenever the estimates are updated. As long as it does not change, results derived from the
+	 * estimates (e.g. shortest paths) can be reused.
+	 * <p>
+	 * By default, a different version is returned on each call, i.e. derived results are never reused. Estimators that
+	 * know when their estimates change should override it.
+	 */
+	default long getEstimatesVersion() {
+		return UnknownEstimatesVersions.NEXT_VERSION.getAndIncrement();
+	}
+}
+
+final class UnknownEstimatesVersions {
+	static final AtomicLong NEXT_VERSION = new AtomicLong();
+
+	private UnknownEstimatesVersions() {
+	}
 }
@@ -0,0 +1,153 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.zone.skims;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.matsim.contrib.zone.skims.SparseMatrix.NodeAndTime;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Same as {@link SparseMatrix}, but all rows are stored in three primitive arrays (compressed sparse rows), and the rows
+ * and columns are local node indices (0..n-1) instead of {@link org.matsim.api.core.v01.Id#index()}. The local indices
+ * do not depend on the order in which ids were created, so the matrix can be written to and read from a file.
+ * <p>
+ * In files, the column indices are delta-encoded within each row and written as variable-length integers, which
+ * typically takes 1 byte per column (instead of 4).
+ */
+final class CompactSparseMatrix {
+	//Range of unsigned short: 0-65535 (18:12:15)
+	private static final int MAX_UNSIGNED_SHORT = Short.MAX_VALUE - Short.MIN_VALUE;
+
+	private final int[] rowOffsets; // row i spans [rowOffsets[i], rowOffsets[i + 1])
+	private final int[] columns; // sorted within each row for binary search
+	private final short[] values; // aligned with columns (using 'short' as in Matrix)
+
+	/**
+	 * @param rows row i contains the neighbours of the node with the local index i (the neighbours are also given by
+	 *             their local indices)
+	 */
+	CompactSparseMatrix(List<List<NodeAndTime>> rows) {
+		rowOffsets = new int[rows.size() + 1];
+		for (int i = 0; i < rows.size(); i++) {
+			rowOffsets[i + 1] = rowOffsets[i] + rows.get(i).size();
+		}
+
+		columns = new int[rowOffsets[rows.size()]];
+		values = new short[columns.length];
+		for (int i = 0; i < rows.size(); i++) {
+			var row = rows.get(i).toArray(new NodeAndTime[0]);
+			Arrays.sort(row, (e1, e2) -> Integer.compare(e1.nodeIdx(), e2.nodeIdx()));
+			int offset = rowOffsets[i];
+			for (int j = 0; j < row.length; j++) {
+				var e = row[j];
+				Preconditions.checkArgument(Double.isFinite(e.time()) && e.time() >= 0 && e.time() < MAX_UNSIGNED_SHORT);
+				columns[offset + j] = e.nodeIdx();
+				values[offset + j] = (short)e.time();
+			}
+		}
+	}
+
+	private CompactSparseMatrix(int[] rowOffsets, int[] columns, short[] values) {
+		this.rowOffsets = rowOffsets;
+		this.columns = columns;
+		this.values = values;
+	}
+
+	int get(int fromIdx, int toIdx) {
+		int begin = rowOffsets[fromIdx];
+		int end = rowOffsets[fromIdx + 1];
+		if (begin == end || toIdx < columns[begin] || toIdx > columns[end - 1]) {
+			return -1; // value not present in the row
+		}
+		int pos = Arrays.binarySearch(columns, begin, end, toIdx);
+		return pos >= 0 ? Short.toUnsignedInt(values[pos]) : -1;
+	}
+
+	int getRowCount() {
+		return rowOffsets.length - 1;
+	}
+
+	void write(DataOutput out) throws IOException {
+		int rowCount = getRowCount();
+		out.writeInt(rowCount);
+		for (int i = 0; i < rowCount; i++) {
+			int begin = rowOffsets[i];
+			int end = rowOffsets[i + 1];
+			writeVarInt(out, end - begin);
+			int previous = -1;
+			for (int k = begin; k < end; k++) {
+				writeVarInt(out, columns[k] - previous - 1);// columns are strictly increasing
+				previous = columns[k];
+				out.writeShort(values[k]);
+			}
+		}
+	}
+
+	static CompactSparseMatrix read(DataInput in) throws IOException {
+		int rowCount = in.readInt();
+		int[] rowOffsets = new int[rowCount + 1];
+		int[] columns = new int[16];
+		short[] values = new short[16];
+		int size = 0;
+		for (int i = 0; i < rowCount; i++) {
+			int rowSize = readVarInt(in);
+			if (size + rowSize > columns.length) {
+				int capacity = Math.max(2 * columns.length, size + rowSize);
+				columns = Arrays.copyOf(columns, capacity);
+				values = Arrays.copyOf(values, capacity);
+			}
+			int previous = -1;
+			for (int k = 0; k < rowSize; k++) {
+				previous += readVarInt(in) + 1;
+				columns[size] = previous;
+				values[size] = in.readShort();
+				size++;
+			}
+			rowOffsets[i + 1] = size;
+		}
+		return new CompactSparseMatrix(rowOffsets, Arrays.copyOf(columns, size), Arrays.copyOf(values, size));
+	}
+
+	private static void writeVarInt(DataOutput out, int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			out.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; ; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+	}
+}
@@ -20,6 +20,8 @@
 
 package org.matsim.contrib.zone.skims;
 
+import javax.annotation.Nullable;
+
 import org.matsim.core.config.ConfigGroup;
 import org.matsim.core.config.ReflectiveConfigGroup;
 
@@ -47,6 +49,27 @@ public class DvrpTravelTimeMatrixParams extends ReflectiveConfigGroup {
 	@PositiveOrZero
 	public int maxNeighborDistance = 1000; //[m]
 
+	@Parameter
+	@Comment("Number of time-of-day slices of the travel time matrix. If 1, free-speed travel times are used"
+			+ " (i.e. the travel times do not depend on the departure time). If greater than 1, a separate matrix is computed"
+			+ " for each slice, using the DVRP estimated travel times at the beginning of the slice."
+			+ " Departures after the last slice use the last slice. Default value is 1.")
+	@Positive
+	public int numberOfTimeSlices = 1;
+
+	@Parameter
+	@Comment("Duration of a time slice (seconds). Ignored if 'numberOfTimeSlices' is 1. Default value is 3600 s.")
+	@Positive
+	public int timeSliceSize = 3600; //[s]
+
+	@Parameter
+	@Comment("Directory where the computed matrices are stored and loaded from in subsequent runs."
+			+ " A stored matrix is reused only if it was computed for the same network, travel times and matrix parameters."
+			+ " Only the matrices computed from the initial travel times are stored (and not the ones updated in each iteration)."
+			+ " If not set (default), matrices are computed in each run.")
+	@Nullable
+	public String cacheDirectory = null;
+
 	public DvrpTravelTimeMatrixParams() {
 		super(SET_NAME);
 	}
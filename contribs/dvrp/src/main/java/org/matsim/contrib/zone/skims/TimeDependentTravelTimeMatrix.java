@@ -0,0 +1,290 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.zone.skims;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.IdMap;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.dvrp.router.TimeAsTravelDisutility;
+import org.matsim.contrib.dvrp.trafficmonitoring.QSimFreeSpeedTravelTime;
+import org.matsim.contrib.zone.SquareGridSystem;
+import org.matsim.contrib.zone.ZonalSystems;
+import org.matsim.contrib.zone.Zone;
+import org.matsim.core.controler.ControlerListenerManager;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.controler.listener.IterationStartsListener;
+import org.matsim.core.router.util.TravelTime;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Layered version of {@link FreeSpeedTravelTimeMatrix}: for each time slice ({@link DvrpTravelTimeMatrixParams#timeSliceSize}),
+ * a zonal matrix and a sparse matrix of neighbouring nodes are computed for departures at the beginning of the slice.
+ * Queries use the slice containing the departure time (times before the first slice use the first one, times after the
+ * last slice use the last one). The sparse matrices are stored as {@link CompactSparseMatrix}.
+ * <p>
+ * The travel times are read when the matrix is created and when {@link #update()} is called. If the matrix is based on
+ * estimated travel times that change between iterations, it is updated at the start of each iteration (see
+ * {@link #createTravelTimeMatrix}).
+ * <p>
+ * If {@link DvrpTravelTimeMatrixParams#cacheDirectory} is set, the matrices are stored in that directory and reused in
+ * subsequent runs. The file name contains a hash of the network, the matrix parameters and the link travel times in all
+ * travel time bins until the end of the last slice (i.e. all the values the routing within the slices may read), so a
+ * stored file is only used if all of them are the same. Only the matrices computed when the matrix is created (i.e. from
+ * the initial travel times, which are the same in each run) are written; matrices recomputed by {@link #update()} are
+ * read from the cache if present, but not stored, so the cache does not grow with each iteration.
+ */
+public class TimeDependentTravelTimeMatrix implements TravelTimeMatrix, IterationStartsListener {
+	private static final Logger log = LogManager.getLogger(TimeDependentTravelTimeMatrix.class);
+
+	private static final int FILE_FORMAT_VERSION = 1;
+
+	/**
+	 * Creates {@link FreeSpeedTravelTimeMatrix} if there is only one time slice and no cache directory (i.e. the default
+	 * settings), and {@link TimeDependentTravelTimeMatrix} otherwise. In the latter case, estimated travel times are used if
+	 * there is more than one time slice, and the matrix is added as a listener, so that it is updated with the current
+	 * estimates at the start of each iteration.
+	 */
+	public static TravelTimeMatrix createTravelTimeMatrix(Network dvrpNetwork, DvrpTravelTimeMatrixParams params, int numberOfThreads,
+			double qSimTimeStepSize, int travelTimeBinSize, Supplier<TravelTime> estimatedTravelTime,
+			ControlerListenerManager controlerListenerManager) {
+		if (params.numberOfTimeSlices == 1) {
+			if (params.cacheDirectory == null) {
+				return FreeSpeedTravelTimeMatrix.createFreeSpeedMatrix(dvrpNetwork, params, numberOfThreads, qSimTimeStepSize);
+			}
+			return new TimeDependentTravelTimeMatrix(dvrpNetwork, params, numberOfThreads, new QSimFreeSpeedTravelTime(qSimTimeStepSize),
+					travelTimeBinSize);
+		}
+		var matrix = new TimeDependentTravelTimeMatrix(dvrpNetwork, params, numberOfThreads, estimatedTravelTime.get(),
+				travelTimeBinSize);
+		controlerListenerManager.addControlerListener(matrix);
+		return matrix;
+	}
+
+	private final Network dvrpNetwork;
+	private final DvrpTravelTimeMatrixParams params;
+	private final int numberOfThreads;
+	private final TravelTime travelTime;
+	private final int travelTimeBinSize;
+
+	private final SquareGridSystem gridSystem;
+	private final int numberOfTimeSlices;
+	private final int timeSliceSize;
+
+	private final IdMap<Node, Integer> nodeId2localIndex = new IdMap<>(Node.class);
+	private final List<Node> nodes;
+	private final Map<Zone, Node> centralNodes;
+	private final List<Zone> zones;
+	private final Matrix[] zonalMatrices;
+	private final CompactSparseMatrix[] sparseMatrices;
+
+	/**
+	 * @param travelTimeBinSize size of the time bins of {@code travelTime} (e.g.
+	 *                          {@link org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup#getTraveltimeBinSize()});
+	 *                          only used for hashing the travel times if the matrices are cached
+	 */
+	public TimeDependentTravelTimeMatrix(Network dvrpNetwork, DvrpTravelTimeMatrixParams params, int numberOfThreads, TravelTime travelTime,
+			int travelTimeBinSize) {
+		Preconditions.checkArgument(travelTimeBinSize > 0, "travelTimeBinSize must be positive");
+		this.dvrpNetwork = dvrpNetwork;
+		this.params = params;
+		this.numberOfThreads = numberOfThreads;
+		this.travelTime = travelTime;
+		this.travelTimeBinSize = travelTimeBinSize;
+		gridSystem = new SquareGridSystem(dvrpNetwork.getNodes().values(), params.cellSize);
+		numberOfTimeSlices = params.numberOfTimeSlices;
+		timeSliceSize = params.timeSliceSize;
+		zonalMatrices = new Matrix[numberOfTimeSlices];
+		sparseMatrices = new CompactSparseMatrix[numberOfTimeSlices];
+
+		// nodes and zones are ordered by ids (and not by id indices), so that the order is the same in each run
+		nodes = dvrpNetwork.getNodes().values().stream().sorted(Comparator.comparing(Node::getId)).toList();
+		for (int i = 0; i < nodes.size(); i++) {
+			nodeId2localIndex.put(nodes.get(i).getId(), i);
+		}
+		centralNodes = ZonalSystems.computeMostCentralNodes(dvrpNetwork.getNodes().values(), gridSystem);
+		zones = centralNodes.keySet().stream().sorted(Comparator.comparing(Zone::getId)).toList();
+
+		computeTimeSlices(true);
+	}
+
+	/**
+	 * Recomputes (or reads from the cache) all time slices with the current travel times. Must not be called while the
+	 * matrix is in use.
+	 */
+	public void update() {
+		computeTimeSlices(false);
+	}
+
+	private void computeTimeSlices(boolean storeInCache) {
+		Path cacheFile = params.cacheDirectory == null ?
+				null :
+				Paths.get(params.cacheDirectory, "dvrp_travel_time_matrix_" + hash() + ".bin.gz");
+		if (cacheFile != null && Files.exists(cacheFile)) {
+			log.info("Reading DVRP travel time matrix from: " + cacheFile);
+			read(cacheFile);
+			return;
+		}
+
+		var travelDisutility = new TimeAsTravelDisutility(travelTime);
+		var routingParams = new TravelTimeMatrices.RoutingParams(dvrpNetwork, travelTime, travelDisutility, numberOfThreads);
+		for (int slice = 0; slice < numberOfTimeSlices; slice++) {
+			double departureTime = getDepartureTime(slice);
+			zonalMatrices[slice] = TravelTimeMatrices.calculateTravelTimeMatrix(routingParams, centralNodes, departureTime);
+			sparseMatrices[slice] = TravelTimeMatrices.calculateCompactTravelTimeSparseMatrix(routingParams, nodes,
+					params.maxNeighborDistance, departureTime);
+		}
+
+		if (cacheFile != null && storeInCache) {
+			log.info("Writing DVRP travel time matrix to: " + cacheFile);
+			write(cacheFile);
+		}
+	}
+
+	@Override
+	public void notifyIterationStarts(IterationStartsEvent event) {
+		// the estimated travel times are updated at the end of the previous iteration
+		update();
+	}
+
+	@Override
+	public int getTravelTime(Node fromNode, Node toNode, double departureTime) {
+		if (fromNode == toNode) {
+			return 0;
+		}
+		int slice = getTimeSlice(departureTime);
+		int time = sparseMatrices[slice].get(nodeId2localIndex.get(fromNode.getId()), nodeId2localIndex.get(toNode.getId()));
+		if (time >= 0) {// value is present
+			return time;
+		}
+		return zonalMatrices[slice].get(gridSystem.getZone(fromNode), gridSystem.getZone(toNode));
+	}
+
+	private int getTimeSlice(double departureTime) {
+		int slice = (int)(departureTime / timeSliceSize);
+		return Math.max(0, Math.min(slice, numberOfTimeSlices - 1));
+	}
+
+	private double getDepartureTime(int slice) {
+		return (double)slice * timeSliceSize;
+	}
+
+	private String hash() {
+		Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putInt(FILE_FORMAT_VERSION)
+				.putInt(params.cellSize)
+				.putInt(params.maxNeighborDistance)
+				.putInt(numberOfTimeSlices)
+				.putInt(timeSliceSize)
+				.putInt(travelTimeBinSize);
+
+		nodes.forEach(node -> {
+			hasher.putUnencodedChars(node.getId().toString());
+			hasher.putDouble(node.getCoord().getX()).putDouble(node.getCoord().getY());
+		});
+
+		double endTime = getDepartureTime(numberOfTimeSlices);
+		dvrpNetwork.getLinks().values().stream().sorted(Comparator.comparing(Link::getId)).forEach(link -> {
+			hasher.putUnencodedChars(link.getId().toString())
+					.putUnencodedChars(link.getFromNode().getId().toString())
+					.putUnencodedChars(link.getToNode().getId().toString());
+			// the routing within a slice reads the travel times of the whole slice (and not only at its beginning)
+			for (double time = 0; time < endTime; time += travelTimeBinSize) {
+				hasher.putDouble(travelTime.getLinkTravelTime(link, time, null, null));
+			}
+		});
+
+		return hasher.hash().toString();
+	}
+
+	private void write(Path file) {
+		try {
+			Files.createDirectories(file.getParent());
+			// write to a temporary file first, so that concurrent or interrupted runs do not leave corrupted files
+			Path tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+			try (var out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(tempFile))))) {
+				out.writeInt(FILE_FORMAT_VERSION);
+				out.writeInt(zones.size());
+				for (int slice = 0; slice < numberOfTimeSlices; slice++) {
+					Matrix zonalMatrix = zonalMatrices[slice];
+					for (Zone fromZone : zones) {
+						for (Zone toZone : zones) {
+							out.writeShort(zonalMatrix.get(fromZone, toZone));
+						}
+					}
+					sparseMatrices[slice].write(out);
+				}
+			}
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void read(Path file) {
+		try (var in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+			checkFileContent(in.readInt() == FILE_FORMAT_VERSION, file, "format version");
+			checkFileContent(in.readInt() == zones.size(), file, "number of zones");
+			for (int slice = 0; slice < numberOfTimeSlices; slice++) {
+				Matrix zonalMatrix = new Matrix(Set.copyOf(zones));
+				for (Zone fromZone : zones) {
+					for (Zone toZone : zones) {
+						zonalMatrix.set(fromZone, toZone, in.readUnsignedShort());
+					}
+				}
+				zonalMatrices[slice] = zonalMatrix;
+				sparseMatrices[slice] = CompactSparseMatrix.read(in);
+				checkFileContent(sparseMatrices[slice].getRowCount() == nodes.size(), file, "number of nodes");
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static void checkFileContent(boolean condition, Path file, String what) {
+		if (!condition) {
+			throw new IllegalStateException("Unexpected " + what + " in: " + file + ". Please delete the file.");
+		}
+	}
+}
@@ -6,10 +6,12 @@ package org.matsim.contrib.zone.skims;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.IntStream;
 
+import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.network.Node;
 import org.matsim.contrib.util.ExecutorServiceWithResource;
@@ -67,6 +69,35 @@ public final class TravelTimeMatrices {
 
 	private static void computeForDepartureNode(Node fromNode, Collection<? extends Node> nodes, double departureTime, SparseMatrix sparseMatrix,
 			LeastCostPathTree lcpTree, double maxDistance) {
+		var sparseRow = new SparseRow(computeNeighbours(fromNode, nodes, departureTime, lcpTree, maxDistance));
+		sparseMatrix.setRow(fromNode, sparseRow);
+	}
+
+	/**
+	 * Same as {@link #calculateTravelTimeSparseMatrix(RoutingParams, double, double)}, but the returned matrix is indexed
+	 * by the positions of the nodes in the given list (which must contain all nodes of the routing network).
+	 */
+	static CompactSparseMatrix calculateCompactTravelTimeSparseMatrix(RoutingParams params, List<Node> nodes, double maxDistance,
+			double departureTime) {
+		int[] nodeIndex2localIndex = new int[Id.getNumberOfIds(Node.class)];
+		for (int i = 0; i < nodes.size(); i++) {
+			nodeIndex2localIndex[nodes.get(i).getId().index()] = i;
+		}
+
+		List<List<NodeAndTime>> rows = new ArrayList<>(Collections.nCopies(nodes.size(), null));
+		var counter = "DVRP TT sparse matrix (departure at " + departureTime + "): node ";
+		Calculation<Integer> calculation = (lcpTree, i) -> {
+			var neighbours = computeNeighbours(nodes.get(i), nodes, departureTime, lcpTree, maxDistance);
+			rows.set(i, neighbours.stream()
+					.map(e -> new NodeAndTime(nodeIndex2localIndex[e.nodeIdx()], e.time()))
+					.toList());
+		};
+		calculate(params, IntStream.range(0, nodes.size()).boxed().toList(), calculation, counter);
+		return new CompactSparseMatrix(rows);
+	}
+
+	private static List<NodeAndTime> computeNeighbours(Node fromNode, Collection<? extends Node> nodes, double departureTime,
+			LeastCostPathTree lcpTree, double maxDistance) {
 		lcpTree.calculate(fromNode.getId().index(), departureTime, null, null,
 				(nodeIndex, arrivalTime, travelCost, distance, departTime) -> distance >= maxDistance);
 
@@ -82,9 +113,7 @@ public final class TravelTimeMatrices {
 			double time = currTime - departureTime;
 			neighborNodes.add(new NodeAndTime(toNodeIndex, time));
 		}
-
-		var sparseRow = new SparseRow(neighborNodes);
-		sparseMatrix.setRow(fromNode, sparseRow);
+		return neighborNodes;
 	}
 
 	private interface Calculation<E> {
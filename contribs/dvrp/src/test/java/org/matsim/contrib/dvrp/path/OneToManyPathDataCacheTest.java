@@ -0,0 +1,124 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.dvrp.path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.IdMap;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.contrib.dvrp.path.OneToManyPathSearch.PathData;
+import org.matsim.contrib.dvrp.router.TimeAsTravelDisutility;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.speedy.SpeedyGraph;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
+
+public class OneToManyPathDataCacheTest {
+	private final Network network = NetworkUtils.createNetwork();
+
+	private final Node nodeA = createAndAddNode("A", new Coord(0, 0));
+	private final Node nodeB = createAndAddNode("B", new Coord(150, 0));
+	private final Node nodeC = createAndAddNode("C", new Coord(300, 0));
+	private final Node nodeD = createAndAddNode("D", new Coord(450, 0));
+
+	private final Link linkAB = createAndAddLink("AB", nodeA, nodeB);
+	private final Link linkBC = createAndAddLink("BC", nodeB, nodeC);
+	private final Link linkCD = createAndAddLink("CD", nodeC, nodeD);
+
+	private final TravelTime travelTime = new FreeSpeedTravelTime();
+	private final AtomicLong version = new AtomicLong();
+
+	@Test
+	public void reuseWithinTimeBin() {
+		var cache = createCache(100);
+
+		var first = cache.calcPathDataMap(linkAB, List.of(linkAB, linkBC, linkCD), 10);
+		assertThat(first.get(linkAB)).isSameAs(PathData.EMPTY);
+		assertThat(cache.getHits()).isEqualTo(0);
+		assertThat(cache.getMisses()).isEqualTo(2);
+
+		// same time bin: no search needed, the same travel times and paths
+		var second = cache.calcPathDataMap(linkAB, List.of(linkBC, linkCD), 90);
+		assertThat(cache.getHits()).isEqualTo(2);
+		assertThat(cache.getMisses()).isEqualTo(2);
+		for (Link link : List.of(linkBC, linkCD)) {
+			assertThat(second.get(link).getTravelTime()).isEqualTo(first.get(link).getTravelTime());
+			assertThat(second.get(link).getPath().links).isEqualTo(first.get(link).getPath().links);
+		}
+		assertThat(second.get(linkCD).getPath().links).containsExactly(linkBC);
+
+		// next time bin
+		cache.calcPathDataMap(linkAB, List.of(linkCD), 110);
+		assertThat(cache.getMisses()).isEqualTo(3);
+	}
+
+	@Test
+	public void invalidatedWhenVersionChanges() {
+		var cache = createCache(100);
+		cache.calcPathDataMap(linkAB, List.of(linkCD), 0);
+		cache.calcPathDataMap(linkAB, List.of(linkCD), 0);
+		assertThat(cache.getHits()).isEqualTo(1);
+
+		version.incrementAndGet();
+		cache.calcPathDataMap(linkAB, List.of(linkCD), 0);
+		assertThat(cache.getHits()).isEqualTo(1);
+		assertThat(cache.getMisses()).isEqualTo(2);
+		assertThat(cache.getInvalidations()).isEqualTo(1);
+	}
+
+	@Test
+	public void leastRecentlyUsedEvicted() {
+		var cache = new OneToManyPathDataCache(createSearch(), createSearch(), true, 100, 1, version::get);
+		cache.calcPathDataMap(linkAB, List.of(linkBC), 0);
+		cache.calcPathDataMap(linkAB, List.of(linkCD), 0);// evicts linkBC
+
+		cache.calcPathDataMap(linkAB, List.of(linkCD), 0);
+		assertThat(cache.getHits()).isEqualTo(1);
+		cache.calcPathDataMap(linkAB, List.of(linkBC), 0);
+		assertThat(cache.getMisses()).isEqualTo(3);
+	}
+
+	private OneToManyPathDataCache createCache(double timeBinSize) {
+		return new OneToManyPathDataCache(createSearch(), createSearch(), true, timeBinSize, 1000, version::get);
+	}
+
+	private OneToManyPathSearch createSearch() {
+		IdMap<Node, Node> nodeMap = new IdMap<>(Node.class);
+		nodeMap.putAll(network.getNodes());
+		return OneToManyPathSearch.createSearch(new SpeedyGraph(network), nodeMap, travelTime,
+				new TimeAsTravelDisutility(travelTime), true);
+	}
+
+	private Node createAndAddNode(String id, Coord coord) {
+		return NetworkUtils.createAndAddNode(network, Id.createNodeId(id), coord);
+	}
+
+	private Link createAndAddLink(String id, Node fromNode, Node toNode) {
+		return NetworkUtils.createAndAddLink(network, Id.createLinkId(id), fromNode, toNode, 150, 15, 3600, 1);
+	}
+}
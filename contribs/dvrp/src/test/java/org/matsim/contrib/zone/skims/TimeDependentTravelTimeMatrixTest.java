@@ -0,0 +1,168 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.zone.skims;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class TimeDependentTravelTimeMatrixTest {
+	private static final int TRAVEL_TIME_BIN_SIZE = 900;
+
+	@Rule
+	public final MatsimTestUtils utils = new MatsimTestUtils();
+
+	private final Network network = NetworkUtils.createNetwork();
+	private final Node nodeA = NetworkUtils.createAndAddNode(network, Id.createNodeId("A"), new Coord(0, 0));
+	private final Node nodeB = NetworkUtils.createAndAddNode(network, Id.createNodeId("B"), new Coord(150, 150));
+	private final Node nodeC = NetworkUtils.createAndAddNode(network, Id.createNodeId("C"), new Coord(-10, -10));
+
+	// free speed until 1:00, then twice as long
+	private final TravelTime congestedTravelTime = (link, time, person, vehicle) -> (time < 3600 ? 1 : 2)
+			* link.getLength() / link.getFreespeed();
+
+	public TimeDependentTravelTimeMatrixTest() {
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("AB"), nodeA, nodeB, 150, 15, 20, 1);
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("BA"), nodeB, nodeA, 300, 15, 40, 1);
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("AC"), nodeA, nodeC, 165, 15, 20, 1);
+		NetworkUtils.createAndAddLink(network, Id.createLinkId("CA"), nodeC, nodeA, 135, 15, 20, 1);
+	}
+
+	@Test
+	public void matrix() {
+		var matrix = new TimeDependentTravelTimeMatrix(network, createParams(0, null), 1, congestedTravelTime, TRAVEL_TIME_BIN_SIZE);
+
+		assertThat(matrix.getTravelTime(nodeA, nodeA, 0)).isEqualTo(0);
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(10);
+		assertThat(matrix.getTravelTime(nodeB, nodeA, 3599)).isEqualTo(20);
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 3600)).isEqualTo(20);
+		assertThat(matrix.getTravelTime(nodeB, nodeA, 3600)).isEqualTo(40);
+
+		// before the first and after the last slice
+		assertThat(matrix.getTravelTime(nodeA, nodeB, -100)).isEqualTo(10);
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 100_000)).isEqualTo(20);
+
+		// non-central node: C and A are in the same zone; A is the central node
+		assertThat(matrix.getTravelTime(nodeB, nodeC, 0)).isEqualTo(20);
+		assertThat(matrix.getTravelTime(nodeB, nodeC, 7200)).isEqualTo(40);
+	}
+
+	@Test
+	public void sparseMatrix() {
+		var matrix = new TimeDependentTravelTimeMatrix(network, createParams(9999, null), 1, congestedTravelTime, TRAVEL_TIME_BIN_SIZE);
+
+		assertThat(matrix.getTravelTime(nodeA, nodeC, 0)).isEqualTo(11);
+		assertThat(matrix.getTravelTime(nodeC, nodeA, 0)).isEqualTo(9);
+		assertThat(matrix.getTravelTime(nodeB, nodeC, 0)).isEqualTo(20 + 11);
+		assertThat(matrix.getTravelTime(nodeC, nodeB, 0)).isEqualTo(9 + 10);
+
+		assertThat(matrix.getTravelTime(nodeA, nodeC, 3600)).isEqualTo(22);
+		assertThat(matrix.getTravelTime(nodeC, nodeA, 3600)).isEqualTo(18);
+		assertThat(matrix.getTravelTime(nodeB, nodeC, 3600)).isEqualTo(40 + 22);
+		assertThat(matrix.getTravelTime(nodeC, nodeB, 3600)).isEqualTo(18 + 20);
+	}
+
+	@Test
+	public void cache() {
+		String cacheDirectory = utils.getOutputDirectory() + "matrix_cache";
+		var computed = new TimeDependentTravelTimeMatrix(network, createParams(9999, cacheDirectory), 1, congestedTravelTime, TRAVEL_TIME_BIN_SIZE);
+		assertThat(new File(cacheDirectory).list()).hasSize(1);
+
+		var loaded = new TimeDependentTravelTimeMatrix(network, createParams(9999, cacheDirectory), 1, congestedTravelTime, TRAVEL_TIME_BIN_SIZE);
+		assertThat(new File(cacheDirectory).list()).hasSize(1);
+		for (Node from : network.getNodes().values()) {
+			for (Node to : network.getNodes().values()) {
+				for (double time : new double[] { 0, 3600 }) {
+					assertThat(loaded.getTravelTime(from, to, time)).isEqualTo(computed.getTravelTime(from, to, time));
+				}
+			}
+		}
+
+		// different travel times: not taken from the cache
+		TravelTime freeSpeedTravelTime = (link, time, person, vehicle) -> link.getLength() / link.getFreespeed();
+		var freeSpeed = new TimeDependentTravelTimeMatrix(network, createParams(9999, cacheDirectory), 1, freeSpeedTravelTime, TRAVEL_TIME_BIN_SIZE);
+		assertThat(new File(cacheDirectory).list()).hasSize(2);
+		assertThat(freeSpeed.getTravelTime(nodeB, nodeC, 3600)).isEqualTo(20 + 11);
+
+		// same travel times at the beginning of each slice, but not within the first slice: not taken from the cache
+		TravelTime midSliceTravelTime = (link, time, person, vehicle) -> (time < 1800 ? 1 : 2)
+				* link.getLength() / link.getFreespeed();
+		new TimeDependentTravelTimeMatrix(network, createParams(9999, cacheDirectory), 1, midSliceTravelTime,
+				TRAVEL_TIME_BIN_SIZE);
+		assertThat(new File(cacheDirectory).list()).hasSize(3);
+	}
+
+	@Test
+	public void updatesNotStoredInCache() {
+		String cacheDirectory = utils.getOutputDirectory() + "matrix_cache";
+		double[] factor = { 1 };
+		TravelTime travelTime = (link, time, person, vehicle) -> factor[0] * link.getLength() / link.getFreespeed();
+		var matrix = new TimeDependentTravelTimeMatrix(network, createParams(9999, cacheDirectory), 1, travelTime,
+				TRAVEL_TIME_BIN_SIZE);
+		assertThat(new File(cacheDirectory).list()).hasSize(1);
+
+		factor[0] = 3;
+		matrix.update();
+		assertThat(matrix.getTravelTime(nodeB, nodeC, 3600)).isEqualTo(3 * (20 + 11));
+		assertThat(new File(cacheDirectory).list()).hasSize(1);
+
+		// back to the initial travel times: read from the cache
+		factor[0] = 1;
+		matrix.update();
+		assertThat(matrix.getTravelTime(nodeB, nodeC, 3600)).isEqualTo(20 + 11);
+		assertThat(new File(cacheDirectory).list()).hasSize(1);
+	}
+
+	@Test
+	public void update() {
+		double[] factor = { 1 };
+		TravelTime travelTime = (link, time, person, vehicle) -> factor[0] * link.getLength() / link.getFreespeed();
+		var matrix = new TimeDependentTravelTimeMatrix(network, createParams(9999, null), 1, travelTime, TRAVEL_TIME_BIN_SIZE);
+		assertThat(matrix.getTravelTime(nodeB, nodeC, 3600)).isEqualTo(20 + 11);
+
+		// e.g. estimated travel times updated after an iteration
+		factor[0] = 3;
+		assertThat(matrix.getTravelTime(nodeB, nodeC, 3600)).isEqualTo(20 + 11);
+		matrix.update();
+		assertThat(matrix.getTravelTime(nodeB, nodeC, 3600)).isEqualTo(3 * (20 + 11));
+		assertThat(matrix.getTravelTime(nodeA, nodeB, 0)).isEqualTo(3 * 10);
+	}
+
+	private static DvrpTravelTimeMatrixParams createParams(int maxNeighborDistance, String cacheDirectory) {
+		DvrpTravelTimeMatrixParams params = new DvrpTravelTimeMatrixParams();
+		params.cellSize = 100;
+		params.maxNeighborDistance = maxNeighborDistance;
+		params.numberOfTimeSlices = 2;
+		params.timeSliceSize = 3600;
+		params.cacheDirectory = cacheDirectory;
+		return params;
+	}
+}
@@ -0,0 +1,191 @@
+package ch.sbb.matsim.routing.pt.raptor;
+
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RRouteStop;
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RTransfer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.pt.transitSchedule.api.Departure;
+import org.matsim.pt.transitSchedule.api.MinimalTransferTimes;
+import org.matsim.pt.transitSchedule.api.TransitSchedule;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Stores the transfers between route stops of {@link SwissRailRaptorData} in a binary file, so they do not have to be
+ * calculated again at every start.  Calculating the transfers is by far the most expensive part of preparing the data
+ * for large schedules, while all the other data can be derived from the schedule in linear time.
+ *
+ * The name of the file contains a hash of everything the transfers depend on: the route stops in the order in which
+ * {@link SwissRailRaptorData} enumerates them, their stop facilities and coordinates, the first and last departures of the
+ * routes, the minimal transfer times and the relevant values of the {@link RaptorStaticConfig}.  A changed schedule or
+ * config thus results in a different file and the transfers are calculated again.
+ *
+ * This is a plain on-disk cache: the transfers are read into the usual {@link RTransfer} objects on the heap, so every
+ * JVM still holds its own copy of them, only their calculation is saved.  Files are written to a temporary file first and then moved to their final name, so a concurrently starting JVM never
+ * sees an incomplete file.
+ *
+ * File format (big endian): magic, version, number of route stops, number of transfers, then 4 ints per transfer
+ * (from route stop, to route stop, transfer time, transfer distance), sorted by the from route stop.
+ */
+final class RaptorTransferCache {
+
+	private static final Logger log = LogManager.getLogger(RaptorTransferCache.class);
+
+	private static final int MAGIC = 0x53525254; // "SRRT"
+	private static final int VERSION = 1;
+	private static final int HEADER_INTS = 4;
+
+	private RaptorTransferCache() {
+	}
+
+	static Path getCacheFile(String directory, TransitSchedule schedule, RRouteStop[] routeStops, RaptorStaticConfig config) {
+		return Path.of(directory, "raptorTransfers-v" + VERSION + "-" + computeHash(schedule, routeStops, config) + ".bin");
+	}
+
+	/**
+	 * @return the transfers stored in the file, or <code>null</code> if the file does not exist or cannot be used.
+	 */
+	static RTransfer[] read(Path file, int countRouteStops) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			long size = Files.size(file);
+			if (size < HEADER_INTS * 4L) {
+				log.warn("Ignoring the transfer cache file " + file + ", it is too short.");
+				return null;
+			}
+			int magic = in.readInt();
+			int version = in.readInt();
+			int fileRouteStops = in.readInt();
+			int countTransfers = in.readInt();
+			if (magic != MAGIC || version != VERSION || fileRouteStops != countRouteStops || countTransfers < 0
+					|| size != (HEADER_INTS + 4L * countTransfers) * 4L) {
+				log.warn("Ignoring the transfer cache file " + file + ", it does not match the schedule.");
+				return null;
+			}
+			RTransfer[] transfers = new RTransfer[countTransfers];
+			int lastFromRouteStop = 0;
+			for (int i = 0; i < countTransfers; i++) {
+				int fromRouteStop = in.readInt();
+				int toRouteStop = in.readInt();
+				int transferTime = in.readInt();
+				int transferDistance = in.readInt();
+				if (fromRouteStop < lastFromRouteStop || fromRouteStop >= countRouteStops || toRouteStop < 0 || toRouteStop >= countRouteStops) {
+					log.warn("Ignoring the transfer cache file " + file + ", it contains invalid transfers.");
+					return null;
+				}
+				lastFromRouteStop = fromRouteStop;
+				transfers[i] = new RTransfer(fromRouteStop, toRouteStop, transferTime, transferDistance);
+			}
+			log.info("Read " + countTransfers + " transfers from the cache file " + file);
+			return transfers;
+		} catch (IOException e) {
+			log.warn("Could not read the transfer cache file " + file + ", the transfers will be calculated.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the transfers to the file.  Failures are only logged, as the cache is not required to run.
+	 */
+	static void write(Path file, int countRouteStops, RTransfer[] transfers) {
+		try {
+			Path directory = file.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			Path tmpFile = Files.createTempFile(directory, "raptorTransfers", ".tmp");
+			try {
+				try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+					ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+					buffer.putInt(MAGIC).putInt(VERSION).putInt(countRouteStops).putInt(transfers.length);
+					for (RTransfer transfer : transfers) {
+						if (buffer.remaining() < 16) {
+							flush(channel, buffer);
+						}
+						buffer.putInt(transfer.fromRouteStop).putInt(transfer.toRouteStop).putInt(transfer.transferTime).putInt(transfer.transferDistance);
+					}
+					flush(channel, buffer);
+				}
+				Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				log.info("Wrote " + transfers.length + " transfers to the cache file " + file);
+			} finally {
+				Files.deleteIfExists(tmpFile);
+			}
+		} catch (IOException | UncheckedIOException e) {
+			log.warn("Could not write the transfer cache file " + file, e);
+		}
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private static String computeHash(TransitSchedule schedule, RRouteStop[] routeStops, RaptorStaticConfig config) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+		try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+			out.writeDouble(config.getBeelineWalkConnectionDistance());
+			out.writeDouble(config.getBeelineWalkSpeed());
+			out.writeDouble(config.getBeelineWalkDistanceFactor());
+			out.writeDouble(config.getMinimalTransferTime());
+			out.writeUTF(config.getOptimization().name());
+
+			out.writeInt(routeStops.length);
+			for (RRouteStop routeStop : routeStops) {
+				TransitStopFacility stop = routeStop.routeStop.getStopFacility();
+				out.writeUTF(routeStop.line.getId().toString());
+				out.writeUTF(routeStop.route.getId().toString());
+				out.writeUTF(stop.getId().toString());
+				out.writeDouble(stop.getCoord().getX());
+				out.writeDouble(stop.getCoord().getY());
+				out.writeInt(routeStop.arrivalOffset);
+				out.writeInt(routeStop.departureOffset);
+				double earliest = Double.POSITIVE_INFINITY;
+				double latest = Double.NEGATIVE_INFINITY;
+				for (Departure departure : routeStop.route.getDepartures().values()) {
+					earliest = Math.min(earliest, departure.getDepartureTime());
+					latest = Math.max(latest, departure.getDepartureTime());
+				}
+				out.writeDouble(earliest);
+				out.writeDouble(latest);
+			}
+
+			MinimalTransferTimes.MinimalTransferTimesIterator iter = schedule.getMinimalTransferTimes().iterator();
+			while (iter.hasNext()) {
+				out.writeDouble(iter.next());
+				out.writeUTF(iter.getFromStopId().toString());
+				out.writeUTF(iter.getToStopId().toString());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+}
@@ -56,6 +56,7 @@ public final class RaptorUtils {
             }
         }
         staticConfig.setUseCapacityConstraints(srrConfig.isUseCapacityConstraints());
+        staticConfig.setTransferCacheDirectory(srrConfig.getTransferCacheDirectory());
 
         return staticConfig;
     }
@@ -241,6 +241,15 @@ public class SwissRailRaptor implements TransitRouter {
         return this.calcLeastCostTree(accessStops, departureTime, parameters, person);
     }
 
+    /**
+     * Calculates the earliest arrivals at all stops for all departures within the time window, see
+     * {@link SwissRailRaptorCore#calcProfile(double, double, List, int)}. To calculate the profiles of many origins in
+     * parallel, see {@link SwissRailRaptorProfiles}.
+     */
+    public Map<Id<TransitStopFacility>, List<SwissRailRaptorCore.ProfileEntry>> calcProfile(List<InitialStop> fromStops, double earliestDepartureTime, double latestDepartureTime, int maxTransfers) {
+        return this.raptor.calcProfile(earliestDepartureTime, latestDepartureTime, fromStops, maxTransfers);
+    }
+
     private Map<Id<TransitStopFacility>, SwissRailRaptorCore.TravelInfo> calcLeastCostTree(Collection<InitialStop> accessStops, double departureTime, RaptorParameters parameters, Person person) {
         return this.raptor.calcLeastCostTree(departureTime, accessStops, parameters, person);
     }
@@ -13,6 +13,7 @@ import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorData.RTransfer;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.TransportMode;
 import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.utils.misc.Time;
 import org.matsim.facilities.Facility;
 import org.matsim.pt.transitSchedule.api.Departure;
 import org.matsim.pt.transitSchedule.api.TransitLine;
@@ -24,6 +25,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -58,6 +61,17 @@ public class SwissRailRaptorCore {
     private final RouteSegmentIteratorImpl routeSegmentIterator;
 
     private final static int TIME_UNDEFINED = Integer.MIN_VALUE;
+    private final static int TIME_UNREACHED = Integer.MAX_VALUE;
+
+    // only used for profile queries, allocated on first use. All arrays are indexed by round * count + index
+    private int profileRounds = -1;
+    private int[] profileArrivalTimes; // per route stop, arrival by vehicle with at most "round" trips
+    private int[] profileArrivalOrigins;
+    private int[] profileBoardingTimes; // per route stop, earliest time to board with at most "round" trips done before
+    private int[] profileBoardingOrigins;
+    private int[] profileStopArrivalTimes; // per stop facility, arrival by vehicle with at most "round" trips
+    private int[] profileStopArrivalOrigins;
+    private BitSet[] profileImprovedStops;
 
     SwissRailRaptorCore(SwissRailRaptorData data, RaptorInVehicleCostCalculator inVehicleCostCalculator, RaptorTransferCostCalculator transferCostCalculator) {
         this.data = data;
@@ -534,6 +548,214 @@ public class SwissRailRaptorCore {
         return result;
     }
 
+    /**
+     * Calculates a profile with range RAPTOR (rRAPTOR, see Delling et al., Round-Based Public Transit Routing): for every
+     * departure within the time window, and for every stop, the journeys with the earliest arrival time and with the
+     * least number of transfers, in one pass.
+     *
+     * The departures at the start stops are processed from the latest to the earliest, and the arrival times found
+     * for later departures are kept as upper bounds for the earlier ones. Each departure thus only explores the
+     * connections which are actually faster than waiting for a later departure, instead of the whole network again.
+     *
+     * In contrast to {@link #calcLeastCostTree(double, Collection, RaptorParameters, Person)}, the criteria are the
+     * departure time, arrival time and number of transfers instead of the generalized cost, and capacity constraints
+     * are not taken into account. Stops are only reached by vehicle, walking to other stops at the end of the journey
+     * is up to the caller, as is walking to all potential start stops at the beginning.
+     *
+     * @return for every reached stop, its Pareto set of journeys, sorted by departure time and number of transfers.
+     */
+    public Map<Id<TransitStopFacility>, List<ProfileEntry>> calcProfile(double earliestDepTime, double latestDepTime, List<InitialStop> startStops, int maxTransfers) {
+        int maxRounds = maxTransfers + 1;
+        prepareProfile(maxRounds);
+        int countRouteStops = this.data.countRouteStops;
+        int countStops = this.data.countStops;
+
+        // collect the departure times at the origin, i.e. the vehicle departures at the start stops minus the access time
+        int[] accessTimes = new int[startStops.size()];
+        int[] departureTimes = new int[16];
+        int countDepartureTimes = 0;
+        for (int startIndex = 0; startIndex < startStops.size(); startIndex++) {
+            InitialStop stop = startStops.get(startIndex);
+            accessTimes[startIndex] = (int) Math.ceil(stop.accessTime);
+            int[] routeStopIndices = this.data.routeStopsPerStopFacility.get(stop.stop);
+            if (routeStopIndices == null) {
+                continue;
+            }
+            for (int routeStopIndex : routeStopIndices) {
+                RRouteStop routeStop = this.data.routeStops[routeStopIndex];
+                RRoute route = this.data.routes[routeStop.transitRouteIndex];
+                for (int departureIndex = route.indexFirstDeparture; departureIndex < route.indexFirstDeparture + route.countDepartures; departureIndex++) {
+                    int depTime = this.data.departures[departureIndex] + routeStop.departureOffset - accessTimes[startIndex];
+                    if (depTime >= earliestDepTime && depTime <= latestDepTime) {
+                        if (countDepartureTimes == departureTimes.length) {
+                            departureTimes = Arrays.copyOf(departureTimes, countDepartureTimes * 2);
+                        }
+                        departureTimes[countDepartureTimes++] = depTime;
+                    }
+                }
+            }
+        }
+        Arrays.sort(departureTimes, 0, countDepartureTimes);
+
+        List<List<ProfileEntry>> entriesPerStop = new ArrayList<>(Collections.nCopies(countStops, null));
+        BitSet markedRouteStops = new BitSet(countRouteStops);
+        BitSet arrivedRouteStops = new BitSet(countRouteStops);
+
+        for (int i = countDepartureTimes - 1; i >= 0; i--) {
+            int depTime = departureTimes[i];
+            if (i < countDepartureTimes - 1 && departureTimes[i + 1] == depTime) {
+                continue; // already handled
+            }
+
+            // all start stops can be reached with this departure time
+            markedRouteStops.clear();
+            for (int startIndex = 0; startIndex < startStops.size(); startIndex++) {
+                int[] routeStopIndices = this.data.routeStopsPerStopFacility.get(startStops.get(startIndex).stop);
+                if (routeStopIndices != null) {
+                    int time = depTime + accessTimes[startIndex];
+                    for (int routeStopIndex : routeStopIndices) {
+                        if (improveProfileTime(this.profileBoardingTimes, this.profileBoardingOrigins, countRouteStops, 0, routeStopIndex, time, startIndex)) {
+                            markedRouteStops.set(routeStopIndex);
+                        }
+                    }
+                }
+            }
+
+            for (int round = 1; round <= maxRounds && !markedRouteStops.isEmpty(); round++) {
+                exploreRoutesForProfile(round, markedRouteStops, arrivedRouteStops);
+                markedRouteStops.clear();
+                handleTransfersForProfile(round, arrivedRouteStops, markedRouteStops);
+            }
+
+            // record the journeys of this departure time which are not dominated by later departures or by fewer transfers
+            for (int round = 1; round <= maxRounds; round++) {
+                BitSet improvedStops = this.profileImprovedStops[round];
+                for (int stopIndex = improvedStops.nextSetBit(0); stopIndex >= 0; stopIndex = improvedStops.nextSetBit(stopIndex + 1)) {
+                    int index = round * countStops + stopIndex;
+                    int arrivalTime = this.profileStopArrivalTimes[index];
+                    if (arrivalTime < this.profileStopArrivalTimes[index - countStops]) {
+                        List<ProfileEntry> entries = entriesPerStop.get(stopIndex);
+                        if (entries == null) {
+                            entries = new ArrayList<>();
+                            entriesPerStop.set(stopIndex, entries);
+                        }
+                        Id<TransitStopFacility> departureStop = startStops.get(this.profileStopArrivalOrigins[index]).stop.getId();
+                        entries.add(new ProfileEntry(departureStop, depTime, arrivalTime, round - 1));
+                    }
+                }
+                improvedStops.clear();
+            }
+        }
+
+        Map<Id<TransitStopFacility>, List<ProfileEntry>> result = new HashMap<>();
+        for (Map.Entry<TransitStopFacility, Integer> e : this.data.stopFacilityIndices.entrySet()) {
+            List<ProfileEntry> entries = entriesPerStop.get(e.getValue());
+            if (entries != null) {
+                entries.sort(Comparator.comparingInt((ProfileEntry entry) -> entry.departureTime).thenComparingInt(entry -> entry.transferCount));
+                result.put(e.getKey().getId(), entries);
+            }
+        }
+        return result;
+    }
+
+    private void prepareProfile(int maxRounds) {
+        int countRouteStops = this.data.countRouteStops;
+        int countStops = this.data.countStops;
+        if (this.profileRounds != maxRounds) {
+            this.profileRounds = maxRounds;
+            this.profileArrivalTimes = new int[(maxRounds + 1) * countRouteStops];
+            this.profileArrivalOrigins = new int[(maxRounds + 1) * countRouteStops];
+            this.profileBoardingTimes = new int[(maxRounds + 1) * countRouteStops];
+            this.profileBoardingOrigins = new int[(maxRounds + 1) * countRouteStops];
+            this.profileStopArrivalTimes = new int[(maxRounds + 1) * countStops];
+            this.profileStopArrivalOrigins = new int[(maxRounds + 1) * countStops];
+            this.profileImprovedStops = new BitSet[maxRounds + 1];
+            for (int round = 0; round <= maxRounds; round++) {
+                this.profileImprovedStops[round] = new BitSet(countStops);
+            }
+        }
+        Arrays.fill(this.profileArrivalTimes, TIME_UNREACHED);
+        Arrays.fill(this.profileBoardingTimes, TIME_UNREACHED);
+        Arrays.fill(this.profileStopArrivalTimes, TIME_UNREACHED);
+        for (BitSet improvedStops : this.profileImprovedStops) {
+            improvedStops.clear();
+        }
+    }
+
+    /**
+     * The times are stored as "at most <code>round</code> trips", so an improvement is also one for all later rounds.
+     */
+    private boolean improveProfileTime(int[] times, int[] origins, int count, int round, int index, int time, int origin) {
+        if (time >= times[round * count + index]) {
+            return false;
+        }
+        for (int r = round; r <= this.profileRounds; r++) {
+            int i = r * count + index;
+            if (time >= times[i]) {
+                break;
+            }
+            times[i] = time;
+            origins[i] = origin;
+        }
+        return true;
+    }
+
+    private void exploreRoutesForProfile(int round, BitSet markedRouteStops, BitSet arrivedRouteStops) {
+        int countRouteStops = this.data.countRouteStops;
+        int previousRoundOffset = (round - 1) * countRouteStops;
+        arrivedRouteStops.clear();
+
+        for (int firstRouteStopIndex = markedRouteStops.nextSetBit(0); firstRouteStopIndex >= 0; firstRouteStopIndex = markedRouteStops.nextSetBit(firstRouteStopIndex + 1)) {
+            RRouteStop firstRouteStop = this.data.routeStops[firstRouteStopIndex];
+            RRoute route = this.data.routes[firstRouteStop.transitRouteIndex];
+            int lastRouteStopIndex = route.indexFirstRouteStop + route.countRouteStops - 1;
+
+            int currentDepartureIndex = -1;
+            int currentOrigin = -1;
+            for (int routeStopIndex = firstRouteStopIndex; routeStopIndex <= lastRouteStopIndex; routeStopIndex++) {
+                RRouteStop routeStop = this.data.routeStops[routeStopIndex];
+                if (currentDepartureIndex >= 0) {
+                    int arrivalTime = this.data.departures[currentDepartureIndex] + routeStop.arrivalOffset;
+                    if (improveProfileTime(this.profileArrivalTimes, this.profileArrivalOrigins, countRouteStops, round, routeStopIndex, arrivalTime, currentOrigin)) {
+                        arrivedRouteStops.set(routeStopIndex);
+                        if (improveProfileTime(this.profileStopArrivalTimes, this.profileStopArrivalOrigins, this.data.countStops, round, routeStop.stopFacilityIndex, arrivalTime, currentOrigin)) {
+                            this.profileImprovedStops[round].set(routeStop.stopFacilityIndex);
+                        }
+                    }
+                }
+                // check if we can catch an earlier departure at this stop
+                int boardingTime = this.profileBoardingTimes[previousRoundOffset + routeStopIndex];
+                if (boardingTime != TIME_UNREACHED && routeStopIndex < lastRouteStopIndex
+                        && (currentDepartureIndex < 0 || boardingTime <= this.data.departures[currentDepartureIndex] + routeStop.departureOffset)) {
+                    int departureIndex = findNextScheduledDepartureIndex(route, routeStop, boardingTime);
+                    if (departureIndex >= 0 && departureIndex != currentDepartureIndex) {
+                        currentDepartureIndex = departureIndex;
+                        currentOrigin = this.profileBoardingOrigins[previousRoundOffset + routeStopIndex];
+                    }
+                }
+            }
+            firstRouteStopIndex = lastRouteStopIndex; // we've handled this route
+        }
+    }
+
+    private void handleTransfersForProfile(int round, BitSet arrivedRouteStops, BitSet markedRouteStops) {
+        int countRouteStops = this.data.countRouteStops;
+        for (int fromRouteStopIndex = arrivedRouteStops.nextSetBit(0); fromRouteStopIndex >= 0; fromRouteStopIndex = arrivedRouteStops.nextSetBit(fromRouteStopIndex + 1)) {
+            RRouteStop fromRouteStop = this.data.routeStops[fromRouteStopIndex];
+            int index = round * countRouteStops + fromRouteStopIndex;
+            int arrivalTime = this.profileArrivalTimes[index];
+            int origin = this.profileArrivalOrigins[index];
+            int firstTransferIndex = fromRouteStop.indexFirstTransfer;
+            int lastTransferIndex = firstTransferIndex + fromRouteStop.countTransfers;
+            for (int transferIndex = firstTransferIndex; transferIndex < lastTransferIndex; transferIndex++) {
+                RTransfer transfer = this.data.transfers[transferIndex];
+                if (improveProfileTime(this.profileBoardingTimes, this.profileBoardingOrigins, countRouteStops, round, transfer.toRouteStop, arrivalTime + transfer.transferTime, origin)) {
+                    markedRouteStops.set(transfer.toRouteStop);
+                }
+            }
+        }
+    }
+
     private TravelInfo getTravelInfo(PathElement destination, RaptorParameters parameters) {
         PathElement firstStage = destination;
         PathElement secondStage = null;
@@ -694,6 +916,10 @@ public class SwissRailRaptorCore {
         if (this.useCapacityConstraints) {
             return findNextDepartureIndexWithConstraints(route, routeStop, time);
         }
+        return findNextScheduledDepartureIndex(route, routeStop, time);
+    }
+
+    private int findNextScheduledDepartureIndex(RRoute route, RRouteStop routeStop, int time) {
         int depTimeAtRouteStart = (int) (time - routeStop.departureOffset);
         int fromIndex = route.indexFirstDeparture;
         int toIndex = fromIndex + route.countDepartures;
@@ -967,6 +1193,32 @@ public class SwissRailRaptorCore {
         }
     }
 
+    /**
+     * One journey of a profile, see {@link #calcProfile(double, double, List, int)}.
+     */
+    public static final class ProfileEntry {
+        /** The stop where the first pt vehicle is boarded */
+        public final Id<TransitStopFacility> departureStop;
+        /** The departure time at the origin, i.e. the departure time of the first pt vehicle minus the access time to the departure stop */
+        public final int departureTime;
+        /** The arrival time at the stop, by pt vehicle */
+        public final int arrivalTime;
+        public final int transferCount;
+
+        ProfileEntry(Id<TransitStopFacility> departureStop, int departureTime, int arrivalTime, int transferCount) {
+            this.departureStop = departureStop;
+            this.departureTime = departureTime;
+            this.arrivalTime = arrivalTime;
+            this.transferCount = transferCount;
+        }
+
+        @Override
+        public String toString() {
+            return "[ProfileEntry: departureStop=" + this.departureStop + " departureTime=" + Time.writeTime(this.departureTime)
+                    + " arrivalTime=" + Time.writeTime(this.arrivalTime) + " transferCount=" + this.transferCount + "]";
+        }
+    }
+
     private static class RouteSegmentIteratorImpl implements RouteSegmentIterator {
 
         SwissRailRaptorData data;
@@ -26,6 +26,7 @@ import org.matsim.vehicles.Vehicle;
 import org.matsim.vehicles.Vehicles;
 
 import javax.annotation.Nullable;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -184,26 +185,25 @@ public class SwissRailRaptorData {
         QuadTree<TransitStopFacility> stopsQT = TransitScheduleUtils.createQuadTreeOfTransitStopFacilities(stops);
         int countStopFacilities = stops.size();
 
-        Map<Integer, RTransfer[]> allTransfers = calculateRouteStopTransfers(schedule, stopsQT, routeStopsPerStopFacility, routeStops, staticConfig);
-        long countTransfers = 0;
-        for (RTransfer[] transfers : allTransfers.values()) {
-            countTransfers += transfers.length;
+        RTransfer[] transfers = null;
+        Path transferCacheFile = null;
+        if (staticConfig.getTransferCacheDirectory() != null) {
+            transferCacheFile = RaptorTransferCache.getCacheFile(staticConfig.getTransferCacheDirectory(), schedule, routeStops, staticConfig);
+            transfers = RaptorTransferCache.read(transferCacheFile, routeStops.length);
         }
-        if (countTransfers > Integer.MAX_VALUE) {
-            throw new RuntimeException("TransitSchedule has too many Transfers: " + countTransfers);
+        if (transfers == null) {
+            transfers = calculateTransfers(schedule, stopsQT, routeStopsPerStopFacility, routeStops, staticConfig);
+            if (transferCacheFile != null) {
+                RaptorTransferCache.write(transferCacheFile, routeStops.length, transfers);
+            }
         }
-        RTransfer[] transfers = new RTransfer[(int) countTransfers];
-        int indexTransfer = 0;
-        for (int routeStopIndex = 0; routeStopIndex < routeStops.length; routeStopIndex++) {
-            RTransfer[] stopTransfers = allTransfers.get(routeStopIndex);
-            int transferCount = stopTransfers == null ? 0 : stopTransfers.length;
-            if (transferCount > 0) {
-                RRouteStop routeStop = routeStops[routeStopIndex];
+        // the transfers are sorted by their fromRouteStop
+        for (int indexTransfer = 0; indexTransfer < transfers.length; indexTransfer++) {
+            RRouteStop routeStop = routeStops[transfers[indexTransfer].fromRouteStop];
+            if (routeStop.countTransfers == 0) {
                 routeStop.indexFirstTransfer = indexTransfer;
-                routeStop.countTransfers = transferCount;
-                System.arraycopy(stopTransfers, 0, transfers, indexTransfer, transferCount);
-                indexTransfer += transferCount;
             }
+            routeStop.countTransfers++;
         }
 
         SwissRailRaptorData data = new SwissRailRaptorData(staticConfig, countStopFacilities, routes, departures, departureVehicles, departureIds, routeStops, transfers, stopFacilityIndices, routeStopsPerStopFacility, stopsQT, occupancyData);
@@ -218,6 +218,28 @@ public class SwissRailRaptorData {
         return data;
     }
 
+    // calculate possible transfers between TransitRouteStops, sorted by their fromRouteStop
+    private static RTransfer[] calculateTransfers(TransitSchedule schedule, QuadTree<TransitStopFacility> stopsQT, Map<TransitStopFacility, int[]> routeStopsPerStopFacility, RRouteStop[] routeStops, RaptorStaticConfig config) {
+        Map<Integer, RTransfer[]> allTransfers = calculateRouteStopTransfers(schedule, stopsQT, routeStopsPerStopFacility, routeStops, config);
+        long countTransfers = 0;
+        for (RTransfer[] transfers : allTransfers.values()) {
+            countTransfers += transfers.length;
+        }
+        if (countTransfers > Integer.MAX_VALUE) {
+            throw new RuntimeException("TransitSchedule has too many Transfers: " + countTransfers);
+        }
+        RTransfer[] transfers = new RTransfer[(int) countTransfers];
+        int indexTransfer = 0;
+        for (int routeStopIndex = 0; routeStopIndex < routeStops.length; routeStopIndex++) {
+            RTransfer[] stopTransfers = allTransfers.get(routeStopIndex);
+            if (stopTransfers != null) {
+                System.arraycopy(stopTransfers, 0, transfers, indexTransfer, stopTransfers.length);
+                indexTransfer += stopTransfers.length;
+            }
+        }
+        return transfers;
+    }
+
     // calculate possible transfers between TransitRouteStops
     private static Map<Integer, RTransfer[]> calculateRouteStopTransfers(TransitSchedule schedule, QuadTree<TransitStopFacility> stopsQT, Map<TransitStopFacility, int[]> routeStopsPerStopFacility, RRouteStop[] routeStops, RaptorStaticConfig config) {
         Map<Integer, RTransfer[]> transfers = new HashMap<>(stopsQT.size() * 5);
@@ -0,0 +1,97 @@
+package ch.sbb.matsim.routing.pt.raptor;
+
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorCore.ProfileEntry;
+import org.matsim.api.core.v01.Id;
+import org.matsim.core.utils.misc.Counter;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+
+/**
+ * Calculates the profiles (see {@link SwissRailRaptorCore#calcProfile(double, double, List, int)}) of many origins in
+ * parallel, e.g. for the calculation of skim matrices. Each origin is described by the stops which can be reached from
+ * it, with their access times. Every thread uses its own {@link SwissRailRaptorCore}, all share the same
+ * {@link SwissRailRaptorData}.
+ */
+public final class SwissRailRaptorProfiles {
+
+	private SwissRailRaptorProfiles() {
+	}
+
+	/**
+	 * The consumer is called once for every origin, from the worker threads, so it must be thread-safe.
+	 */
+	public static <T> void calcProfiles(SwissRailRaptorData data, Map<T, List<InitialStop>> startStopsPerOrigin, double earliestDepartureTime, double latestDepartureTime,
+			int maxTransfers, int numberOfThreads, BiConsumer<T, Map<Id<TransitStopFacility>, List<ProfileEntry>>> consumer) {
+		ConcurrentLinkedQueue<T> origins = new ConcurrentLinkedQueue<>(startStopsPerOrigin.keySet());
+		Counter counter = new Counter("SwissRailRaptor profile origin # ", " / " + startStopsPerOrigin.size());
+		ProfileWorker<?>[] workers = new ProfileWorker[numberOfThreads];
+		Thread[] threads = new Thread[numberOfThreads];
+		for (int i = 0; i < numberOfThreads; i++) {
+			SwissRailRaptorCore raptor = new SwissRailRaptorCore(data, new DefaultRaptorInVehicleCostCalculator(), new DefaultRaptorTransferCostCalculator());
+			ProfileWorker<T> worker = new ProfileWorker<>(raptor, origins, startStopsPerOrigin, earliestDepartureTime, latestDepartureTime, maxTransfers, consumer, counter);
+			workers[i] = worker;
+			threads[i] = new Thread(worker, "SwissRailRaptorProfiles-" + i);
+			threads[i].start();
+		}
+
+		// wait until all threads have finished
+		for (Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+		counter.printCounter();
+		for (ProfileWorker<?> worker : workers) {
+			if (worker.exception != null) {
+				throw new RuntimeException("Calculating the profiles failed.", worker.exception);
+			}
+		}
+	}
+
+	private static class ProfileWorker<T> implements Runnable {
+
+		private final SwissRailRaptorCore raptor;
+		private final ConcurrentLinkedQueue<T> origins;
+		private final Map<T, List<InitialStop>> startStopsPerOrigin;
+		private final double earliestDepartureTime;
+		private final double latestDepartureTime;
+		private final int maxTransfers;
+		private final BiConsumer<T, Map<Id<TransitStopFacility>, List<ProfileEntry>>> consumer;
+		private final Counter counter;
+		private Throwable exception = null;
+
+		ProfileWorker(SwissRailRaptorCore raptor, ConcurrentLinkedQueue<T> origins, Map<T, List<InitialStop>> startStopsPerOrigin, double earliestDepartureTime,
+				double latestDepartureTime, int maxTransfers, BiConsumer<T, Map<Id<TransitStopFacility>, List<ProfileEntry>>> consumer, Counter counter) {
+			this.raptor = raptor;
+			this.origins = origins;
+			this.startStopsPerOrigin = startStopsPerOrigin;
+			this.earliestDepartureTime = earliestDepartureTime;
+			this.latestDepartureTime = latestDepartureTime;
+			this.maxTransfers = maxTransfers;
+			this.consumer = consumer;
+			this.counter = counter;
+		}
+
+		@Override
+		public void run() {
+			try {
+				T origin;
+				while ((origin = this.origins.poll()) != null) {
+					this.counter.incCounter();
+					List<InitialStop> startStops = this.startStopsPerOrigin.get(origin);
+					Map<Id<TransitStopFacility>, List<ProfileEntry>> profile = this.raptor.calcProfile(this.earliestDepartureTime, this.latestDepartureTime, startStops, this.maxTransfers);
+					this.consumer.accept(origin, profile);
+				}
+			} catch (Throwable t) {
+				this.exception = t;
+				this.origins.clear(); // let the other threads stop early
+			}
+		}
+	}
+}
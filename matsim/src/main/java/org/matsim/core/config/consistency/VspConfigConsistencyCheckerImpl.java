@@ -401,6 +401,7 @@ public final class VspConfigConsistencyCheckerImpl implements ConfigConsistencyC
 			case AStarLandmarks:
 			case FastDijkstra:
 			case FastAStarLandmarks:
+			case CCH:
 				log.log( lvl, "you are not using SpeedyALT as routing algorithm.  vsp default (since may'21) is to use SpeedeALT.") ;
 				System.out.flush();
 				break;
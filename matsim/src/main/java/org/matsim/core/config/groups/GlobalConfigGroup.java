@@ -39,6 +39,8 @@ public final class GlobalConfigGroup extends ReflectiveConfigGroup {
 	@Override public Map<String, String> getComments() {
 		Map<String,String> map = super.getComments();
 		map.put(NUMBER_OF_THREADS, NUMBER_OF_THREADS_CMT ) ;
+		map.put(DYNAMIC_PLAN_DISTRIBUTION, DYNAMIC_PLAN_DISTRIBUTION_CMT ) ;
+		map.put(PARALLEL_STRATEGY_SELECTION, PARALLEL_STRATEGY_SELECTION_CMT ) ;
 		return map ;
 	}
 
@@ -94,6 +96,47 @@ public final class GlobalConfigGroup extends ReflectiveConfigGroup {
 		this.numberOfThreads = numberOfThreads;
 	}
 	// ---
+	private boolean dynamicPlanDistribution = false;
+	private static final String DYNAMIC_PLAN_DISTRIBUTION = "dynamicPlanDistribution";
+	private static final String DYNAMIC_PLAN_DISTRIBUTION_CMT = "If true, multi-threaded replanning modules hand out the plans in small chunks to whichever "
+			+ "thread is idle, instead of distributing them equally to all threads beforehand.  This avoids idle threads when some plans "
+			+ "take much longer than others, but which thread handles which plan is no longer reproducible, and thus neither are the results "
+			+ "of modules which use random numbers.";
+	/**
+	 * @return {@link #DYNAMIC_PLAN_DISTRIBUTION_CMT}
+	 */
+	@StringGetter( DYNAMIC_PLAN_DISTRIBUTION )
+	public boolean isDynamicPlanDistribution() {
+		return this.dynamicPlanDistribution;
+	}
+	/**
+	 * @param dynamicPlanDistribution -- {@link #DYNAMIC_PLAN_DISTRIBUTION_CMT}
+	 */
+	@StringSetter( DYNAMIC_PLAN_DISTRIBUTION )
+	public void setDynamicPlanDistribution(final boolean dynamicPlanDistribution) {
+		this.dynamicPlanDistribution = dynamicPlanDistribution;
+	}
+	// ---
+	private boolean parallelStrategySelection = false;
+	private static final String PARALLEL_STRATEGY_SELECTION = "parallelStrategySelection";
+	private static final String PARALLEL_STRATEGY_SELECTION_CMT = "If true, the strategy manager removes surplus plans, chooses the strategies and selects "
+			+ "and copies the plans for shards of persons on numberOfThreads threads.  The results are reproducible, but differ from "
+			+ "the ones of the sequential selection.  Custom plan selectors and strategy choosers must be thread-safe.";
+	/**
+	 * @return {@link #PARALLEL_STRATEGY_SELECTION_CMT}
+	 */
+	@StringGetter( PARALLEL_STRATEGY_SELECTION )
+	public boolean isParallelStrategySelection() {
+		return this.parallelStrategySelection;
+	}
+	/**
+	 * @param parallelStrategySelection -- {@link #PARALLEL_STRATEGY_SELECTION_CMT}
+	 */
+	@StringSetter( PARALLEL_STRATEGY_SELECTION )
+	public void setParallelStrategySelection(final boolean parallelStrategySelection) {
+		this.parallelStrategySelection = parallelStrategySelection;
+	}
+	// ---
 	private String coordinateSystem = "Atlantis" ;
 	// see https://matsim.atlassian.net/browse/MATSIM-898
 	private static final String COORDINATE_SYSTEM = "coordinateSystem";
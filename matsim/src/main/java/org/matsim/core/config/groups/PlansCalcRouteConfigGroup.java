@@ -80,6 +80,19 @@ public final class PlansCalcRouteConfigGroup extends ConfigGroup {
 	private static final String RANDOMNESS = "routingRandomness" ;
 	private double routingRandomness = 3. ;
 	// ---
+	private static final String BATCH_ROUTING_TIME_BIN_SIZE = "batchRoutingTimeBinSize";
+	private static final String BATCH_ROUTING_TIME_BIN_SIZE_CMT = "If larger than 0, re-routing routes the trips of many plans together: network trips "
+			+ "starting at the same node within a time bin of this size (in seconds) are routed with a single one-to-many search, "
+			+ "using the earliest departure time and the first person of the group.  This is faster, but the routes are only "
+			+ "approximately the same and person-specific randomness (see " + RANDOMNESS + ") is shared within a group.  Default: 0, i.e. disabled.";
+	private double batchRoutingTimeBinSize = 0. ;
+	// ---
+	private static final String MATERIALIZE_TRAVEL_TIMES = "materializeTravelTimes";
+	private static final String MATERIALIZE_TRAVEL_TIMES_CMT = "If true, the travel times of the network modes are copied into one array per mode "
+			+ "after every mobsim, using the time bins of the travelTimeCalculator, and the network routers look them up there.  This makes "
+			+ "routing faster, but needs 4 bytes per link and time bin and mode.  Default: false.";
+	private boolean materializingTravelTimes = false ;
+	// ---
 	private static final String CLEAR_MODE_ROUTING_PARAMS = "clearDefaultTeleportedModeParams";
 	private static final String CLEAR_MODE_ROUTING_PARAMS_CMT = "Some typical teleportation routing params are set by default, such as for walk and bike.  " +
 																		"Setting this switch to \"true\" will clear them.  Note that this will also clear " +
@@ -476,6 +489,10 @@ public final class PlansCalcRouteConfigGroup extends ConfigGroup {
 			this.setClearingDefaultModeRoutingParams( Boolean.parseBoolean( value ) );
 		} else if (RANDOMNESS.equals( key ) ) {
 			this.setRoutingRandomness( Double.parseDouble( value ) );
+		} else if (BATCH_ROUTING_TIME_BIN_SIZE.equals( key ) ) {
+			this.setBatchRoutingTimeBinSize( Double.parseDouble( value ) );
+		} else if (MATERIALIZE_TRAVEL_TIMES.equals( key ) ) {
+			this.setMaterializingTravelTimes( Boolean.parseBoolean( value ) );
 		}
 		else if (ACCESSEGRESSTYPE.equals( key ) ) {
 			this.setAccessEgressType(AccessEgressType.valueOf(value));
@@ -491,6 +508,8 @@ public final class PlansCalcRouteConfigGroup extends ConfigGroup {
 		map.put( NETWORK_MODES, CollectionUtils.arrayToString(this.networkModes.toArray( new String[0] ) ) );
 		map.put(  CLEAR_MODE_ROUTING_PARAMS, Boolean.toString( this.clearingDefaultModeRoutingParams ) ) ;
 		map.put(  RANDOMNESS, Double.toString( this.routingRandomness ) ) ;
+		map.put(  BATCH_ROUTING_TIME_BIN_SIZE, Double.toString( this.batchRoutingTimeBinSize ) ) ;
+		map.put(  MATERIALIZE_TRAVEL_TIMES, Boolean.toString( this.materializingTravelTimes ) ) ;
 		map.put(  ACCESSEGRESSTYPE, getAccessEgressType().toString()) ;
 		return map;
 	}
@@ -507,6 +526,8 @@ public final class PlansCalcRouteConfigGroup extends ConfigGroup {
 	          		+ "Technically the width parameter of a log-normal distribution. 3.0 seems to be a good value. " ) ;
 		map.put( CLEAR_MODE_ROUTING_PARAMS, CLEAR_MODE_ROUTING_PARAMS_CMT ) ;
 		map.put(ACCESSEGRESSTYPE, ACCESSEGRESSTYPE_CMT);
+		map.put(BATCH_ROUTING_TIME_BIN_SIZE, BATCH_ROUTING_TIME_BIN_SIZE_CMT);
+		map.put(MATERIALIZE_TRAVEL_TIMES, MATERIALIZE_TRAVEL_TIMES_CMT);
 		return map;
 	}
 
@@ -610,6 +631,24 @@ public final class PlansCalcRouteConfigGroup extends ConfigGroup {
 		this.routingRandomness = routingRandomness;
 	}
 
+	@StringGetter(BATCH_ROUTING_TIME_BIN_SIZE)
+	public double getBatchRoutingTimeBinSize() {
+		return batchRoutingTimeBinSize;
+	}
+	@StringSetter(BATCH_ROUTING_TIME_BIN_SIZE)
+	public void setBatchRoutingTimeBinSize(double batchRoutingTimeBinSize) {
+		this.batchRoutingTimeBinSize = batchRoutingTimeBinSize;
+	}
+
+	@StringGetter(MATERIALIZE_TRAVEL_TIMES)
+	public boolean isMaterializingTravelTimes() {
+		return materializingTravelTimes;
+	}
+	@StringSetter(MATERIALIZE_TRAVEL_TIMES)
+	public void setMaterializingTravelTimes(boolean materializingTravelTimes) {
+		this.materializingTravelTimes = materializingTravelTimes;
+	}
+
 	@Override protected void checkConsistency(Config config) {
 		super.checkConsistency(config);
 		Set<String> modesRoutedAsTeleportation = this.getModeRoutingParams().keySet();
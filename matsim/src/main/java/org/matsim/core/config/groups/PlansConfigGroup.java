@@ -110,6 +110,11 @@ public final class PlansConfigGroup extends ReflectiveConfigGroup {
 		comments.put(REMOVING_UNNECESSARY_PLAN_ATTRIBUTES, "(not tested) will remove plan attributes that are presumably not used, such as " +
                 "activityStartTime. default=false. Use with Caution!");
 
+		comments.put(PARALLEL_READING, "If true, population_v6 files are read with global.numberOfThreads threads. The main thread still parses the" +
+				" file, but the persons and their plans are created in parallel. Note that the indices of the ids created while reading" +
+				" (e.g. of links, facilities or vehicles referenced in the plans) then depend on the threads, so the iteration order of" +
+				" collections ordered by id index may differ from run to run. default=false.");
+
 		comments.put( INPUT_CRS , "The Coordinates Reference System in which the coordinates are expressed in the input file." +
 				" At import, the coordinates will be converted to the coordinate system defined in \"global\", and will" +
 				"be converted back at export. If not specified, no conversion happens." );
@@ -247,6 +252,18 @@ public final class PlansConfigGroup extends ReflectiveConfigGroup {
 	}
 
 
+	private static final String PARALLEL_READING = "parallelReading";
+	private boolean parallelReading = false;
+	@StringGetter(PARALLEL_READING)
+	public boolean isParallelReading() {
+		return this.parallelReading;
+	}
+	@StringSetter(PARALLEL_READING)
+	public void setParallelReading(final boolean parallelReading) {
+		this.parallelReading = parallelReading;
+	}
+
+
 	@StringGetter( INPUT_CRS )
 	public String getInputCRS() {
 		return inputCRS;
@@ -90,6 +90,16 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 	private boolean usePersonIdForMissingVehicleId = true;
 	@Positive
 	private int numberOfThreads = 1;
+	private static final String NETSIM_ENGINE_SCHEDULING = "netsimEngineScheduling";
+
+	public enum NetsimEngineScheduling {roundRobinWithBarriers, partitionedWithLocalClocks}
+
+	private NetsimEngineScheduling netsimEngineScheduling = NetsimEngineScheduling.roundRobinWithBarriers;
+	private static final String ACTIVITY_ENDS_QUEUE = "activityEndsQueue";
+
+	public enum ActivityEndsQueue {priorityQueue, calendarQueue}
+
+	private ActivityEndsQueue activityEndsQueue = ActivityEndsQueue.priorityQueue;
 	//	private static final String CREATING_VEHICLES_FOR_ALL_NETWORK_MODES = "creatingVehiclesForAllNetworkModes";
 //	private boolean creatingVehiclesForAllNetworkModes = true;
 	// ---
@@ -170,6 +180,15 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 		map.put(NUMBER_OF_THREADS, "Number of threads used for the QSim.  "
 				+ "Note that this setting is independent from the \"global\" threads setting.  "
 				+ "In contrast to earlier versions, the non-parallel special version is no longer there.");
+		map.put(NETSIM_ENGINE_SCHEDULING, "Only relevant if " + NUMBER_OF_THREADS + " > 1.  " + NetsimEngineScheduling.roundRobinWithBarriers
+				+ " assigns nodes round robin to the runners and synchronizes all runners twice per time step.  "
+				+ NetsimEngineScheduling.partitionedWithLocalClocks + " partitions the network spatially and lets each runner proceed "
+				+ "to its links as soon as the runners owning the downstream nodes have finished their nodes; from the second iteration on, "
+				+ "the partitions are balanced on the load measured in the previous iteration.  Options: "
+				+ Arrays.toString(NetsimEngineScheduling.values()));
+		map.put(ACTIVITY_ENDS_QUEUE, "Data structure of the activity engine for the agents waiting for the end of their activities.  "
+				+ ActivityEndsQueue.calendarQueue + " uses one bucket per simulated second and makes adding, ending and rescheduling "
+				+ "activities O(1); the order of the activity ends is the same.  Options: " + Arrays.toString(ActivityEndsQueue.values()));
 		map.put(REMOVE_STUCK_VEHICLES, REMOVE_STUCK_VEHICLES_STRING);
 		map.put(STUCK_TIME, STUCK_TIME_STRING);
 
@@ -467,6 +486,26 @@ public final class QSimConfigGroup extends ReflectiveConfigGroup {
 		this.numberOfThreads = numberOfThreads;
 	}
 
+	@StringGetter(NETSIM_ENGINE_SCHEDULING)
+	public NetsimEngineScheduling getNetsimEngineScheduling() {
+		return this.netsimEngineScheduling;
+	}
+
+	@StringSetter(NETSIM_ENGINE_SCHEDULING)
+	public void setNetsimEngineScheduling(final NetsimEngineScheduling netsimEngineScheduling) {
+		this.netsimEngineScheduling = netsimEngineScheduling;
+	}
+
+	@StringGetter(ACTIVITY_ENDS_QUEUE)
+	public ActivityEndsQueue getActivityEndsQueue() {
+		return this.activityEndsQueue;
+	}
+
+	@StringSetter(ACTIVITY_ENDS_QUEUE)
+	public void setActivityEndsQueue(final ActivityEndsQueue activityEndsQueue) {
+		this.activityEndsQueue = activityEndsQueue;
+	}
+
 	@StringGetter(SIM_STARTTIME_INTERPRETATION)
 	public StarttimeInterpretation getSimStarttimeInterpretation() {
 		return simStarttimeInterpretation;
@@ -26,6 +26,7 @@ import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.config.Config;
 import org.matsim.core.controler.events.*;
 import org.matsim.core.controler.listener.*;
+import org.matsim.core.events.IndexedEventsReader;
 import org.matsim.core.events.MatsimEventsReader;
 
 import javax.inject.Inject;
@@ -77,6 +78,17 @@ public final class ReplayEvents {
     }
 
     public void playEventsFile(String eventsFilename, int iterationNumber, boolean isLastIteration) {
+        playEvents(() -> new MatsimEventsReader(eventsManager).readFile(eventsFilename), iterationNumber, isLastIteration);
+    }
+
+    /**
+     * Plays only the events with <code>fromTime &lt;= time &lt; toTime</code>, from a binary events file with index.
+     */
+    public void playEventsFile(String eventsFilename, double fromTime, double toTime, int iterationNumber, boolean isLastIteration) {
+        playEvents(() -> new IndexedEventsReader(eventsManager, eventsFilename).readTimeWindow(fromTime, toTime), iterationNumber, isLastIteration);
+    }
+
+    private void playEvents(Runnable reader, int iterationNumber, boolean isLastIteration) {
         ((ControlerListenerManagerImpl) controlerListenerManager).fireControlerStartupEvent();
         for (ControlerListener controlerListener : controlerListenersDeclaredByModules) {
             if (controlerListener instanceof StartupListener) {
@@ -95,7 +107,7 @@ public final class ReplayEvents {
                 ((BeforeMobsimListener) controlerListener).notifyBeforeMobsim(new BeforeMobsimEvent(null, iterationNumber, isLastIteration));
             }
         }
-        new MatsimEventsReader(eventsManager).readFile(eventsFilename);
+        reader.run();
         ((ControlerListenerManagerImpl) controlerListenerManager).fireControlerAfterMobsimEvent(iterationNumber, isLastIteration);
         for (ControlerListener controlerListener : controlerListenersDeclaredByModules) {
             if (controlerListener instanceof AfterMobsimListener) {
@@ -36,6 +36,7 @@ import org.matsim.core.controler.Controler;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.ShutdownEvent;
 import org.matsim.core.controler.listener.ShutdownListener;
+import org.matsim.core.events.EventsIndex;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.network.io.NetworkChangeEventsWriter;
 import org.matsim.core.network.io.NetworkWriter;
@@ -145,6 +146,7 @@ final class DumpDataAtEndImpl implements DumpDataAtEnd, ShutdownListener {
 		for (ControlerConfigGroup.EventsFileFormat format : this.controlerConfigGroup.getEventsFileFormats()) {
 			try{
 				Controler.DefaultFiles file;
+				ControlerConfigGroup.CompressionType compression = this.controlerConfigGroup.getCompressionType();
 				switch (format) {
 					case xml:
 						file = Controler.DefaultFiles.events;
@@ -155,12 +157,20 @@ final class DumpDataAtEndImpl implements DumpDataAtEnd, ShutdownListener {
 					case json:
 						file = Controler.DefaultFiles.eventsJson;
 						break;
+					case bin:
+						file = Controler.DefaultFiles.eventsBin;
+						compression = ControlerConfigGroup.CompressionType.none;
+						break;
 					default:
 						continue;
 				}
 
-				IOUtils.copyFile(this.controlerIO.getIterationFilename(iteration, file),
-						this.controlerIO.getOutputFilename(file));
+				IOUtils.copyFile(this.controlerIO.getIterationFilename(iteration, file, compression),
+						this.controlerIO.getOutputFilename(file, compression));
+				if (EventsIndex.exists(this.controlerIO.getIterationFilename(iteration, file, compression))) {
+					IOUtils.copyFile(EventsIndex.getIndexFilename(this.controlerIO.getIterationFilename(iteration, file, compression)),
+							EventsIndex.getIndexFilename(this.controlerIO.getOutputFilename(file, compression)));
+				}
 			} catch (Exception ee) {
 				LogManager.getLogger(this.getClass()).error("writing output events did not work; probably parameters were such that no events were "
 						+ "generated in the final iteration");
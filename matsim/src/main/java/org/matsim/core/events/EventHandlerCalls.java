@@ -0,0 +1,116 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * EventHandlerCalls.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.events;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.core.events.handler.EventHandler;
+
+/**
+ * Creates direct calls of the <code>handleEvent</code> methods of event handler interfaces, so that the events managers need
+ * no reflection, also not for event types they do not know (e.g. the ones of the contribs).
+ * <p></p>
+ * A call is generated with the {@link LambdaMetafactory} for every pair of handler class and handler method. Every generated
+ * call is a call site of its own, so the JIT sees only one handler class there and can inline the handler.  The calls are
+ * cached by handler class, so handlers which are added again in every iteration do not create new classes.
+ */
+final class EventHandlerCalls {
+
+	private static final Logger log = LogManager.getLogger(EventHandlerCalls.class);
+
+	@FunctionalInterface
+	interface Call {
+		void call(EventHandler handler, Event event);
+	}
+
+	private static final MethodType CALL_TYPE = MethodType.methodType(void.class, EventHandler.class, Event.class);
+
+	private static final ClassValue<Map<Method, Call>> CALLS = new ClassValue<>() {
+		@Override
+		protected Map<Method, Call> computeValue(Class<?> handlerClass) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private EventHandlerCalls() {
+	}
+
+	/**
+	 * @param handleEvent the <code>handleEvent</code> method of an event handler interface
+	 * @param handlerClass the class of the handler the call is used for
+	 */
+	static Call get(Method handleEvent, Class<?> handlerClass) {
+		return CALLS.get(handlerClass).computeIfAbsent(handleEvent, EventHandlerCalls::create);
+	}
+
+	private static Call create(Method handleEvent) {
+		Class<?> handlerInterface = handleEvent.getDeclaringClass();
+		Class<?> eventClass = handleEvent.getParameterTypes()[0];
+		// the generated class refers to the handler interface and the event class by name
+		if (isVisible(handlerInterface) && isVisible(eventClass)) {
+			try {
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				MethodHandle target = lookup.unreflect(handleEvent);
+				CallSite site = LambdaMetafactory.metafactory(lookup, "call", MethodType.methodType(Call.class), CALL_TYPE, target,
+						MethodType.methodType(void.class, handlerInterface, eventClass));
+				return (Call) site.getTarget().invokeExact();
+			} catch (Throwable e) {
+				log.warn("could not create a direct call of " + handleEvent + ", using reflection instead.", e);
+			}
+		} else {
+			log.info(handlerInterface.getName() + " is loaded by another class loader, using reflection to call " + handleEvent);
+		}
+		return (handler, event) -> {
+			try {
+				handleEvent.invoke(handler, event);
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException(e);
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				if (e.getCause() instanceof Error error) {
+					throw error;
+				}
+				throw new RuntimeException(e.getCause());
+			}
+		};
+	}
+
+	private static boolean isVisible(Class<?> klass) {
+		try {
+			return Class.forName(klass.getName(), false, EventHandlerCalls.class.getClassLoader()) == klass;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,264 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * EventsIndex.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.events;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.core.events.algorithms.EventWriterBinary;
+import org.matsim.core.utils.io.UncheckedIOException;
+
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+
+/**
+ * The index of a binary events file, written by {@link EventWriterBinary} next to the events file.
+ * <p></p>
+ * For every block of the events file, the index knows where the block starts and the first and last time of its events.
+ * For some attributes (see {@link #DEFAULT_INDEXED_ATTRIBUTES}), the index also knows in which blocks a value occurs,
+ * e.g. in which blocks a person has events.  This allows {@link IndexedEventsReader} to decode only the blocks it needs.
+ */
+public final class EventsIndex {
+
+	public static final String SUFFIX = ".idx";
+	public static final List<String> DEFAULT_INDEXED_ATTRIBUTES = List.of("person", "link", "vehicle");
+
+	private static final String MAGIC = "MATSIMEI";
+	private static final int VERSION = 1;
+
+	private final TLongArrayList offsets = new TLongArrayList();
+	private final TIntArrayList compressedLengths = new TIntArrayList();
+	private final TIntArrayList uncompressedLengths = new TIntArrayList();
+	private final TDoubleArrayList minTimes = new TDoubleArrayList();
+	private final TDoubleArrayList maxTimes = new TDoubleArrayList();
+	// postings[attribute][value] -> the blocks with events with this value, in ascending order
+	private final Map<String, Map<String, TIntArrayList>> postings = new LinkedHashMap<>();
+
+	private double minTime = Double.POSITIVE_INFINITY;
+	private double maxTime = Double.NEGATIVE_INFINITY;
+
+	public EventsIndex() {
+		this(DEFAULT_INDEXED_ATTRIBUTES);
+	}
+
+	public EventsIndex(Collection<String> indexedAttributes) {
+		for (String attribute : indexedAttributes) {
+			this.postings.put(attribute, new HashMap<>());
+		}
+	}
+
+	public static String getIndexFilename(String eventsFilename) {
+		return eventsFilename + SUFFIX;
+	}
+
+	public static boolean exists(String eventsFilename) {
+		return Files.isRegularFile(Path.of(getIndexFilename(eventsFilename)));
+	}
+
+	/**
+	 * Adds an event of the block which is written next.
+	 */
+	public void addEvent(Event event) {
+		double time = event.getTime();
+		this.minTime = Math.min(this.minTime, time);
+		this.maxTime = Math.max(this.maxTime, time);
+		if (this.postings.isEmpty()) {
+			return;
+		}
+		int block = this.offsets.size();
+		Map<String, String> attributes = event.getAttributes();
+		for (Map.Entry<String, Map<String, TIntArrayList>> entry : this.postings.entrySet()) {
+			String value = attributes.get(entry.getKey());
+			if (value != null) {
+				TIntArrayList blocks = entry.getValue().computeIfAbsent(value, v -> new TIntArrayList(2));
+				if (blocks.isEmpty() || blocks.get(blocks.size() - 1) != block) {
+					blocks.add(block);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finishes the block the events were added for.
+	 *
+	 * @param offset position of the compressed data of the block in the file
+	 */
+	public void addBlock(long offset, int compressedLength, int uncompressedLength) {
+		this.offsets.add(offset);
+		this.compressedLengths.add(compressedLength);
+		this.uncompressedLengths.add(uncompressedLength);
+		this.minTimes.add(this.minTime);
+		this.maxTimes.add(this.maxTime);
+		this.minTime = Double.POSITIVE_INFINITY;
+		this.maxTime = Double.NEGATIVE_INFINITY;
+	}
+
+	public int getNumberOfBlocks() {
+		return this.offsets.size();
+	}
+
+	long getOffset(int block) {
+		return this.offsets.get(block);
+	}
+
+	int getCompressedLength(int block) {
+		return this.compressedLengths.get(block);
+	}
+
+	int getUncompressedLength(int block) {
+		return this.uncompressedLengths.get(block);
+	}
+
+	/**
+	 * @return the blocks with events in the time window, i.e. <code>fromTime &lt;= time &lt; toTime</code>
+	 */
+	public BitSet getBlocks(double fromTime, double toTime) {
+		BitSet blocks = new BitSet(getNumberOfBlocks());
+		for (int block = 0; block < getNumberOfBlocks(); block++) {
+			if (this.maxTimes.get(block) >= fromTime && this.minTimes.get(block) < toTime) {
+				blocks.set(block);
+			}
+		}
+		return blocks;
+	}
+
+	/**
+	 * @return the blocks with events which have one of the values as attribute
+	 */
+	public BitSet getBlocks(String attribute, Collection<String> values) {
+		Map<String, TIntArrayList> postingsOfAttribute = this.postings.get(attribute);
+		if (postingsOfAttribute == null) {
+			throw new IllegalArgumentException("attribute " + attribute + " is not indexed, only " + this.postings.keySet());
+		}
+		BitSet blocks = new BitSet(getNumberOfBlocks());
+		for (String value : values) {
+			TIntArrayList blocksOfValue = postingsOfAttribute.get(value);
+			if (blocksOfValue != null) {
+				blocksOfValue.forEach(block -> {
+					blocks.set(block);
+					return true;
+				});
+			}
+		}
+		return blocks;
+	}
+
+	public boolean isIndexed(String attribute) {
+		return this.postings.containsKey(attribute);
+	}
+
+	public void write(OutputStream stream) {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+			out.write(MAGIC.getBytes(StandardCharsets.US_ASCII));
+			out.writeInt(VERSION);
+			out.writeInt(getNumberOfBlocks());
+			for (int block = 0; block < getNumberOfBlocks(); block++) {
+				out.writeLong(this.offsets.get(block));
+				out.writeInt(this.compressedLengths.get(block));
+				out.writeInt(this.uncompressedLengths.get(block));
+				out.writeDouble(this.minTimes.get(block));
+				out.writeDouble(this.maxTimes.get(block));
+			}
+			out.writeInt(this.postings.size());
+			for (Map.Entry<String, Map<String, TIntArrayList>> entry : this.postings.entrySet()) {
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue().size());
+				for (Map.Entry<String, TIntArrayList> posting : entry.getValue().entrySet()) {
+					out.writeUTF(posting.getKey());
+					TIntArrayList blocks = posting.getValue();
+					out.writeInt(blocks.size());
+					for (int i = 0; i < blocks.size(); i++) {
+						out.writeInt(blocks.get(i));
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static EventsIndex read(String eventsFilename) {
+		try (InputStream stream = Files.newInputStream(Path.of(getIndexFilename(eventsFilename)))) {
+			return read(stream);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static EventsIndex read(InputStream stream) {
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+			byte[] magic = new byte[MAGIC.length()];
+			in.readFully(magic);
+			if (!Arrays.equals(magic, MAGIC.getBytes(StandardCharsets.US_ASCII))) {
+				throw new IllegalArgumentException("not an events index.");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IllegalArgumentException("events index version " + version + " is not supported.");
+			}
+			EventsIndex index = new EventsIndex(List.of());
+			int numberOfBlocks = in.readInt();
+			for (int block = 0; block < numberOfBlocks; block++) {
+				index.offsets.add(in.readLong());
+				index.compressedLengths.add(in.readInt());
+				index.uncompressedLengths.add(in.readInt());
+				index.minTimes.add(in.readDouble());
+				index.maxTimes.add(in.readDouble());
+			}
+			int numberOfAttributes = in.readInt();
+			for (int a = 0; a < numberOfAttributes; a++) {
+				String attribute = in.readUTF();
+				int numberOfValues = in.readInt();
+				Map<String, TIntArrayList> postingsOfAttribute = new HashMap<>(numberOfValues * 4 / 3 + 1);
+				for (int v = 0; v < numberOfValues; v++) {
+					String value = in.readUTF();
+					int[] blocks = new int[in.readInt()];
+					for (int i = 0; i < blocks.length; i++) {
+						blocks[i] = in.readInt();
+					}
+					postingsOfAttribute.put(value, TIntArrayList.wrap(blocks));
+				}
+				index.postings.put(attribute, postingsOfAttribute);
+			}
+			return index;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,360 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * EventsReaderBinary.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.events;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.MatsimEventsReader.CustomEventMapper;
+import org.matsim.core.events.algorithms.EventWriterBinary;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.io.UncheckedIOException;
+import org.xml.sax.Attributes;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * Reads events files written by {@link EventWriterBinary}.
+ * <p></p>
+ * The blocks of the file are independent of each other, so they are decompressed and decoded in parallel.  The events are then
+ * created and passed to the events manager in the order of the file by the calling thread, so the ids are created in the same
+ * order as when reading the xml file.  The events are created by {@link EventsReaderXMLv1}, from the same attributes as in the xml
+ * file, so both formats result in exactly the same events, including custom events.
+ * <p></p>
+ * See {@link EventWriterBinary} for a description of the format.
+ */
+public final class EventsReaderBinary {
+
+	private final static Logger log = LogManager.getLogger(EventsReaderBinary.class);
+
+	public static final String MAGIC = "MATSIMEV";
+	public static final int VERSION = 1;
+
+	private final EventsReaderXMLv1 delegate;
+	private final int numberOfThreads;
+
+	public EventsReaderBinary(final EventsManager events) {
+		this(events, Math.min(4, Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * @param numberOfThreads the number of threads decoding blocks, in addition to the calling thread
+	 */
+	public EventsReaderBinary(final EventsManager events, final int numberOfThreads) {
+		this.delegate = new EventsReaderXMLv1(events);
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public void addCustomEventMapper(String eventType, CustomEventMapper cem) {
+		this.delegate.addCustomEventMapper(eventType, cem);
+	}
+
+	/**
+	 * @return true if the file starts like a binary events file, independent of its name
+	 */
+	public static boolean isBinaryEventsFile(final String filename) {
+		try {
+			return isBinaryEventsFile(IOUtils.resolveFileOrResource(filename));
+		} catch (UncheckedIOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return true if the content of the url starts like a binary events file, independent of its name
+	 */
+	public static boolean isBinaryEventsFile(final URL url) {
+		try (InputStream stream = IOUtils.getInputStream(url)) {
+			byte[] magic = MAGIC.getBytes(StandardCharsets.US_ASCII);
+			return Arrays.equals(stream.readNBytes(magic.length), magic);
+		} catch (UncheckedIOException | IOException e) {
+			return false;
+		}
+	}
+
+	public void readFile(final String filename) {
+		log.info("reading binary events from " + filename);
+		try (InputStream stream = IOUtils.getInputStream(IOUtils.resolveFileOrResource(filename))) {
+			parse(stream);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public void parse(final InputStream stream) {
+		DataInputStream in = new DataInputStream(stream);
+		ExecutorService executor = Executors.newFixedThreadPool(this.numberOfThreads, r -> {
+			Thread thread = new Thread(r, "EventsReaderBinary");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			readHeader(in);
+			// decode a few blocks ahead, but do not hold the whole file in memory
+			Deque<Future<EventAttributes[]>> pending = new ArrayDeque<>();
+			Block block;
+			while ((block = readBlock(in)) != null) {
+				final Block compressed = block;
+				pending.add(executor.submit(() -> decodeBlock(Zstd.decompress(compressed.data, compressed.uncompressedLength))));
+				if (pending.size() >= 2 * this.numberOfThreads) {
+					process(pending.poll().get());
+				}
+			}
+			while (!pending.isEmpty()) {
+				process(pending.poll().get());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException("could not decode block of binary events", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void process(EventAttributes[] events) {
+		for (EventAttributes atts : events) {
+			this.delegate.startTag(EventsReaderXMLv1.EVENT, atts, null);
+		}
+	}
+
+	private static void readHeader(DataInputStream in) throws IOException {
+		byte[] magic = new byte[MAGIC.length()];
+		in.readFully(magic);
+		if (!MAGIC.equals(new String(magic, StandardCharsets.US_ASCII))) {
+			throw new IllegalArgumentException("not a binary events file.");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IllegalArgumentException("binary events file version " + version + " is not supported.");
+		}
+	}
+
+	private record Block(int uncompressedLength, byte[] data) {
+	}
+
+	/**
+	 * @return the compressed block, or null at the end of the file
+	 */
+	private static Block readBlock(DataInputStream in) throws IOException {
+		int uncompressedLength;
+		try {
+			uncompressedLength = in.readInt();
+		} catch (EOFException e) {
+			return null;
+		}
+		int compressedLength = in.readInt();
+		byte[] data = new byte[compressedLength];
+		in.readFully(data);
+		return new Block(uncompressedLength, data);
+	}
+
+	/*package*/ static EventAttributes[] decodeBlock(byte[] bytes) {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+		String[] strings = new String[readVarInt(buffer)];
+		for (int i = 0; i < strings.length; i++) {
+			int length = readVarInt(buffer);
+			strings[i] = new String(bytes, buffer.position(), length, StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+		}
+
+		int numberOfSchemas = readVarInt(buffer);
+		String[] types = new String[numberOfSchemas];
+		String[][] keys = new String[numberOfSchemas][];
+		for (int s = 0; s < numberOfSchemas; s++) {
+			types[s] = strings[readVarInt(buffer)];
+			keys[s] = new String[readVarInt(buffer) + 2];
+			keys[s][0] = Event.ATTRIBUTE_TIME;
+			keys[s][1] = Event.ATTRIBUTE_TYPE;
+			for (int k = 2; k < keys[s].length; k++) {
+				keys[s][k] = strings[readVarInt(buffer)];
+			}
+		}
+
+		EventAttributes[] events = new EventAttributes[readVarInt(buffer)];
+		int[] rowsOfSchema = new int[numberOfSchemas];
+		int[] schemaOfEvent = new int[events.length];
+		for (int e = 0; e < events.length; e++) {
+			schemaOfEvent[e] = readVarInt(buffer);
+			rowsOfSchema[schemaOfEvent[e]]++;
+		}
+
+		long previousTime = 0;
+		for (int e = 0; e < events.length; e++) {
+			int s = schemaOfEvent[e];
+			long encoded = readVarLong(buffer);
+			double time;
+			if ((encoded & 1) == 0) {
+				previousTime += unzigzag(encoded >>> 1);
+				time = previousTime;
+			} else {
+				time = buffer.getDouble();
+			}
+			String[] values = new String[keys[s].length];
+			values[0] = Double.toString(time);
+			values[1] = types[s];
+			events[e] = new EventAttributes(keys[s], values, time);
+		}
+
+		// the columns, schema by schema
+		EventAttributes[][] rows = new EventAttributes[numberOfSchemas][];
+		int[] filled = new int[numberOfSchemas];
+		for (int s = 0; s < numberOfSchemas; s++) {
+			rows[s] = new EventAttributes[rowsOfSchema[s]];
+		}
+		for (int e = 0; e < events.length; e++) {
+			int s = schemaOfEvent[e];
+			rows[s][filled[s]++] = events[e];
+		}
+		for (int s = 0; s < numberOfSchemas; s++) {
+			for (int k = 2; k < keys[s].length; k++) {
+				for (EventAttributes row : rows[s]) {
+					row.values[k] = strings[readVarInt(buffer)];
+				}
+			}
+		}
+		return events;
+	}
+
+	private static int readVarInt(ByteBuffer buffer) {
+		return (int) readVarLong(buffer);
+	}
+
+	private static long readVarLong(ByteBuffer buffer) {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = buffer.get();
+			value |= (long) (b & 0x7f) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * The attributes of one event, as the xml parser would provide them.
+	 */
+	/*package*/ static final class EventAttributes implements Attributes {
+		private final String[] keys;
+		private final String[] values;
+		private final double time;
+
+		EventAttributes(String[] keys, String[] values, double time) {
+			this.keys = keys;
+			this.values = values;
+			this.time = time;
+		}
+
+		double getTime() {
+			return this.time;
+		}
+
+		@Override
+		public int getLength() {
+			return this.keys.length;
+		}
+
+		@Override
+		public String getURI(int index) {
+			return "";
+		}
+
+		@Override
+		public String getLocalName(int index) {
+			return this.keys[index];
+		}
+
+		@Override
+		public String getQName(int index) {
+			return this.keys[index];
+		}
+
+		@Override
+		public String getType(int index) {
+			return "CDATA";
+		}
+
+		@Override
+		public String getValue(int index) {
+			return this.values[index];
+		}
+
+		@Override
+		public int getIndex(String uri, String localName) {
+			return getIndex(localName);
+		}
+
+		@Override
+		public int getIndex(String qName) {
+			for (int i = 0; i < this.keys.length; i++) {
+				if (this.keys[i].equals(qName)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		public String getType(String uri, String localName) {
+			return getIndex(localName) < 0 ? null : "CDATA";
+		}
+
+		@Override
+		public String getType(String qName) {
+			return getIndex(qName) < 0 ? null : "CDATA";
+		}
+
+		@Override
+		public String getValue(String uri, String localName) {
+			return getValue(localName);
+		}
+
+		@Override
+		public String getValue(String qName) {
+			int index = getIndex(qName);
+			return index < 0 ? null : this.values[index];
+		}
+	}
+}
@@ -70,6 +70,14 @@ public final class EventsUtils {
 		new MatsimEventsReader(events).readFile(filename) ;
 	}
 
+	/**
+	 * Reads only the events with <code>fromTime &lt;= time &lt; toTime</code>.  Requires a binary events file with index, see
+	 * {@link IndexedEventsReader}.
+	 */
+	public static void readEvents( EventsManager events, String filename, double fromTime, double toTime ) {
+		new IndexedEventsReader(events, filename).readTimeWindow(fromTime, toTime) ;
+	}
+
 	public static EventsFileComparator.Result compareEventsFiles( String filename1, String filename2 ) {
 		EventsFileComparator.Result result = EventsFileComparator.compare( filename1, filename2 );
 		return result ;
@@ -0,0 +1,112 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * IndexedEventsReader.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.events;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventsReaderBinary.EventAttributes;
+import org.matsim.core.events.MatsimEventsReader.CustomEventMapper;
+import org.matsim.core.events.algorithms.EventWriterBinary;
+import org.matsim.core.utils.io.UncheckedIOException;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * Reads parts of a binary events file (see {@link EventWriterBinary}) with the help of its {@link EventsIndex}, e.g. only the
+ * events between 07:00 and 09:00, or only the events of some persons.
+ * <p></p>
+ * The events file is memory-mapped, and only the blocks which contain matching events are decompressed and decoded.  The
+ * events of these blocks are filtered again, so only the matching events are passed to the events manager, in the order of
+ * the file.
+ */
+public final class IndexedEventsReader {
+
+	private final EventsReaderXMLv1 delegate;
+	private final String eventsFilename;
+	private final EventsIndex index;
+
+	public IndexedEventsReader(final EventsManager events, final String eventsFilename) {
+		this(events, eventsFilename, EventsIndex.read(eventsFilename));
+	}
+
+	public IndexedEventsReader(final EventsManager events, final String eventsFilename, final EventsIndex index) {
+		this.delegate = new EventsReaderXMLv1(events);
+		this.eventsFilename = eventsFilename;
+		this.index = index;
+	}
+
+	public void addCustomEventMapper(String eventType, CustomEventMapper cem) {
+		this.delegate.addCustomEventMapper(eventType, cem);
+	}
+
+	/**
+	 * Reads the events with <code>fromTime &lt;= time &lt; toTime</code>.
+	 */
+	public void readTimeWindow(final double fromTime, final double toTime) {
+		read(this.index.getBlocks(fromTime, toTime), fromTime, toTime, null, null);
+	}
+
+	/**
+	 * Reads the events with <code>fromTime &lt;= time &lt; toTime</code> and one of the ids as attribute, e.g. all events of
+	 * some persons with <code>attribute = "person"</code>.
+	 *
+	 * @param attribute an indexed attribute, see {@link EventsIndex#DEFAULT_INDEXED_ATTRIBUTES}
+	 */
+	public void readEvents(final double fromTime, final double toTime, final String attribute, final Collection<? extends Id<?>> ids) {
+		Set<String> values = new HashSet<>();
+		for (Id<?> id : ids) {
+			values.add(id.toString());
+		}
+		BitSet blocks = this.index.getBlocks(fromTime, toTime);
+		blocks.and(this.index.getBlocks(attribute, values));
+		read(blocks, fromTime, toTime, attribute, values);
+	}
+
+	private void read(BitSet blocks, double fromTime, double toTime, String attribute, Set<String> values) {
+		try (FileChannel channel = FileChannel.open(Path.of(this.eventsFilename), StandardOpenOption.READ)) {
+			for (int block = blocks.nextSetBit(0); block >= 0; block = blocks.nextSetBit(block + 1)) {
+				MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, this.index.getOffset(block),
+						this.index.getCompressedLength(block));
+				byte[] compressed = new byte[this.index.getCompressedLength(block)];
+				mapped.get(compressed);
+				EventAttributes[] events = EventsReaderBinary.decodeBlock(Zstd.decompress(compressed, this.index.getUncompressedLength(block)));
+				for (EventAttributes atts : events) {
+					if (atts.getTime() >= fromTime && atts.getTime() < toTime
+							&& (attribute == null || values.contains(atts.getValue(attribute)))) {
+						this.delegate.startTag(EventsReaderXMLv1.EVENT, atts, null);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,359 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * RingBufferEventsManager.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.groups.ParallelEventHandlingConfigGroup;
+import org.matsim.core.events.handler.EventHandler;
+
+/**
+ * Processes the events in parallel, with all handler threads reading from one ring buffer.
+ * <p></p>
+ * Other than in {@link ParallelEventsManager}, the events are not copied into one queue per handler thread.  Every event is
+ * written exactly once into a slot of the ring buffer and the cursor is advanced.  Every handler thread (a single handler, or
+ * a group of handlers if the number of threads is limited) keeps its own sequence, i.e. the number of the last event it
+ * processed, and follows the cursor at its own pace.  A slot is only re-used after all handler threads have passed it, so a
+ * slow handler slows down the producer instead of letting the events pile up in memory.
+ * <p></p>
+ * The events are written under a lock, so events may be produced by several threads (e.g. the threads of the QSim).
+ * Events produced by the handlers themselves are queued and written by the next producer call or at the next synchronization,
+ * since a handler thread must not wait for free slots it is blocking itself.
+ * <p></p>
+ * If synchronizeOnSimSteps is set, {@link #afterSimStep(double)} waits until all handler threads have processed all events.
+ */
+public final class RingBufferEventsManager implements EventsManager {
+
+	private final static Logger log = LogManager.getLogger(RingBufferEventsManager.class);
+
+	// spins before a waiting thread yields, and yields before it parks
+	private static final int SPINS = 100;
+	private static final int YIELDS = 100;
+	private static final long PARK_NANOS = 50_000;
+	private static final int BATCH_SIZE = 256;
+
+	private final boolean syncOnTimeSteps;
+	private final Integer numOfThreads;
+	private final List<EventHandler> eventsHandlers = new ArrayList<>();
+
+	private final Event[] slots;
+	private final int mask;
+	// sequence of the last written event, the first event has sequence 0
+	private final AtomicLong cursor = new AtomicLong(-1);
+	private final Object producerLock = new Object();
+	private final Queue<Event> eventsFromHandlers = new ConcurrentLinkedQueue<>();
+	private final AtomicReference<Throwable> exception = new AtomicReference<>();
+
+	private List<EventsManager> eventsManagers = new ArrayList<>();
+	private Consumer[] consumers = new Consumer[0];
+	private int iteration = 0;
+	private boolean init = false;
+
+	@Inject
+	RingBufferEventsManager(Config config) {
+		this(config.parallelEventHandling());
+	}
+
+	private RingBufferEventsManager(ParallelEventHandlingConfigGroup config) {
+		this(config.getSynchronizeOnSimSteps() != null ? config.getSynchronizeOnSimSteps() : true,
+				Boolean.TRUE.equals(config.getOneThreadPerHandler()) ? null : config.getNumberOfThreads(),
+				config.getEventsQueueSize());
+	}
+
+	/**
+	 * @param numOfThreads the number of handler threads, or <code>null</code> for one thread per handler
+	 * @param bufferSize the number of events the ring buffer holds, rounded up to the next power of two
+	 */
+	public RingBufferEventsManager(final boolean syncOnTimeSteps, final Integer numOfThreads, final int bufferSize) {
+		this.syncOnTimeSteps = syncOnTimeSteps;
+		this.numOfThreads = numOfThreads;
+		int size = Integer.highestOneBit(Math.max(2, bufferSize) - 1) << 1;
+		this.slots = new Event[size];
+		this.mask = size - 1;
+	}
+
+	private void initialize() {
+		this.eventsManagers = new ArrayList<>();
+		if (this.numOfThreads == null) {
+			for (EventHandler handler : this.eventsHandlers) {
+				this.eventsManagers.add(new SingleHandlerEventsManager(handler));
+			}
+		} else {
+			int numberOfManagers = Math.max(1, Math.min(this.numOfThreads, this.eventsHandlers.size()));
+			for (int i = 0; i < numberOfManagers; i++) {
+				this.eventsManagers.add(new EventsManagerImpl());
+			}
+			for (int i = 0; i < this.eventsHandlers.size(); i++) {
+				this.eventsManagers.get(i % numberOfManagers).addHandler(this.eventsHandlers.get(i));
+			}
+		}
+
+		long start = this.cursor.get();
+		this.consumers = new Consumer[this.eventsManagers.size()];
+		for (int i = 0; i < this.consumers.length; i++) {
+			EventsManager eventsManager = this.eventsManagers.get(i);
+			Consumer consumer = new Consumer(eventsManager, start);
+			consumer.setDaemon(true);
+			if (eventsManager instanceof SingleHandlerEventsManager single) {
+				consumer.setName("RingBufferEventsManager: " + single.getEventHandlerClassName());
+			} else {
+				consumer.setName("RingBufferEventsManager: thread " + i);
+			}
+			this.consumers[i] = consumer;
+		}
+		// before starting the threads, handlers may produce events as well
+		this.init = true;
+		for (Consumer consumer : this.consumers) {
+			consumer.start();
+		}
+	}
+
+	@Override
+	public void processEvent(final Event event) {
+		if (!init) throw new IllegalStateException(".initProcessing() has to be called before processing events!");
+		if (Thread.currentThread() instanceof Consumer) {
+			this.eventsFromHandlers.add(event);
+			return;
+		}
+		synchronized (this.producerLock) {
+			publishEventsFromHandlers();
+			publish(event);
+		}
+	}
+
+	@Override
+	public void processEvents(final EventArray events) {
+		if (!init) throw new IllegalStateException(".initProcessing() has to be called before processing events!");
+		if (Thread.currentThread() instanceof Consumer) {
+			for (int i = 0; i < events.size(); i++) {
+				this.eventsFromHandlers.add(events.get(i));
+			}
+			return;
+		}
+		synchronized (this.producerLock) {
+			publishEventsFromHandlers();
+			for (int i = 0; i < events.size(); i++) {
+				publish(events.get(i));
+			}
+		}
+	}
+
+	private void publishEventsFromHandlers() {
+		Event event;
+		while ((event = this.eventsFromHandlers.poll()) != null) {
+			publish(event);
+		}
+	}
+
+	/**
+	 * Must only be called while holding the producer lock.
+	 */
+	private void publish(final Event event) {
+		long sequence = this.cursor.get() + 1;
+		waitForFreeSlot(sequence);
+		this.slots[(int) (sequence & this.mask)] = event;
+		this.cursor.setRelease(sequence);
+	}
+
+	private void waitForFreeSlot(final long sequence) {
+		long wrapPoint = sequence - this.slots.length;
+		int idle = 0;
+		while (slowestSequence() < wrapPoint) {
+			checkException();
+			idle = idle(idle);
+		}
+	}
+
+	private long slowestSequence() {
+		long slowest = Long.MAX_VALUE;
+		for (Consumer consumer : this.consumers) {
+			slowest = Math.min(slowest, consumer.sequence.getAcquire());
+		}
+		return slowest;
+	}
+
+	private static int idle(int idle) {
+		if (idle < SPINS) {
+			Thread.onSpinWait();
+		} else if (idle < SPINS + YIELDS) {
+			Thread.yield();
+		} else {
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		return idle + 1;
+	}
+
+	/**
+	 * Waits until all events are processed, including the ones the handlers produce meanwhile.
+	 */
+	public void flush() {
+		synchronized (this.producerLock) {
+			int idle = 0;
+			while (true) {
+				publishEventsFromHandlers();
+				if (slowestSequence() >= this.cursor.get()) {
+					if (this.eventsFromHandlers.isEmpty()) {
+						break;
+					}
+				} else {
+					checkException();
+					idle = idle(idle);
+				}
+			}
+		}
+		checkException();
+	}
+
+	private void checkException() {
+		Throwable e = this.exception.get();
+		if (e != null) {
+			throw new RuntimeException("Exception while processing events. Cannot guarantee that all events have been fully processed.", e);
+		}
+	}
+
+	@Override
+	public void addHandler(final EventHandler handler) {
+		if (init)
+			throw new IllegalStateException("Handlers can not be added after .initProcessing() was called!");
+
+		// this will be used the next time we start an iteration
+		this.eventsHandlers.add(handler);
+	}
+
+	@Override
+	public void removeHandler(final EventHandler handler) {
+		// this will be used the next time we start an iteration
+		this.eventsHandlers.remove(handler);
+	}
+
+	@Override
+	public void resetHandlers(int iteration) {
+		for (EventsManager eventsManager : this.eventsManagers) {
+			eventsManager.resetHandlers(iteration);
+		}
+	}
+
+	@Override
+	public void initProcessing() {
+		initialize();
+
+		for (EventsManager eventsManager : this.eventsManagers) {
+			eventsManager.initProcessing();
+		}
+
+		resetHandlers(iteration);
+	}
+
+	@Override
+	public void afterSimStep(double time) {
+		if (this.syncOnTimeSteps) {
+			flush();
+		} else {
+			checkException();
+		}
+	}
+
+	@Override
+	public synchronized void finishProcessing() {
+		try {
+			flush();
+
+			for (EventsManager eventsManager : this.eventsManagers) {
+				eventsManager.finishProcessing();
+			}
+		} finally {
+			teardown();
+		}
+
+		iteration += 1;
+	}
+
+	private void teardown() {
+		for (Consumer consumer : this.consumers) {
+			consumer.running = false;
+			LockSupport.unpark(consumer);
+		}
+		try {
+			for (Consumer consumer : this.consumers) {
+				consumer.join();
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException("Exception while waiting on join...", e);
+		}
+		// do not keep the events of this iteration alive
+		Arrays.fill(this.slots, null);
+		this.init = false;
+	}
+
+	private class Consumer extends Thread {
+
+		private final EventsManager eventsManager;
+		// sequence of the last processed event
+		private final AtomicLong sequence;
+		private volatile boolean running = true;
+
+		Consumer(EventsManager eventsManager, long start) {
+			this.eventsManager = eventsManager;
+			this.sequence = new AtomicLong(start);
+		}
+
+		@Override
+		public void run() {
+			long next = this.sequence.get() + 1;
+			int idle = 0;
+			try {
+				while (this.running) {
+					long available = cursor.getAcquire();
+					if (available < next) {
+						idle = idle(idle);
+						continue;
+					}
+					idle = 0;
+					// hand back slots regularly, so the producer does not wait for a whole buffer
+					long last = Math.min(available, next + BATCH_SIZE - 1);
+					for (; next <= last; next++) {
+						this.eventsManager.processEvent(slots[(int) (next & mask)]);
+					}
+					this.sequence.setRelease(last);
+				}
+			} catch (Throwable e) {
+				log.error("Thread " + getName() + " died with exception while handling events.", e);
+				exception.compareAndSet(null, e);
+				// do not block the producer
+				this.sequence.setRelease(Long.MAX_VALUE);
+			}
+		}
+	}
+}
@@ -20,7 +20,6 @@
 
 package org.matsim.core.events;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -84,9 +83,9 @@ public final class SingleHandlerEventsManager implements EventsManager {
 	private static final Logger log = LogManager.getLogger(SingleHandlerEventsManager.class);
 	
 	/*
-	 * This cannot be just a map<Class, Method> since we need to differentiate between
+	 * This cannot be just a map<Class, Call> since we need to differentiate between
 	 * a) Class is handled the first time, therefore we have to check whether the Handler can handle it (no HandlerInfo object)
-	 * b) Class cannot be handled (HandlerInfo with empty Method field)
+	 * b) Class cannot be handled (HandlerInfo with empty call field)
 	 */
 	private final Map<Class<?>, HandlerInfo> methodToHandle = new HashMap<Class<?>, HandlerInfo>();
 
@@ -160,9 +159,9 @@ public final class SingleHandlerEventsManager implements EventsManager {
 	}
 	
 	static private class HandlerInfo {
-		protected final Method method;
-		protected HandlerInfo(final Method method) {
-			this.method = method;
+		protected final EventHandlerCalls.Call call;
+		protected HandlerInfo(final EventHandlerCalls.Call call) {
+			this.call = call;
 		}
 	}
 
@@ -228,50 +227,47 @@ public final class SingleHandlerEventsManager implements EventsManager {
 	
 	private void computeEvent(final Event event) {
 		if (callHandlerFast(event)) return;
+		EventHandlerCalls.Call call = this.getHandlersForClass(event.getClass());
+		if (call == null) return;
 		try {
-			Method method = this.getHandlersForClass(event.getClass());
-			if (method != null) method.invoke(this.eventHandler, event);
-		} catch(InvocationTargetException e) {
-			throw new RuntimeException("problem invoking EventHandler " + this.eventHandler.getClass().getCanonicalName() + " for event-class " + event.getClass().getCanonicalName(), e.getTargetException());
-		}
-		catch (IllegalArgumentException | IllegalAccessException e) {
+			call.call(this.eventHandler, event);
+		} catch (RuntimeException e) {
 			throw new RuntimeException("problem invoking EventHandler " + this.eventHandler.getClass().getCanonicalName() + " for event-class " + event.getClass().getCanonicalName(), e);
 		}
 	}
 	
-	private Method getHandlersForClass(final Class<?> eventClass) {
+	private EventHandlerCalls.Call getHandlersForClass(final Class<?> eventClass) {
 		Class<?> klass = eventClass;
 		
 		HandlerInfo info = this.methodToHandle.get(eventClass);
-		if (info != null) return info.method;
+		if (info != null) return info.call;
 
-		Method method = null;
+		EventHandlerCalls.Call call = null;
 		
 		// first search in class-hierarchy
 		while (klass != Object.class) {
 			info = this.methodToHandle.get(klass);
 			if (info != null) {
-				method = info.method;
+				call = info.call;
 				break;
 			}
 			klass = klass.getSuperclass();
 		}
 		
 		// second search in implemented interfaces if no method was found yet
-		if (method == null) {
+		if (call == null) {
 			for (Class<?> intfc : ClassUtils.getAllInterfaces(eventClass )) {
 				info = this.methodToHandle.get(intfc);
 				if (info != null) {
-					method = info.method;
+					call = info.call;
 					break;
 				}
 			}			
 		}
 
-		info = new HandlerInfo(method);
-		this.methodToHandle.put(eventClass, new HandlerInfo(info.method));
+		this.methodToHandle.put(eventClass, new HandlerInfo(call));
 		
-		return method;
+		return call;
 	}
 	
 	private void addHandlerInterfaces(final Class<?> handlerClass) {
@@ -283,7 +279,7 @@ public final class SingleHandlerEventsManager implements EventsManager {
 					Class<?> eventClass = params[0];
 					log.info("    > " + eventClass.getName());
 					if (!this.methodToHandle.containsKey(eventClass)) {
-						HandlerInfo info = new HandlerInfo(method);
+						HandlerInfo info = new HandlerInfo(EventHandlerCalls.get(method, this.eventHandler.getClass()));
 						this.methodToHandle.put(eventClass, info);
 					}
 				}
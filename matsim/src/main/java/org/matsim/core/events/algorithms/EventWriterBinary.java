@@ -0,0 +1,284 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * EventWriterBinary.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.events.algorithms;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.core.events.EventsIndex;
+import org.matsim.core.events.EventsReaderBinary;
+import org.matsim.core.events.handler.BasicEventHandler;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.io.UncheckedIOException;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * Writes events in a compact binary format, which is read by {@link EventsReaderBinary} (and thus by the
+ * {@link org.matsim.core.events.MatsimEventsReader}) much faster than xml.
+ * <p></p>
+ * The file starts with the ascii characters <code>MATSIMEV</code> and the version as int.  Then follow blocks of up to
+ * {@link #DEFAULT_EVENTS_PER_BLOCK} events, each with the length of the uncompressed and the compressed data as ints, followed
+ * by the data compressed with zstd.  A block does not depend on any other block, so several blocks can be decoded in parallel.
+ * <p></p>
+ * All numbers in a block are unsigned varints.  A block contains:
+ * <ol>
+ *   <li>the dictionary of all strings of the block: count, then length and utf-8 bytes of every string.  All other strings
+ *   (types, attribute names and values) are stored as index into the dictionary.</li>
+ *   <li>the schemas, i.e. the distinct combinations of event type and attribute names: count, then type, number of
+ *   attributes and attribute names of every schema.  The time and the type are not part of the attribute names.</li>
+ *   <li>the number of events, followed by the schema of every event.</li>
+ *   <li>the time of every event.  Full seconds are stored as difference to the previous full second, zigzag encoded and
+ *   shifted left by one bit.  Other times are stored as 1, followed by the 8 bytes of the double.</li>
+ *   <li>the attribute values, column by column: for every schema and every attribute, the values of all events of the schema.</li>
+ * </ol>
+ * Ids repeat a lot within a block, so an attribute value mostly needs one to three bytes before compression.
+ * <p></p>
+ * When writing to an uncompressed file ending with <code>.bin</code>, an {@link EventsIndex} is written next to it, which
+ * allows to read the events of a time window or of some persons without decoding the whole file.
+ */
+public final class EventWriterBinary implements EventWriter, BasicEventHandler {
+
+	public static final int DEFAULT_EVENTS_PER_BLOCK = 32768;
+	private static final int COMPRESSION_LEVEL = 3;
+
+	private final DataOutputStream out;
+	private final int eventsPerBlock;
+	private final EventsIndex index;
+	private final String indexFilename;
+	// position in the (uncompressed) file, as DataOutputStream counts only up to 2GB
+	private long position = 0;
+
+	private final List<Event> events = new ArrayList<>();
+
+	public EventWriterBinary(final String outfilename) {
+		this(outfilename, DEFAULT_EVENTS_PER_BLOCK);
+	}
+
+	public EventWriterBinary(final String outfilename, final int eventsPerBlock) {
+		this(IOUtils.getOutputStream(IOUtils.getFileUrl(outfilename), false), eventsPerBlock,
+				outfilename.endsWith(".bin") ? EventsIndex.getIndexFilename(outfilename) : null);
+	}
+
+	public EventWriterBinary(final OutputStream stream) {
+		this(stream, DEFAULT_EVENTS_PER_BLOCK);
+	}
+
+	public EventWriterBinary(final OutputStream stream, final int eventsPerBlock) {
+		this(stream, eventsPerBlock, null);
+	}
+
+	private EventWriterBinary(final OutputStream stream, final int eventsPerBlock, final String indexFilename) {
+		this.out = new DataOutputStream(new BufferedOutputStream(stream));
+		this.eventsPerBlock = eventsPerBlock;
+		this.indexFilename = indexFilename;
+		this.index = indexFilename == null ? null : new EventsIndex();
+		try {
+			byte[] magic = EventsReaderBinary.MAGIC.getBytes(StandardCharsets.US_ASCII);
+			this.out.write(magic);
+			this.out.writeInt(EventsReaderBinary.VERSION);
+			this.position = magic.length + 4;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void closeFile() {
+		try {
+			writeBlock();
+			this.out.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (this.index != null) {
+			this.index.write(IOUtils.getOutputStream(IOUtils.getFileUrl(this.indexFilename), false));
+		}
+	}
+
+	@Override
+	public void reset(final int iter) {
+	}
+
+	@Override
+	public void handleEvent(final Event event) {
+		this.events.add(event);
+		if (this.index != null) {
+			this.index.addEvent(event);
+		}
+		if (this.events.size() >= this.eventsPerBlock) {
+			try {
+				writeBlock();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		if (this.events.isEmpty()) {
+			return;
+		}
+		byte[] block = encodeBlock(this.events);
+		byte[] compressed = Zstd.compress(block, COMPRESSION_LEVEL);
+		this.out.writeInt(block.length);
+		this.out.writeInt(compressed.length);
+		this.out.write(compressed);
+		if (this.index != null) {
+			this.index.addBlock(this.position + 8, compressed.length, block.length);
+		}
+		this.position += 8 + compressed.length;
+		this.events.clear();
+	}
+
+	private static byte[] encodeBlock(List<Event> events) {
+		Map<String, Integer> dictionary = new HashMap<>();
+		List<String> strings = new ArrayList<>();
+		Map<List<String>, Integer> schemaIndices = new HashMap<>();
+		List<List<String>> schemas = new ArrayList<>();
+		// values[schema] -> the values of all events of the schema, row by row
+		List<List<int[]>> values = new ArrayList<>();
+
+		int[] schemaOfEvent = new int[events.size()];
+		for (int e = 0; e < events.size(); e++) {
+			Map<String, String> attributes = events.get(e).getAttributes();
+			List<String> schema = new ArrayList<>(attributes.size() - 1);
+			schema.add(attributes.get(Event.ATTRIBUTE_TYPE));
+			for (String key : attributes.keySet()) {
+				if (!Event.ATTRIBUTE_TIME.equals(key) && !Event.ATTRIBUTE_TYPE.equals(key)) {
+					schema.add(key);
+				}
+			}
+			Integer s = schemaIndices.get(schema);
+			if (s == null) {
+				s = schemas.size();
+				schemaIndices.put(schema, s);
+				schemas.add(schema);
+				values.add(new ArrayList<>());
+			}
+			int[] row = new int[schema.size() - 1];
+			for (int k = 1; k < schema.size(); k++) {
+				// like the xml writer, which writes null as "null"
+				row[k - 1] = indexOf(String.valueOf(attributes.get(schema.get(k))), dictionary, strings);
+			}
+			values.get(s).add(row);
+			schemaOfEvent[e] = s;
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(events.size() * 16);
+
+		// the schemas are written after the dictionary, so their strings have to be in the dictionary already
+		int[][] schemaStrings = new int[schemas.size()][];
+		for (int s = 0; s < schemas.size(); s++) {
+			List<String> schema = schemas.get(s);
+			schemaStrings[s] = new int[schema.size()];
+			for (int k = 0; k < schema.size(); k++) {
+				schemaStrings[s][k] = indexOf(schema.get(k), dictionary, strings);
+			}
+		}
+
+		writeVarLong(bytes, strings.size());
+		for (String string : strings) {
+			byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+			writeVarLong(bytes, utf8.length);
+			bytes.write(utf8, 0, utf8.length);
+		}
+
+		writeVarLong(bytes, schemas.size());
+		for (int[] schema : schemaStrings) {
+			writeVarLong(bytes, schema[0]);
+			writeVarLong(bytes, schema.length - 1);
+			for (int k = 1; k < schema.length; k++) {
+				writeVarLong(bytes, schema[k]);
+			}
+		}
+
+		writeVarLong(bytes, events.size());
+		for (int s : schemaOfEvent) {
+			writeVarLong(bytes, s);
+		}
+
+		long previousTime = 0;
+		byte[] raw = new byte[8];
+		for (Event event : events) {
+			double time = event.getTime();
+			if (isFullSecond(time)) {
+				long seconds = (long) time;
+				writeVarLong(bytes, zigzag(seconds - previousTime) << 1);
+				previousTime = seconds;
+			} else {
+				writeVarLong(bytes, 1);
+				long bits = Double.doubleToRawLongBits(time);
+				for (int i = 0; i < 8; i++) {
+					raw[i] = (byte) (bits >>> (56 - 8 * i));
+				}
+				bytes.write(raw, 0, 8);
+			}
+		}
+
+		for (int s = 0; s < schemas.size(); s++) {
+			List<int[]> rows = values.get(s);
+			for (int k = 0; k < schemas.get(s).size() - 1; k++) {
+				for (int[] row : rows) {
+					writeVarLong(bytes, row[k]);
+				}
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static boolean isFullSecond(double time) {
+		// -0.0 would be read as 0.0 otherwise
+		return time == Math.rint(time) && Math.abs(time) < (1L << 52)
+				&& Double.doubleToRawLongBits(time) != Double.doubleToRawLongBits(-0.0);
+	}
+
+	private static int indexOf(String string, Map<String, Integer> dictionary, List<String> strings) {
+		Integer index = dictionary.get(string);
+		if (index == null) {
+			index = strings.size();
+			dictionary.put(string, index);
+			strings.add(string);
+		}
+		return index;
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static void writeVarLong(ByteArrayOutputStream bytes, long value) {
+		while ((value & ~0x7fL) != 0) {
+			bytes.write((int) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		bytes.write((int) value);
+	}
+}
@@ -59,6 +59,11 @@ public abstract class MatsimRandom {
 	private static final Random random = new Random(DEFAULT_RANDOM_SEED);
 //	private static final Random random = new InstrumentedRandom(DEFAULT_RANDOM_SEED);
 
+	/** random number generators replacing the global one in single threads, see {@link #setThreadRandom(long)} */
+	private static final ThreadLocal<Random> threadRandom = new ThreadLocal<>();
+	/** set by {@link #setThreadRandom(long)}, so that {@link #getRandom()} only looks up the thread randoms while they are used */
+	private static volatile boolean threadRandomUsed = false;
+
 	/** Resets the random number generator with a default random seed. */
 	public static void reset() {
 		reset(DEFAULT_RANDOM_SEED);
@@ -75,9 +80,44 @@ public abstract class MatsimRandom {
 //		prepareRNG(random);
 	}
 	public static Random getRandom() {
+		if (threadRandomUsed) {
+			Random r = threadRandom.get();
+			if (r != null) {
+				return r;
+			}
+		}
 		return random;
 	}
 
+	/**
+	 * Lets {@link #getRandom()} return the global random number generator again in all threads, without looking up the
+	 * random number generators set by {@link #setThreadRandom(long)}.  To be called once all the threads using them have
+	 * called {@link #clearThreadRandom()}.
+	 */
+	public static void disableThreadRandoms() {
+		threadRandomUsed = false;
+	}
+
+	/**
+	 * Lets {@link #getRandom()} return a random number generator initialized with the given seed in the current thread,
+	 * until {@link #clearThreadRandom()} is called.  This allows code using the global random number generator, e.g.
+	 * the plan selectors, to run in several threads and still produce reproducible results, as long as every seed is
+	 * always used for the same part of the work.
+	 *
+	 * @param seed The seed used to draw random numbers in the current thread.
+	 */
+	public static void setThreadRandom(final long seed) {
+		Random r = new Random(seed);
+		prepareRNG(r);
+		threadRandomUsed = true;
+		threadRandom.set(r);
+	}
+
+	/** Lets {@link #getRandom()} return the global random number generator again in the current thread. */
+	public static void clearThreadRandom() {
+		threadRandom.remove();
+	}
+
 	/** Returns an instance of a random number generator, which can be used
 	 * locally, e.g. in threads.
 	 *
@@ -333,6 +333,13 @@ class Agent {
     public void reset() {
         plan.clear();
         events.clear();
+        resetRuntimeState();
+    }
+
+    /**
+     * Resets what the agent did during the simulation, but keeps the plan and the events, so that the same plan can be simulated again.
+     */
+    public void resetRuntimeState() {
         planIndex = 0;
         eventsIndex = 0;
         linkFinishTime = 0;
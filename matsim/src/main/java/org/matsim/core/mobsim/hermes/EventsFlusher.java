@@ -0,0 +1,160 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.core.mobsim.hermes;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventArray;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Passes the sorted events of a time window to the {@link EventsManager} while Hermes is still simulating.
+ *
+ * Without a background thread, the events are processed by the simulating thread, i.e. simulation and events handling alternate.
+ * With a background thread, the events handling of one window overlaps with the simulation of the next ones. At most
+ * {@link #MAX_PENDING_WINDOWS} windows are queued, after that the simulation waits for the events handling to catch up, which
+ * bounds the number of events held in memory.
+ */
+final class EventsFlusher {
+
+	private static final Logger log = LogManager.getLogger(EventsFlusher.class);
+
+	static final int MAX_PENDING_WINDOWS = 2;
+
+	private static final EventArray END = new EventArray();
+
+	private final EventsManager eventsManager;
+	private final int flushPeriod;
+	private final BlockingQueue<EventArray> pending;
+	private final Thread thread;
+	private volatile Throwable failure = null;
+
+	EventsFlusher(EventsManager eventsManager, int flushPeriod, boolean inBackground) {
+		this.eventsManager = eventsManager;
+		this.flushPeriod = flushPeriod;
+		if (inBackground) {
+			this.pending = new ArrayBlockingQueue<>(MAX_PENDING_WINDOWS);
+			this.thread = new Thread(this::processPending, "HermesEventsFlusher");
+			this.thread.setDaemon(true);
+		} else {
+			this.pending = null;
+			this.thread = null;
+		}
+	}
+
+	/**
+	 * @return true if the events sorted so far should be flushed at the end of this tick
+	 */
+	boolean isFlushTime(int secs) {
+		return HermesConfigGroup.CONCURRENT_EVENT_PROCESSING && secs % flushPeriod == 0;
+	}
+
+	void start() {
+		if (thread != null) {
+			thread.start();
+		}
+	}
+
+	/**
+	 * Hands over the sorted events of one time window. They must not be changed afterwards.
+	 */
+	void flush(EventArray events) {
+		if (events.size() == 0) {
+			return;
+		}
+		if (thread == null) {
+			eventsManager.processEvents(events);
+			return;
+		}
+		checkFailure();
+		try {
+			pending.put(events);
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Waits until all events handed over so far are processed.
+	 */
+	void finish() {
+		if (thread == null) {
+			return;
+		}
+		try {
+			if (thread.isAlive()) {
+				pending.put(END);
+			}
+			thread.join();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		checkFailure();
+	}
+
+	/**
+	 * Stops the background thread without processing the pending events, e.g. if the simulation failed. Does nothing if the
+	 * thread has not been started or has already finished.
+	 */
+	void shutdown() {
+		if (thread == null || !thread.isAlive()) {
+			return;
+		}
+		// the simulating thread is the only producer, so there is room for END after clearing
+		pending.clear();
+		pending.offer(END);
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void checkFailure() {
+		if (failure != null) {
+			throw new RuntimeException("Hermes events processing failed", failure);
+		}
+	}
+
+	private void processPending() {
+		try {
+			EventArray events;
+			while ((events = pending.take()) != END) {
+				eventsManager.processEvents(events);
+			}
+		} catch (Throwable t) {
+			log.error("Hermes events processing failed", t);
+			failure = t;
+			// do not block the simulation, it will find the failure at the next flush
+			pending.clear();
+			while (true) {
+				try {
+					if (pending.take() == END) {
+						return;
+					}
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		}
+	}
+}
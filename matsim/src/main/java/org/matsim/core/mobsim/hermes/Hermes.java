@@ -31,6 +31,8 @@ final class Hermes implements Mobsim {
 
 	final private static Logger log = LogManager.getLogger(Hermes.class);
 	private Realm realm;
+	private ParallelRealms parallelRealms;
+	private EventsFlusher eventsFlusher;
 	private Agent[] agents;
 	private ScenarioImporter scenarioImporter;
 	private final Scenario scenario;
@@ -45,11 +47,15 @@ final class Hermes implements Mobsim {
 		scenarioImporter = ScenarioImporter.instance(scenario, eventsManager);
 		scenarioImporter.generate();
 		this.realm = scenarioImporter.realm;
+		this.parallelRealms = scenarioImporter.parallelRealms;
+		this.eventsFlusher = scenarioImporter.eventsFlusher;
 		this.agents = scenarioImporter.hermesAgents;
 	}
 
 	private void processEvents() {
-        eventsManager.processEvents(realm.getSortedEvents());
+		// events of the earlier time windows need to be processed first
+		eventsFlusher.finish();
+        eventsManager.processEvents(parallelRealms == null ? realm.getSortedEvents() : parallelRealms.getSortedEvents());
 
 		for (Agent agent : agents) {
 			if (agent != null && !agent.finished() && !agent.isTransitVehicle()) {
@@ -70,14 +76,23 @@ final class Hermes implements Mobsim {
 			log.info(String.format("Hermes importing scenario took %d ms", System.currentTimeMillis() - time));
 
 			eventsManager.initProcessing();
+			eventsFlusher.start();
+			try {
+				time = System.currentTimeMillis();
+				if (parallelRealms == null) {
+					realm.run();
+				} else {
+					parallelRealms.run();
+				}
+				log.info(String.format(
+						"Hermes took %d ms", System.currentTimeMillis() - time));
 
-			time = System.currentTimeMillis();
-			realm.run();
-			log.info(String.format(
-					"Hermes took %d ms", System.currentTimeMillis() - time));
-
-			time = System.currentTimeMillis();
-			processEvents();
+				time = System.currentTimeMillis();
+				processEvents();
+			} finally {
+				// the flusher thread is already finished unless the simulation failed
+				eventsFlusher.shutdown();
+			}
 			eventsManager.finishProcessing();
 			log.info(String.format("Hermes MATSim event processing took %d ms", System.currentTimeMillis() - time));
 
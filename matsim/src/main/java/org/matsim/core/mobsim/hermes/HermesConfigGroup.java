@@ -78,6 +78,31 @@ public final class HermesConfigGroup extends ReflectiveConfigGroup {
     @Positive
     private int stuckTime = 10;
 
+    private static final String NUMBER_OF_REALMS = "numberOfRealms";
+    private static final String NUMBER_OF_REALMS_DESC = "Number of realms the network is split into. Every realm is simulated by its own thread."
+            + " Agents entering a link of another realm are handed over at the end of the tick, so the links following a realm border"
+            + " move one tick later. Not supported with public transport. Default is 1, i.e. single-threaded.";
+    @Positive
+    private int numberOfRealms = 1;
+
+    private static final String EVENTS_FLUSH_PERIOD = "eventsFlushPeriod";
+    private static final String EVENTS_FLUSH_PERIOD_DESC = "time in seconds. The sorted events are passed to the events manager while simulating, every this many seconds of simulated time.";
+    @Positive
+    private int eventsFlushPeriod = 3600;
+
+    private static final String FLUSH_EVENTS_IN_BACKGROUND = "flushEventsInBackground";
+    private static final String FLUSH_EVENTS_IN_BACKGROUND_DESC = "if true, the events of a time window are passed to the events manager by a separate thread, so that events handling"
+            + " (scoring, travel times, ...) overlaps with the simulation of the next time windows. The simulation waits if events handling falls behind by more than "
+            + EventsFlusher.MAX_PENDING_WINDOWS + " windows. If false, simulation and events handling alternate.";
+    private boolean flushEventsInBackground = false;
+
+    private static final String INCREMENTAL_PLAN_IMPORT = "incrementalPlanImport";
+    private static final String INCREMENTAL_PLAN_IMPORT_DESC = "if true, the plans of persons are only converted to the Hermes format again if their selected plan changed since the"
+            + " previous iteration, so that the import time depends on the replanning rate rather than on the population size. Note that the events of"
+            + " unchanged plans are then the same objects in every iteration, events handlers must not keep them beyond the iteration."
+            + " To detect changes, a copy of everything that is read from the selected plans is kept in memory.";
+    private boolean incrementalPlanImport = false;
+
     public Set<String> getMainModes() {
         return mainModes;
     }
@@ -124,6 +149,46 @@ public final class HermesConfigGroup extends ReflectiveConfigGroup {
         this.stuckTime = stuckTime;
     }
 
+    @StringGetter(NUMBER_OF_REALMS)
+    public int getNumberOfRealms() {
+        return numberOfRealms;
+    }
+
+    @StringSetter(NUMBER_OF_REALMS)
+    public void setNumberOfRealms(int numberOfRealms) {
+        this.numberOfRealms = numberOfRealms;
+    }
+
+    @StringGetter(EVENTS_FLUSH_PERIOD)
+    public int getEventsFlushPeriod() {
+        return eventsFlushPeriod;
+    }
+
+    @StringSetter(EVENTS_FLUSH_PERIOD)
+    public void setEventsFlushPeriod(int eventsFlushPeriod) {
+        this.eventsFlushPeriod = eventsFlushPeriod;
+    }
+
+    @StringGetter(FLUSH_EVENTS_IN_BACKGROUND)
+    public boolean isFlushingEventsInBackground() {
+        return flushEventsInBackground;
+    }
+
+    @StringSetter(FLUSH_EVENTS_IN_BACKGROUND)
+    public void setFlushingEventsInBackground(boolean flushEventsInBackground) {
+        this.flushEventsInBackground = flushEventsInBackground;
+    }
+
+    @StringGetter(INCREMENTAL_PLAN_IMPORT)
+    public boolean isIncrementalPlanImport() {
+        return incrementalPlanImport;
+    }
+
+    @StringSetter(INCREMENTAL_PLAN_IMPORT)
+    public void setIncrementalPlanImport(boolean incrementalPlanImport) {
+        this.incrementalPlanImport = incrementalPlanImport;
+    }
+
     @StringSetter(FLOW_CAPACITY_FACTOR)
     public void setFlowCapacityFactor(double flowCapacityFactor) {
         this.flowCapacityFactor = flowCapacityFactor;
@@ -160,6 +225,10 @@ public final class HermesConfigGroup extends ReflectiveConfigGroup {
         comments.put(END_TIME, "Simulation End Time");
         comments.put(STUCKTIMEPARAM, STUCKTIMEPARAMDESC);
         comments.put(DETPT, DETPTDESC);
+        comments.put(NUMBER_OF_REALMS, NUMBER_OF_REALMS_DESC);
+        comments.put(EVENTS_FLUSH_PERIOD, EVENTS_FLUSH_PERIOD_DESC);
+        comments.put(FLUSH_EVENTS_IN_BACKGROUND, FLUSH_EVENTS_IN_BACKGROUND_DESC);
+        comments.put(INCREMENTAL_PLAN_IMPORT, INCREMENTAL_PLAN_IMPORT_DESC);
         return comments;
     }
 
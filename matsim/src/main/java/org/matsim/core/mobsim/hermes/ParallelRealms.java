@@ -0,0 +1,245 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.core.mobsim.hermes;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventArray;
+import org.matsim.core.utils.misc.Time;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs several {@link Realm}s in parallel, one thread per realm. Every realm owns a spatially compact part of the links, with its
+ * own wakeup queues.
+ *
+ * Every tick has two halves, separated by a barrier:
+ * 1) every realm processes its delayed agents and links. An agent that wants to enter a link of another realm is not pushed,
+ * but handed over to the other realm. If it is at the head of a link, it stays there for the moment.
+ * 2) every realm tries to push the agents handed over to it into its links, in the order of the realm ids.
+ * The realms that handed over agents from their links pop them (or retry) at the beginning of the next tick.
+ *
+ * The hand over lists are only written by one realm and only read by one realm, in different halves of the tick, so
+ * they do not need any locking. Since the order of everything only depends on the partitioning, the output is deterministic.
+ *
+ * Public transport is not supported, as waiting passengers and transit vehicles would need to meet in one realm.
+ */
+final class ParallelRealms {
+
+	private static final Logger log = LogManager.getLogger(ParallelRealms.class);
+
+	static final class HandOver {
+		final Agent agent;
+		final long planentry;
+		// link the agent is at the head of, or -1 if the agent comes from an activity
+		final int fromLinkId;
+		boolean accepted;
+
+		HandOver(Agent agent, long planentry, int fromLinkId) {
+			this.agent = agent;
+			this.planentry = planentry;
+			this.fromLinkId = fromLinkId;
+		}
+	}
+
+	private final Realm[] realms;
+	private final HLink[] links;
+	// realm_of_link[link id] -> realm id
+	private final int[] realmOfLink;
+	// hand_overs[from realm][to realm] -> agents handed over in the current tick
+	private final ArrayList<HandOver>[][] handOvers;
+	private final EventsFlusher eventsFlusher;
+	private final CyclicBarrier handOverBarrier;
+	private final CyclicBarrier tickBarrier;
+	// Current timestamp, only changed in the tick barrier action.
+	private int secs = 0;
+
+	@SuppressWarnings("unchecked")
+	ParallelRealms(ScenarioImporter scenario, EventsManager eventsManager, EventsFlusher eventsFlusher, Network network, int numberOfRealms) {
+		this.links = scenario.hermesLinks;
+		this.eventsFlusher = eventsFlusher;
+		this.realmOfLink = partitionLinks(network, this.links.length, numberOfRealms);
+		this.realms = new Realm[numberOfRealms];
+		this.handOvers = new ArrayList[numberOfRealms][numberOfRealms];
+		for (int i = 0; i < numberOfRealms; i++) {
+			this.realms[i] = new Realm(scenario, eventsManager, this, i, this.realmOfLink);
+			for (int j = 0; j < numberOfRealms; j++) {
+				this.handOvers[i][j] = new ArrayList<>();
+			}
+		}
+		this.handOverBarrier = new CyclicBarrier(numberOfRealms);
+		this.tickBarrier = new CyclicBarrier(numberOfRealms, this::finishTick);
+	}
+
+	/**
+	 * Cuts the links into stripes of equal size along the longer side of the bounding box of the network.
+	 */
+	static int[] partitionLinks(Network network, int numberOfLinkIds, int numberOfRealms) {
+		int[] realmOfLink = new int[numberOfLinkIds];
+		Link[] sorted = network.getLinks().values().toArray(new Link[0]);
+		double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (Link link : sorted) {
+			Coord coord = link.getFromNode().getCoord();
+			minX = Math.min(minX, coord.getX());
+			maxX = Math.max(maxX, coord.getX());
+			minY = Math.min(minY, coord.getY());
+			maxY = Math.max(maxY, coord.getY());
+		}
+		Comparator<Link> byX = Comparator.comparingDouble(link -> link.getFromNode().getCoord().getX());
+		Comparator<Link> byY = Comparator.comparingDouble(link -> link.getFromNode().getCoord().getY());
+		Comparator<Link> comparator = (maxX - minX >= maxY - minY) ? byX.thenComparing(byY) : byY.thenComparing(byX);
+		Arrays.sort(sorted, comparator.thenComparingInt(link -> link.getId().index()));
+		for (int i = 0; i < sorted.length; i++) {
+			realmOfLink[sorted[i].getId().index()] = (int) ((long) i * numberOfRealms / sorted.length);
+		}
+		return realmOfLink;
+	}
+
+	void handOver(int fromRealm, int toRealm, Agent agent, long planentry, int fromLinkId) {
+		handOvers[fromRealm][toRealm].add(new HandOver(agent, planentry, fromLinkId));
+	}
+
+	Realm realmOfLink(HLink link) {
+		return realms[realmOfLink[link.id()]];
+	}
+
+	/**
+	 * @return the realm which wakes up the agent at the beginning of the simulation
+	 */
+	Realm initialRealmOf(Agent agent) {
+		if (agent.plan().size() > 1) {
+			long next = agent.plan().get(1);
+			if (Agent.getPlanHeader(next) == Agent.LinkType) {
+				return realms[realmOfLink[Agent.getLinkPlanEntry(next)]];
+			}
+		}
+		return realms[agent.id() % realms.length];
+	}
+
+	void run() throws Exception {
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread[] threads = new Thread[realms.length];
+		for (int i = 0; i < realms.length; i++) {
+			final int realmId = i;
+			threads[i] = new Thread(() -> {
+				try {
+					runRealm(realmId);
+				} catch (BrokenBarrierException | InterruptedException e) {
+					// another realm failed
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+					// breaks the barriers, so that the other realms stop as well
+					for (Thread thread : threads) {
+						thread.interrupt();
+					}
+				}
+			}, "HermesRealm_" + i);
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		if (failure.get() != null) {
+			throw new RuntimeException("Hermes realm failed", failure.get());
+		}
+	}
+
+	private void runRealm(int realmId) throws InterruptedException, BrokenBarrierException {
+		Realm realm = realms[realmId];
+		for (int tick = 0; tick != HermesConfigGroup.SIM_STEPS; tick++) {
+			if (realmId == 0 && tick % 3600 == 0) {
+				log.info("Hermes running at " + Time.writeTime(tick));
+			}
+			realm.setTime(tick);
+
+			// agents this realm handed over from its links in the previous tick
+			for (ArrayList<HandOver> sent : handOvers[realmId]) {
+				for (HandOver handOver : sent) {
+					if (handOver.fromLinkId >= 0) {
+						realm.finishHandOver(links[handOver.fromLinkId], handOver.agent, handOver.accepted);
+					}
+				}
+				sent.clear();
+			}
+
+			realm.processDelayedAgents();
+			realm.processDelayedLinks();
+
+			handOverBarrier.await();
+
+			for (int fromRealm = 0; fromRealm < realms.length; fromRealm++) {
+				for (HandOver handOver : handOvers[fromRealm][realmId]) {
+					handOver.accepted = realm.acceptHandOver(handOver.agent, handOver.planentry, handOver.fromLinkId);
+				}
+			}
+
+			tickBarrier.await();
+		}
+	}
+
+	private void finishTick() {
+		if (eventsFlusher.isFlushTime(secs)) {
+			eventsFlusher.flush(getSortedEvents());
+		}
+		secs++;
+	}
+
+	/**
+	 * Merges the events of all realms by time. Events with the same time are ordered by realm id, so the order does not
+	 * depend on the scheduling of the threads.
+	 *
+	 * @return the events sorted so far, which are then no longer kept by the realms
+	 */
+	EventArray getSortedEvents() {
+		EventArray[] realmEvents = new EventArray[realms.length];
+		int[] positions = new int[realms.length];
+		for (int i = 0; i < realms.length; i++) {
+			realmEvents[i] = realms[i].takeSortedEvents();
+		}
+		EventArray merged = new EventArray();
+		while (true) {
+			double time = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < realms.length; i++) {
+				if (positions[i] < realmEvents[i].size()) {
+					time = Math.min(time, realmEvents[i].get(positions[i]).getTime());
+				}
+			}
+			if (time == Double.POSITIVE_INFINITY) {
+				return merged;
+			}
+			for (int i = 0; i < realms.length; i++) {
+				while (positions[i] < realmEvents[i].size() && realmEvents[i].get(positions[i]).getTime() <= time) {
+					merged.add(realmEvents[i].get(positions[i]++));
+				}
+			}
+		}
+	}
+}
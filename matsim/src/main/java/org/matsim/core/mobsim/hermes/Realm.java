@@ -59,12 +59,38 @@ class Realm {
     private EventArray sortedEvents;
     // MATSim event manager.
     private final EventsManager eventsManager;
+    // Passes the sorted events to the event manager while simulating. Not used if several realms run in parallel.
+    private final EventsFlusher eventsFlusher;
     // Current timestamp
     private int secs;
+    // Only used if the network is split into several realms (see ParallelRealms), otherwise null.
+    // realm_of_link[link id] -> realm id
+    private final int[] realmOfLink;
+    private final int realmId;
+    private final ParallelRealms parallelRealms;
+    // Set if the agent that is currently processed was handed over to another realm.
+    private boolean handedOver = false;
     Logger log = LogManager.getLogger(Realm.class);
 
     public Realm(ScenarioImporter scenario, EventsManager eventsManager) {
+        this(scenario, eventsManager, new EventsFlusher(eventsManager, 3600, false));
+    }
+
+    public Realm(ScenarioImporter scenario, EventsManager eventsManager, EventsFlusher eventsFlusher) {
+        this(scenario, eventsManager, eventsFlusher, null, 0, null);
+    }
+
+    Realm(ScenarioImporter scenario, EventsManager eventsManager, ParallelRealms parallelRealms, int realmId, int[] realmOfLink) {
+        this(scenario, eventsManager, null, parallelRealms, realmId, realmOfLink);
+    }
+
+    private Realm(ScenarioImporter scenario, EventsManager eventsManager, EventsFlusher eventsFlusher,
+                  ParallelRealms parallelRealms, int realmId, int[] realmOfLink) {
         this.si = scenario;
+        this.eventsFlusher = eventsFlusher;
+        this.parallelRealms = parallelRealms;
+        this.realmId = realmId;
+        this.realmOfLink = realmOfLink;
         this.links = scenario.hermesLinks;
         // The plus one is necessary because we peek into the next slot on each tick.
         this.delayedLinksByWakeupTime = new ArrayList<>();
@@ -119,6 +145,12 @@ class Realm {
 
     protected boolean processAgentLink(Agent agent, long planentry, int currLinkId) {
         int linkid = Agent.getLinkPlanEntry(planentry);
+        if (realmOfLink != null && realmOfLink[linkid] != realmId) {
+            // the next link belongs to another realm, which decides in the second half of the tick if the agent can enter.
+            parallelRealms.handOver(realmId, realmOfLink[linkid], agent, planentry, currLinkId);
+            handedOver = true;
+            return false;
+        }
         double velocity = Agent.getVelocityPlanEntry(planentry);
         HLink next = links[linkid];
         int prev_finishtime = agent.linkFinishTime;
@@ -281,6 +313,10 @@ class Realm {
         }
         // -1 is used in the processAgent because the agent is not in a link currently.
         if (!finished && !processAgent(agent, -1)) {
+            if (handedOver) {
+                handedOver = false;
+                return 0;
+            }
             addDelayedAgent(agent, secs + 1);
             return 0;
         }
@@ -307,9 +343,13 @@ class Realm {
                 break;
             }
         }
+        // If the head agent was handed over to another realm, the link is re-scheduled once the other realm has decided.
+        if (handedOver) {
+            handedOver = false;
+        }
         // If there is at least one agent in the link that could not be processed
         // In addition we check if this agent was not added in this tick.
-        if (agent != null) {
+        else if (agent != null) {
             addDelayedLink(link, Math.max(agent.linkFinishTime, secs + 1));
         }
         return routed;
@@ -317,21 +357,12 @@ class Realm {
 
     public void run() throws Exception {
         int routed = 0;
-        Agent agent;
-        HLink link;
 
         while (secs != HermesConfigGroup.SIM_STEPS) {
             if (secs % 3600 == 0) {
                 log.info("Hermes running at " + Time.writeTime(secs));
             }
-            while ((agent = delayedAgentsByWakeupTime.get(secs).poll()) != null) {
-                if (HermesConfigGroup.DEBUG_REALMS) {
-                    log(secs, String.format("Processing agent %d", agent.id));
-                }
-                routed += processAgentActivities(agent);
-
-            }
-            delayedAgentsByWakeupTime.set(secs, null);
+            routed += processDelayedAgents();
             if (si.isDeterministicPt()) {
                 for (Event e : si.getDeterministicPtEvents().get(secs)) {
                     sortedEvents.add(e);
@@ -339,19 +370,12 @@ class Realm {
                 si.getDeterministicPtEvents().get(secs).clear();
             }
 
-            while ((link = delayedLinksByWakeupTime.get(secs).poll()) != null) {
-                if (HermesConfigGroup.DEBUG_REALMS) {
-                    log(secs, String.format("Processing link %d", link.id()));
-                }
-                routed += processLinks(link);
-            }
-            delayedLinksByWakeupTime.set(secs, null);
+            routed += processDelayedLinks();
             if (HermesConfigGroup.DEBUG_REALMS && routed > 0) {
                 log(secs, String.format("Processed %d agents", routed));
             }
-            if (HermesConfigGroup.CONCURRENT_EVENT_PROCESSING && secs % 3600 == 0 && sortedEvents.size() > 0) {
-                eventsManager.processEvents(sortedEvents);
-                sortedEvents = new EventArray();
+            if (eventsFlusher.isFlushTime(secs)) {
+                eventsFlusher.flush(takeSortedEvents());
             }
 
             routed = 0;
@@ -359,6 +383,70 @@ class Realm {
         }
     }
 
+    protected int processDelayedAgents() {
+        int routed = 0;
+        Agent agent;
+        while ((agent = delayedAgentsByWakeupTime.get(secs).poll()) != null) {
+            if (HermesConfigGroup.DEBUG_REALMS) {
+                log(secs, String.format("Processing agent %d", agent.id));
+            }
+            routed += processAgentActivities(agent);
+
+        }
+        delayedAgentsByWakeupTime.set(secs, null);
+        return routed;
+    }
+
+    protected int processDelayedLinks() {
+        int routed = 0;
+        HLink link;
+        while ((link = delayedLinksByWakeupTime.get(secs).poll()) != null) {
+            if (HermesConfigGroup.DEBUG_REALMS) {
+                log(secs, String.format("Processing link %d", link.id()));
+            }
+            routed += processLinks(link);
+        }
+        delayedLinksByWakeupTime.set(secs, null);
+        return routed;
+    }
+
+    /**
+     * Second half of a tick if several realms run in parallel: an agent of another realm wants to enter a link of this realm.
+     *
+     * @return true if the other realm is done with the agent
+     */
+    boolean acceptHandOver(Agent agent, long planentry, int fromLinkId) {
+        if (processAgentLink(agent, planentry, fromLinkId)) {
+            return true;
+        }
+        if (fromLinkId < 0) {
+            // The agent comes from an activity and is not blocking any link, so this realm retries in the next tick.
+            addDelayedAgent(agent, secs + 1);
+            return true;
+        }
+        // The agent stays at the head of its link and the other realm will retry.
+        return false;
+    }
+
+    /**
+     * Beginning of the tick after an agent at the head of a link of this realm was handed over to another realm.
+     */
+    void finishHandOver(HLink link, Agent agent, boolean accepted) {
+        if (accepted) {
+            link.pop(agent.getStorageCapacityPCUE());
+            Agent next = link.queue().peek();
+            if (next != null) {
+                addDelayedLink(link, Math.max(next.linkFinishTime, secs));
+            }
+        } else {
+            addDelayedLink(link, secs);
+        }
+    }
+
+    void setTime(int secs) {
+        this.secs = secs;
+    }
+
     public void setEventTime(Agent agent, int agentId, int time, boolean lastEvent) {
         if (agentId != 0) {
             EventArray agentEvents = agent.events();
@@ -409,4 +497,13 @@ class Realm {
     EventArray getSortedEvents() {
         return this.sortedEvents;
     }
+
+    /**
+     * @return the events sorted so far, which are then no longer kept by this realm
+     */
+    EventArray takeSortedEvents() {
+        EventArray events = this.sortedEvents;
+        this.sortedEvents = new EventArray();
+        return events;
+    }
 }
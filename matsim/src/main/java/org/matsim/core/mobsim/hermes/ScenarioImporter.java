@@ -47,6 +47,7 @@ import org.matsim.vehicles.VehicleType;
 import org.matsim.vehicles.VehicleUtils;
 
 import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
 
 class ScenarioImporter {
 
@@ -78,6 +79,9 @@ class ScenarioImporter {
 	protected HLink[] hermesLinks;
 
 	protected Realm realm;
+	// Only used if several realms run in parallel, realm is null then.
+	protected ParallelRealms parallelRealms;
+	protected EventsFlusher eventsFlusher;
 	private final boolean deterministicPt;
 	// Agents waiting in pt stations. Should be used as follows:
 	// agent_stops.get(curr station id).get(line id) -> queue of agents
@@ -91,10 +95,15 @@ class ScenarioImporter {
 	protected final EventsManager eventsManager;
 	private final int numberOfThreads;
 	private final List<List<Event>> deterministicPtEvents;
+	// If true, the plans of persons are only re-encoded if their selected plan changed since the last iteration.
+	private final boolean incrementalPlanImport;
+	// Inputs of the encoding of the selected plan at the time it was encoded, by hermes id.
+	private List<?>[] encodedPlanInputs;
 
 	private ScenarioImporter(Scenario scenario, EventsManager eventsManager) {
 		numberOfThreads = Math.min(scenario.getConfig().global().getNumberOfThreads(), Runtime.getRuntime().availableProcessors());
 		this.deterministicPt = scenario.getConfig().hermes().isDeterministicPt();
+		this.incrementalPlanImport = scenario.getConfig().hermes().isIncrementalPlanImport();
 		if (deterministicPt) {
 			deterministicPtEvents = new ArrayList<>(scenario.getConfig().hermes().getEndTime());
 			for (int i = 0; i < scenario.getConfig().hermes().getEndTime(); i++) {
@@ -172,10 +181,14 @@ class ScenarioImporter {
 						link.reset();
 					}
 				}
-				// reset agent plans and events
+				// reset agent plans and events. The plans of persons are kept, they are only re-encoded if they changed.
 				for (Agent hermes_agent : hermesAgents) {
 					if (hermes_agent != null) {
-						hermes_agent.reset();
+						if (incrementalPlanImport && !hermes_agent.isTransitVehicle()) {
+							hermes_agent.resetRuntimeState();
+						} else {
+							hermes_agent.reset();
+						}
 					}
 				}
 				// reset agent_stops
@@ -272,7 +285,20 @@ class ScenarioImporter {
 	}
 
 	private void generateRealms() {
-		realm = new Realm(this, eventsManager);
+		int numberOfRealms = scenario.getConfig().hermes().getNumberOfRealms();
+		if (numberOfRealms > 1 && !scenario.getTransitSchedule().getTransitLines().isEmpty()) {
+			log.warn("Hermes does not support parallel realms with public transport, running one realm instead of " + numberOfRealms);
+			numberOfRealms = 1;
+		}
+		HermesConfigGroup hermesConfig = scenario.getConfig().hermes();
+		eventsFlusher = new EventsFlusher(eventsManager, hermesConfig.getEventsFlushPeriod(), hermesConfig.isFlushingEventsInBackground());
+		if (numberOfRealms > 1) {
+			realm = null;
+			parallelRealms = new ParallelRealms(this, eventsManager, eventsFlusher, scenario.getNetwork(), numberOfRealms);
+		} else {
+			realm = new Realm(this, eventsManager, eventsFlusher);
+			parallelRealms = null;
+		}
 
 		// Put agents in their initial location (link or activity center)
 		for (Agent agent : hermesAgents) {
@@ -294,7 +320,8 @@ class ScenarioImporter {
 				case Agent.SleepForType:
 				case Agent.SleepUntilType:
 					int sleep = Agent.getSleepPlanEntry(planentry);
-					realm.delayedAgents().get(Math.min(sleep, scenario.getConfig().hermes().getEndTime() + 1)).add(agent);
+					Realm agentRealm = parallelRealms == null ? realm : parallelRealms.initialRealmOf(agent);
+					agentRealm.delayedAgents().get(Math.min(sleep, scenario.getConfig().hermes().getEndTime() + 1)).add(agent);
 					break;
 				default:
 					LogManager.getLogger(getClass()).error(String.format("ERROR -> unknown plan element type %d", type));
@@ -305,7 +332,8 @@ class ScenarioImporter {
 			if (link != null) {
 				int nextwakeup = link.nexttime();
 				if (nextwakeup > 0) {
-					realm.delayedLinks().get(nextwakeup).add(link);
+					Realm linkRealm = parallelRealms == null ? realm : parallelRealms.realmOfLink(link);
+					linkRealm.delayedLinks().get(nextwakeup).add(link);
 				}
 			}
 		}
@@ -850,14 +878,76 @@ class ScenarioImporter {
 
 	private void generatePersonPlans() {
 		Population population = scenario.getPopulation();
+		LongAdder encodedPersons = new LongAdder();
 		population.getPersons().values().parallelStream().forEach((person) -> {
 			int hermes_id = hermes_id(person.getId().index(), false);
-			PlanArray plan = hermesAgents[hermes_id].plan();
-			EventArray events = hermesAgents[hermes_id].events();
-			for (PlanElement element : person.getSelectedPlan().getPlanElements()) {
-				processPlanElement(person, plan, events, element, hermesAgents[hermes_id]);
+			Agent agent = hermesAgents[hermes_id];
+			Plan selectedPlan = person.getSelectedPlan();
+			if (incrementalPlanImport) {
+				List<Object> inputs = encodingInputs(person, selectedPlan);
+				if (inputs.equals(encodedPlanInputs[hermes_id])) {
+					// the events of the previous iteration are re-used, their times are set again while simulating.
+					return;
+				}
+				agent.reset();
+				encodedPlanInputs[hermes_id] = inputs;
+			}
+			PlanArray plan = agent.plan();
+			EventArray events = agent.events();
+			for (PlanElement element : selectedPlan.getPlanElements()) {
+				processPlanElement(person, plan, events, element, agent);
 			}
+			encodedPersons.increment();
 		});
+		log.info(String.format("Hermes encoded the plans of %d of %d persons", encodedPersons.sum(), population.getPersons().size()));
+	}
+
+	/**
+	 * Plans have no modification counter, therefore changes are detected by comparing everything that is read when encoding
+	 * the plan (see {@link #processPlanElement}). This is much cheaper than encoding the plan, as no events are created and
+	 * no vehicles are looked up. All values are immutable or copied, so that changes of the plan after this call do not
+	 * change the result.
+	 */
+	List<Object> encodingInputs(Person person, Plan plan) {
+		List<Object> inputs = new ArrayList<>();
+		for (PlanElement element : plan.getPlanElements()) {
+			if (element instanceof Activity act) {
+				inputs.add(act.getType());
+				inputs.add(act.getLinkId());
+				inputs.add(act.getFacilityId());
+				inputs.add(act.getCoord());
+				inputs.add(act.getStartTime());
+				inputs.add(act.getEndTime());
+				inputs.add(act.getMaximumDuration());
+			} else if (element instanceof Leg leg) {
+				inputs.add(leg.getMode());
+				inputs.add(TripStructureUtils.getRoutingMode(leg));
+				inputs.add(leg.getTravelTime());
+				Route route = leg.getRoute();
+				if (route == null) {
+					inputs.add(null);
+					continue;
+				}
+				inputs.add(route.getClass());
+				inputs.add(route.getStartLinkId());
+				inputs.add(route.getEndLinkId());
+				inputs.add(route.getTravelTime());
+				inputs.add(route.getDistance());
+				if (route instanceof NetworkRoute netroute) {
+					inputs.add(List.copyOf(netroute.getLinkIds()));
+					inputs.add(netroute.getVehicleId());
+					if (scenario.getConfig().hermes().getMainModes().contains(leg.getMode())) {
+						inputs.add(VehicleUtils.getVehicleId(person, leg.getMode()));
+					}
+				} else if (route instanceof TransitPassengerRoute troute) {
+					inputs.add(troute.getAccessStopId());
+					inputs.add(troute.getEgressStopId());
+					inputs.add(troute.getLineId());
+					inputs.add(troute.getRouteId());
+				}
+			}
+		}
+		return inputs;
 	}
 
 	private void generateAgents() {
@@ -866,6 +956,9 @@ class ScenarioImporter {
 		agentPersons = Id.getNumberOfIds(Person.class);
 		int nagents = agentPersons + Id.getNumberOfIds(Vehicle.class);
 		hermesAgents = new Agent[nagents];
+		if (incrementalPlanImport) {
+			encodedPlanInputs = new List<?>[agentPersons];
+		}
 
 		// Generate persons
 		for (Person person : population.getPersons().values()) {
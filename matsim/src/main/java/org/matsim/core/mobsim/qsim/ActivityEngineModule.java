@@ -28,7 +28,17 @@ public class ActivityEngineModule extends AbstractQSimModule {
 
 	@Override
 	protected void configureQSim() {
-		bind( ActivityEngineDefaultImpl.class ).in( Singleton.class );
-		addQSimComponentBinding( COMPONENT_NAME ).to( ActivityEngineDefaultImpl.class );
+		switch ( this.getConfig().qsim().getActivityEndsQueue() ) {
+			case priorityQueue:
+				bind( ActivityEngineDefaultImpl.class ).in( Singleton.class );
+				addQSimComponentBinding( COMPONENT_NAME ).to( ActivityEngineDefaultImpl.class );
+				break;
+			case calendarQueue:
+				bind( ActivityEngineWithCalendarQueue.class ).in( Singleton.class );
+				addQSimComponentBinding( COMPONENT_NAME ).to( ActivityEngineWithCalendarQueue.class );
+				break;
+			default:
+				throw new RuntimeException("not implemented: " + this.getConfig().qsim().getActivityEndsQueue());
+		}
 	}
 }
@@ -0,0 +1,353 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import javax.inject.Inject;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.IdMap;
+import org.matsim.api.core.v01.events.PersonStuckEvent;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.mobsim.framework.MobsimAgent;
+import org.matsim.core.mobsim.framework.MobsimAgent.State;
+
+/**
+ * An {@link ActivityEngine} with the same behavior as {@link ActivityEngineDefaultImpl}, but which keeps the activity
+ * ends in a calendar queue instead of a priority queue:  There is one bucket per second of simulated time, and each
+ * bucket is a linked list of entries.  Adding an agent is thus O(1), and ending the activities of a time step only
+ * costs sorting the (usually few) entries of its bucket.  The entries are pooled, and an index from the agents to their
+ * entries makes rescheduling and removing an agent, as needed for within-day replanning, O(1) as well.
+ * <p></p>
+ * The buckets form a ring covering {@link #BUCKET_COUNT} seconds after the current time step.  Activities ending later
+ * are kept in a priority queue until they come into range.  Activity ends in the past (e.g. after rescheduling) are
+ * put into the bucket of the current time step.
+ * <p></p>
+ * All accesses to the queue are synchronized, as agents may arrive at activities from the threads of the parallel
+ * qsim, but the agents are not locked while their activities are ended.
+ */
+final class ActivityEngineWithCalendarQueue implements ActivityEngine {
+
+	static final int BUCKET_COUNT = 1 << 17; // ~36 hours
+	private static final int BUCKET_MASK = BUCKET_COUNT - 1;
+
+	/**
+	 * Same order as in {@link ActivityEngineDefaultImpl}: by activity end time, and for the same time by descending id.
+	 */
+	private static final Comparator<Entry> ORDER = (e0, e1) -> {
+		int cmp = Double.compare(e0.activityEndTime, e1.activityEndTime);
+		if (cmp == 0) {
+			return e1.agent.getId().compareTo(e0.agent.getId());
+		}
+		return cmp;
+	};
+
+	private enum EntryState {FREE, IN_BUCKET, IN_FAR_QUEUE, IN_BATCH, CANCELLED}
+
+	private static final class Entry {
+		MobsimAgent agent;
+		double activityEndTime;
+		long second;
+		Entry prev;
+		Entry next;
+		EntryState state = EntryState.FREE;
+	}
+
+	private final EventsManager eventsManager;
+
+	private InternalInterface internalInterface;
+
+	private final Entry[] buckets = new Entry[BUCKET_COUNT];
+	private final PriorityQueue<Entry> farQueue = new PriorityQueue<>(ORDER);
+	private final IdMap<Person, Entry> entriesByAgent = new IdMap<>(Person.class);
+	private final ArrayDeque<Entry> pool = new ArrayDeque<>();
+
+	/** the second of the bucket which is handled next */
+	private long cursor = 0;
+
+	/** the entries of the bucket currently being handled, only accessed by the thread calling doSimStep */
+	private final List<Entry> batch = new ArrayList<>();
+	private final List<Entry> deferred = new ArrayList<>();
+
+	// See ActivityEngineDefaultImpl.handleActivity for the reason for this.
+	private boolean beforeFirstSimStep = true;
+
+	@Inject
+	ActivityEngineWithCalendarQueue( EventsManager eventsManager ) {
+		this.eventsManager = eventsManager;
+	}
+
+	@Override
+	public void onPrepareSim() {
+		// Nothing to do here
+	}
+
+	@Override
+	public void doSimStep(double time) {
+		beforeFirstSimStep = false;
+		long second = (long) Math.floor(time);
+		while (true) {
+			synchronized (this) {
+				if (!fillBatch(second)) {
+					for (Entry entry : this.deferred) {
+						if (entry.state == EntryState.CANCELLED) {
+							recycle(entry);
+						} else {
+							insert(entry);
+						}
+					}
+					this.deferred.clear();
+					return;
+				}
+			}
+			for (Entry entry : this.batch) {
+				MobsimAgent agent;
+				synchronized (this) {
+					if (entry.state == EntryState.CANCELLED) {
+						recycle(entry);
+						continue;
+					}
+					if (entry.activityEndTime > time) {
+						// a fractional end time (e.g. x.5) ending after this time step, but within the same second
+						this.deferred.add(entry);
+						continue;
+					}
+					agent = entry.agent;
+					this.entriesByAgent.remove(agent.getId());
+					recycle(entry);
+				}
+				unregisterAgentAtActivityLocation(agent);
+				agent.endActivityAndComputeNextState(time);
+				internalInterface.arrangeNextAgentState(agent);
+			}
+			this.batch.clear();
+		}
+	}
+
+	/**
+	 * Moves the entries of the first non-empty bucket up to the given second into the batch.
+	 *
+	 * @return false if all these buckets are empty
+	 */
+	private boolean fillBatch(long second) {
+		while (true) {
+			int slot = (int) (this.cursor & BUCKET_MASK);
+			Entry entry = this.buckets[slot];
+			if (entry != null) {
+				this.buckets[slot] = null;
+				while (entry != null) {
+					Entry next = entry.next;
+					entry.prev = null;
+					entry.next = null;
+					entry.state = EntryState.IN_BATCH;
+					this.batch.add(entry);
+					entry = next;
+				}
+				this.batch.sort(ORDER);
+				return true;
+			}
+			if (this.cursor >= second) {
+				return false;
+			}
+			this.cursor++;
+			while (!this.farQueue.isEmpty() && this.farQueue.peek().second < this.cursor + BUCKET_COUNT) {
+				insert(this.farQueue.poll());
+			}
+		}
+	}
+
+	@Override
+	public void afterSim() {
+		double now = this.internalInterface.getMobsim().getSimTimer().getTimeOfDay();
+		List<Entry> remaining = new ArrayList<>();
+		synchronized (this) {
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				int slot = (int) ((this.cursor + i) & BUCKET_MASK);
+				if (this.buckets[slot] == null) {
+					continue;
+				}
+				for (Entry entry = this.buckets[slot]; entry != null; entry = entry.next) {
+					remaining.add(entry);
+				}
+				this.buckets[slot] = null;
+			}
+			remaining.addAll(this.farQueue);
+			this.farQueue.clear();
+			this.entriesByAgent.clear();
+		}
+		// the stuck events are sent by activity end time, the same order as in ActivityEngineDefaultImpl
+		remaining.sort(ORDER);
+		for (Entry entry : remaining) {
+			if (entry.activityEndTime != Double.POSITIVE_INFINITY) {
+				// since we are at an activity, it is not plausible to assume that the agents know mode or destination
+				// link id.  Thus generating the event with ``null'' in the corresponding entries.  kai, mar'12
+				eventsManager.processEvent(new PersonStuckEvent(now, entry.agent.getId(), null, null));
+			}
+		}
+		this.pool.clear();
+	}
+
+	@Override
+	public void setInternalInterface(InternalInterface internalInterface) {
+		this.internalInterface = internalInterface;
+	}
+
+	/**
+	 * See {@link ActivityEngineDefaultImpl#handleActivity(MobsimAgent)}.
+	 */
+	@Override
+	public boolean handleActivity(MobsimAgent agent) {
+		if (agent.getActivityEndTime() == Double.POSITIVE_INFINITY) {
+			// This is the last planned activity.
+			// So the agent goes to sleep.
+			internalInterface.getMobsim().getAgentCounter().decLiving();
+		} else if (agent.getActivityEndTime() <= internalInterface.getMobsim().getSimTimer().getTimeOfDay() && !beforeFirstSimStep) {
+			// This activity is already over (planned for 0 duration)
+			// So we proceed immediately.
+			agent.endActivityAndComputeNextState(internalInterface.getMobsim().getSimTimer().getTimeOfDay());
+			internalInterface.arrangeNextAgentState(agent) ;
+		} else {
+			// The agent commences an activity on this link.
+			add(agent, agent.getActivityEndTime());
+			internalInterface.registerAdditionalAgentOnLink(agent);
+		}
+		return true;
+	}
+
+	/**
+	 * See {@link ActivityEngineDefaultImpl#rescheduleActivityEnd(MobsimAgent)}.
+	 */
+	@Override
+	public void rescheduleActivityEnd(final MobsimAgent agent) {
+		if ( agent.getState()!=State.ACTIVITY ) {
+			return ;
+		}
+
+		double newActivityEndTime = agent.getActivityEndTime();
+		boolean wasQueued = remove(agent);
+
+		if (!wasQueued) {
+			if (newActivityEndTime == Double.POSITIVE_INFINITY) {
+				// agent was de-activated and still should be de-activated - nothing to do here
+			} else {
+				// re-activate the agent
+				add(agent, newActivityEndTime);
+				internalInterface.registerAdditionalAgentOnLink(agent);
+				((org.matsim.core.mobsim.qsim.AgentCounter) internalInterface.getMobsim().getAgentCounter()).incLiving();
+			}
+		} else if (newActivityEndTime == Double.POSITIVE_INFINITY) {
+			// the agent's current activity has become its last one, so it is de-activated
+			unregisterAgentAtActivityLocation(agent);
+			internalInterface.getMobsim().getAgentCounter().decLiving();
+		} else {
+			// the activity is just rescheduled during the day, so the agent stays active
+			add(agent, newActivityEndTime);
+		}
+	}
+
+	private synchronized void add(MobsimAgent agent, double activityEndTime) {
+		Entry entry = this.pool.poll();
+		if (entry == null) {
+			entry = new Entry();
+		}
+		entry.agent = agent;
+		entry.activityEndTime = activityEndTime;
+		this.entriesByAgent.put(agent.getId(), entry);
+		insert(entry);
+	}
+
+	private void insert(Entry entry) {
+		long second = (long) Math.floor(entry.activityEndTime);
+		entry.second = Math.max(second, this.cursor);
+		if (entry.second >= this.cursor + BUCKET_COUNT) {
+			entry.state = EntryState.IN_FAR_QUEUE;
+			this.farQueue.add(entry);
+			return;
+		}
+		int slot = (int) (entry.second & BUCKET_MASK);
+		Entry head = this.buckets[slot];
+		entry.prev = null;
+		entry.next = head;
+		if (head != null) {
+			head.prev = entry;
+		}
+		this.buckets[slot] = entry;
+		entry.state = EntryState.IN_BUCKET;
+	}
+
+	/**
+	 * @return true if the agent was queued
+	 */
+	private synchronized boolean remove(MobsimAgent agent) {
+		Entry entry = this.entriesByAgent.get(agent.getId());
+		if (entry == null || entry.agent != agent) {
+			return false;
+		}
+		this.entriesByAgent.remove(agent.getId());
+		switch (entry.state) {
+			case IN_BUCKET:
+				if (entry.prev == null) {
+					this.buckets[(int) (entry.second & BUCKET_MASK)] = entry.next;
+				} else {
+					entry.prev.next = entry.next;
+				}
+				if (entry.next != null) {
+					entry.next.prev = entry.prev;
+				}
+				recycle(entry);
+				break;
+			case IN_FAR_QUEUE:
+				this.farQueue.remove(entry);
+				recycle(entry);
+				break;
+			case IN_BATCH:
+				// still referenced by the batch being handled, it is recycled from there
+				entry.state = EntryState.CANCELLED;
+				break;
+			default:
+				throw new IllegalStateException("unexpected state of the queue entry: " + entry.state);
+		}
+		return true;
+	}
+
+	private void recycle(Entry entry) {
+		entry.agent = null;
+		entry.prev = null;
+		entry.next = null;
+		entry.state = EntryState.FREE;
+		this.pool.push(entry);
+	}
+
+	private void unregisterAgentAtActivityLocation(final MobsimAgent agent) {
+		Id<Person> agentId = agent.getId();
+		Id<Link> linkId = agent.getCurrentLinkId();
+		if (linkId != null) { // may be bushwacking
+			internalInterface.unregisterAdditionalAgentOnLink(agentId, linkId);
+		}
+	}
+
+}
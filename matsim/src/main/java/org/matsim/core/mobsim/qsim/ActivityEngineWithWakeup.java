@@ -31,6 +31,8 @@ import org.matsim.api.core.v01.events.Event;
 import org.matsim.api.core.v01.population.Activity;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.groups.QSimConfigGroup;
 import org.matsim.api.core.v01.events.HasPersonId;
 import org.matsim.core.mobsim.framework.MobsimAgent;
 import org.matsim.core.mobsim.framework.PlanAgent;
@@ -47,8 +49,12 @@ public final class ActivityEngineWithWakeup implements ActivityEngine {
 	private InternalInterface internalInterface;
 
 	@Inject
-	ActivityEngineWithWakeup(EventsManager eventsManager, PreplanningEngine preplanningEngine) {
-		this.delegate = new ActivityEngineDefaultImpl(eventsManager);
+	ActivityEngineWithWakeup(EventsManager eventsManager, PreplanningEngine preplanningEngine, Config config) {
+		if (config.qsim().getActivityEndsQueue() == QSimConfigGroup.ActivityEndsQueue.calendarQueue) {
+			this.delegate = new ActivityEngineWithCalendarQueue(eventsManager);
+		} else {
+			this.delegate = new ActivityEngineDefaultImpl(eventsManager);
+		}
 		this.eventsManager = eventsManager;
 		this.preplanningEngine = preplanningEngine;
 	}
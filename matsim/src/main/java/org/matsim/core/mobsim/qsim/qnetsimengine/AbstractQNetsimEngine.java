@@ -20,6 +20,7 @@
 
 package org.matsim.core.mobsim.qsim.qnetsimengine;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -390,9 +391,11 @@ abstract class AbstractQNetsimEngine<A extends AbstractQNetsimEngineRunner> impl
 		int nodes[] = new int[this.engines.size()];
 		int links[] = new int[this.engines.size()];
 
-		int roundRobin = 0;
-		for (QNodeI node : network.getNetsimNodes().values()) {
-			int i = roundRobin % this.engines.size();
+		List<QNodeI> qNodes = new ArrayList<>(network.getNetsimNodes().values());
+		int[] runnerIndices = assignNodesToRunners(qNodes, this.engines.size());
+		for (int n = 0; n < qNodes.size(); n++) {
+			QNodeI node = qNodes.get(n);
+			int i = runnerIndices[n];
 			if( node instanceof AbstractQNode){
 				((AbstractQNode) node).setNetElementActivationRegistry(this.engines.get(i));
 			}
@@ -419,8 +422,6 @@ abstract class AbstractQNetsimEngine<A extends AbstractQNetsimEngineRunner> impl
 				links[i]++;
 
 			}
-
-			roundRobin++;
 		}
 
 		// print some statistics
@@ -431,6 +432,24 @@ abstract class AbstractQNetsimEngine<A extends AbstractQNetsimEngineRunner> impl
 //		this.linksToActivateInitially.clear();
 	}
 
+	/**
+	 * Decides which {@link AbstractQNetsimEngineRunner} handles which node.  The runner handling a node also handles all
+	 * out-links of that node.  Called once during {@link #onPrepareSim()}, after {@link #initQSimEngineRunners()}.
+	 * <p></p>
+	 * The default is a round robin assignment.
+	 *
+	 * @param nodes all nodes of the network
+	 * @param numberOfRunners the number of runners returned by {@link #initQSimEngineRunners()}
+	 * @return for every node (same order as {@code nodes}) the index of its runner in {@link #getQnetsimEngineRunner()}
+	 */
+	protected int[] assignNodesToRunners(List<QNodeI> nodes, int numberOfRunners) {
+		int[] runnerIndices = new int[nodes.size()];
+		for (int i = 0; i < runnerIndices.length; i++) {
+			runnerIndices[i] = i % numberOfRunners;
+		}
+		return runnerIndices;
+	}
+
 	private final void arrangeNextAgentState(MobsimAgent pp) {
 		internalInterface.arrangeNextAgentState(pp);
 	}
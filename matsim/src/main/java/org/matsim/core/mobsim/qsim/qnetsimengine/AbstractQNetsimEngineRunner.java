@@ -70,6 +70,14 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 	private boolean lockNodes = false;
 	private boolean lockLinks = false;
 
+	/*
+	 * Number of time steps in which each node respectively link was moved, indexed by Id.index().  Only filled if set by the
+	 * engine, see QNetsimEngineLoadHistory.  The arrays are shared between the runners, but every element is only
+	 * written by the runner owning the node or link.
+	 */
+	private int[] nodeActivity = null;
+	private int[] linkActivity = null;
+
 	/*package*/ long[] runTimes;
 	private long startTime = 0;
 	{	
@@ -83,6 +91,11 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 
 	public abstract void afterSim() ;
 
+	/*package*/ final void setActivityCounters(int[] nodeActivity, int[] linkActivity) {
+		this.nodeActivity = nodeActivity;
+		this.linkActivity = linkActivity;
+	}
+
 	protected void moveNodes() {
 		boolean remainsActive;
 		this.lockNodes = true;
@@ -90,6 +103,7 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 		Iterator<QNodeI> simNodes = this.nodesQueue.iterator();
 		while (simNodes.hasNext()) {
 			node = simNodes.next();
+			if (this.nodeActivity != null) this.nodeActivity[node.getNode().getId().index()]++;
 			remainsActive = node.doSimStep(time);
 			if (!remainsActive) simNodes.remove();
 		}
@@ -103,6 +117,7 @@ abstract class AbstractQNetsimEngineRunner extends NetElementActivationRegistry
 		ListIterator<QLinkI> simLinks = this.linksList.listIterator();
 		while (simLinks.hasNext()) {
 			link = simLinks.next();
+			if (this.linkActivity != null) this.linkActivity[link.getLink().getId().index()]++;
 
 			remainsActive = link.doSimStep();
 
@@ -0,0 +1,143 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * QNetsimEngineLoadHistory.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.network.Link;
+
+/**
+ * Remembers the measured load of the network elements from one mobsim run to the next, so that the
+ * {@link QNetsimEngineWithLocalClocks} can partition the network according to the load of the previous iteration rather than
+ * only according to the number of links.
+ * <p></p>
+ * The QSim is re-created in every iteration, therefore this is bound outside of the QSim scope (see
+ * {@link org.matsim.core.mobsim.qsim.QSimModule}).
+ * <p></p>
+ * The load of a node is the estimated wall time its runner spent on it and on its out-links: the number of time steps in which the
+ * node or one of its out-links was active, times the average wall time per active element of the runner which owned the node.  The
+ * latter compensates for elements that are more expensive than others, e.g. links with lanes.
+ */
+public final class QNetsimEngineLoadHistory {
+
+	private static final Logger log = LogManager.getLogger(QNetsimEngineLoadHistory.class);
+
+	/*
+	 * Estimated nanoseconds per node, indexed by Id.index().  null as long as nothing was recorded.
+	 */
+	private double[] nodeLoads = null;
+
+	/*
+	 * Runner of every node in the previous mobsim run, indexed by Id.index() (-1 for nodes not in the QNetwork).
+	 */
+	private int[] nodeRunners = null;
+
+	@Inject
+	QNetsimEngineLoadHistory() {
+	}
+
+	/*package*/ synchronized double[] getNodeLoads() {
+		return this.nodeLoads == null ? null : this.nodeLoads.clone();
+	}
+
+	/*package*/ synchronized int[] getNodeRunners() {
+		return this.nodeRunners == null ? null : this.nodeRunners.clone();
+	}
+
+	/**
+	 * @return the load of every node (same order as {@code nodes}) as measured in the previous mobsim run, or {@code null} if
+	 * nothing was measured so far
+	 */
+	synchronized double[] getNodeWeights(List<QNodeI> nodes) {
+		if (this.nodeLoads == null) {
+			return null;
+		}
+		double[] weights = new double[nodes.size()];
+		double minWeight = Double.POSITIVE_INFINITY;
+		for (int n = 0; n < weights.length; n++) {
+			int index = nodes.get(n).getNode().getId().index();
+			weights[n] = index < this.nodeLoads.length ? this.nodeLoads[index] : 0;
+			if (weights[n] > 0) minWeight = Math.min(minWeight, weights[n]);
+		}
+		// every node costs at least a little bit; in particular nodes which were never active before may become active now:
+		double baseWeight = Double.isInfinite(minWeight) ? 1 : minWeight;
+		for (int n = 0; n < weights.length; n++) {
+			weights[n] += baseWeight;
+		}
+		return weights;
+	}
+
+	/**
+	 * @param nodes all nodes, same order as when they were assigned to the runners
+	 * @param runnerIndices the runner of every node
+	 * @param busyNanos the wall time every runner spent on moving nodes and links, excluding waiting times
+	 * @param waitNanos the wall time every runner spent waiting for other runners
+	 * @param nodeActivity the number of active time steps by node index
+	 * @param linkActivity the number of active time steps by link index
+	 */
+	synchronized void record(List<QNodeI> nodes, int[] runnerIndices, long[] busyNanos, long[] waitNanos,
+			int[] nodeActivity, int[] linkActivity) {
+		int numberOfRunners = busyNanos.length;
+		long[] activity = new long[numberOfRunners];
+		for (int n = 0; n < nodes.size(); n++) {
+			activity[runnerIndices[n]] += activityOf(nodes.get(n), nodeActivity, linkActivity);
+		}
+		double[] nanosPerActivity = new double[numberOfRunners];
+		for (int i = 0; i < numberOfRunners; i++) {
+			nanosPerActivity[i] = activity[i] == 0 ? 0 : (double) busyNanos[i] / activity[i];
+		}
+
+		this.nodeLoads = new double[nodeActivity.length];
+		this.nodeRunners = new int[nodeActivity.length];
+		Arrays.fill(this.nodeRunners, -1);
+		for (int n = 0; n < nodes.size(); n++) {
+			QNodeI node = nodes.get(n);
+			int index = node.getNode().getId().index();
+			this.nodeLoads[index] = nanosPerActivity[runnerIndices[n]] * activityOf(node, nodeActivity, linkActivity);
+			this.nodeRunners[index] = runnerIndices[n];
+		}
+
+		long maxBusy = 0;
+		long sumBusy = 0;
+		for (int i = 0; i < numberOfRunners; i++) {
+			log.info("QSimEngineRunner #" + i + ": busy " + busyNanos[i] / 1_000_000 + " ms, waiting " + waitNanos[i] / 1_000_000
+					+ " ms, " + activity[i] + " active node and link steps");
+			maxBusy = Math.max(maxBusy, busyNanos[i]);
+			sumBusy += busyNanos[i];
+		}
+		if (sumBusy > 0) {
+			log.info("load imbalance of QSimEngineRunners (max busy time / average busy time): " + (double) maxBusy * numberOfRunners / sumBusy);
+		}
+	}
+
+	private static long activityOf(QNodeI node, int[] nodeActivity, int[] linkActivity) {
+		long activity = nodeActivity[node.getNode().getId().index()];
+		for (Link outLink : node.getNode().getOutLinks().values()) {
+			activity += linkActivity[outLink.getId().index()];
+		}
+		return activity;
+	}
+}
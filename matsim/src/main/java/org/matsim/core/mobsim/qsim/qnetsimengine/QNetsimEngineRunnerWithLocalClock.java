@@ -0,0 +1,112 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * QNetsimEngineRunnerWithLocalClock.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+import org.matsim.core.gbl.Gbl;
+
+/**
+ * Runner of the {@link QNetsimEngineWithLocalClocks}.  Moves its nodes and then its links within one call, i.e. without a global
+ * barrier between the two halves of the time step.
+ * <p></p>
+ * Before moving its links, a runner needs to wait until all runners which own the to-nodes of its links have moved their nodes:
+ * the nodes take vehicles out of the buffers of their in-links, and moving the links refills these buffers.  This is done with
+ * a runner-local clock ({@link #nodesMovedInStep}) which the downstream runners look at.  Waiting is done by spinning, since
+ * the waits are expected to be short; all runners of one engine run concurrently in a pool with one thread per runner.
+ */
+final class QNetsimEngineRunnerWithLocalClock extends AbstractQNetsimEngineRunner implements Callable<Boolean> {
+
+	private volatile boolean simulationRunning = true;
+
+	/*
+	 * Written only by this runner, read by the upstream runners while they wait.
+	 */
+	private volatile long nodesMovedInStep = -1;
+
+	private long step = -1;
+	private QNetsimEngineRunnerWithLocalClock[] downstreamRunners = new QNetsimEngineRunnerWithLocalClock[0];
+
+	// wall times over the whole mobsim run, see QNetsimEngineLoadHistory
+	private long busyNanos = 0;
+	private long waitNanos = 0;
+
+	QNetsimEngineRunnerWithLocalClock() {
+	}
+
+	@Override
+	public Boolean call() {
+		if (!this.simulationRunning) {
+			Gbl.printCurrentThreadCpuTime();
+			return false;
+		}
+
+		startMeasure();
+		long start = System.nanoTime();
+		try {
+			moveNodes();
+		} finally {
+			// also on failure, otherwise the upstream runners would wait forever and the exception would never surface
+			this.nodesMovedInStep = this.step;
+		}
+
+		long startWaiting = System.nanoTime();
+		for (QNetsimEngineRunnerWithLocalClock downstream : this.downstreamRunners) {
+			while (downstream.nodesMovedInStep < this.step) {
+				Thread.onSpinWait();
+			}
+		}
+
+		long startLinks = System.nanoTime();
+		moveLinks();
+		long end = System.nanoTime();
+		endMeasure();
+
+		this.busyNanos += (startWaiting - start) + (end - startLinks);
+		this.waitNanos += startLinks - startWaiting;
+		return true;
+	}
+
+	@Override
+	public void afterSim() {
+		this.simulationRunning = false;
+	}
+
+	/*package*/ void setStep(long step) {
+		this.step = step;
+	}
+
+	/**
+	 * @param downstreamRunners the other runners which own the to-nodes of links owned by this runner
+	 */
+	/*package*/ void setDownstreamRunners(Collection<QNetsimEngineRunnerWithLocalClock> downstreamRunners) {
+		this.downstreamRunners = downstreamRunners.toArray(new QNetsimEngineRunnerWithLocalClock[0]);
+	}
+
+	/*package*/ long getBusyNanos() {
+		return this.busyNanos;
+	}
+
+	/*package*/ long getWaitNanos() {
+		return this.waitNanos;
+	}
+}
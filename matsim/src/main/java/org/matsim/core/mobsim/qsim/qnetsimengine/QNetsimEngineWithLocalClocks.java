@@ -0,0 +1,195 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * QNetsimEngineWithLocalClocks.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.inject.Inject;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.config.groups.QSimConfigGroup.NetsimEngineScheduling;
+import org.matsim.core.mobsim.qsim.QSim;
+
+/**
+ * Coordinates the movement of vehicles on the links and the nodes, see
+ * {@link NetsimEngineScheduling#partitionedWithLocalClocks}.
+ * <p></p>
+ * Implements options (a) and (b) from the comment in {@link QNetsimEngineWithThreadpool#run(double)}:
+ * <ul>
+ * <li> The network is partitioned spatially by {@link QNetworkPartitioner} rather than round robin, so that a runner shares
+ * links with only few other runners. </li>
+ * <li> There is no barrier between moving the nodes and moving the links.  Every runner only waits for the runners owning the
+ * to-nodes of its own links, see {@link QNetsimEngineRunnerWithLocalClock}. </li>
+ * </ul>
+ * There is still one synchronization point at the end of every time step, since the other mobsim engines (departures,
+ * teleportation, ...) insert vehicles into the network between the time steps.
+ * <p></p>
+ * The load of the runners is measured during the run and kept in the {@link QNetsimEngineLoadHistory}.  From the second mobsim
+ * run on, the partitions are balanced on the load measured in the previous run instead of on the number of links, so that the
+ * runner owning the busy parts of the network gets fewer of them.
+ */
+final class QNetsimEngineWithLocalClocks extends AbstractQNetsimEngine<QNetsimEngineRunnerWithLocalClock> {
+
+	private static final Logger log = LogManager.getLogger(QNetsimEngineWithLocalClocks.class);
+
+	private final int numOfRunners;
+	private ExecutorService pool;
+	private long step = 0;
+
+	private final QNetsimEngineLoadHistory loadHistory;
+	private List<QNodeI> nodes;
+	private int[] runnerIndices;
+	private int[] nodeActivity;
+	private int[] linkActivity;
+
+	@Inject
+	public QNetsimEngineWithLocalClocks(final QSim sim, QNetworkFactory netsimNetworkFactory, QNetsimEngineLoadHistory loadHistory) {
+		super(sim, netsimNetworkFactory);
+		this.numOfRunners = this.numOfThreads;
+		this.loadHistory = loadHistory;
+	}
+
+	@Override
+	public void finishMultiThreading() {
+		this.pool.shutdown();
+
+		List<QNetsimEngineRunnerWithLocalClock> runners = this.getQnetsimEngineRunner();
+		long[] busyNanos = new long[runners.size()];
+		long[] waitNanos = new long[runners.size()];
+		for (int i = 0; i < busyNanos.length; i++) {
+			busyNanos[i] = runners.get(i).getBusyNanos();
+			waitNanos[i] = runners.get(i).getWaitNanos();
+		}
+		this.loadHistory.record(this.nodes, this.runnerIndices, busyNanos, waitNanos, this.nodeActivity, this.linkActivity);
+	}
+
+	@Override
+	protected void run(double time) {
+		for (QNetsimEngineRunnerWithLocalClock engine : this.getQnetsimEngineRunner()) {
+			engine.setTime(time);
+			engine.setStep(this.step);
+		}
+		this.step++;
+
+		try {
+			for (Future<Boolean> future : pool.invokeAll(this.getQnetsimEngineRunner())) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e) ;
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	@Override
+	protected int[] assignNodesToRunners(List<QNodeI> nodes, int numberOfRunners) {
+		double[] weights = this.loadHistory.getNodeWeights(nodes);
+		if (weights == null) {
+			weights = QNetworkPartitioner.linkCountWeights(nodes);
+		} else {
+			log.info("partitioning the network according to the load of the previous mobsim run.");
+		}
+		int[] runnerIndices = QNetworkPartitioner.partition(nodes, weights, numberOfRunners);
+		connectRunners(nodes, runnerIndices);
+
+		this.nodes = nodes;
+		this.runnerIndices = runnerIndices;
+		this.nodeActivity = new int[Id.getNumberOfIds(Node.class)];
+		this.linkActivity = new int[Id.getNumberOfIds(Link.class)];
+		for (QNetsimEngineRunnerWithLocalClock runner : this.getQnetsimEngineRunner()) {
+			runner.setActivityCounters(this.nodeActivity, this.linkActivity);
+		}
+		return runnerIndices;
+	}
+
+	/**
+	 * Tells every runner which other runners own the to-nodes of its links.
+	 */
+	private void connectRunners(List<QNodeI> nodes, int[] runnerIndices) {
+		int[] runnerByNodeIndex = new int[Id.getNumberOfIds(Node.class)];
+		for (int n = 0; n < nodes.size(); n++) {
+			runnerByNodeIndex[nodes.get(n).getNode().getId().index()] = runnerIndices[n];
+		}
+
+		List<Set<Integer>> downstream = new ArrayList<>();
+		for (int i = 0; i < numOfRunners; i++) {
+			downstream.add(new TreeSet<>());
+		}
+		for (int n = 0; n < nodes.size(); n++) {
+			int runner = runnerIndices[n];
+			for (Link outLink : nodes.get(n).getNode().getOutLinks().values()) {
+				int toRunner = runnerByNodeIndex[outLink.getToNode().getId().index()];
+				if (toRunner != runner) {
+					downstream.get(runner).add(toRunner);
+				}
+			}
+		}
+
+		List<QNetsimEngineRunnerWithLocalClock> runners = this.getQnetsimEngineRunner();
+		for (int i = 0; i < numOfRunners; i++) {
+			List<QNetsimEngineRunnerWithLocalClock> downstreamRunners = new ArrayList<>();
+			for (int j : downstream.get(i)) {
+				downstreamRunners.add(runners.get(j));
+			}
+			runners.get(i).setDownstreamRunners(downstreamRunners);
+			log.info("QSimEngineRunner #" + i + " waits for " + downstreamRunners.size() + " downstream runners " + downstream.get(i));
+		}
+	}
+
+	private static class NamedThreadFactory implements ThreadFactory {
+		private int count = 0;
+
+		@Override
+		public Thread newThread(Runnable r) {
+			return new Thread( r , "QNetsimEngine_LocalClockThread_" + count++);
+		}
+	}
+
+	@Override
+	protected List<QNetsimEngineRunnerWithLocalClock> initQSimEngineRunners() {
+		List<QNetsimEngineRunnerWithLocalClock> engines = new ArrayList<>();
+		for (int i = 0; i < numOfRunners; i++) {
+			engines.add(new QNetsimEngineRunnerWithLocalClock());
+		}
+		return engines;
+	}
+
+	@Override
+	protected void initMultiThreading() {
+		// one thread per runner is required: a runner may spin until another runner of the same time step has moved its nodes.
+		this.pool = Executors.newFixedThreadPool(
+				this.numOfRunners,
+				new NamedThreadFactory());
+	}
+}
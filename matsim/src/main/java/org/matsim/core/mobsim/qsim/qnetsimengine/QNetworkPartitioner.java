@@ -0,0 +1,126 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * QNetworkPartitioner.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.matsim.api.core.v01.Coord;
+
+/**
+ * Splits the nodes of a {@link QNetwork} into spatially compact partitions of (roughly) equal weight by recursive coordinate
+ * bisection.  Compact partitions mean that most links have their from- and to-node in the same partition, so that a
+ * {@link AbstractQNetsimEngineRunner} has only few other runners to wait for.
+ * <p></p>
+ * The weight of a node is what the runner owning it has to do per time step.  Without further information, this is the number of
+ * out-links of the node (the runner owning a node also owns its out-links).
+ */
+final class QNetworkPartitioner {
+
+	private QNetworkPartitioner() {
+		// static helper
+	}
+
+	/**
+	 * @return the node weights based on the number of out-links, i.e. partitions balanced on link count
+	 */
+	static double[] linkCountWeights(List<QNodeI> nodes) {
+		double[] weights = new double[nodes.size()];
+		for (int i = 0; i < weights.length; i++) {
+			// every node costs something, also if it has no out-links
+			weights[i] = 1 + nodes.get(i).getNode().getOutLinks().size();
+		}
+		return weights;
+	}
+
+	/**
+	 * @param nodes the nodes to partition
+	 * @param weights the weight of every node, same order as {@code nodes}
+	 * @param numberOfPartitions the number of partitions, typically the number of runners
+	 * @return for every node (same order as {@code nodes}) the index of its partition, in the range [0, numberOfPartitions)
+	 */
+	static int[] partition(List<QNodeI> nodes, double[] weights, int numberOfPartitions) {
+		if (weights.length != nodes.size()) {
+			throw new IllegalArgumentException("need exactly one weight per node, got " + weights.length + " weights for " + nodes.size() + " nodes.");
+		}
+		if (numberOfPartitions < 1) {
+			throw new IllegalArgumentException("number of partitions must be strictly positive, got " + numberOfPartitions);
+		}
+		double[] xs = new double[nodes.size()];
+		double[] ys = new double[nodes.size()];
+		Integer[] order = new Integer[nodes.size()];
+		for (int i = 0; i < order.length; i++) {
+			Coord coord = nodes.get(i).getNode().getCoord();
+			xs[i] = coord.getX();
+			ys[i] = coord.getY();
+			order[i] = i;
+		}
+		int[] partitions = new int[nodes.size()];
+		bisect(order, 0, order.length, xs, ys, weights, 0, numberOfPartitions, partitions);
+		return partitions;
+	}
+
+	private static void bisect(Integer[] order, int from, int to, double[] xs, double[] ys, double[] weights,
+			int firstPartition, int numberOfPartitions, int[] partitions) {
+		if (numberOfPartitions == 1 || to - from <= 1) {
+			for (int i = from; i < to; i++) {
+				partitions[order[i]] = firstPartition;
+			}
+			return;
+		}
+
+		// cut orthogonal to the longer side of the bounding box:
+		double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		double totalWeight = 0;
+		for (int i = from; i < to; i++) {
+			int node = order[i];
+			minX = Math.min(minX, xs[node]);
+			maxX = Math.max(maxX, xs[node]);
+			minY = Math.min(minY, ys[node]);
+			maxY = Math.max(maxY, ys[node]);
+			totalWeight += weights[node];
+		}
+		final double[] primary = (maxX - minX >= maxY - minY) ? xs : ys;
+		final double[] secondary = (primary == xs) ? ys : xs;
+		// ties are broken by the other coordinate and then by the original position, so the result is deterministic:
+		Arrays.sort(order, from, to, Comparator.<Integer>comparingDouble(node -> primary[node])
+				.thenComparingDouble(node -> secondary[node])
+				.thenComparingInt(node -> node));
+
+		// odd numbers of partitions are split unevenly, the weight is split in the same ratio:
+		int partitionsLeft = numberOfPartitions / 2;
+		double targetWeight = totalWeight * partitionsLeft / numberOfPartitions;
+		int cut = from;
+		double weightLeft = 0;
+		while (cut < to - 1 && weightLeft + weights[order[cut]] / 2 < targetWeight) {
+			weightLeft += weights[order[cut]];
+			cut++;
+		}
+		if (cut == from) {
+			cut++; // every side gets at least one node
+		}
+
+		bisect(order, from, cut, xs, ys, weights, firstPartition, partitionsLeft, partitions);
+		bisect(order, cut, to, xs, ys, weights, firstPartition + partitionsLeft, numberOfPartitions - partitionsLeft, partitions);
+	}
+}
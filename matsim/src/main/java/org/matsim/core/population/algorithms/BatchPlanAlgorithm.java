@@ -0,0 +1,33 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * BatchPlanAlgorithm.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population.algorithms;
+
+import java.util.List;
+
+import org.matsim.api.core.v01.population.Plan;
+
+/**
+ * A {@link PlanAlgorithm} which can handle several plans at once, e.g. to share work between the plans.  The result
+ * must not depend on which other plans are handled in the same batch, unless configured otherwise by the user.
+ */
+public interface BatchPlanAlgorithm extends PlanAlgorithm {
+	public abstract void run(List<Plan> plans);
+}
@@ -0,0 +1,275 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ParallelPopulationReaderMatsimV6.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population.io;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.core.utils.geometry.CoordinateTransformation;
+import org.matsim.utils.objectattributes.AttributeConverter;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Parallel implementation of the PopulationReaderMatsimV6, following {@link ParallelPopulationReaderMatsimV4}.
+ * <p></p>
+ * The main thread only parses the xml file and collects the tags of every person.  The persons are then created in parallel,
+ * including their plans, routes and attributes, each thread with a reader of its own.  The main thread adds the finished
+ * persons to the population in the order of the file, so the population is the same as with the sequential reader, also when
+ * streaming.  The ids of the persons are created by the main thread as well, so their indices do not depend on the threads.
+ * All other ids (e.g. of links or facilities) are created by the worker threads, so their indices may differ from run to
+ * run.  Therefore, this reader is only used if {@link org.matsim.core.config.groups.PlansConfigGroup#isParallelReading()}
+ * is set.
+ * <p></p>
+ * Only a limited number of persons is in flight at any time, so the tags of a large file are not all held in memory.
+ */
+/* deliberately package */ class ParallelPopulationReaderMatsimV6 extends PopulationReaderMatsimV6 {
+
+	private static final Logger log = LogManager.getLogger(ParallelPopulationReaderMatsimV6.class);
+
+	private final static String POPULATION = "population";
+	private final static String PERSON = "person";
+	private final static String ATTR_PERSON_ID = "id";
+	// persons per task, so that the threads do not wait for every single person
+	private final static int PERSONS_PER_TASK = 64;
+
+	private final Scenario scenario;
+	private final int numThreads;
+	private final Map<Class<?>, AttributeConverter<?>> attributeConverters = new HashMap<>();
+
+	private ExecutorService executor;
+	private ThreadLocal<PersonReader> readers;
+	private final Deque<Future<List<Person>>> pending = new ArrayDeque<>();
+	private List<List<Tag>> currentTask = new ArrayList<>();
+	private List<Tag> currentPersonXmlData = null;
+
+	private record Tag(String name, Attributes atts, String content, String parent) {
+	}
+
+	ParallelPopulationReaderMatsimV6(final String inputCRS, final String targetCRS, final Scenario scenario, final int numThreads) {
+		super(inputCRS, targetCRS, scenario);
+		this.scenario = scenario;
+		this.numThreads = numThreads;
+	}
+
+	@Override
+	public void putAttributeConverter(final Class<?> clazz, AttributeConverter<?> converter) {
+		super.putAttributeConverter(clazz, converter);
+		this.attributeConverters.put(clazz, converter);
+	}
+
+	@Override
+	public void putAttributeConverters(final Map<Class<?>, AttributeConverter<?>> converters) {
+		super.putAttributeConverters(converters);
+		this.attributeConverters.putAll(converters);
+	}
+
+	@Override
+	public void startTag(final String name, final Attributes atts, final Stack<String> context) {
+		if (PERSON.equals(name)) {
+			if (this.executor == null) {
+				// after the attributes of the population, which may change the coordinate transformation
+				initThreads();
+			}
+			// creates the id in the main thread, in the order of the file
+			Id.create(atts.getValue(ATTR_PERSON_ID), Person.class);
+			this.currentPersonXmlData = new ArrayList<>();
+		}
+		if (this.currentPersonXmlData != null) {
+			// We have to create copies of the attributes because the object is re-used by the parser!
+			this.currentPersonXmlData.add(new Tag(name, new AttributesImpl(atts), null, context.isEmpty() ? null : context.peek()));
+		} else {
+			super.startTag(name, atts, context);
+		}
+	}
+
+	@Override
+	public void endTag(final String name, final String content, final Stack<String> context) {
+		if (this.currentPersonXmlData != null) {
+			this.currentPersonXmlData.add(new Tag(name, null, content, context.isEmpty() ? null : context.peek()));
+			if (PERSON.equals(name)) {
+				this.currentTask.add(this.currentPersonXmlData);
+				this.currentPersonXmlData = null;
+				if (this.currentTask.size() >= PERSONS_PER_TASK) {
+					submitTask();
+				}
+			}
+		} else {
+			if (POPULATION.equals(name) && this.executor != null) {
+				finishThreads();
+			}
+			super.endTag(name, content, context);
+		}
+	}
+
+	private void initThreads() {
+		log.info("Start parallel population reading with " + this.numThreads + " threads...");
+		CoordinateTransformation coordinateTransformation = getCoordinateTransformation();
+		this.readers = ThreadLocal.withInitial(() -> {
+			PersonReader reader = new PersonReader(coordinateTransformation, this.scenario);
+			reader.putAttributeConverters(this.attributeConverters);
+			return reader;
+		});
+		this.executor = Executors.newFixedThreadPool(this.numThreads, r -> {
+			Thread thread = new Thread(r, ParallelPopulationReaderMatsimV6.class.getSimpleName());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private void submitTask() {
+		final List<List<Tag>> task = this.currentTask;
+		this.currentTask = new ArrayList<>(PERSONS_PER_TASK);
+		this.pending.add(this.executor.submit(() -> this.readers.get().readPersons(task)));
+		if (this.pending.size() >= 4 * this.numThreads) {
+			addPersons(this.pending.poll());
+		}
+	}
+
+	private void finishThreads() {
+		if (!this.currentTask.isEmpty()) {
+			submitTask();
+		}
+		try {
+			while (!this.pending.isEmpty()) {
+				addPersons(this.pending.poll());
+			}
+		} finally {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+		log.info("Finished parallel population reading...");
+	}
+
+	private void addPersons(Future<List<Person>> task) {
+		try {
+			for (Person person : task.get()) {
+				this.scenario.getPopulation().addPerson(person);
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Reads the tags of persons, one reader per thread.
+	 */
+	private static final class PersonReader extends PopulationReaderMatsimV6 {
+		private final CollectorPopulation collector;
+		private final Stack<String> context = new Stack<>();
+
+		private PersonReader(CoordinateTransformation coordinateTransformation, Scenario scenario) {
+			this(coordinateTransformation, scenario, new CollectorPopulation(scenario.getPopulation().getFactory()));
+		}
+
+		private PersonReader(CoordinateTransformation coordinateTransformation, Scenario scenario, CollectorPopulation collector) {
+			super(coordinateTransformation, scenario, collector);
+			this.collector = collector;
+		}
+
+		List<Person> readPersons(List<List<Tag>> persons) {
+			this.collector.persons = new ArrayList<>(persons.size());
+			for (List<Tag> tags : persons) {
+				for (Tag tag : tags) {
+					// the readers only look at the parent element
+					this.context.clear();
+					if (tag.parent() != null) {
+						this.context.push(tag.parent());
+					}
+					if (tag.atts() != null) {
+						startTag(tag.name(), tag.atts(), this.context);
+					} else {
+						endTag(tag.name(), tag.content(), this.context);
+					}
+				}
+			}
+			return this.collector.persons;
+		}
+	}
+
+	/**
+	 * Collects the persons of one task, which are added to the real population later by the main thread.
+	 */
+	private static final class CollectorPopulation implements Population {
+		private final PopulationFactory factory;
+		private List<Person> persons;
+
+		private CollectorPopulation(PopulationFactory factory) {
+			this.factory = factory;
+		}
+
+		@Override
+		public PopulationFactory getFactory() {
+			return this.factory;
+		}
+
+		@Override
+		public void addPerson(Person p) {
+			this.persons.add(p);
+		}
+
+		@Override
+		public String getName() {
+			throw new RuntimeException("Calls to this method are not expected to happen...");
+		}
+
+		@Override
+		public void setName(String name) {
+			throw new RuntimeException("Calls to this method are not expected to happen...");
+		}
+
+		@Override
+		public Map<Id<Person>, ? extends Person> getPersons() {
+			throw new RuntimeException("Calls to this method are not expected to happen...");
+		}
+
+		@Override
+		public Person removePerson(Id<Person> personId) {
+			throw new RuntimeException("Calls to this method are not expected to happen...");
+		}
+
+		@Override
+		public org.matsim.utils.objectattributes.attributable.Attributes getAttributes() {
+			throw new RuntimeException("Calls to this method are not expected to happen...");
+		}
+	}
+}
@@ -140,6 +140,24 @@ import com.google.inject.Inject;
 	    }
 	}
 
+	/**
+	 * For readers which only read persons, and add them to the given population instead of the one of the scenario.
+	 */
+	/* package */ PopulationReaderMatsimV6(
+			final CoordinateTransformation coordinateTransformation,
+			final Scenario scenario,
+			final Population plans) {
+		this.externalInputCRS = null;
+		this.targetCRS = null;
+		this.scenario = scenario;
+		this.plans = plans;
+		this.coordinateTransformation = coordinateTransformation;
+	}
+
+	/* package */ CoordinateTransformation getCoordinateTransformation() {
+		return this.coordinateTransformation;
+	}
+
 	public void putAttributeConverter( final Class<?> clazz , AttributeConverter<?> converter ) {
 		attributesReader.putAttributeConverter( clazz , converter );
 	}
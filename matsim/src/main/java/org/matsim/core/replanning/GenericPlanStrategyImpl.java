@@ -68,8 +68,16 @@ public class GenericPlanStrategyImpl<T extends BasicPlan, I> implements GenericP
 	
 	@Override
 	public void run(final HasPlansAndId<T, I> person) {
-		this.counter++;
-		
+		handleSelectedPlan(selectPlan(person));
+	}
+
+	/**
+	 * Selects a plan of the person and, if there is a module, makes a copy of it the selected plan.  Only accesses the
+	 * person itself and may thus be called for different persons in parallel, see {@link GenericStrategyManagerImpl}.
+	 *
+	 * @return the copy which must be passed to {@link #handleSelectedPlan(BasicPlan)}, or <code>null</code> if there is no module
+	 */
+	/* package */ T selectPlan(final HasPlansAndId<T, I> person) {
 		// if there is at least one unscored plan, find that one:
 		T plan = new RandomUnscoredPlanSelector<T, I>().selectPlan(person) ;
 		
@@ -88,17 +96,25 @@ public class GenericPlanStrategyImpl<T extends BasicPlan, I> implements GenericP
 
 		// if there is a "module" (i.e. "innovation"):
 		if (this.firstModule != null) {
-			
 			// set the working plan to a copy of the selected plan:
-			plan = person.createCopyOfSelectedPlanAndMakeSelected();
-			
+			return person.createCopyOfSelectedPlanAndMakeSelected();
+		}
+		return null;
+	}
+
+	/**
+	 * Hands the plan returned by {@link #selectPlan(HasPlansAndId)} to the modules.  Must be called from one thread only.
+	 */
+	/* package */ void handleSelectedPlan(final T plan) {
+		this.counter++;
+
+		if (plan != null) {
 			// add new plan to container that contains the plans that are handled by this PlanStrategy:
 			this.plans.add(plan);
 
 			// start working on this new plan:
 			this.firstModule.handlePlan(plan);
 		}
-
 	}
 
 	@Override
@@ -26,10 +26,15 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.population.*;
+import org.matsim.core.gbl.MatsimRandom;
 import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.replanning.choosers.StrategyChooser;
 import org.matsim.core.replanning.choosers.WeightedStrategyChooser;
@@ -88,6 +93,16 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 
 	private final StrategyChooser<PL, AG> strategyChooser;
 
+	/**
+	 * Number of persons handled together with the same random number generator when selecting in parallel.  This must not
+	 * depend on the number of threads, otherwise the results would.
+	 */
+	static final int SELECTION_SHARD_SIZE = 1000;
+
+	private int numberOfSelectionThreads = 1;
+
+	private long selectionRandomSeed = 4711L;
+
 
 //	private String subpopulationAttributeName = null;
 	
@@ -198,7 +213,11 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 			final int iteration,
 			final ReplanningContext replanningContext ) {
 		handleChangeRequests(iteration);
-		run(persons, replanningContext );
+		if (this.numberOfSelectionThreads > 1) {
+			runParallel(persons, iteration, replanningContext);
+		} else {
+			run(persons, replanningContext);
+		}
 	}
 
 	/**
@@ -246,6 +265,113 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 
 	}
 
+	/**
+	 * Same as {@link #run(Iterable, ReplanningContext)}, but the removal of plans, the choice of the strategy and the
+	 * selection and copying of the plan are done for shards of persons in parallel.  Every shard uses its own random
+	 * number generator, seeded from the random seed, the iteration and the index of the shard, so the results do not
+	 * depend on the number of threads.  The plans are handed to the strategy modules by the calling thread, shard by shard
+	 * and in the order of the persons, as soon as a shard is ready.
+	 */
+	private void runParallel(
+			final Iterable<? extends HasPlansAndId<PL, AG>> persons,
+			final int iteration,
+			final ReplanningContext replanningContext )
+	{
+		for (GenericPlanStrategy<PL, AG> strategy : distinctStrategies()) {
+			strategy.init(replanningContext);
+		}
+
+		List<HasPlansAndId<PL, AG>> personList = new ArrayList<>();
+		for (HasPlansAndId<PL, AG> person : persons) {
+			personList.add(person);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(this.numberOfSelectionThreads, runnable -> {
+			Thread thread = new Thread(runnable, "StrategySelection");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<SelectionShard<PL, AG>>> shards = new ArrayList<>();
+			for (int start = 0, shardIndex = 0; start < personList.size(); start += SELECTION_SHARD_SIZE, shardIndex++) {
+				List<HasPlansAndId<PL, AG>> shardPersons = personList.subList(start, Math.min(start + SELECTION_SHARD_SIZE, personList.size()));
+				long seed = this.selectionRandomSeed + 1_000_003L * iteration + 23L * shardIndex;
+				shards.add(executor.submit(() -> selectShard(shardPersons, seed, replanningContext)));
+			}
+
+			for (Future<SelectionShard<PL, AG>> future : shards) {
+				SelectionShard<PL, AG> shard = future.get();
+				for (int i = 0; i < shard.persons.size(); i++) {
+					GenericPlanStrategy<PL, AG> strategy = shard.strategies.get(i);
+					if (isSplittable(strategy)) {
+						((GenericPlanStrategyImpl<PL, AG>) strategy).handleSelectedPlan(shard.selectedPlans.get(i));
+					} else {
+						strategy.run(shard.persons.get(i));
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+			// all shards are done unless one of them failed
+			MatsimRandom.disableThreadRandoms();
+		}
+
+		for (GenericPlanStrategy<PL, AG> strategy : distinctStrategies()) {
+			strategy.finish();
+		}
+	}
+
+	private SelectionShard<PL, AG> selectShard(List<HasPlansAndId<PL, AG>> persons, long seed, ReplanningContext replanningContext) {
+		SelectionShard<PL, AG> shard = new SelectionShard<>(persons);
+		MatsimRandom.setThreadRandom(seed);
+		try {
+			for (int i = 0; i < persons.size(); i++) {
+				HasPlansAndId<PL, AG> person = persons.get(i);
+				if ((this.maxPlansPerAgent > 0) && (person.getPlans().size() > this.maxPlansPerAgent)) {
+					removePlans(person, this.maxPlansPerAgent);
+				}
+				String subpopName = PopulationUtils.getSubpopulation(person);
+				GenericPlanStrategy<PL, AG> strategy = this.chooseStrategy(person, subpopName, replanningContext);
+				if (strategy == null) {
+					throw new RuntimeException("No strategy found! Have you defined at least one replanning strategy per subpopulation? Current subpopulation = " + subpopName);
+				}
+				shard.strategies.add(strategy);
+				shard.selectedPlans.add(isSplittable(strategy) ? ((GenericPlanStrategyImpl<PL, AG>) strategy).selectPlan(person) : null);
+			}
+		} finally {
+			MatsimRandom.clearThreadRandom();
+		}
+		return shard;
+	}
+
+	/**
+	 * Only the selection of the strategies of the core is known to not touch anything but the person.  Other strategies,
+	 * including subclasses which might override {@link GenericPlanStrategy#run(HasPlansAndId)}, are run completely by
+	 * the calling thread.
+	 */
+	private static boolean isSplittable(GenericPlanStrategy<?, ?> strategy) {
+		return strategy.getClass() == GenericPlanStrategyImpl.class || strategy.getClass() == PlanStrategyImpl.class;
+	}
+
+	private static final class SelectionShard<PL extends BasicPlan, AG> {
+		final List<HasPlansAndId<PL, AG>> persons;
+		final List<GenericPlanStrategy<PL, AG>> strategies;
+		final List<PL> selectedPlans;
+
+		SelectionShard(List<HasPlansAndId<PL, AG>> persons) {
+			this.persons = persons;
+			this.strategies = new ArrayList<>(persons.size());
+			this.selectedPlans = new ArrayList<>(persons.size());
+		}
+	}
+
 	private Collection<GenericPlanStrategy<PL, AG>> distinctStrategies() {
 		// Leaving out duplicate strategies in different subpopulations
 		Collection<GenericPlanStrategy<PL, AG>> strategies = new LinkedHashSet<>();
@@ -309,6 +435,18 @@ public class GenericStrategyManagerImpl<PL extends BasicPlan, AG extends HasPlan
 		this.maxPlansPerAgent = maxPlansPerAgent;
 	}
 
+	/**
+	 * Lets the removal of plans, the choice of the strategy and the selection and copying of the plan run on the given
+	 * number of threads.  Every shard of persons uses its own random number generator, so the results are reproducible, but
+	 * differ from the ones of the sequential version, which is used with a single thread.  The plan selectors, removal
+	 * selector and strategy chooser must be thread-safe; the ones of the core only use {@link MatsimRandom#getRandom()}
+	 * and the person itself.
+	 */
+	public final void setParallelSelection( final int numberOfThreads, final long randomSeed ) {
+		this.numberOfSelectionThreads = numberOfThreads;
+		this.selectionRandomSeed = randomSeed;
+	}
+
 	/**
 	 * Schedules a {@link #changeWeightOfStrategy(GenericPlanStrategy, String, double)} command for a later iteration. The
 	 * change will take place before the strategies are applied.
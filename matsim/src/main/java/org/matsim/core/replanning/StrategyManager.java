@@ -27,6 +27,7 @@ import org.matsim.api.core.v01.population.Plan;
 import org.matsim.api.core.v01.population.Population;
 import org.matsim.core.api.internal.MatsimManager;
 import org.matsim.core.config.groups.ControlerConfigGroup;
+import org.matsim.core.config.groups.GlobalConfigGroup;
 import org.matsim.core.config.groups.StrategyConfigGroup;
 import org.matsim.core.replanning.choosers.StrategyChooser;
 import org.matsim.core.replanning.selectors.PlanSelector;
@@ -65,12 +66,15 @@ public class StrategyManager implements MatsimManager {
 	private final GenericStrategyManagerImpl<Plan, Person> delegate;
 
 	@Inject
-	StrategyManager( StrategyConfigGroup strategyConfigGroup,
+	StrategyManager( StrategyConfigGroup strategyConfigGroup, GlobalConfigGroup globalConfigGroup,
 			 ControlerConfigGroup controlerConfigGroup, StrategyChooser<Plan, Person> strategyChooser,
 			 Map<StrategyConfigGroup.StrategySettings, PlanStrategy> planStrategies ) {
 
 		this(strategyChooser);
 		setMaxPlansPerAgent(strategyConfigGroup.getMaxAgentPlanMemorySize());
+		if (globalConfigGroup.isParallelStrategySelection()) {
+			delegate.setParallelSelection(globalConfigGroup.getNumberOfThreads(), globalConfigGroup.getRandomSeed());
+		}
 
 		int globalInnovationDisableAfter = (int) ((controlerConfigGroup.getLastIteration() - controlerConfigGroup.getFirstIteration())
 				* strategyConfigGroup.getFractionOfIterationsToDisableInnovation() + controlerConfigGroup.getFirstIteration());
@@ -172,6 +176,14 @@ public class StrategyManager implements MatsimManager {
 		delegate.setMaxPlansPerAgent(maxPlansPerAgent);
 	}
 
+	/**
+	 * See {@link GenericStrategyManagerImpl#setParallelSelection(int, long)}.  Usually set from
+	 * {@link GlobalConfigGroup#isParallelStrategySelection()}.
+	 */
+	public final void setParallelSelection(final int numberOfThreads, final long randomSeed) {
+		delegate.setParallelSelection(numberOfThreads, randomSeed);
+	}
+
 	public final int getMaxPlansPerAgent() {
 		return delegate.getMaxPlansPerAgent();
 	}
@@ -25,13 +25,17 @@ import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.population.Plan;
 import org.matsim.api.core.v01.replanning.PlanStrategyModule;
 import org.matsim.core.config.groups.GlobalConfigGroup;
+import org.matsim.core.population.algorithms.BatchPlanAlgorithm;
 import org.matsim.core.population.algorithms.PlanAlgorithm;
 import org.matsim.core.replanning.ReplanningContext;
 import org.matsim.core.utils.misc.Counter;
 
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -47,10 +51,19 @@ import java.util.concurrent.atomic.AtomicReference;
  * <p></p>
  * <code>finishReplanning()</code> finally starts the threads and waits for all threads to be finished.
  * <p></p>
+ * If the plan algorithm is a {@link BatchPlanAlgorithm}, each thread hands its plans to it in batches instead of one by one.
+ * <p></p>
  * While this approach does not lead to optimal performance gains ("slow threads" vs.
  * "fast threads"), it helps building reproducible runs.  Additionally, as the threads are only
  * started after all to-be-handled plans are added, we can use unsynchronized data structures.
  * <p></p>
+ * With {@link GlobalConfigGroup#isDynamicPlanDistribution()}, the plans are instead collected in one list, and each
+ * thread takes the next small chunk of plans whenever it is done with the previous one.  This keeps all threads busy
+ * until the end, even if some plans take much longer than others, at the price of reproducibility.  Each thread still
+ * has its own plan algorithm (and thus e.g. its own TripRouter).
+ * <p></p>
+ * At the end, the throughput and the distribution of the time per plan are logged.
+ * <p></p>
  * Design comments/questions:<ul>
  * <li> As a consequence of the design, the instances that getPlanAlgoInstance() returns, need to be thread-safe.  kai, dec'12
  * For an example with discussions, see {@link tutorial.programming.multiThreadedPlanStrategy.RunWithMultithreadedModule}
@@ -60,8 +73,10 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 abstract public class AbstractMultithreadedModule implements PlanStrategyModule {
 	private final int numOfThreads;
+	private final boolean dynamicPlanDistribution;
 
 	private PlanAlgoThread[] algothreads = null;
+	private SharedPlans sharedPlans = null;
 	private Thread[] threads = null;
 	private PlanAlgorithm directAlgo = null;
 	private String name = null;
@@ -85,10 +100,12 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 
 	public AbstractMultithreadedModule(GlobalConfigGroup globalConfigGroup) {
 		this.numOfThreads = globalConfigGroup.getNumberOfThreads();
+		this.dynamicPlanDistribution = globalConfigGroup.isDynamicPlanDistribution();
 	}
 
 	public AbstractMultithreadedModule(final int numOfThreads) {
 		this.numOfThreads = numOfThreads;
+		this.dynamicPlanDistribution = false;
 	}
 	
 	protected void beforePrepareReplanningHook(@SuppressWarnings("unused") ReplanningContext replanningContextTmp) {
@@ -119,7 +136,11 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 	@Override
 	public final void handlePlan(final Plan plan) {
 		if (this.directAlgo == null) {
-			this.algothreads[this.count % this.numOfThreads].addPlanToThread(plan);
+			if (this.sharedPlans != null) {
+				this.sharedPlans.plans.add(plan);
+			} else {
+				this.algothreads[this.count % this.numOfThreads].addPlanToThread(plan);
+			}
 			this.count++;
 		} else {
 			this.directAlgo.run(plan);
@@ -139,7 +160,9 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 		
 		if (this.directAlgo == null) {
 			// only try to start threads if we did not directly work on all the plans
-			log.info("[" + this.name + "] starting " + this.threads.length + " threads, handling " + this.count + " plans");
+			log.info("[" + this.name + "] starting " + this.threads.length + " threads, handling " + this.count + " plans"
+					+ (this.sharedPlans != null ? " in dynamically distributed chunks" : ""));
+			long startTime = System.nanoTime();
 
 			// start threads
 			for (Thread thread : this.threads) {
@@ -159,9 +182,11 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 			if (throwable != null) {
 				throw new RuntimeException("Some threads crashed, thus not all plans may have been handled.", throwable);
 			}
+			logThroughput(System.nanoTime() - startTime);
 		}
 		// reset
 		this.algothreads = null;
+		this.sharedPlans = null;
 		this.threads = null;
 		this.replanningContext = null;
 		this.count = 0;
@@ -177,6 +202,7 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 		this.hadException.set(null);
 		this.threads = new Thread[this.numOfThreads];
 		this.algothreads = new PlanAlgoThread[this.numOfThreads];
+		this.sharedPlans = this.dynamicPlanDistribution ? new SharedPlans(this.numOfThreads) : null;
 
 		Counter counter = null;
 		// setup threads
@@ -186,7 +212,7 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 				this.name = algo.getClass().getSimpleName();
 				counter = new Counter("[" + this.name + "] handled plan # ");
 			}
-			PlanAlgoThread algothread = new PlanAlgoThread(algo, counter);
+			PlanAlgoThread algothread = new PlanAlgoThread(algo, counter, this.sharedPlans);
 			Thread thread = new Thread(algothread, this.name + "." + i);
 			thread.setUncaughtExceptionHandler(this.exceptionHandler);
 			this.threads[i] = thread;
@@ -194,6 +220,32 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 		}
 	}
 
+	private void logThroughput(long nanos) {
+		int countDurations = 0;
+		for (PlanAlgoThread algothread : this.algothreads) {
+			countDurations += algothread.countDurations;
+		}
+		if (countDurations == 0) {
+			return;
+		}
+		long[] durations = new long[countDurations];
+		int index = 0;
+		for (PlanAlgoThread algothread : this.algothreads) {
+			System.arraycopy(algothread.durations, 0, durations, index, algothread.countDurations);
+			index += algothread.countDurations;
+		}
+		Arrays.sort(durations);
+		double seconds = nanos / 1e9;
+		log.info(String.format("[%s] handled %d plans in %.1f s (%.1f plans/s), time per plan: median = %.2f ms, p99 = %.2f ms, max = %.2f ms",
+				this.name, countDurations, seconds, countDurations / seconds, getPercentile(durations, 0.5) / 1e6, getPercentile(durations, 0.99) / 1e6,
+				durations[countDurations - 1] / 1e6));
+	}
+
+	private static long getPercentile(long[] sortedValues, double percentile) {
+		int index = (int) Math.ceil(percentile * sortedValues.length) - 1;
+		return sortedValues[Math.max(0, index)];
+	}
+
 	/* package (for a test) */ final int getNumOfThreads() {
 		return numOfThreads;
 	}
@@ -214,15 +266,49 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 
 	}
 
+	/**
+	 * The plans of all threads if they are distributed dynamically.  The threads take the next chunk by increasing the index.
+	 */
+	private final static class SharedPlans {
+
+		// plans taken at once by threads with a plan algorithm which is not a BatchPlanAlgorithm
+		private static final int CHUNK_SIZE = 16;
+
+		private final List<Plan> plans = new ArrayList<>();
+		private final AtomicInteger nextIndex = new AtomicInteger(0);
+		private final int numOfThreads;
+
+		SharedPlans(int numOfThreads) {
+			this.numOfThreads = numOfThreads;
+		}
+
+		int getChunkSize(boolean isBatch) {
+			if (isBatch) {
+				// large enough for efficient batches, small enough that there are a few chunks per thread
+				return Math.max(CHUNK_SIZE, Math.min(PlanAlgoThread.BATCH_SIZE, this.plans.size() / (4 * this.numOfThreads)));
+			}
+			return CHUNK_SIZE;
+		}
+	}
+
 	private final static class PlanAlgoThread implements Runnable {
 
+		// plans handed to a BatchPlanAlgorithm at once
+		private static final int BATCH_SIZE = 1000;
+
 		private final PlanAlgorithm planAlgo;
 		private final List<Plan> plans = new LinkedList<>();
+		private final SharedPlans sharedPlans;
 		private final Counter counter;
 
-		public PlanAlgoThread(final PlanAlgorithm algo, final Counter counter) {
+		// the time each plan took, in nanoseconds.  For batches, the average time per plan of the batch
+		private long[] durations = new long[0];
+		private int countDurations = 0;
+
+		public PlanAlgoThread(final PlanAlgorithm algo, final Counter counter, final SharedPlans sharedPlans) {
 			this.planAlgo = algo;
 			this.counter = counter;
+			this.sharedPlans = sharedPlans;
 		}
 
 		public void addPlanToThread(final Plan plan) {
@@ -231,10 +317,59 @@ abstract public class AbstractMultithreadedModule implements PlanStrategyModule
 
 		@Override
 		public void run() {
-			for (Plan plan : this.plans) {
-				this.planAlgo.run(plan);
+			if (this.sharedPlans == null) {
+				this.durations = new long[this.plans.size()];
+				handlePlans(this.plans, BATCH_SIZE);
+			} else {
+				List<Plan> allPlans = this.sharedPlans.plans;
+				int chunkSize = this.sharedPlans.getChunkSize(this.planAlgo instanceof BatchPlanAlgorithm);
+				this.durations = new long[Math.max(16, allPlans.size() / this.sharedPlans.numOfThreads)];
+				int fromIndex;
+				while ((fromIndex = this.sharedPlans.nextIndex.getAndAdd(chunkSize)) < allPlans.size()) {
+					handlePlans(allPlans.subList(fromIndex, Math.min(fromIndex + chunkSize, allPlans.size())), chunkSize);
+				}
+			}
+		}
+
+		private void handlePlans(List<Plan> plans, int batchSize) {
+			if (this.planAlgo instanceof BatchPlanAlgorithm batchAlgo) {
+				List<Plan> batch = new ArrayList<>(batchSize);
+				for (Plan plan : plans) {
+					batch.add(plan);
+					if (batch.size() == batchSize) {
+						runBatch(batchAlgo, batch);
+					}
+				}
+				runBatch(batchAlgo, batch);
+			} else {
+				for (Plan plan : plans) {
+					long start = System.nanoTime();
+					this.planAlgo.run(plan);
+					addDuration(System.nanoTime() - start);
+					this.counter.incCounter();
+				}
+			}
+		}
+
+		private void runBatch(BatchPlanAlgorithm batchAlgo, List<Plan> batch) {
+			if (batch.isEmpty()) {
+				return;
+			}
+			long start = System.nanoTime();
+			batchAlgo.run(batch);
+			long durationPerPlan = (System.nanoTime() - start) / batch.size();
+			for (int i = 0; i < batch.size(); i++) {
+				addDuration(durationPerPlan);
 				this.counter.incCounter();
 			}
+			batch.clear();
+		}
+
+		private void addDuration(long duration) {
+			if (this.countDurations == this.durations.length) {
+				this.durations = Arrays.copyOf(this.durations, Math.max(16, this.countDurations * 2));
+			}
+			this.durations[this.countDurations++] = duration;
 		}
 	}
 }
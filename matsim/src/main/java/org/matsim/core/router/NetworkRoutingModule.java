@@ -18,8 +18,12 @@
  * *********************************************************************** */
 package org.matsim.core.router;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
@@ -54,6 +58,7 @@ public final class NetworkRoutingModule implements RoutingModule {
 
 	private final Network network;
 	private final LeastCostPathCalculator routeAlgo;
+	private final double batchTimeBinSize;
 
 
 	 public NetworkRoutingModule(
@@ -61,6 +66,19 @@ public final class NetworkRoutingModule implements RoutingModule {
 			final PopulationFactory populationFactory,
 			final Network network,
 			final LeastCostPathCalculator routeAlgo) {
+		 this(mode, populationFactory, network, routeAlgo, 0);
+	 }
+
+	/**
+	 * @param batchTimeBinSize if larger than 0, {@link #calcRoutes(List)} answers all requests starting at the same node
+	 * within a time bin of this size with a single one-to-many search.
+	 */
+	 public NetworkRoutingModule(
+			final String mode,
+			final PopulationFactory populationFactory,
+			final Network network,
+			final LeastCostPathCalculator routeAlgo,
+			final double batchTimeBinSize) {
 		 Gbl.assertNotNull(network);
 //		 Gbl.assertIf( network.getLinks().size()>0 ) ; // otherwise network for mode probably not defined
 		 // makes many tests fail.  
@@ -68,6 +86,7 @@ public final class NetworkRoutingModule implements RoutingModule {
 		 this.routeAlgo = routeAlgo;
 		 this.mode = mode;
 		 this.populationFactory = populationFactory;
+		 this.batchTimeBinSize = batchTimeBinSize;
 	}
 
 	@Override
@@ -76,25 +95,14 @@ public final class NetworkRoutingModule implements RoutingModule {
 		final Facility toFacility = request.getToFacility();
 		final double departureTime = request.getDepartureTime();
 		final Person person = request.getPerson();
-		
-		Leg newLeg = this.populationFactory.createLeg( this.mode );
 
 		Gbl.assertNotNull(fromFacility);
 		Gbl.assertNotNull(toFacility);
 
-		Link fromLink = this.network.getLinks().get(fromFacility.getLinkId());
-		if ( fromLink==null ) {
-			Gbl.assertNotNull( fromFacility.getCoord() ) ;
-			fromLink = NetworkUtils.getNearestLink( network, fromFacility.getCoord()) ;
-		}
-		Link toLink = this.network.getLinks().get(toFacility.getLinkId());
-		if ( toLink==null ) {
-			Gbl.assertNotNull( toFacility.getCoord() ) ;
-			toLink = NetworkUtils.getNearestLink(network, toFacility.getCoord());
-		}
-		Gbl.assertNotNull(fromLink);
-		Gbl.assertNotNull(toLink);
-		
+		Link fromLink = getLink(fromFacility);
+		Link toLink = getLink(toFacility);
+
+		Path path = null;
 		if (toLink != fromLink) {
 			// (a "true" route)
 			Node startNode = fromLink.getToNode(); // start at the end of the "current" link
@@ -105,28 +113,100 @@ public final class NetworkRoutingModule implements RoutingModule {
 			 * So i don't add it here (yet), in order not to break anything. But probably should be done in future.
 			 * ts, june '21
 			 */
-			Path path = this.routeAlgo.calcLeastCostPath(startNode, endNode, departureTime, person, null);
+			path = this.routeAlgo.calcLeastCostPath(startNode, endNode, departureTime, person, null);
 			if (path == null)
 				throw new RuntimeException("No route found from node " + startNode.getId() + " to node " + endNode.getId() + " by mode " + this.mode + ".");
-			NetworkRoute route = this.populationFactory.getRouteFactories().createRoute(NetworkRoute.class, fromLink.getId(), toLink.getId());
+		}
+		return Arrays.asList( createLeg(fromLink, toLink, path, departureTime) );
+	}
+
+	/**
+	 * Groups the requests by the node they start at and by the time bin of their departure, and calculates the paths of
+	 * every group with a single search, see {@link LeastCostPathCalculator#calcLeastCostPaths}.  The search of a group
+	 * starts at the earliest departure time of the group, for the person of its first request.
+	 */
+	@Override
+	public List<List<? extends PlanElement>> calcRoutes(List<RoutingRequest> requests) {
+		if (this.batchTimeBinSize <= 0) {
+			return RoutingModule.super.calcRoutes(requests);
+		}
+		List<List<? extends PlanElement>> trips = new ArrayList<>(Collections.nCopies(requests.size(), null));
+		Link[] fromLinks = new Link[requests.size()];
+		Link[] toLinks = new Link[requests.size()];
+		Map<BatchKey, List<Integer>> groups = new LinkedHashMap<>();
+		for (int i = 0; i < requests.size(); i++) {
+			RoutingRequest request = requests.get(i);
+			Gbl.assertNotNull(request.getFromFacility());
+			Gbl.assertNotNull(request.getToFacility());
+			fromLinks[i] = getLink(request.getFromFacility());
+			toLinks[i] = getLink(request.getToFacility());
+			if (fromLinks[i] == toLinks[i]) {
+				trips.set(i, Arrays.asList( createLeg(fromLinks[i], toLinks[i], null, request.getDepartureTime()) ));
+			} else {
+				BatchKey key = new BatchKey(fromLinks[i].getToNode(), (long) Math.floor(request.getDepartureTime() / this.batchTimeBinSize));
+				groups.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+			}
+		}
+
+		for (Map.Entry<BatchKey, List<Integer>> group : groups.entrySet()) {
+			List<Integer> indices = group.getValue();
+			if (indices.size() == 1) {
+				int i = indices.get(0);
+				trips.set(i, calcRoute(requests.get(i)));
+				continue;
+			}
+			Node startNode = group.getKey().startNode();
+			double startTime = Double.POSITIVE_INFINITY;
+			List<Node> endNodes = new ArrayList<>(indices.size());
+			for (int i : indices) {
+				startTime = Math.min(startTime, requests.get(i).getDepartureTime());
+				endNodes.add(toLinks[i].getFromNode());
+			}
+			Person person = requests.get(indices.get(0)).getPerson();
+			List<Path> paths = this.routeAlgo.calcLeastCostPaths(startNode, endNodes, startTime, person, null);
+			for (int j = 0; j < indices.size(); j++) {
+				int i = indices.get(j);
+				Path path = paths.get(j);
+				if (path == null)
+					throw new RuntimeException("No route found from node " + startNode.getId() + " to node " + endNodes.get(j).getId() + " by mode " + this.mode + ".");
+				trips.set(i, Arrays.asList( createLeg(fromLinks[i], toLinks[i], path, requests.get(i).getDepartureTime()) ));
+			}
+		}
+		return trips;
+	}
+
+	private record BatchKey(Node startNode, long timeBin) {
+	}
+
+	private Link getLink(Facility facility) {
+		Link link = this.network.getLinks().get(facility.getLinkId());
+		if ( link==null ) {
+			Gbl.assertNotNull( facility.getCoord() ) ;
+			link = NetworkUtils.getNearestLink( network, facility.getCoord()) ;
+		}
+		Gbl.assertNotNull(link);
+		return link;
+	}
+
+	private Leg createLeg(Link fromLink, Link toLink, Path path, double departureTime) {
+		Leg newLeg = this.populationFactory.createLeg( this.mode );
+		NetworkRoute route = this.populationFactory.getRouteFactories().createRoute(NetworkRoute.class, fromLink.getId(), toLink.getId());
+		if (path != null) {
 			route.setLinkIds(fromLink.getId(), NetworkUtils.getLinkIds(path.links), toLink.getId());
 			route.setTravelTime(path.travelTime);
 			route.setTravelCost(path.travelCost);
 			route.setDistance(RouteUtils.calcDistance(route, 1.0, 1.0, this.network));
-			newLeg.setRoute(route);
 			newLeg.setTravelTime(path.travelTime);
 		} else {
 			// create an empty route == staying on place if toLink == endLink
 			// note that we still do a route: someone may drive from one location to another on the link. kai, dec'15
-			NetworkRoute route = this.populationFactory.getRouteFactories().createRoute(NetworkRoute.class, fromLink.getId(), toLink.getId());
 			route.setTravelTime(0);
 			route.setDistance(0.0);
-			newLeg.setRoute(route);
 			newLeg.setTravelTime(0);
 		}
+		newLeg.setRoute(route);
 		newLeg.setDepartureTime(departureTime);
-
-		return Arrays.asList( newLeg );
+		return newLeg;
 	}
 
 	@Override
@@ -32,11 +32,13 @@ import org.matsim.core.config.groups.PlansCalcRouteConfigGroup;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.network.algorithms.TransportModeNetworkFilter;
 import org.matsim.core.router.costcalculators.TravelDisutilityFactory;
+import org.matsim.core.router.speedy.MaterializedTravelTimes;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.utils.timing.TimeInterpretation;
 
+import com.google.inject.Injector;
 import com.google.inject.name.Named;
 
 import javax.inject.Inject;
@@ -61,6 +63,7 @@ public class NetworkRoutingProvider implements Provider<RoutingModule> {
 	@Inject Scenario scenario ;
 	@Inject TimeInterpretation timeInterpretation;
 	@Inject MultimodalLinkChooser multimodalLinkChooser;
+	@Inject Injector injector;
 	@Inject
 	@Named(TransportMode.walk)
 	private RoutingModule walkRouter;
@@ -122,6 +125,9 @@ public class NetworkRoutingProvider implements Provider<RoutingModule> {
 		if (travelTime == null) {
 			throw new RuntimeException("No TravelTime bound for mode "+routingMode+".");
 		}
+		if (plansCalcRouteConfigGroup.isMaterializingTravelTimes()) {
+			travelTime = injector.getInstance(MaterializedTravelTimes.class).get(travelTime);
+		}
 		LeastCostPathCalculator routeAlgo =
 				leastCostPathCalculatorFactory.createPathCalculator(
 						filteredNetwork,
@@ -143,7 +149,8 @@ public class NetworkRoutingProvider implements Provider<RoutingModule> {
 			}
 			
 		} else {
-			return DefaultRoutingModules.createPureNetworkRouter(mode, populationFactory, filteredNetwork, routeAlgo);
+			return DefaultRoutingModules.createPureNetworkRouter(mode, populationFactory, filteredNetwork, routeAlgo,
+					plansCalcRouteConfigGroup.getBatchRoutingTimeBinSize());
 		}
 	}
 }
@@ -28,6 +28,7 @@ import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Plan;
 import org.matsim.api.core.v01.population.PlanElement;
 import org.matsim.core.config.Config;
+import org.matsim.core.population.algorithms.BatchPlanAlgorithm;
 import org.matsim.core.population.algorithms.PersonAlgorithm;
 import org.matsim.core.population.algorithms.PlanAlgorithm;
 import org.matsim.core.population.routes.NetworkRoute;
@@ -38,7 +39,10 @@ import org.matsim.facilities.ActivityFacilities;
 import org.matsim.facilities.FacilitiesUtils;
 import org.matsim.vehicles.Vehicle;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * {@link PlanAlgorithm} responsible for routing all trips of a plan.
@@ -47,7 +51,7 @@ import java.util.List;
  *
  * @author thibautd
  */
-public class PlanRouter implements PlanAlgorithm, PersonAlgorithm {
+public class PlanRouter implements BatchPlanAlgorithm, PersonAlgorithm {
 	private static final Logger log = LogManager.getLogger( PlanRouter.class ) ;
 	
 	private final TripRouter tripRouter;
@@ -108,15 +112,76 @@ public class PlanRouter implements PlanAlgorithm, PersonAlgorithm {
 					oldTrip.getTripAttributes() //
 			);
 			
-			putVehicleFromOldTripIntoNewTripIfMeaningful(oldTrip, newTrip);
-			TripRouter.insertTrip(
-					plan, 
-					oldTrip.getOriginActivity(),
-					newTrip,
-					oldTrip.getDestinationActivity());
-			
-			timeTracker.addElements(newTrip);
+			insertTrip(plan, oldTrip, newTrip, timeTracker);
+		}
+	}
+
+	/**
+	 * Routes the trips of several plans.  If batch routing is enabled in the config (see
+	 * {@link org.matsim.core.config.groups.PlansCalcRouteConfigGroup#getBatchRoutingTimeBinSize()}), the first trips of
+	 * all plans are routed together, then the second trips and so on, so that the routing modules can share work between
+	 * trips with the same origin.  Otherwise, the plans are routed one after the other.
+	 */
+	@Override
+	public void run(final List<Plan> plans) {
+		Config config = this.tripRouter.getConfig();
+		if (config == null || config.plansCalcRoute().getBatchRoutingTimeBinSize() <= 0) {
+			for (Plan plan : plans) {
+				run(plan);
+			}
+			return;
+		}
+
+		List<List<Trip>> trips = new ArrayList<>(plans.size());
+		List<TimeTracker> timeTrackers = new ArrayList<>(plans.size());
+		int maxTrips = 0;
+		for (Plan plan : plans) {
+			List<Trip> planTrips = TripStructureUtils.getTrips(plan);
+			trips.add(planTrips);
+			timeTrackers.add(new TimeTracker(timeInterpretation));
+			maxTrips = Math.max(maxTrips, planTrips.size());
 		}
+
+		// the departure time of a trip depends on the previous trips of the plan, so the trips are routed in rounds
+		for (int round = 0; round < maxTrips; round++) {
+			Map<String, List<Integer>> plansByMode = new LinkedHashMap<>();
+			Map<String, List<RoutingRequest>> requestsByMode = new LinkedHashMap<>();
+			for (int p = 0; p < plans.size(); p++) {
+				if (round >= trips.get(p).size()) {
+					continue;
+				}
+				Trip oldTrip = trips.get(p).get(round);
+				String routingMode = TripStructureUtils.identifyMainMode( oldTrip.getTripElements() );
+				TimeTracker timeTracker = timeTrackers.get(p);
+				timeTracker.addActivity(oldTrip.getOriginActivity());
+				plansByMode.computeIfAbsent(routingMode, m -> new ArrayList<>()).add(p);
+				requestsByMode.computeIfAbsent(routingMode, m -> new ArrayList<>()).add(DefaultRoutingRequest.of(
+						FacilitiesUtils.toFacility(oldTrip.getOriginActivity(), facilities),
+						FacilitiesUtils.toFacility(oldTrip.getDestinationActivity(), facilities),
+						timeTracker.getTime().seconds(),
+						plans.get(p).getPerson(),
+						oldTrip.getTripAttributes()));
+			}
+			for (Map.Entry<String, List<RoutingRequest>> e : requestsByMode.entrySet()) {
+				List<Integer> planIndices = plansByMode.get(e.getKey());
+				List<List<? extends PlanElement>> newTrips = tripRouter.calcRoutes(e.getKey(), e.getValue());
+				for (int i = 0; i < planIndices.size(); i++) {
+					int p = planIndices.get(i);
+					insertTrip(plans.get(p), trips.get(p).get(round), newTrips.get(i), timeTrackers.get(p));
+				}
+			}
+		}
+	}
+
+	private static void insertTrip(Plan plan, Trip oldTrip, List<? extends PlanElement> newTrip, TimeTracker timeTracker) {
+		putVehicleFromOldTripIntoNewTripIfMeaningful(oldTrip, newTrip);
+		TripRouter.insertTrip(
+				plan, 
+				oldTrip.getOriginActivity(),
+				newTrip,
+				oldTrip.getDestinationActivity());
+		
+		timeTracker.addElements(newTrip);
 	}
 
 	/**
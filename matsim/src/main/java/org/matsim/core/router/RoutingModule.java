@@ -19,6 +19,7 @@
  * *********************************************************************** */
 package org.matsim.core.router;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.matsim.api.core.v01.population.PlanElement;
@@ -51,6 +52,22 @@ public interface RoutingModule {
 	 * @return a list of {@link PlanElement}, in proper order, representing the trip.
 	 */
 	public List<? extends PlanElement> calcRoute(RoutingRequest request);
+
+	/**
+	 * Computes the routes of several independent requests at once.  Routing modules may override this to share work
+	 * between the requests, e.g. by answering requests from the same origin with a single one-to-many search.  The
+	 * default just calls {@link #calcRoute(RoutingRequest)} for every request.
+	 *
+	 * @return the trips in the order of the requests, with <code>null</code> where {@link #calcRoute(RoutingRequest)}
+	 * would return <code>null</code>.
+	 */
+	public default List<List<? extends PlanElement>> calcRoutes(List<RoutingRequest> requests) {
+		List<List<? extends PlanElement>> trips = new ArrayList<>(requests.size());
+		for (RoutingRequest request : requests) {
+			trips.add(calcRoute(request));
+		}
+		return trips;
+	}
 	
 	// NOTE: It makes some sense to _not_ have the vehicle as an argument here ... since that only makes sense for vehicular modes. kai, feb'19
 	// NOTE: But now we have replaced the arguments with the RoutingRequest interface, which could now have a derived VehicularRoutingRequest if needed. shoerl, aug'21
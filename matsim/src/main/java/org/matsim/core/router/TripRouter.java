@@ -194,6 +194,36 @@ public final class TripRouter implements MatsimExtensionPoint {
 		throw new UnknownModeException( "unregistered main mode |"+mainMode+"|: does not pertain to "+routingModules.keySet() );
 	}
 
+	/**
+	 * Routes several independent trips with the same main mode at once, see {@link RoutingModule#calcRoutes(List)}.
+	 *
+	 * @return the trips in the order of the requests.
+	 *
+	 * @throws UnknownModeException if no RoutingModule is registered for the
+	 * given mode.
+	 */
+	public synchronized List<List<? extends PlanElement>> calcRoutes(final String mainMode, final List<RoutingRequest> requests) {
+		RoutingModule module = routingModules.get( mainMode );
+
+		if (module != null) {
+			List<List<? extends PlanElement>> trips = new ArrayList<>(module.calcRoutes(requests));
+
+			for (int i = 0; i < trips.size(); i++) {
+				List<? extends PlanElement> trip = trips.get(i);
+				if ( trip == null ) {
+					trip = fallbackRoutingModule.calcRoute(requests.get(i)) ;
+					trips.set(i, trip);
+				}
+				for (Leg leg: TripStructureUtils.getLegs(trip)) {
+					TripStructureUtils.setRoutingMode(leg, mainMode);
+				}
+			}
+			return trips;
+		}
+
+		throw new UnknownModeException( "unregistered main mode |"+mainMode+"|: does not pertain to "+routingModules.keySet() );
+	}
+
 	public static class UnknownModeException extends RuntimeException {
 		private UnknownModeException(
 				final String msg) {
@@ -23,7 +23,7 @@ package org.matsim.core.router.costcalculators;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.gbl.MatsimRandom;
-import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TimeDistanceTravelDisutility;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.vehicles.Vehicle;
 
@@ -32,7 +32,7 @@ import java.util.Random;
 /**
  * @author mrieser
  */
-final class RandomizingTimeDistanceTravelDisutility implements TravelDisutility {
+final class RandomizingTimeDistanceTravelDisutility implements TimeDistanceTravelDisutility {
 
 	private final TravelTime timeCalculator;
 	private final double marginalCostOfTime;
@@ -63,6 +63,12 @@ final class RandomizingTimeDistanceTravelDisutility implements TravelDisutility
 
 	@Override
 	public double getLinkTravelDisutility(final Link link, final double time, final Person person, final Vehicle vehicle) {
+		double travelTime = this.timeCalculator.getLinkTravelTime(link, time, person, vehicle);
+		return this.marginalCostOfTime * travelTime + getMarginalCostOfDistance( person ) * link.getLength();
+	}
+
+	@Override
+	public double getMarginalCostOfDistance(final Person person) {
 		// randomize if applicable:
 		if ( sigma != 0. ) {
 			if ( person==null ) {
@@ -91,11 +97,25 @@ final class RandomizingTimeDistanceTravelDisutility implements TravelDisutility
 		} else {
 			logNormalRnd = 1. ;
 		}
-		
 		// end randomize
-		
-		double travelTime = this.timeCalculator.getLinkTravelTime(link, time, person, vehicle);
-		return this.marginalCostOfTime * travelTime + logNormalRnd * this.marginalCostOfDistance * link.getLength();
+
+		return logNormalRnd * this.marginalCostOfDistance;
+	}
+
+	@Override
+	public double getExpectedMarginalCostOfDistance() {
+		// the log-normal factor is normalized to an expectation of one, see above
+		return this.marginalCostOfDistance;
+	}
+
+	@Override
+	public double getMarginalCostOfTime() {
+		return this.marginalCostOfTime;
+	}
+
+	@Override
+	public TravelTime getTravelTime() {
+		return this.timeCalculator;
 	}
 
 	@Override
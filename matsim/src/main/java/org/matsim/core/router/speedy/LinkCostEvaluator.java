@@ -0,0 +1,71 @@
+package org.matsim.core.router.speedy;
+
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.TimeDistanceTravelDisutility;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+/**
+ * Evaluates the travel times and travel disutilities of links for the speedy routers.
+ *
+ * If the travel time is a {@link MaterializedTravelTime}, the travel times are looked up in its array directly.  If the
+ * travel disutility is a {@link TimeDistanceTravelDisutility} based on the same travel time, the disutility is computed
+ * from the already known travel time, so every link only needs one travel time lookup and no call to the travel
+ * disutility at all.  Otherwise, the travel time and travel disutility are called as usual.
+ *
+ * @see MaterializedTravelTime
+ */
+final class LinkCostEvaluator {
+
+	private final TravelTime tt;
+	private final TravelDisutility td;
+	private final MaterializedTravelTime materializedTT;
+	private final TimeDistanceTravelDisutility timeDistanceTD;
+	private final double marginalCostOfTime;
+	private double marginalCostOfDistance;
+	private boolean hasMarginalCostOfDistance = false;
+
+	LinkCostEvaluator(TravelTime tt, TravelDisutility td) {
+		this.tt = tt;
+		this.td = td;
+		this.materializedTT = tt instanceof MaterializedTravelTime ? (MaterializedTravelTime) tt : null;
+		if (td instanceof TimeDistanceTravelDisutility && ((TimeDistanceTravelDisutility) td).getTravelTime() == tt) {
+			this.timeDistanceTD = (TimeDistanceTravelDisutility) td;
+			this.marginalCostOfTime = this.timeDistanceTD.getMarginalCostOfTime();
+		} else {
+			this.timeDistanceTD = null;
+			this.marginalCostOfTime = 0;
+		}
+	}
+
+	/**
+	 * Must be called at the start of every query, as the cost of distance may depend on the person.
+	 */
+	void startQuery() {
+		this.hasMarginalCostOfDistance = false;
+	}
+
+	double getTravelTime(int linkIndex, Link link, double time, Person person, Vehicle vehicle) {
+		if (this.materializedTT != null) {
+			return this.materializedTT.getLinkTravelTime(linkIndex, link, time, vehicle);
+		}
+		return this.tt.getLinkTravelTime(link, time, person, vehicle);
+	}
+
+	/**
+	 * @param travelTime the travel time of the link, as returned by {@link #getTravelTime(int, Link, double, Person, Vehicle)}
+	 */
+	double getTravelDisutility(Link link, double time, double travelTime, Person person, Vehicle vehicle) {
+		if (this.timeDistanceTD != null) {
+			if (!this.hasMarginalCostOfDistance) {
+				// (only here and not in startQuery, so it is not called at all for queries which do not look at any link)
+				this.marginalCostOfDistance = this.timeDistanceTD.getMarginalCostOfDistance(person);
+				this.hasMarginalCostOfDistance = true;
+			}
+			return this.marginalCostOfTime * travelTime + this.marginalCostOfDistance * link.getLength();
+		}
+		return this.td.getLinkTravelDisutility(link, time, person, vehicle);
+	}
+}
@@ -0,0 +1,125 @@
+package org.matsim.core.router.speedy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A copy of another {@link TravelTime}, evaluated once for every link and time bin and stored as float in one flat array.
+ *
+ * The array is indexed by the index of the link id and the time bin, i.e. the same link index as used by
+ * {@link SpeedyGraph}, so the speedy routers can look up the travel times directly (see
+ * {@link #getLinkTravelTime(int, Link, double, Vehicle)}) instead of going through the original travel time, which is
+ * usually a chain of several objects.
+ *
+ * The travel times are evaluated at the start of each time bin, without person and vehicle.  This gives exactly the
+ * same values as the original if that one is constant within the time bins (as {@link
+ * org.matsim.core.trafficmonitoring.TravelTimeCalculator} with the same bin size and the default travel time getter).
+ * Like {@link org.matsim.core.trafficmonitoring.TravelTimeCalculator}, the travel time is never shorter than the
+ * travel time at the maximum velocity of the vehicle.  Links which are not part of the network given at construction are
+ * looked up in the original travel time.
+ *
+ * Instances are immutable and thread-safe.
+ */
+public final class MaterializedTravelTime implements TravelTime {
+
+	private final static Logger LOG = LogManager.getLogger(MaterializedTravelTime.class);
+
+	private final TravelTime travelTime;
+	private final int timeBinSize;
+	private final int binCount;
+	private final int linkCount;
+	private final float[] times;
+
+	public MaterializedTravelTime(Network network, TravelTime travelTime, int timeBinSize, int maxTime, int numberOfThreads) {
+		this.travelTime = travelTime;
+		this.timeBinSize = timeBinSize;
+		this.binCount = maxTime / timeBinSize + 1;
+		this.linkCount = Id.getNumberOfIds(Link.class);
+		if ((long) this.linkCount * this.binCount > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many links and time bins for one array: " + this.linkCount + " x " + this.binCount);
+		}
+		this.times = new float[this.linkCount * this.binCount];
+		Arrays.fill(this.times, Float.NaN); // marks links which are not part of the network
+
+		long start = System.nanoTime();
+		Link[] links = network.getLinks().values().toArray(new Link[0]);
+		int threads = Math.max(1, Math.min(numberOfThreads, links.length / 1024));
+		if (threads == 1) {
+			fill(links, 0, links.length);
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 0; i < threads; i++) {
+					int from = (int) ((long) links.length * i / threads);
+					int to = (int) ((long) links.length * (i + 1) / threads);
+					futures.add(executor.submit(() -> fill(links, from, to)));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e);
+			} finally {
+				executor.shutdown();
+			}
+		}
+		LOG.info("materialized travel times of " + links.length + " links and " + this.binCount + " time bins in "
+				+ (System.nanoTime() - start) / 1_000_000 + " ms.");
+	}
+
+	private void fill(Link[] links, int from, int to) {
+		for (int i = from; i < to; i++) {
+			Link link = links[i];
+			int offset = link.getId().index() * this.binCount;
+			for (int bin = 0; bin < this.binCount; bin++) {
+				this.times[offset + bin] = (float) this.travelTime.getLinkTravelTime(link, bin * this.timeBinSize, null, null);
+			}
+		}
+	}
+
+	@Override
+	public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+		return getLinkTravelTime(link.getId().index(), link, time, vehicle);
+	}
+
+	double getLinkTravelTime(int linkIndex, Link link, double time, Vehicle vehicle) {
+		if (linkIndex >= this.linkCount) {
+			return this.travelTime.getLinkTravelTime(link, time, null, vehicle);
+		}
+		int bin = time <= 0 ? 0 : Math.min((int) time / this.timeBinSize, this.binCount - 1);
+		double linkTravelTime = this.times[linkIndex * this.binCount + bin];
+		if (Double.isNaN(linkTravelTime)) {
+			return this.travelTime.getLinkTravelTime(link, time, null, vehicle);
+		}
+		if (vehicle != null) {
+			VehicleType vehicleType = vehicle.getType();
+			if (vehicleType != null) {
+				linkTravelTime = Math.max(linkTravelTime, link.getLength() / vehicleType.getMaximumVelocity());
+			}
+		}
+		return linkTravelTime;
+	}
+
+	/**
+	 * @return the travel time this one is a copy of
+	 */
+	public TravelTime getOriginalTravelTime() {
+		return this.travelTime;
+	}
+}
@@ -0,0 +1,50 @@
+package org.matsim.core.router.speedy;
+
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.config.Config;
+import org.matsim.core.controler.events.AfterMobsimEvent;
+import org.matsim.core.controler.listener.AfterMobsimListener;
+import org.matsim.core.router.util.TravelTime;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one {@link MaterializedTravelTime} per travel time, using the time bins of the travel time calculator.  The
+ * copies are created when they are first requested and dropped after every mobsim, so they always reflect the travel
+ * times observed in the last mobsim.  Note that within-day replanning during the mobsim would thus still see the
+ * travel times of the previous iteration.
+ */
+@Singleton
+public class MaterializedTravelTimes implements AfterMobsimListener {
+
+	private final Network network;
+	private final int timeBinSize;
+	private final int maxTime;
+	private final int numberOfThreads;
+	private final Map<TravelTime, MaterializedTravelTime> travelTimes = new ConcurrentHashMap<>();
+
+	@Inject
+	public MaterializedTravelTimes(Network network, Config config) {
+		this.network = network;
+		this.timeBinSize = config.travelTimeCalculator().getTraveltimeBinSize();
+		this.maxTime = config.travelTimeCalculator().getMaxTime();
+		this.numberOfThreads = config.global().getNumberOfThreads();
+	}
+
+	public TravelTime get(TravelTime travelTime) {
+		if (travelTime instanceof MaterializedTravelTime) {
+			return travelTime;
+		}
+		return this.travelTimes.computeIfAbsent(travelTime,
+				tt -> new MaterializedTravelTime(this.network, tt, this.timeBinSize, this.maxTime, this.numberOfThreads));
+	}
+
+	@Override
+	public void notifyAfterMobsim(AfterMobsimEvent event) {
+		this.travelTimes.clear();
+	}
+
+}
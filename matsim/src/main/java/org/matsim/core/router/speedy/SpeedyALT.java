@@ -42,6 +42,7 @@ public class SpeedyALT implements LeastCostPathCalculator {
 	private final SpeedyALTData astarData;
 	private final TravelTime tt;
 	private final TravelDisutility td;
+	private final LinkCostEvaluator costs;
 	private final double[] data; // 3 entries per node: cost to node, time, distance
 	private int currentIteration = Integer.MIN_VALUE;
 	private final int[] iterationIds;
@@ -49,12 +50,14 @@ public class SpeedyALT implements LeastCostPathCalculator {
 	private final int[] usedLink;
 	private final SpeedyGraph.LinkIterator outLI;
 	private final DAryMinHeap pq;
+	private SpeedyDijkstra oneToMany = null;
 
 	public SpeedyALT(SpeedyALTData astarData, TravelTime tt, TravelDisutility td) {
 		this.graph = astarData.graph;
 		this.astarData = astarData;
 		this.tt = tt;
 		this.td = td;
+		this.costs = new LinkCostEvaluator(tt, td);
 		this.data = new double[this.graph.nodeCount * 3];
 		this.iterationIds = new int[this.graph.nodeCount];
 		this.comingFrom = new int[this.graph.nodeCount];
@@ -86,6 +89,7 @@ public class SpeedyALT implements LeastCostPathCalculator {
 
 	@Override
 	public Path calcLeastCostPath(Node startNode, Node endNode, double startTime, Person person, Vehicle vehicle) {
+		this.costs.startQuery();
 		this.currentIteration++;
 		if (this.currentIteration == Integer.MAX_VALUE) {
 			// reset iteration as we overflow
@@ -129,9 +133,9 @@ public class SpeedyALT implements LeastCostPathCalculator {
 				Link link = this.graph.getLink(linkIdx);
 				int toNode = this.outLI.getToNodeIndex();
 
-				double travelTime = this.tt.getLinkTravelTime(link, currTime, person, vehicle);
+				double travelTime = this.costs.getTravelTime(linkIdx, link, currTime, person, vehicle);
 				double newTime = currTime + travelTime;
-				double travelCost = this.td.getLinkTravelDisutility(link, currTime, person, vehicle);
+				double travelCost = this.costs.getTravelDisutility(link, currTime, travelTime, person, vehicle);
 				double newCost = currCost + travelCost;
 
 				if (this.iterationIds[toNode] == this.currentIteration) {
@@ -165,6 +169,17 @@ public class SpeedyALT implements LeastCostPathCalculator {
 		return null;
 	}
 
+	/**
+	 * The landmarks do not help when searching for several destinations at once, so this uses a single Dijkstra search.
+	 */
+	@Override
+	public List<Path> calcLeastCostPaths(Node startNode, List<Node> endNodes, double startTime, Person person, Vehicle vehicle) {
+		if (this.oneToMany == null) {
+			this.oneToMany = new SpeedyDijkstra(this.graph, this.tt, this.td);
+		}
+		return this.oneToMany.calcLeastCostPaths(startNode, endNodes, startTime, person, vehicle);
+	}
+
 	private double estimateMinTravelcostToDestination(int nodeIdx, int destinationIdx) {
 		/* The ALT algorithm uses two lower bounds for each Landmark:
 		 * given: source node S, target node T, landmark L
@@ -0,0 +1,214 @@
+package org.matsim.core.router.speedy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A least cost path calculator using Customizable Contraction Hierarchies (CCH).
+ *
+ * Based on "Customizable Contraction Hierarchies" by Julian Dibbelt, Ben Strasser and Dorothea Wagner, 2014.
+ *
+ * The query uses the elimination tree: the upward search from the start node only has to relax the edges of the
+ * ancestors of the start node in the elimination tree, and the backward search from the end node only those of its
+ * ancestors. No priority queue is required, and the number of visited nodes only depends on the height of the tree.
+ *
+ * The weights of the edges are taken from the {@link SpeedyCCHMetric} of the time bin containing the start time.  The
+ * resulting path is then evaluated again link by link with the travel time and travel disutility, so the travel time and
+ * cost of the path are the same as the other routers would report for the same links.
+ *
+ * This implementation is not thread-safe. In the case of multi-threading, every thread should use
+ * a separate instance. (But the used {@link SpeedyCCHData} and {@link SpeedyCCHMetric} are thread-safe and can be
+ * shared by multiple instances).
+ */
+public class SpeedyCCH implements LeastCostPathCalculator {
+
+	private final static Logger LOG = LogManager.getLogger(SpeedyCCH.class);
+
+	private final SpeedyGraph graph;
+	private final SpeedyCCHData cch;
+	private final SpeedyCCHMetric metric;
+	private final TravelTime tt;
+	private final TravelDisutility td;
+	private final float[] forwardCost;
+	private final float[] backwardCost;
+	private final int[] forwardEdge;
+	private final int[] forwardFrom;
+	private final int[] backwardEdge;
+	private final int[] backwardFrom;
+	// edges still to unpack: edge, lower rank, direction (1 = up)
+	private int[] stack = new int[3 * 64];
+
+	SpeedyCCH(SpeedyCCHData cch, SpeedyCCHMetric metric, TravelTime tt, TravelDisutility td) {
+		this.graph = cch.graph;
+		this.cch = cch;
+		this.metric = metric;
+		this.tt = tt;
+		this.td = td;
+		this.forwardCost = new float[cch.nodeCount];
+		this.backwardCost = new float[cch.nodeCount];
+		this.forwardEdge = new int[cch.nodeCount];
+		this.forwardFrom = new int[cch.nodeCount];
+		this.backwardEdge = new int[cch.nodeCount];
+		this.backwardFrom = new int[cch.nodeCount];
+		Arrays.fill(this.forwardCost, Float.POSITIVE_INFINITY);
+		Arrays.fill(this.backwardCost, Float.POSITIVE_INFINITY);
+	}
+
+	@Override
+	public Path calcLeastCostPath(Node startNode, Node endNode, double startTime, Person person, Vehicle vehicle) {
+		int source = this.cch.getRank(startNode.getId().index());
+		int target = this.cch.getRank(endNode.getId().index());
+		SpeedyCCHMetric.Weights weights = this.metric.getWeights(startTime);
+
+		this.forwardCost[source] = 0;
+		this.forwardEdge[source] = -1;
+		for (int v = source; v >= 0; v = this.cch.getParent(v)) {
+			float cost = this.forwardCost[v];
+			if (cost == Float.POSITIVE_INFINITY) {
+				continue;
+			}
+			for (int e = this.cch.getUpStart(v), end = this.cch.getUpEnd(v); e < end; e++) {
+				int w = this.cch.getUpHead(e);
+				float newCost = cost + weights.up[e];
+				if (newCost < this.forwardCost[w]) {
+					this.forwardCost[w] = newCost;
+					this.forwardEdge[w] = e;
+					this.forwardFrom[w] = v;
+				}
+			}
+		}
+
+		this.backwardCost[target] = 0;
+		this.backwardEdge[target] = -1;
+		for (int v = target; v >= 0; v = this.cch.getParent(v)) {
+			float cost = this.backwardCost[v];
+			if (cost == Float.POSITIVE_INFINITY) {
+				continue;
+			}
+			for (int e = this.cch.getUpStart(v), end = this.cch.getUpEnd(v); e < end; e++) {
+				int w = this.cch.getUpHead(e);
+				float newCost = cost + weights.down[e];
+				if (newCost < this.backwardCost[w]) {
+					this.backwardCost[w] = newCost;
+					this.backwardEdge[w] = e;
+					this.backwardFrom[w] = v;
+				}
+			}
+		}
+
+		int meeting = -1;
+		float best = Float.POSITIVE_INFINITY;
+		for (int v = source; v >= 0; v = this.cch.getParent(v)) {
+			float cost = this.forwardCost[v] + this.backwardCost[v];
+			if (cost < best) {
+				best = cost;
+				meeting = v;
+			}
+		}
+
+		Path path = null;
+		if (meeting >= 0) {
+			path = constructPath(startNode, meeting, weights, startTime, person, vehicle);
+		}
+
+		for (int v = source; v >= 0; v = this.cch.getParent(v)) {
+			this.forwardCost[v] = Float.POSITIVE_INFINITY;
+		}
+		for (int v = target; v >= 0; v = this.cch.getParent(v)) {
+			this.backwardCost[v] = Float.POSITIVE_INFINITY;
+		}
+
+		if (path != null) {
+			return path;
+		}
+		LOG.warn("No route was found from node " + startNode.getId() + " to node " + endNode.getId() + ". Some possible reasons:");
+		LOG.warn("  * Network is not connected.  Run NetworkCleaner().") ;
+		LOG.warn("  * Network for considered mode does not even exist.  Modes need to be entered for each link in network.xml.");
+		LOG.warn("  * Network for considered mode is not connected to starting or ending point of route.  Setting insertingAccessEgressWalk to true may help.");
+		LOG.warn("This will now return null, but it may fail later with a NullPointerException.");
+		return null;
+	}
+
+	private Path constructPath(Node startNode, int meeting, SpeedyCCHMetric.Weights weights, double startTime, Person person, Vehicle vehicle) {
+		List<Link> links = new ArrayList<>();
+
+		// the upward part, collected from the meeting node back to the start node
+		int size = 0;
+		for (int v = meeting; this.forwardEdge[v] >= 0; v = this.forwardFrom[v]) {
+			size = push(size, this.forwardEdge[v], this.forwardFrom[v], 1);
+		}
+		// the stack is unpacked in reverse order, so the edges closest to the start node come first
+		unpack(size, weights, links);
+
+		// the downward part, from the meeting node to the end node
+		for (int v = meeting; this.backwardEdge[v] >= 0; v = this.backwardFrom[v]) {
+			size = push(0, this.backwardEdge[v], this.backwardFrom[v], 0);
+			unpack(size, weights, links);
+		}
+
+		List<Node> nodes = new ArrayList<>(links.size() + 1);
+		nodes.add(startNode);
+		double time = startTime;
+		double cost = 0;
+		for (Link link : links) {
+			nodes.add(link.getToNode());
+			cost += this.td.getLinkTravelDisutility(link, time, person, vehicle);
+			time += this.tt.getLinkTravelTime(link, time, person, vehicle);
+		}
+		return new Path(nodes, links, time - startTime, cost);
+	}
+
+	private int push(int size, int edge, int lower, int up) {
+		if (size + 3 > this.stack.length) {
+			this.stack = Arrays.copyOf(this.stack, this.stack.length * 2);
+		}
+		this.stack[size] = edge;
+		this.stack[size + 1] = lower;
+		this.stack[size + 2] = up;
+		return size + 3;
+	}
+
+	/**
+	 * Replaces the shortcuts on the stack by their lower triangles until only links are left, and appends the links in the
+	 * order they are traversed.
+	 */
+	private void unpack(int size, SpeedyCCHMetric.Weights weights, List<Link> links) {
+		while (size > 0) {
+			size -= 3;
+			int edge = this.stack[size];
+			int lower = this.stack[size + 1];
+			boolean up = this.stack[size + 2] == 1;
+			int via = up ? weights.upVia[edge] : weights.downVia[edge];
+			if (via < SpeedyCCHMetric.NONE) {
+				links.add(this.graph.getLink(-via - 2));
+			} else if (via >= 0) {
+				int higher = this.cch.getUpHead(edge);
+				int toLower = this.cch.getEdge(via, lower);
+				int toHigher = this.cch.getEdge(via, higher);
+				if (up) {
+					// lower -> via -> higher, push the second part first
+					size = push(size, toHigher, via, 1);
+					size = push(size, toLower, via, 0);
+				} else {
+					// higher -> via -> lower
+					size = push(size, toLower, via, 1);
+					size = push(size, toHigher, via, 0);
+				}
+			} else {
+				throw new IllegalStateException("Edge " + edge + " on the least cost path has no connection.");
+			}
+		}
+	}
+
+}
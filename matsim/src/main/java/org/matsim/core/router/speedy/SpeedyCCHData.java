@@ -0,0 +1,485 @@
+package org.matsim.core.router.speedy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.router.speedy.SpeedyGraph.LinkIterator;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * The metric-independent part of Customizable Contraction Hierarchies (CCH), see {@link SpeedyCCH}.
+ *
+ * Based on "Customizable Contraction Hierarchies" by Julian Dibbelt, Ben Strasser and Dorothea Wagner, 2014.
+ *
+ * The nodes are ordered by geometric nested dissection: the nodes are split recursively into two halves along the longer
+ * side of their bounding box, and the nodes separating the two halves are ranked higher than all nodes of the halves.
+ * The nodes are then contracted in this order, ignoring any costs: every node connects all its higher ranked neighbors
+ * with each other.  The resulting graph (containing the links as well as the shortcuts) only depends on the network, and
+ * can be customized with any travel disutility (see {@link SpeedyCCHMetric}).
+ *
+ * Internally, all nodes are addressed by their rank.  Every edge connects a lower ranked node with a higher ranked one,
+ * and is stored with the lower ranked node ("upward edges").  The direction from the lower to the higher ranked node is
+ * called "up", the other direction "down".
+ *
+ * This class is thread-safe and can safely be used by multiple threads.
+ */
+class SpeedyCCHData {
+
+	private final static Logger LOG = LogManager.getLogger(SpeedyCCHData.class);
+
+	// nested dissection stops at parts of this size
+	private final static int LEAF_SIZE = 32;
+
+	final SpeedyGraph graph;
+	final int nodeCount;
+	final int edgeCount;
+	private final int[] rankOfNode;
+	private final int[] nodeOfRank;
+
+	// upward edges, for each rank sorted by the rank of the higher node
+	private final int[] upStart;
+	private final int[] upHead;
+	// the same edges, stored with the higher node, sorted by the rank of the lower node
+	private final int[] downStart;
+	private final int[] downTail;
+	private final int[] downEdge;
+	// parent in the elimination tree, i.e. the lowest ranked upward neighbor
+	private final int[] parent;
+	// the links belonging to each edge (shortcuts have none)
+	private final int[] edgeLinkStart;
+	private final int[] edgeLinks;
+	// ranks grouped by level, the edges of a level only depend on edges of lower levels
+	private final int[] levelStart;
+	private final int[] ranksByLevel;
+
+	SpeedyCCHData(SpeedyGraph graph) {
+		this.graph = graph;
+		this.rankOfNode = new int[graph.nodeCount];
+		Arrays.fill(this.rankOfNode, -1);
+
+		int[][] neighbors = collectNeighbors(graph);
+		int count = 0;
+		for (int nodeIdx = 0; nodeIdx < graph.nodeCount; nodeIdx++) {
+			if (graph.getNode(nodeIdx) != null) {
+				count++;
+			}
+		}
+		this.nodeCount = count;
+		this.nodeOfRank = new int[count];
+
+		LOG.info("CCH: ordering " + count + " nodes...");
+		int[] nodes = new int[count];
+		count = 0;
+		for (int nodeIdx = 0; nodeIdx < graph.nodeCount; nodeIdx++) {
+			if (graph.getNode(nodeIdx) != null) {
+				nodes[count++] = nodeIdx;
+			}
+		}
+		new NestedDissection(graph, neighbors, this.nodeOfRank).order(nodes);
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			this.rankOfNode[this.nodeOfRank[rank]] = rank;
+		}
+
+		LOG.info("CCH: contracting nodes...");
+		int[][] up = contract(neighbors);
+
+		this.upStart = new int[this.nodeCount + 1];
+		int edges = 0;
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			this.upStart[rank] = edges;
+			edges += up[rank].length;
+		}
+		this.upStart[this.nodeCount] = edges;
+		this.edgeCount = edges;
+		this.upHead = new int[edges];
+		this.parent = new int[this.nodeCount];
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			System.arraycopy(up[rank], 0, this.upHead, this.upStart[rank], up[rank].length);
+			this.parent[rank] = up[rank].length == 0 ? -1 : up[rank][0];
+		}
+
+		// downward adjacency, sorted by the lower rank as the ranks are visited in ascending order
+		this.downStart = new int[this.nodeCount + 1];
+		for (int e = 0; e < edges; e++) {
+			this.downStart[this.upHead[e] + 1]++;
+		}
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			this.downStart[rank + 1] += this.downStart[rank];
+		}
+		this.downTail = new int[edges];
+		this.downEdge = new int[edges];
+		int[] fill = Arrays.copyOf(this.downStart, this.nodeCount);
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			for (int e = this.upStart[rank]; e < this.upStart[rank + 1]; e++) {
+				int pos = fill[this.upHead[e]]++;
+				this.downTail[pos] = rank;
+				this.downEdge[pos] = e;
+			}
+		}
+
+		// links per edge
+		this.edgeLinkStart = new int[edges + 1];
+		int[] edgeOfLink = new int[graph.linkCount];
+		Arrays.fill(edgeOfLink, -1);
+		LinkIterator outLI = graph.getOutLinkIterator();
+		for (int nodeIdx = 0; nodeIdx < graph.nodeCount; nodeIdx++) {
+			outLI.reset(nodeIdx);
+			while (outLI.next()) {
+				int from = this.rankOfNode[outLI.getFromNodeIndex()];
+				int to = this.rankOfNode[outLI.getToNodeIndex()];
+				if (from == to) {
+					continue; // loops are never part of a least cost path
+				}
+				int e = getEdge(Math.min(from, to), Math.max(from, to));
+				edgeOfLink[outLI.getLinkIndex()] = e;
+				this.edgeLinkStart[e + 1]++;
+			}
+		}
+		for (int e = 0; e < edges; e++) {
+			this.edgeLinkStart[e + 1] += this.edgeLinkStart[e];
+		}
+		this.edgeLinks = new int[this.edgeLinkStart[edges]];
+		fill = Arrays.copyOf(this.edgeLinkStart, edges);
+		for (int linkIdx = 0; linkIdx < edgeOfLink.length; linkIdx++) {
+			if (edgeOfLink[linkIdx] >= 0) {
+				this.edgeLinks[fill[edgeOfLink[linkIdx]]++] = linkIdx;
+			}
+		}
+
+		// levels for the parallel customization
+		int[] level = new int[this.nodeCount];
+		int maxLevel = 0;
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			for (int i = this.downStart[rank]; i < this.downStart[rank + 1]; i++) {
+				level[rank] = Math.max(level[rank], level[this.downTail[i]] + 1);
+			}
+			maxLevel = Math.max(maxLevel, level[rank]);
+		}
+		this.levelStart = new int[maxLevel + 2];
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			this.levelStart[level[rank] + 1]++;
+		}
+		for (int l = 0; l <= maxLevel; l++) {
+			this.levelStart[l + 1] += this.levelStart[l];
+		}
+		this.ranksByLevel = new int[this.nodeCount];
+		fill = Arrays.copyOf(this.levelStart, maxLevel + 1);
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			this.ranksByLevel[fill[level[rank]]++] = rank;
+		}
+
+		LOG.info("CCH: " + graph.linkCount + " links, " + edges + " edges, " + (maxLevel + 1) + " levels.");
+	}
+
+	private static int[][] collectNeighbors(SpeedyGraph graph) {
+		int[] degree = new int[graph.nodeCount];
+		LinkIterator outLI = graph.getOutLinkIterator();
+		for (int nodeIdx = 0; nodeIdx < graph.nodeCount; nodeIdx++) {
+			outLI.reset(nodeIdx);
+			while (outLI.next()) {
+				degree[outLI.getFromNodeIndex()]++;
+				degree[outLI.getToNodeIndex()]++;
+			}
+		}
+		int[][] neighbors = new int[graph.nodeCount][];
+		for (int nodeIdx = 0; nodeIdx < graph.nodeCount; nodeIdx++) {
+			neighbors[nodeIdx] = new int[degree[nodeIdx]];
+		}
+		Arrays.fill(degree, 0);
+		for (int nodeIdx = 0; nodeIdx < graph.nodeCount; nodeIdx++) {
+			outLI.reset(nodeIdx);
+			while (outLI.next()) {
+				int from = outLI.getFromNodeIndex();
+				int to = outLI.getToNodeIndex();
+				if (from != to) {
+					neighbors[from][degree[from]++] = to;
+					neighbors[to][degree[to]++] = from;
+				}
+			}
+		}
+		for (int nodeIdx = 0; nodeIdx < graph.nodeCount; nodeIdx++) {
+			neighbors[nodeIdx] = Arrays.copyOf(neighbors[nodeIdx], degree[nodeIdx]);
+		}
+		return neighbors;
+	}
+
+	/**
+	 * Computes the upward neighbors of every rank after contracting all nodes in rank order. As shown by Dibbelt et al.,
+	 * it is sufficient to pass the upward neighbors of a node to its parent in the elimination tree.
+	 */
+	private int[][] contract(int[][] neighbors) {
+		int[][] up = new int[this.nodeCount][];
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			int[] nb = neighbors[this.nodeOfRank[rank]];
+			int[] higher = new int[nb.length];
+			int n = 0;
+			for (int nodeIdx : nb) {
+				int other = this.rankOfNode[nodeIdx];
+				if (other > rank) {
+					higher[n++] = other;
+				}
+			}
+			up[rank] = sortedUnique(higher, n);
+		}
+		for (int rank = 0; rank < this.nodeCount; rank++) {
+			int[] upward = up[rank];
+			if (upward.length > 1) {
+				int p = upward[0];
+				up[p] = mergeSorted(up[p], upward, 1);
+			}
+		}
+		return up;
+	}
+
+	private static int[] sortedUnique(int[] values, int length) {
+		Arrays.sort(values, 0, length);
+		int n = 0;
+		for (int i = 0; i < length; i++) {
+			if (n == 0 || values[n - 1] != values[i]) {
+				values[n++] = values[i];
+			}
+		}
+		return Arrays.copyOf(values, n);
+	}
+
+	private static int[] mergeSorted(int[] a, int[] b, int bFrom) {
+		int[] merged = new int[a.length + b.length - bFrom];
+		int i = 0, j = bFrom, n = 0;
+		while (i < a.length || j < b.length) {
+			int next;
+			if (j >= b.length || (i < a.length && a[i] <= b[j])) {
+				next = a[i++];
+			} else {
+				next = b[j++];
+			}
+			if (n == 0 || merged[n - 1] != next) {
+				merged[n++] = next;
+			}
+		}
+		return n == merged.length ? merged : Arrays.copyOf(merged, n);
+	}
+
+	int getRank(int nodeIdx) {
+		return this.rankOfNode[nodeIdx];
+	}
+
+	int getNodeIndex(int rank) {
+		return this.nodeOfRank[rank];
+	}
+
+	int getParent(int rank) {
+		return this.parent[rank];
+	}
+
+	int getUpStart(int rank) {
+		return this.upStart[rank];
+	}
+
+	int getUpEnd(int rank) {
+		return this.upStart[rank + 1];
+	}
+
+	int getUpHead(int edge) {
+		return this.upHead[edge];
+	}
+
+	int getDownStart(int rank) {
+		return this.downStart[rank];
+	}
+
+	int getDownEnd(int rank) {
+		return this.downStart[rank + 1];
+	}
+
+	int getDownTail(int i) {
+		return this.downTail[i];
+	}
+
+	int getDownEdge(int i) {
+		return this.downEdge[i];
+	}
+
+	int getEdgeLinkStart(int edge) {
+		return this.edgeLinkStart[edge];
+	}
+
+	int getEdgeLinkEnd(int edge) {
+		return this.edgeLinkStart[edge + 1];
+	}
+
+	int getEdgeLink(int i) {
+		return this.edgeLinks[i];
+	}
+
+	int getLevelCount() {
+		return this.levelStart.length - 1;
+	}
+
+	int getLevelStart(int level) {
+		return this.levelStart[level];
+	}
+
+	int getLevelEnd(int level) {
+		return this.levelStart[level + 1];
+	}
+
+	int getRankByLevel(int i) {
+		return this.ranksByLevel[i];
+	}
+
+	/**
+	 * @return the edge between the two ranks, with <code>lower &lt; higher</code>, or -1 if there is none
+	 */
+	int getEdge(int lower, int higher) {
+		int index = Arrays.binarySearch(this.upHead, this.upStart[lower], this.upStart[lower + 1], higher);
+		return index < 0 ? -1 : index;
+	}
+
+	/**
+	 * Geometric nested dissection: assigns the ranks of a part to the two halves first, then to the separator.
+	 */
+	private static class NestedDissection {
+		private final SpeedyGraph graph;
+		private final int[][] neighbors;
+		private final int[] nodeOfRank;
+		// the part of the current dissection a node belongs to
+		private final int[] side;
+		private int nextSide = 0;
+
+		NestedDissection(SpeedyGraph graph, int[][] neighbors, int[] nodeOfRank) {
+			this.graph = graph;
+			this.neighbors = neighbors;
+			this.nodeOfRank = nodeOfRank;
+			this.side = new int[graph.nodeCount];
+			Arrays.fill(this.side, -1);
+		}
+
+		void order(int[] nodes) {
+			// explicit stack instead of recursion, as the parts are not always balanced
+			ArrayDeque<int[]> parts = new ArrayDeque<>();
+			ArrayDeque<Integer> firstRanks = new ArrayDeque<>();
+			parts.push(nodes);
+			firstRanks.push(0);
+			while (!parts.isEmpty()) {
+				int[] part = parts.pop();
+				int firstRank = firstRanks.pop();
+				if (part.length <= LEAF_SIZE) {
+					orderLeaf(part, firstRank);
+					continue;
+				}
+				int[][] split = split(part);
+				int[] a = split[0];
+				int[] b = split[1];
+				int[] separator = split[2];
+				if (a.length == 0 || b.length == 0) {
+					// cannot be split further, e.g. all nodes at the same coordinate
+					orderLeaf(part, firstRank);
+					continue;
+				}
+				int rank = firstRank + a.length + b.length;
+				for (int nodeIdx : separator) {
+					this.nodeOfRank[rank++] = nodeIdx;
+				}
+				parts.push(a);
+				firstRanks.push(firstRank);
+				parts.push(b);
+				firstRanks.push(firstRank + a.length);
+			}
+		}
+
+		private void orderLeaf(int[] part, int firstRank) {
+			// nodes with few neighbors first, they create few shortcuts
+			Integer[] sorted = new Integer[part.length];
+			for (int i = 0; i < part.length; i++) {
+				sorted[i] = part[i];
+			}
+			Arrays.sort(sorted, (n1, n2) -> {
+				int c = Integer.compare(this.neighbors[n1].length, this.neighbors[n2].length);
+				return c != 0 ? c : Integer.compare(n1, n2);
+			});
+			for (int i = 0; i < sorted.length; i++) {
+				this.nodeOfRank[firstRank + i] = sorted[i];
+			}
+		}
+
+		/**
+		 * @return the two halves and the separator
+		 */
+		private int[][] split(int[] part) {
+			double minX = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY;
+			double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+			for (int nodeIdx : part) {
+				Coord coord = getCoord(nodeIdx);
+				minX = Math.min(minX, coord.getX());
+				maxX = Math.max(maxX, coord.getX());
+				minY = Math.min(minY, coord.getY());
+				maxY = Math.max(maxY, coord.getY());
+			}
+			boolean byX = maxX - minX >= maxY - minY;
+			Integer[] sorted = new Integer[part.length];
+			for (int i = 0; i < part.length; i++) {
+				sorted[i] = part[i];
+			}
+			Arrays.sort(sorted, (n1, n2) -> {
+				Coord c1 = getCoord(n1);
+				Coord c2 = getCoord(n2);
+				int c = byX ? Double.compare(c1.getX(), c2.getX()) : Double.compare(c1.getY(), c2.getY());
+				return c != 0 ? c : Integer.compare(n1, n2);
+			});
+			int half = sorted.length / 2;
+			int sideA = this.nextSide++;
+			int sideB = this.nextSide++;
+			for (int i = 0; i < sorted.length; i++) {
+				this.side[sorted[i]] = i < half ? sideA : sideB;
+			}
+			// the boundary nodes of both halves, the smaller boundary becomes the separator
+			int boundaryA = 0;
+			int boundaryB = 0;
+			for (int i = 0; i < sorted.length; i++) {
+				if (isBoundary(sorted[i], i < half ? sideB : sideA)) {
+					if (i < half) {
+						boundaryA++;
+					} else {
+						boundaryB++;
+					}
+				}
+			}
+			boolean separateA = boundaryA <= boundaryB;
+			int separatorSide = separateA ? sideA : sideB;
+			int otherSide = separateA ? sideB : sideA;
+			int[] separator = new int[separateA ? boundaryA : boundaryB];
+			int[] a = new int[half - (separateA ? boundaryA : 0)];
+			int[] b = new int[sorted.length - half - (separateA ? 0 : boundaryB)];
+			int s = 0, na = 0, nb = 0;
+			for (int i = 0; i < sorted.length; i++) {
+				int nodeIdx = sorted[i];
+				boolean inA = i < half;
+				if ((inA ? sideA : sideB) == separatorSide && isBoundary(nodeIdx, otherSide)) {
+					separator[s++] = nodeIdx;
+				} else if (inA) {
+					a[na++] = nodeIdx;
+				} else {
+					b[nb++] = nodeIdx;
+				}
+			}
+			return new int[][] { a, b, separator };
+		}
+
+		private boolean isBoundary(int nodeIdx, int otherSide) {
+			for (int neighbor : this.neighbors[nodeIdx]) {
+				if (this.side[neighbor] == otherSide) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private Coord getCoord(int nodeIdx) {
+			Node node = this.graph.getNode(nodeIdx);
+			return node.getCoord();
+		}
+	}
+}
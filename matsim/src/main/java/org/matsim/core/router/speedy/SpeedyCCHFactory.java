@@ -0,0 +1,81 @@
+package org.matsim.core.router.speedy;
+
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.config.Config;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.controler.listener.IterationStartsListener;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
+import org.matsim.core.router.util.TimeDistanceTravelDisutility;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates {@link SpeedyCCH} instances.
+ *
+ * The metric-independent {@link SpeedyCCHData} is computed only once per network. The customization
+ * ({@link SpeedyCCHMetric}) is shared by all path calculators with the same travel time and the same travel
+ * disutility.  As the routing modules create a new travel disutility for every path calculator, {@link TimeDistanceTravelDisutility}s
+ * are compared by their travel time and marginal costs (which are all the customization depends on), and all other
+ * travel disutilities by identity.  As the travel times change from iteration to iteration, the customizations are
+ * dropped at the start of every iteration.
+ */
+@Singleton
+public class SpeedyCCHFactory implements LeastCostPathCalculatorFactory, IterationStartsListener {
+
+	public static final double DEFAULT_TIME_BIN_SIZE = 3600;
+
+	private final double timeBinSize;
+	private final double maxTime;
+	private final int numberOfThreads;
+	private final Map<Network, SpeedyCCHData> graphs = new ConcurrentHashMap<>();
+	private final Map<MetricKey, SpeedyCCHMetric> metrics = new ConcurrentHashMap<>();
+
+	private record MetricKey(SpeedyCCHData cch, TravelTime travelTimes, Object travelCosts) {
+	}
+
+	private record TimeDistanceCosts(TravelTime travelTime, double marginalCostOfTime, double marginalCostOfDistance) {
+	}
+
+	public SpeedyCCHFactory() {
+		this(DEFAULT_TIME_BIN_SIZE, 30 * 3600, Runtime.getRuntime().availableProcessors());
+	}
+
+	@Inject
+	public SpeedyCCHFactory(Config config) {
+		this(DEFAULT_TIME_BIN_SIZE, config.travelTimeCalculator().getMaxTime(), config.global().getNumberOfThreads());
+	}
+
+	public SpeedyCCHFactory(double timeBinSize, double maxTime, int numberOfThreads) {
+		this.timeBinSize = timeBinSize;
+		this.maxTime = maxTime;
+		this.numberOfThreads = numberOfThreads;
+	}
+
+	@Override
+	public LeastCostPathCalculator createPathCalculator(Network network, TravelDisutility travelCosts, TravelTime travelTimes) {
+		SpeedyCCHData cch = this.graphs.computeIfAbsent(network, n -> new SpeedyCCHData(new SpeedyGraph(n)));
+		SpeedyCCHMetric metric = this.metrics.computeIfAbsent(new MetricKey(cch, travelTimes, getCostsKey(travelCosts)),
+				key -> new SpeedyCCHMetric(cch, travelCosts, this.timeBinSize, this.maxTime, this.numberOfThreads));
+		return new SpeedyCCH(cch, metric, travelTimes, travelCosts);
+	}
+
+	private static Object getCostsKey(TravelDisutility travelCosts) {
+		if (travelCosts instanceof TimeDistanceTravelDisutility timeDistanceCosts) {
+			return new TimeDistanceCosts(timeDistanceCosts.getTravelTime(), timeDistanceCosts.getMarginalCostOfTime(),
+					timeDistanceCosts.getExpectedMarginalCostOfDistance());
+		}
+		return travelCosts;
+	}
+
+	@Override
+	public void notifyIterationStarts(IterationStartsEvent event) {
+		this.metrics.clear();
+	}
+
+}
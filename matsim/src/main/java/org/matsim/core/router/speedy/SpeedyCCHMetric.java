@@ -0,0 +1,243 @@
+package org.matsim.core.router.speedy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.core.router.util.TimeDistanceTravelDisutility;
+import org.matsim.core.router.util.TravelDisutility;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The customization of a {@link SpeedyCCHData} with a travel disutility.
+ *
+ * As the travel disutility depends on the time, the day is split into time bins, and the weights are customized for
+ * every time bin separately, using the travel disutility in the middle of the bin. The time bins are only customized
+ * when they are used for the first time.  The customization of the edges of a level only depends on lower levels, so
+ * the edges of a level are customized in parallel.  Randomized travel disutilities are customized with their expected
+ * costs, so the path choice is not randomized per person.
+ *
+ * For every edge and direction, the customization stores the weight and how the weight was reached: either by a link,
+ * or by a lower triangle over a middle node.  This is required to unpack the paths.
+ *
+ * This class is thread-safe and can safely be used by multiple threads.
+ */
+class SpeedyCCHMetric {
+
+	private final static Logger LOG = LogManager.getLogger(SpeedyCCHMetric.class);
+
+	// no connection in the "via" arrays
+	static final int NONE = -1;
+
+	private final SpeedyCCHData data;
+	private final TravelDisutility travelCosts;
+	private final double timeBinSize;
+	private final int numberOfThreads;
+	private final AtomicReferenceArray<Weights> bins;
+	// shared by the customizations of all time bins; the idle threads terminate, so the pool does not need to be shut down
+	private final ThreadPoolExecutor executor;
+
+	SpeedyCCHMetric(SpeedyCCHData data, TravelDisutility travelCosts, double timeBinSize, double maxTime, int numberOfThreads) {
+		this.data = data;
+		this.travelCosts = travelCosts;
+		this.timeBinSize = timeBinSize;
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+		this.bins = new AtomicReferenceArray<>(Math.max(1, (int) Math.ceil(maxTime / timeBinSize)));
+		if (this.numberOfThreads == 1) {
+			this.executor = null;
+		} else {
+			this.executor = new ThreadPoolExecutor(this.numberOfThreads, this.numberOfThreads, 10, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), r -> {
+						Thread thread = new Thread(r, "SpeedyCCHMetric");
+						thread.setDaemon(true);
+						return thread;
+					});
+			this.executor.allowCoreThreadTimeOut(true);
+		}
+	}
+
+	/**
+	 * The weights of one time bin.  The via arrays contain {@link #NONE}, the rank of the middle node of a lower triangle,
+	 * or <code>-(linkIndex + 2)</code> for a link.
+	 */
+	static final class Weights {
+		final float[] up;
+		final float[] down;
+		final int[] upVia;
+		final int[] downVia;
+
+		private Weights(int edgeCount) {
+			this.up = new float[edgeCount];
+			this.down = new float[edgeCount];
+			this.upVia = new int[edgeCount];
+			this.downVia = new int[edgeCount];
+			Arrays.fill(this.up, Float.POSITIVE_INFINITY);
+			Arrays.fill(this.down, Float.POSITIVE_INFINITY);
+			Arrays.fill(this.upVia, NONE);
+			Arrays.fill(this.downVia, NONE);
+		}
+	}
+
+	Weights getWeights(double time) {
+		int bin = (int) (time / this.timeBinSize);
+		bin = Math.max(0, Math.min(this.bins.length() - 1, bin));
+		Weights weights = this.bins.get(bin);
+		if (weights == null) {
+			synchronized (this) {
+				weights = this.bins.get(bin);
+				if (weights == null) {
+					weights = customize((bin + 0.5) * this.timeBinSize);
+					this.bins.set(bin, weights);
+				}
+			}
+		}
+		return weights;
+	}
+
+	private Weights customize(double time) {
+		long start = System.nanoTime();
+		Weights weights = new Weights(this.data.edgeCount);
+		if (this.executor == null) {
+			customizeLinks(weights, time, 0, this.data.edgeCount);
+			for (int level = 0; level < this.data.getLevelCount(); level++) {
+				customizeRanks(weights, this.data.getLevelStart(level), this.data.getLevelEnd(level));
+			}
+		} else {
+			runInParallel(this.executor, 0, this.data.edgeCount, (from, to) -> customizeLinks(weights, time, from, to));
+			for (int level = 0; level < this.data.getLevelCount(); level++) {
+				runInParallel(this.executor, this.data.getLevelStart(level), this.data.getLevelEnd(level),
+						(from, to) -> customizeRanks(weights, from, to));
+			}
+		}
+		LOG.info("CCH: customized time bin at " + time + " in " + (System.nanoTime() - start) / 1_000_000 + " ms.");
+		return weights;
+	}
+
+	private interface RangeTask {
+		void run(int from, int to);
+	}
+
+	private void runInParallel(ExecutorService executor, int from, int to, RangeTask task) {
+		int size = to - from;
+		// small levels (there are many close to the root) are not worth the overhead
+		if (size < 256) {
+			task.run(from, to);
+			return;
+		}
+		int chunks = Math.min(this.numberOfThreads * 4, size / 64);
+		Future<?>[] futures = new Future[chunks];
+		for (int i = 0; i < chunks; i++) {
+			int chunkFrom = from + (int) ((long) size * i / chunks);
+			int chunkTo = from + (int) ((long) size * (i + 1) / chunks);
+			futures[i] = executor.submit(() -> task.run(chunkFrom, chunkTo));
+		}
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Initializes the weights of the edges with the links, taking the cheapest one if there are parallel links.
+	 */
+	private void customizeLinks(Weights weights, double time, int fromEdge, int toEdge) {
+		SpeedyGraph graph = this.data.graph;
+		for (int e = fromEdge; e < toEdge; e++) {
+			for (int i = this.data.getEdgeLinkStart(e); i < this.data.getEdgeLinkEnd(e); i++) {
+				int linkIdx = this.data.getEdgeLink(i);
+				Link link = graph.getLink(linkIdx);
+				float cost = (float) getLinkTravelDisutility(link, time);
+				int fromRank = this.data.getRank(link.getFromNode().getId().index());
+				int toRank = this.data.getRank(link.getToNode().getId().index());
+				if (fromRank < toRank) {
+					if (cost < weights.up[e]) {
+						weights.up[e] = cost;
+						weights.upVia[e] = -(linkIdx + 2);
+					}
+				} else {
+					if (cost < weights.down[e]) {
+						weights.down[e] = cost;
+						weights.downVia[e] = -(linkIdx + 2);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * The customization is shared by all persons, so the link costs are evaluated without a person.  Time/distance based
+	 * disutilities may randomize the distance costs per person (and fail without one), so their expected costs are used
+	 * instead.  The costs of the found path are evaluated with the person, see {@link SpeedyCCH}.
+	 */
+	private double getLinkTravelDisutility(Link link, double time) {
+		if (this.travelCosts instanceof TimeDistanceTravelDisutility timeDistanceCosts) {
+			double travelTime = timeDistanceCosts.getTravelTime().getLinkTravelTime(link, time, null, null);
+			return timeDistanceCosts.getMarginalCostOfTime() * travelTime
+					+ timeDistanceCosts.getExpectedMarginalCostOfDistance() * link.getLength();
+		}
+		return this.travelCosts.getLinkTravelDisutility(link, time, null, null);
+	}
+
+	/**
+	 * Improves the upward edges of the ranks by their lower triangles.  Only writes the edges of the given ranks and only
+	 * reads edges of lower levels.
+	 */
+	private void customizeRanks(Weights weights, int fromIndex, int toIndex) {
+		for (int index = fromIndex; index < toIndex; index++) {
+			int v = this.data.getRankByLevel(index);
+			int vStart = this.data.getDownStart(v);
+			int vEnd = this.data.getDownEnd(v);
+			for (int e = this.data.getUpStart(v); e < this.data.getUpEnd(v); e++) {
+				int w = this.data.getUpHead(e);
+				// lower triangles: the common lower neighbors of v and w
+				int i = vStart;
+				int j = this.data.getDownStart(w);
+				int wEnd = this.data.getDownEnd(w);
+				float up = weights.up[e];
+				float down = weights.down[e];
+				int upVia = weights.upVia[e];
+				int downVia = weights.downVia[e];
+				while (i < vEnd && j < wEnd) {
+					int uv = this.data.getDownTail(i);
+					int uw = this.data.getDownTail(j);
+					if (uv < uw) {
+						i++;
+					} else if (uv > uw) {
+						j++;
+					} else {
+						int e1 = this.data.getDownEdge(i); // u - v
+						int e2 = this.data.getDownEdge(j); // u - w
+						// v -> u -> w
+						float viaUp = weights.down[e1] + weights.up[e2];
+						if (viaUp < up) {
+							up = viaUp;
+							upVia = uv;
+						}
+						// w -> u -> v
+						float viaDown = weights.down[e2] + weights.up[e1];
+						if (viaDown < down) {
+							down = viaDown;
+							downVia = uv;
+						}
+						i++;
+						j++;
+					}
+				}
+				weights.up[e] = up;
+				weights.down[e] = down;
+				weights.upVia[e] = upVia;
+				weights.downVia[e] = downVia;
+			}
+		}
+	}
+}
@@ -22,11 +22,11 @@ import java.util.List;
 public class SpeedyDijkstra implements LeastCostPathCalculator {
 
 	private final SpeedyGraph graph;
-	private final TravelTime tt;
-	private final TravelDisutility td;
+	private final LinkCostEvaluator costs;
 	private final double[] data; // 3 entries per node: time, cost, distance
 	private int currentIteration = Integer.MIN_VALUE;
 	private final int[] iterationIds;
+	private final int[] targetIds;
 	private final int[] comingFrom;
 	private final int[] usedLink;
 	private final SpeedyGraph.LinkIterator outLI;
@@ -34,10 +34,10 @@ public class SpeedyDijkstra implements LeastCostPathCalculator {
 
 	public SpeedyDijkstra(SpeedyGraph graph, TravelTime tt, TravelDisutility td) {
 		this.graph = graph;
-		this.tt = tt;
-		this.td = td;
+		this.costs = new LinkCostEvaluator(tt, td);
 		this.data = new double[graph.nodeCount * 3];
 		this.iterationIds = new int[graph.nodeCount];
+		this.targetIds = new int[graph.nodeCount];
 		this.comingFrom = new int[graph.nodeCount];
 		this.usedLink = new int[graph.nodeCount];
 		this.pq = new DAryMinHeap(graph.nodeCount, 6);
@@ -66,27 +66,70 @@ public class SpeedyDijkstra implements LeastCostPathCalculator {
 
 	@Override
 	public Path calcLeastCostPath(Node startNode, Node endNode, double startTime, Person person, Vehicle vehicle) {
+		startQuery();
+		int endNodeIndex = endNode.getId().index();
+		this.targetIds[endNodeIndex] = this.currentIteration;
+
+		if (search(startNode.getId().index(), startTime, person, vehicle, 1)) {
+			return constructPath(endNodeIndex, startTime);
+		}
+		return null;
+	}
+
+	/**
+	 * Calculates the least cost paths to all the given nodes with a single search, which stops as soon as all the nodes
+	 * are reached.
+	 */
+	@Override
+	public List<Path> calcLeastCostPaths(Node startNode, List<Node> endNodes, double startTime, Person person, Vehicle vehicle) {
+		startQuery();
+		int targetCount = 0;
+		for (Node endNode : endNodes) {
+			int endNodeIndex = endNode.getId().index();
+			if (this.targetIds[endNodeIndex] != this.currentIteration) {
+				this.targetIds[endNodeIndex] = this.currentIteration;
+				targetCount++;
+			}
+		}
+
+		search(startNode.getId().index(), startTime, person, vehicle, targetCount);
+
+		List<Path> paths = new ArrayList<>(endNodes.size());
+		for (Node endNode : endNodes) {
+			int endNodeIndex = endNode.getId().index();
+			paths.add(this.iterationIds[endNodeIndex] == this.currentIteration ? constructPath(endNodeIndex, startTime) : null);
+		}
+		return paths;
+	}
+
+	private void startQuery() {
+		this.costs.startQuery();
 		this.currentIteration++;
 		if (this.currentIteration == Integer.MAX_VALUE) {
 			// reset iteration as we overflow
 			Arrays.fill(this.iterationIds, this.currentIteration);
+			Arrays.fill(this.targetIds, this.currentIteration);
 			this.currentIteration = Integer.MIN_VALUE;
 		}
+	}
 
-		int startNodeIndex = startNode.getId().index();
-		int endNodeIndex = endNode.getId().index();
-
+	/**
+	 * @return <code>true</code> if all target nodes were reached
+	 */
+	private boolean search(int startNodeIndex, double startTime, Person person, Vehicle vehicle, int targetCount) {
 		this.comingFrom[startNodeIndex] = -1;
 		setData(startNodeIndex, 0, startTime, 0);
 		this.pq.clear();
 		this.pq.insert(startNodeIndex, 0);
-		boolean foundEndNode = false;
+		int remainingTargets = targetCount;
 
 		while (!this.pq.isEmpty()) {
 			final int nodeIdx = this.pq.poll();
-			if (nodeIdx == endNodeIndex) {
-				foundEndNode = true;
-				break;
+			if (this.targetIds[nodeIdx] == this.currentIteration) {
+				remainingTargets--;
+				if (remainingTargets == 0) {
+					return true;
+				}
 			}
 
 			double currTime = getTimeRaw(nodeIdx);
@@ -102,9 +145,9 @@ public class SpeedyDijkstra implements LeastCostPathCalculator {
 				Link link = this.graph.getLink(linkIdx);
 				int toNode = this.outLI.getToNodeIndex();
 
-				double travelTime = this.tt.getLinkTravelTime(link, currTime, person, vehicle);
+				double travelTime = this.costs.getTravelTime(linkIdx, link, currTime, person, vehicle);
 				double newTime = currTime + travelTime;
-				double newCost = currCost + this.td.getLinkTravelDisutility(link, currTime, person, vehicle);
+				double newCost = currCost + this.costs.getTravelDisutility(link, currTime, travelTime, person, vehicle);
 
 				if (this.iterationIds[toNode] == this.currentIteration) {
 					// this node was already visited in this route-query
@@ -123,11 +166,7 @@ public class SpeedyDijkstra implements LeastCostPathCalculator {
 				}
 			}
 		}
-
-		if (foundEndNode) {
-			return constructPath(endNodeIndex, startTime);
-		}
-		return null;
+		return false;
 	}
 
 	private Path constructPath(int endNodeIndex, double startTime) {
@@ -20,6 +20,7 @@
 
 package org.matsim.core.router.util;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.matsim.api.core.v01.network.Link;
@@ -31,6 +32,20 @@ public interface LeastCostPathCalculator {
 
 	Path calcLeastCostPath(Node fromNode, Node toNode, double starttime, final Person person, final Vehicle vehicle);
 
+	/**
+	 * Calculates the least cost paths from one node to several nodes, all starting at the same time.  Implementations
+	 * may answer this with a single one-to-many search, the default just calculates one path after the other.
+	 *
+	 * @return the paths in the order of <code>toNodes</code>, <code>null</code> for nodes which cannot be reached
+	 */
+	default List<Path> calcLeastCostPaths(Node fromNode, List<Node> toNodes, double starttime, final Person person, final Vehicle vehicle) {
+		List<Path> paths = new ArrayList<>(toNodes.size());
+		for (Node toNode : toNodes) {
+			paths.add(calcLeastCostPath(fromNode, toNode, starttime, person, vehicle));
+		}
+		return paths;
+	}
+
 	class Path {
 		public List<Node> nodes;
 		public final List<Link> links;
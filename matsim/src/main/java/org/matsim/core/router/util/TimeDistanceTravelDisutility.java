@@ -0,0 +1,60 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * TimeDistanceTravelDisutility.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.router.util;
+
+import org.matsim.api.core.v01.population.Person;
+
+/**
+ * A {@link TravelDisutility} which is a linear combination of the travel time and the length of the link, i.e.
+ * <pre>
+ * disutility = marginalCostOfTime * travelTime(link, time, person, vehicle) + marginalCostOfDistance(person) * link.getLength()
+ * </pre>
+ * with the travel time from {@link #getTravelTime()}.  Routers which already know the travel time of a link can then
+ * compute the disutility themselves, instead of looking up the travel time a second time.
+ */
+public interface TimeDistanceTravelDisutility extends TravelDisutility {
+
+	/**
+	 * @return the travel time the disutility is based on.  Routers may only use the shortcut if this is the same
+	 * instance as the travel time they use.
+	 */
+	TravelTime getTravelTime();
+
+	/**
+	 * @return the (negative) utility of one second of travel time, as cost
+	 */
+	double getMarginalCostOfTime();
+
+	/**
+	 * @return the (negative) utility of one meter, as cost, for the given person.  This may include randomness, which
+	 * is the same for all links as long as the person does not change, just as in
+	 * {@link #getLinkTravelDisutility(org.matsim.api.core.v01.network.Link, double, Person, org.matsim.vehicles.Vehicle)}.
+	 */
+	double getMarginalCostOfDistance(Person person);
+
+	/**
+	 * @return the (negative) utility of one meter, as cost, without any randomness.  If the marginal cost of distance is
+	 * randomized per person, this is its expected value.  Routers which prepare the costs for all persons (e.g. by a
+	 * customization) can use this instead of {@link #getMarginalCostOfDistance(Person)}.
+	 */
+	double getExpectedMarginalCostOfDistance();
+
+}
@@ -21,9 +21,6 @@
 package org.matsim.core.scoring;
 
 import com.google.inject.Inject;
-import gnu.trove.TDoubleCollection;
-import gnu.trove.iterator.TDoubleIterator;
-import gnu.trove.list.array.TDoubleArrayList;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.events.ActivityEndEvent;
@@ -63,8 +60,8 @@ import org.matsim.vehicles.Vehicle;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.matsim.core.router.TripStructureUtils.Trip;
@@ -86,7 +83,13 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 	private final EventsToActivities actsDelegate;
 
 	private final IdMap<Person, ScoringFunction> agentScorers = new IdMap<>(Person.class);
-	private final IdMap<Person, TDoubleCollection> partialScores = new IdMap<>(Person.class);
+	/*
+	 * The partial scores are only needed for writing them together with the experienced plans. They are stored per person index,
+	 * and the arrays are re-used in every iteration, so only a growing plan causes new allocations.
+	 */
+	private final boolean recordPartialScores;
+	private double[][] partialScores = new double[0][];
+	private int[] partialScoresCounts = new int[0];
 	private final AtomicReference<Throwable> exception = new AtomicReference<>();
 	private final IdMap<Person, Plan> tripRecords = new IdMap<>(Person.class);
 	
@@ -109,6 +112,7 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 		this.legsDelegate = eventsToLegs;
 		this.actsDelegate = eventsToActivities;
 		this.scoringFunctionFactory = scoringFunctionFactory;
+		this.recordPartialScores = config.planCalcScore().isWriteExperiencedPlans();
 
 		eventsManager.addHandler(this);
 		eventsToActivities.addActivityHandler(this::handleActivity);
@@ -116,13 +120,44 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 	}
 
 	private void init() {
+		if (this.recordPartialScores) {
+			int count = Id.getNumberOfIds(Person.class);
+			if (this.partialScores.length < count) {
+				this.partialScores = Arrays.copyOf(this.partialScores, count);
+				this.partialScoresCounts = Arrays.copyOf(this.partialScoresCounts, count);
+			}
+			Arrays.fill(this.partialScoresCounts, 0);
+		}
 		for (Person person : this.population.getPersons().values()) {
 			this.agentScorers.put(person.getId(), this.scoringFunctionFactory.createNewScoringFunction(person ) );
-			this.partialScores.put(person.getId(), new TDoubleArrayList());
-			this.tripRecords.put(person.getId(), PopulationUtils.createPlan());
+			// re-use the container for the trips of the last iteration, it is always emptied after a trip anyway
+			Plan tripRecord = this.tripRecords.get(person.getId());
+			if (tripRecord == null) {
+				this.tripRecords.put(person.getId(), PopulationUtils.createPlan());
+			} else {
+				tripRecord.getPlanElements().clear();
+			}
 		}
 	}
 
+	private void addPartialScore(Id<Person> agentId, double score) {
+		if (!this.recordPartialScores) {
+			return;
+		}
+		int index = agentId.index();
+		double[] scores = this.partialScores[index];
+		int count = this.partialScoresCounts[index];
+		if (scores == null) {
+			scores = new double[8];
+			this.partialScores[index] = scores;
+		} else if (count == scores.length) {
+			scores = Arrays.copyOf(scores, count * 2);
+			this.partialScores[index] = scores;
+		}
+		scores[count] = score;
+		this.partialScoresCounts[index] = count + 1;
+	}
+
 	@Override
 	public void handleEvent(Event o) {
 		// this is for the stuff that is directly based on events. note that this passes on _all_ person events, even those which are
@@ -230,8 +265,7 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 		ScoringFunction scoringFunction = ScoringFunctionsForPopulation.this.getScoringFunctionForAgent(agentId);
 		if (scoringFunction != null) {
 			scoringFunction.handleLeg(leg);
-			TDoubleCollection partialScoresForAgent = this.partialScores.get(agentId);
-			partialScoresForAgent.add(scoringFunction.getScore());
+			addPartialScore(agentId, scoringFunction.getScore());
 		}
 		Plan plan = this.tripRecords.get( agentId ) ; // as container for trip
 		if ( plan!=null ) {
@@ -245,8 +279,7 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 		ScoringFunction scoringFunction = ScoringFunctionsForPopulation.this.getScoringFunctionForAgent(agentId);
 		if (scoringFunction != null) {
 			scoringFunction.handleActivity(activity);
-			TDoubleCollection partialScoresForAgent = this.partialScores.get(agentId);
-			partialScoresForAgent.add(scoringFunction.getScore());
+			addPartialScore(agentId, scoringFunction.getScore());
 		}
 		
 		Plan plan = this.tripRecords.get( agentId ); // as container for trip
@@ -279,22 +312,27 @@ import static org.matsim.core.router.TripStructureUtils.Trip;
 				throw new RuntimeException(throwable);
 			}
 		}
-		for (ScoringFunction sf : this.agentScorers.values()) {
+		this.agentScorers.forEach((agentId, sf) -> {
 			sf.finish();
-		}
-		for (Entry<Id<Person>, TDoubleCollection> entry : this.partialScores.entrySet()) {
-			entry.getValue().add(this.getScoringFunctionForAgent(entry.getKey()).getScore());
-		}
+			addPartialScore(agentId, sf.getScore());
+		});
 	}
 
+	/**
+	 * Writes the scores after every activity and leg, and the final score, of every person. The partial scores are only
+	 * recorded if the experienced plans are written, see {@link org.matsim.core.config.groups.PlanCalcScoreConfigGroup#isWriteExperiencedPlans()}.
+	 */
 	void writePartialScores(String iterationFilename) {
 		try ( BufferedWriter out = IOUtils.getBufferedWriter(iterationFilename) ) {
-			for (Entry<Id<Person>, TDoubleCollection> entry : this.partialScores.entrySet()) {
-				out.write(entry.getKey().toString());
-				TDoubleIterator iterator = entry.getValue().iterator();
-				while (iterator.hasNext()) {
-					out.write('\t');
-					out.write(String.valueOf(iterator.next()));
+			for (Id<Person> agentId : this.agentScorers.keySet()) {
+				out.write(agentId.toString());
+				int index = agentId.index();
+				if (index < this.partialScoresCounts.length) {
+					double[] scores = this.partialScores[index];
+					for (int i = 0; i < this.partialScoresCounts[index]; i++) {
+						out.write('\t');
+						out.write(String.valueOf(scores[i]));
+					}
 				}
 				out.write(IOUtils.NATIVE_NEWLINE);
 			}
@@ -0,0 +1,329 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CompactTravelTimeCalculator.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.trafficmonitoring;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.LinkLeaveEvent;
+import org.matsim.api.core.v01.events.VehicleAbortsEvent;
+import org.matsim.api.core.v01.events.VehicleEntersTrafficEvent;
+import org.matsim.api.core.v01.events.VehicleLeavesTrafficEvent;
+import org.matsim.api.core.v01.events.handler.LinkEnterEventHandler;
+import org.matsim.api.core.v01.events.handler.LinkLeaveEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleAbortsEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleEntersTrafficEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleLeavesTrafficEventHandler;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.api.experimental.events.VehicleArrivesAtFacilityEvent;
+import org.matsim.core.api.experimental.events.handler.VehicleArrivesAtFacilityEventHandler;
+import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup;
+import org.matsim.core.events.handler.EventHandler;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Calculates the link travel times from events like {@link TravelTimeCalculator}, but without creating objects per link
+ * or per vehicle.
+ * <br>
+ * The travel times of all links are stored in one flat array, indexed by the index of the link id and the time bin. Every
+ * entry uses the same encoding of count and average travel time as {@link TravelTimeDataArray}, so the resulting travel
+ * times are the same as with the default {@link TravelTimeCalculator}. The link enter times of the vehicles are stored in
+ * primitive arrays indexed by the index of the vehicle id.
+ * <br>
+ * The events are handled by several shards (see {@link #getEventHandlers()}), each of them being responsible for the
+ * vehicles with <code>vehicleIndex % numberOfShards == shardIndex</code>.  Each shard only modifies its own vehicle
+ * table, and the travel times are updated with compare-and-set, so the shards can be called by different threads, e.g.
+ * from parallel events handling, without any locking.
+ * <br>
+ * Only links which exist at construction time are observed; for all other links the free speed travel time is returned.
+ * Link-to-link travel times are not supported.
+ */
+public final class CompactTravelTimeCalculator {
+
+	private static final int LOCK_COUNT = 64;
+	private static final long EMPTY = TravelTimeDataArray.encode(0, -1.0);
+
+	private final int timeSlice;
+	private final int numSlots;
+	private final int linkCount;
+	private final TimeSlotComputation aggregator;
+	private final TravelTimeGetter travelTimeGetter;
+	private final Set<String> analyzedModes;
+
+	private final AtomicLongArray data;
+	private final AtomicIntegerArray needsConsolidation;
+	private final Object[] locks = new Object[LOCK_COUNT];
+	private final List<Shard> shards;
+	private final ThreadLocal<LinkTravelTimeData> linkData = ThreadLocal.withInitial(LinkTravelTimeData::new);
+
+	/**
+	 * @param analyzedModes the network modes to observe, or <code>null</code> to observe all vehicles
+	 * @param numberOfShards the number of event handlers which share the work
+	 */
+	public CompactTravelTimeCalculator(TravelTimeCalculatorConfigGroup config, Set<String> analyzedModes, int numberOfShards) {
+		if (numberOfShards < 1) {
+			throw new IllegalArgumentException("The number of shards must be positive, but is " + numberOfShards);
+		}
+		this.timeSlice = config.getTraveltimeBinSize();
+		this.numSlots = TimeBinUtils.getTimeBinCount(config.getMaxTime(), this.timeSlice);
+		this.aggregator = new TimeSlotComputation(this.numSlots, this.timeSlice);
+		switch (config.getTravelTimeGetterType()) {
+			case "average":
+				this.travelTimeGetter = new AveragingTravelTimeGetter(this.aggregator);
+				break;
+			case "linearinterpolation":
+				this.travelTimeGetter = new LinearInterpolatingTravelTimeGetter(this.numSlots, this.timeSlice, this.aggregator);
+				break;
+			default:
+				throw new RuntimeException(config.getTravelTimeGetterType() + " is unknown!");
+		}
+		this.analyzedModes = analyzedModes;
+		this.linkCount = Id.getNumberOfIds(Link.class);
+		if ((long) this.linkCount * this.numSlots > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many links and time bins for one array: " + this.linkCount + " x " + this.numSlots);
+		}
+		this.data = new AtomicLongArray(this.linkCount * this.numSlots);
+		this.needsConsolidation = new AtomicIntegerArray(this.linkCount);
+		for (int i = 0; i < LOCK_COUNT; i++) {
+			this.locks[i] = new Object();
+		}
+		List<Shard> shards = new ArrayList<>(numberOfShards);
+		for (int i = 0; i < numberOfShards; i++) {
+			shards.add(new Shard(i, numberOfShards));
+		}
+		this.shards = Collections.unmodifiableList(shards);
+		resetTravelTimes();
+	}
+
+	/**
+	 * @return the event handlers which have to be added to the events manager.
+	 */
+	public List<? extends EventHandler> getEventHandlers() {
+		return this.shards;
+	}
+
+	public TravelTime getLinkTravelTimes() {
+		return new TravelTime() {
+			@Override
+			public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+				double linkTtimeFromVehicle = TravelTimeCalculator.getLinkTravelTimeOfVehicle(link, vehicle);
+				double linkTTimeFromObservation = CompactTravelTimeCalculator.this.getLinkTravelTime(link, time);
+				return Math.max(linkTtimeFromVehicle, linkTTimeFromObservation);
+			}
+		};
+	}
+
+	private double getLinkTravelTime(final Link link, final double time) {
+		int linkIndex = link.getId().index();
+		if (linkIndex >= this.linkCount) {
+			return link.getLength() / link.getFreespeed(time);
+		}
+		LinkTravelTimeData view = this.linkData.get();
+		view.link = link;
+		view.offset = linkIndex * this.numSlots;
+		if (this.needsConsolidation.get(linkIndex) != 0) {
+			synchronized (this.locks[linkIndex % LOCK_COUNT]) {
+				if (this.needsConsolidation.get(linkIndex) != 0) {
+					TravelTimeCalculator.consolidate(view, this.numSlots, this.timeSlice);
+					this.needsConsolidation.set(linkIndex, 0);
+				}
+			}
+		}
+		return this.travelTimeGetter.getTravelTime(view, time);
+	}
+
+	private void addTravelTime(final int linkIndex, final double enterTime, final double traveltime) {
+		if (linkIndex >= this.linkCount) {
+			return;
+		}
+		addTravelTimeToSlot(linkIndex, this.aggregator.getTimeSlotIndex(enterTime), traveltime);
+	}
+
+	private void addTravelTimeToSlot(final int linkIndex, final int timeSlot, final double traveltime) {
+		int index = linkIndex * this.numSlots + timeSlot;
+		while (true) {
+			long val = this.data.get(index);
+			int cnt = TravelTimeDataArray.count(val);
+			double sum = TravelTimeDataArray.traveltime(val) * cnt + traveltime;
+			cnt++;
+			if (this.data.compareAndSet(index, val, TravelTimeDataArray.encode(cnt, sum / cnt))) {
+				break;
+			}
+		}
+		this.needsConsolidation.set(linkIndex, 1);
+	}
+
+	private void resetTravelTimes() {
+		for (int i = 0, n = this.data.length(); i < n; i++) {
+			this.data.set(i, EMPTY);
+		}
+		for (int i = 0; i < this.linkCount; i++) {
+			this.needsConsolidation.set(i, 0);
+		}
+	}
+
+	/**
+	 * A view on the time bins of one link, so the travel time getters and the consolidation of
+	 * {@link TravelTimeCalculator} can be used.  One instance per thread is re-used for all links.
+	 */
+	private final class LinkTravelTimeData extends TravelTimeData {
+		private Link link;
+		private int offset;
+
+		@Override
+		public void resetTravelTimes() {
+			for (int i = 0; i < numSlots; i++) {
+				data.set(this.offset + i, EMPTY);
+			}
+		}
+
+		@Override
+		void addTravelTime(int timeSlot, double traveltime) {
+			addTravelTimeToSlot(this.offset / numSlots, timeSlot, traveltime);
+		}
+
+		@Override
+		void setTravelTime(int timeSlot, double traveltime) {
+			data.set(this.offset + timeSlot, TravelTimeDataArray.encode(1, traveltime));
+		}
+
+		@Override
+		double getTravelTime(int timeSlot, double now) {
+			int index = this.offset + timeSlot;
+			long val = data.get(index);
+			double ttime = TravelTimeDataArray.traveltime(val);
+			if (ttime >= 0.0) return ttime; // negative values are invalid.
+
+			double freespeed = this.link.getLength() / this.link.getFreespeed(now);
+			// if a travel time was added in the meantime, that one is kept
+			data.compareAndSet(index, val, TravelTimeDataArray.encode(0, freespeed));
+			return freespeed;
+		}
+	}
+
+	/**
+	 * Handles the events of every n-th vehicle.  The vehicle with index i is stored at position i / n of the tables.
+	 */
+	private final class Shard implements LinkEnterEventHandler, LinkLeaveEventHandler, VehicleEntersTrafficEventHandler,
+			VehicleLeavesTrafficEventHandler, VehicleArrivesAtFacilityEventHandler, VehicleAbortsEventHandler {
+
+		private final int shardIndex;
+		private final int numberOfShards;
+		private int[] enterLink = new int[0];
+		private double[] enterTime = new double[0];
+		private final BitSet vehiclesToIgnore = new BitSet();
+
+		private Shard(int shardIndex, int numberOfShards) {
+			this.shardIndex = shardIndex;
+			this.numberOfShards = numberOfShards;
+		}
+
+		/**
+		 * @return the position of the vehicle in the tables, or -1 if another shard handles the vehicle.
+		 */
+		private int getPosition(Id<Vehicle> vehicleId) {
+			int index = vehicleId.index();
+			if (index % this.numberOfShards != this.shardIndex) {
+				return -1;
+			}
+			int pos = index / this.numberOfShards;
+			if (pos >= this.enterLink.length) {
+				int oldLength = this.enterLink.length;
+				int newLength = Math.max(pos + 1, Math.max(16, oldLength * 3 / 2));
+				this.enterLink = Arrays.copyOf(this.enterLink, newLength);
+				this.enterTime = Arrays.copyOf(this.enterTime, newLength);
+				Arrays.fill(this.enterLink, oldLength, newLength, -1);
+			}
+			return pos;
+		}
+
+		@Override
+		public void handleEvent(LinkEnterEvent event) {
+			int pos = getPosition(event.getVehicleId());
+			if (pos < 0 || this.vehiclesToIgnore.get(pos)) return;
+			this.enterLink[pos] = event.getLinkId().index();
+			this.enterTime[pos] = event.getTime();
+		}
+
+		@Override
+		public void handleEvent(LinkLeaveEvent event) {
+			int pos = getPosition(event.getVehicleId());
+			if (pos < 0 || this.enterLink[pos] < 0) return;
+			double time = this.enterTime[pos];
+			addTravelTime(event.getLinkId().index(), time, event.getTime() - time);
+		}
+
+		@Override
+		public void handleEvent(VehicleEntersTrafficEvent event) {
+			int pos = getPosition(event.getVehicleId());
+			if (pos < 0) return;
+			if (analyzedModes != null && !analyzedModes.contains(event.getNetworkMode())) {
+				this.vehiclesToIgnore.set(pos);
+			}
+		}
+
+		@Override
+		public void handleEvent(VehicleLeavesTrafficEvent event) {
+			int pos = getPosition(event.getVehicleId());
+			if (pos < 0) return;
+			this.enterLink[pos] = -1;
+			this.vehiclesToIgnore.clear(pos);
+		}
+
+		@Override
+		public void handleEvent(VehicleArrivesAtFacilityEvent event) {
+			int pos = getPosition(event.getVehicleId());
+			if (pos < 0) return;
+			this.enterLink[pos] = -1;
+		}
+
+		@Override
+		public void handleEvent(VehicleAbortsEvent event) {
+			int pos = getPosition(event.getVehicleId());
+			if (pos < 0) return;
+			int linkIndex = this.enterLink[pos];
+			if (linkIndex >= 0 && linkIndex < linkCount) {
+				needsConsolidation.set(linkIndex, 1);
+			}
+			this.enterLink[pos] = -1;
+			this.vehiclesToIgnore.clear(pos);
+		}
+
+		@Override
+		public void reset(int iteration) {
+			if (this.shardIndex == 0) {
+				resetTravelTimes();
+			}
+			Arrays.fill(this.enterLink, -1);
+			this.vehiclesToIgnore.clear();
+		}
+	}
+}
@@ -119,6 +119,9 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 		// Customize micro-behavior of the TravelTimeCalculator based on config. Should not be necessary for most use cases.
 		switch ( config.getTravelTimeCalculatorType() ) {
 			case TravelTimeCalculatorArray:
+			case TravelTimeCalculatorCompact:
+				// (the compact store is bound by the TravelTimeCalculatorModule instead of this class; when this class is used
+				// nevertheless, it behaves like the array version)
 				calculator.ttDataFactory = new TravelTimeDataArrayFactory(network, calculator.numSlots);
 				break;
 			case TravelTimeCalculatorHashMap:
@@ -458,38 +461,61 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 	private void consolidateData(final TravelTimeData data) {
 		synchronized(data) {
 			if ( data.isNeedingConsolidation() ) {
-
-				// initialize prevTravelTime with ttime from time bin 0 and time 0.  (The interface comment already states that
-				// having both as argument does not make sense.)
-				double prevTravelTime = data.getTravelTime(0, 0.0 );
-				// changed (1, 0.0) to (0, 0.0) since Michal has convinced me (by a test) that using "1" is wrong
-				// because you get the wrong result for time slot number 1.  This change does not affect the existing
-				// unit tests.  kai, oct'11
-
-				// go from time slot 1 forward in time:
-				for (int i = 1; i < this.numSlots; i++) {
-
-					// once more the getter is weird since it needs both the time slot and the time:
-					double travelTime = data.getTravelTime(i, i * this.timeSlice );
-
-					// if the travel time in the previous time slice was X, then now it is X-S, where S is the time slice:
-					double minTravelTime = prevTravelTime - this.timeSlice;
-
-					// if the travel time that has been measured so far is less than that minimum travel time, then do something:
-					if (travelTime < minTravelTime) {
-						// (set the travel time to the smallest possible travel time that makes sense according to the argument above)
-						travelTime = minTravelTime;
-						data.setTravelTime(i, travelTime);
-					}
-					prevTravelTime = travelTime;
-				}
+				consolidate( data, this.numSlots, this.timeSlice );
 				data.setNeedsConsolidation( false );
 			}
 		}
 	}
 
+	/* package */ static void consolidate(final TravelTimeData data, final int numSlots, final int timeSlice) {
+		// initialize prevTravelTime with ttime from time bin 0 and time 0.  (The interface comment already states that
+		// having both as argument does not make sense.)
+		double prevTravelTime = data.getTravelTime(0, 0.0 );
+		// changed (1, 0.0) to (0, 0.0) since Michal has convinced me (by a test) that using "1" is wrong
+		// because you get the wrong result for time slot number 1.  This change does not affect the existing
+		// unit tests.  kai, oct'11
+
+		// go from time slot 1 forward in time:
+		for (int i = 1; i < numSlots; i++) {
+
+			// once more the getter is weird since it needs both the time slot and the time:
+			double travelTime = data.getTravelTime(i, i * timeSlice );
+
+			// if the travel time in the previous time slice was X, then now it is X-S, where S is the time slice:
+			double minTravelTime = prevTravelTime - timeSlice;
+
+			// if the travel time that has been measured so far is less than that minimum travel time, then do something:
+			if (travelTime < minTravelTime) {
+				// (set the travel time to the smallest possible travel time that makes sense according to the argument above)
+				travelTime = minTravelTime;
+				data.setTravelTime(i, travelTime);
+			}
+			prevTravelTime = travelTime;
+		}
+	}
+
 	private static int cnt = 0 ;
 
+	/**
+	 * @return the travel time on the link at the maximum velocity of the vehicle, or 0 if there is no vehicle (type).
+	 */
+	/* package */ static double getLinkTravelTimeOfVehicle( final Link link, final Vehicle vehicle ) {
+		double linkTtimeFromVehicle = 0. ;
+		if ( vehicle!=null ){
+			final VehicleType vehicleType = vehicle.getType();
+			if ( vehicleType==null ){
+				if( cnt < 1 ){
+					cnt++;
+					log.warn( "encountered vehicle where vehicle.getType() returns null.  That should be repaired (whereever it comes from)." );
+					log.warn( Gbl.ONLYONCE );
+				}
+			} else{
+				linkTtimeFromVehicle = link.getLength() / vehicleType.getMaximumVelocity();
+			}
+		}
+		return linkTtimeFromVehicle;
+	}
+
 	public TravelTime getLinkTravelTimes() {
 		return new TravelTime() {
 
@@ -498,19 +524,7 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 				// right now, the link speed limit comes from the travel time calculator, and this here just overrides it.  One might consider doing all of this here;
 				// possibly would make the code easier to read.  kai/mads, feb'19
 
-				double linkTtimeFromVehicle = 0. ;
-				if ( vehicle!=null ){
-					final VehicleType vehicleType = vehicle.getType();
-					if ( vehicleType==null ){
-						if( cnt < 1 ){
-							cnt++;
-							log.warn( "encountered vehicle where vehicle.getType() returns null.  That should be repaired (whereever it comes from)." );
-							log.warn( Gbl.ONLYONCE );
-						}
-					} else{
-						linkTtimeFromVehicle = link.getLength() / vehicleType.getMaximumVelocity();
-					}
-				}
+				double linkTtimeFromVehicle = getLinkTravelTimeOfVehicle( link, vehicle );
 				double linkTTimeFromObservation = TravelTimeCalculator.this.getLinkTravelTime(link, time);
 				return Math.max( linkTtimeFromVehicle, linkTTimeFromObservation) ;
 				// yyyyyy should this not be min?  kai/janek, may'19
@@ -528,19 +542,7 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 
 			@Override
 			public double getLinkToLinkTravelTime(Link fromLink, Link toLink, double time, Person person, Vehicle vehicle) {
-				double linkTtimeFromVehicle = 0. ;
-				if ( vehicle!=null ){
-					final VehicleType vehicleType = vehicle.getType();
-					if ( vehicleType==null ){
-						if( cnt < 1 ){
-							cnt++;
-							log.warn( "encountered vehicle where vehicle.getType() returns null.  That should be repaired (whereever it comes from)." );
-							log.warn( Gbl.ONLYONCE );
-						}
-					} else{
-						linkTtimeFromVehicle = fromLink.getLength() / vehicleType.getMaximumVelocity();
-					}
-				}
+				double linkTtimeFromVehicle = getLinkTravelTimeOfVehicle( fromLink, vehicle );
 				double linkTTimeFromObservation = TravelTimeCalculator.this.getLinkToLinkTravelTime(fromLink.getId(), toLink.getId(), time);
 				
 				return Math.max(linkTTimeFromObservation, linkTtimeFromVehicle);
@@ -29,8 +29,11 @@ import com.google.inject.name.Names;
 
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup;
+import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup.TravelTimeCalculatorType;
 import org.matsim.core.controler.AbstractModule;
+import org.matsim.core.events.handler.EventHandler;
 import org.matsim.core.router.util.LinkToLinkTravelTime;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.utils.collections.CollectionUtils;
@@ -38,6 +41,7 @@ import org.matsim.core.utils.collections.CollectionUtils;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -62,6 +66,17 @@ public class TravelTimeCalculatorModule extends AbstractModule {
 			//			for (final String mode : CollectionUtils.stringToSet(getConfig().travelTimeCalculator().getAnalyzedModesAsString() )) {
 			for (final String mode : getConfig().plansCalcRoute().getNetworkModes() ) {
 
+				if ( isCompact() ) {
+					bind(CompactTravelTimeCalculator.class).annotatedWith(Names.named(mode)).toProvider(new CompactTravelTimeCalculatorProvider(CollectionUtils.stringToSet(mode))).in(Singleton.class);
+					addTravelTimeBinding(mode).toProvider(new Provider<TravelTime>() {
+						@Inject Injector injector;
+						@Override public TravelTime get() {
+							return injector.getInstance( Key.get( CompactTravelTimeCalculator.class, Names.named( mode ) ) ).getLinkTravelTimes();
+						}
+					}).in( Singleton.class );
+					continue;
+				}
+
 				// generate and bind the observer:
 				bind(TravelTimeCalculator.class).annotatedWith(Names.named(mode)).toProvider(new SingleModeTravelTimeCalculatorProvider(mode)).in(Singleton.class);
 
@@ -82,7 +97,22 @@ public class TravelTimeCalculatorModule extends AbstractModule {
 			}
 		} else {
 			// (all analyzed modes are measured together, and the same result is returned to each mode)
-			
+
+			if ( isCompact() ) {
+				if (getConfig().travelTimeCalculator().isCalculateLinkToLinkTravelTimes()) {
+					throw new RuntimeException(TravelTimeCalculatorType.TravelTimeCalculatorCompact + " does not support link-to-link travel times.");
+				}
+				Set<String> analyzedModes = getConfig().travelTimeCalculator().isFilterModes() ?
+						CollectionUtils.stringToSet(getConfig().travelTimeCalculator().getAnalyzedModesAsString()) : null;
+				bind(CompactTravelTimeCalculator.class).toProvider(new CompactTravelTimeCalculatorProvider(analyzedModes)).in(Singleton.class);
+				if (getConfig().travelTimeCalculator().isCalculateLinkTravelTimes()) {
+					for ( String mode : getConfig().plansCalcRoute().getNetworkModes() ) {
+						addTravelTimeBinding(mode).toProvider(ObservedCompactLinkTravelTimes.class);
+					}
+				}
+				return;
+			}
+
 			// bind the TravelTimeCalculator, which is the observer and aggregator:
 			bind(TravelTimeCalculator.class).in(Singleton.class);
 			
@@ -100,6 +130,46 @@ public class TravelTimeCalculatorModule extends AbstractModule {
 
 	}
 
+	private boolean isCompact() {
+		return getConfig().travelTimeCalculator().getTravelTimeCalculatorType() == TravelTimeCalculatorType.TravelTimeCalculatorCompact;
+	}
+
+	private static class CompactTravelTimeCalculatorProvider implements Provider<CompactTravelTimeCalculator> {
+
+		@Inject Config config;
+		@Inject EventsManager eventsManager;
+
+		private final Set<String> analyzedModes;
+
+		CompactTravelTimeCalculatorProvider(Set<String> analyzedModes) {
+			this.analyzedModes = analyzedModes;
+		}
+
+		@Override
+		public CompactTravelTimeCalculator get() {
+			// one shard per events handling thread, so that the shards can be processed in parallel:
+			Integer numberOfThreads = config.parallelEventHandling().getNumberOfThreads();
+			int numberOfShards = numberOfThreads == null ? 1 : Math.max(1, numberOfThreads);
+			CompactTravelTimeCalculator calculator = new CompactTravelTimeCalculator(config.travelTimeCalculator(), analyzedModes, numberOfShards);
+			for (EventHandler handler : calculator.getEventHandlers()) {
+				eventsManager.addHandler(handler);
+			}
+			return calculator;
+		}
+	}
+
+	private static class ObservedCompactLinkTravelTimes implements Provider<TravelTime> {
+
+		@Inject
+		CompactTravelTimeCalculator travelTimeCalculator;
+
+		@Override
+		public TravelTime get() {
+			return travelTimeCalculator.getLinkTravelTimes();
+		}
+
+	}
+
 	private static class SingleModeTravelTimeCalculatorProvider implements Provider<TravelTimeCalculator> {
 
 		@Inject TravelTimeCalculatorConfigGroup config;
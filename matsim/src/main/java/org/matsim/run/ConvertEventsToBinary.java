@@ -0,0 +1,61 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ConvertEventsToBinary.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.run;
+
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.MatsimEventsReader;
+import org.matsim.core.events.algorithms.EventWriterBinary;
+
+/**
+ * Converts an events file of any supported format (e.g. xml) into the binary format of {@link EventWriterBinary}.
+ */
+public class ConvertEventsToBinary {
+
+	private static void printUsage() {
+		System.out.println();
+		System.out.println("ConvertEventsToBinary");
+		System.out.println("Reads an events-file and writes the events in the binary format.");
+		System.out.println();
+		System.out.println("usage: ConvertEventsToBinary inputEventsFile outputEventsFile");
+		System.out.println();
+	}
+
+	public static void convert(final String inputFile, final String outputFile) {
+		EventsManager events = EventsUtils.createEventsManager();
+		EventWriterBinary writer = new EventWriterBinary(outputFile);
+		events.addHandler(writer);
+		events.initProcessing();
+		new MatsimEventsReader(events).readFile(inputFile);
+		events.finishProcessing();
+		writer.closeFile();
+	}
+
+	public static void main(final String[] args) {
+		if (args.length != 2) {
+			printUsage();
+			System.exit(1);
+		}
+		convert(args[0], args[1]);
+		System.out.println("done.");
+	}
+
+}
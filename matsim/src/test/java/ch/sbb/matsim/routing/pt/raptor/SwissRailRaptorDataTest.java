@@ -5,15 +5,22 @@
 package ch.sbb.matsim.routing.pt.raptor;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
 import org.matsim.api.core.v01.Id;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.io.File;
 
 /**
  * @author mrieser / SBB
  */
 public class SwissRailRaptorDataTest {
 
+    @Rule
+    public MatsimTestUtils utils = new MatsimTestUtils();
+
     @Test
     public void testTransfersFromSchedule() {
         Fixture f = new Fixture();
@@ -82,4 +89,44 @@ public class SwissRailRaptorDataTest {
         Assert.assertEquals("number of transfers should have stayed the same.", data2.transfers.length, data4.transfers.length);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testTransferCache() {
+        Fixture f = new Fixture();
+        f.init();
+
+        f.config.transitRouter().setMaxBeelineWalkConnectionDistance(100);
+        RaptorStaticConfig raptorConfig = RaptorUtils.createStaticConfig(f.config);
+        SwissRailRaptorData expected = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
+
+        File cacheDir = new File(this.utils.getOutputDirectory(), "transferCache");
+        raptorConfig.setTransferCacheDirectory(cacheDir.getAbsolutePath());
+        SwissRailRaptorData written = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
+        File[] files = cacheDir.listFiles();
+        Assert.assertNotNull(files);
+        Assert.assertEquals("there should be exactly one cache file.", 1, files.length);
+        SwissRailRaptorData read = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
+
+        for (SwissRailRaptorData data : new SwissRailRaptorData[] { written, read }) {
+            Assert.assertEquals(expected.transfers.length, data.transfers.length);
+            for (int i = 0; i < expected.transfers.length; i++) {
+                Assert.assertEquals(expected.transfers[i].fromRouteStop, data.transfers[i].fromRouteStop);
+                Assert.assertEquals(expected.transfers[i].toRouteStop, data.transfers[i].toRouteStop);
+                Assert.assertEquals(expected.transfers[i].transferTime, data.transfers[i].transferTime);
+                Assert.assertEquals(expected.transfers[i].transferDistance, data.transfers[i].transferDistance);
+            }
+            for (int i = 0; i < expected.routeStops.length; i++) {
+                Assert.assertEquals(expected.routeStops[i].countTransfers, data.routeStops[i].countTransfers);
+                if (expected.routeStops[i].countTransfers > 0) {
+                    Assert.assertEquals(expected.routeStops[i].indexFirstTransfer, data.routeStops[i].indexFirstTransfer);
+                }
+            }
+        }
+
+        // a changed schedule must not use the cached transfers
+        f.schedule.getMinimalTransferTimes().set(Id.create(19, TransitStopFacility.class), Id.create(9, TransitStopFacility.class), 345);
+        SwissRailRaptorData changed = SwissRailRaptorData.create(f.schedule, null, raptorConfig, f.network, null);
+        Assert.assertEquals("number of transfers should have increased.", expected.transfers.length + 1, changed.transfers.length);
+        Assert.assertEquals("there should be a second cache file.", 2, cacheDir.listFiles().length);
+    }
+
+}
@@ -0,0 +1,169 @@
+package ch.sbb.matsim.routing.pt.raptor;
+
+import ch.sbb.matsim.routing.pt.raptor.SwissRailRaptorCore.ProfileEntry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.core.utils.misc.Time;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tests for the profile (range query) functionality of SwissRailRaptor
+ */
+public class SwissRailRaptorProfileTest {
+
+    private static final int MAX_TRANSFERS = 3;
+
+    @Test
+    public void testProfile() {
+        Fixture f = new Fixture();
+        f.init();
+        SwissRailRaptor raptor = createRaptor(f);
+
+        List<InitialStop> fromStops = createStartStops(f, 23);
+        Map<Id<TransitStopFacility>, List<ProfileEntry>> profile = raptor.calcProfile(fromStops, 6 * 3600, 9 * 3600, MAX_TRANSFERS);
+
+        // the green line departs at N every 10 minutes, and reaches C after 9 minutes
+        List<ProfileEntry> entries = profile.get(Id.create(18, TransitStopFacility.class));
+        Assert.assertNotNull(entries);
+        ProfileEntry entry = findEntry(entries, Time.parseTime("07:41:00"));
+        Assert.assertNotNull("no journey departing at 07:41", entry);
+        Assert.assertEquals(Id.create(23, TransitStopFacility.class), entry.departureStop);
+        Assert.assertEquals(Time.parseTime("07:50:00"), entry.arrivalTime, 0.0);
+        Assert.assertEquals(0, entry.transferCount);
+
+        for (List<ProfileEntry> stopEntries : profile.values()) {
+            for (int i = 1; i < stopEntries.size(); i++) {
+                Assert.assertTrue("entries must be sorted by departure time", stopEntries.get(i - 1).departureTime <= stopEntries.get(i).departureTime);
+            }
+            for (ProfileEntry e1 : stopEntries) {
+                for (ProfileEntry e2 : stopEntries) {
+                    boolean dominates = e1 != e2 && e1.departureTime >= e2.departureTime && e1.arrivalTime <= e2.arrivalTime && e1.transferCount <= e2.transferCount;
+                    Assert.assertFalse(e1 + " dominates " + e2, dominates);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSameAsSingleDepartures() {
+        Fixture f = new Fixture();
+        f.init();
+        SwissRailRaptor raptor = createRaptor(f);
+        List<InitialStop> fromStops = createStartStops(f, 23);
+        TransitStopFacility fromStop = fromStops.get(0).stop;
+
+        // separate least cost routes for single departures, with the costs being the travel time, i.e. earliest arrival routes
+        SwissRailRaptorCore core = new SwissRailRaptorCore(raptor.getUnderlyingData(), new DefaultRaptorInVehicleCostCalculator(), new DefaultRaptorTransferCostCalculator());
+        RaptorParameters parameters = RaptorUtils.createParameters(f.config);
+        parameters.setMarginalUtilityOfTravelTime_utl_s("train", -1.0 / 3600);
+        parameters.setMarginalUtilityOfTravelTime_utl_s(TransportMode.walk, -1.0 / 3600);
+        parameters.setMarginalUtilityOfWaitingPt_utl_s(-1.0 / 3600);
+        parameters.setTransferPenaltyFixCostPerTransfer(0);
+        parameters.setTransferPenaltyPerTravelTimeHour(0);
+        parameters.setTransferPenaltyMinimum(0);
+        parameters.setTransferPenaltyMaximum(0);
+
+        int earliestDepTime = 5 * 3600;
+        int latestDepTime = 10 * 3600;
+        Map<Id<TransitStopFacility>, List<ProfileEntry>> profile = raptor.calcProfile(fromStops, earliestDepTime, latestDepTime, MAX_TRANSFERS);
+        TreeSet<Integer> departureTimes = new TreeSet<>();
+        for (List<ProfileEntry> entries : profile.values()) {
+            for (ProfileEntry entry : entries) {
+                departureTimes.add(entry.departureTime);
+            }
+        }
+        Assert.assertFalse(departureTimes.isEmpty());
+
+        for (int depTime : departureTimes) {
+            for (TransitStopFacility toStop : f.schedule.getFacilities().values()) {
+                if (toStop == fromStop) {
+                    continue;
+                }
+                String message = "stop " + toStop.getId() + ", departure " + Time.writeTime(depTime);
+                int actual = Integer.MAX_VALUE;
+                for (ProfileEntry entry : profile.getOrDefault(toStop.getId(), Collections.emptyList())) {
+                    if (entry.departureTime >= depTime) {
+                        actual = Math.min(actual, entry.arrivalTime);
+                    }
+                }
+
+                RaptorRoute route = core.calcLeastCostRoute(depTime, fromStop, toStop, fromStops, Collections.singletonList(new InitialStop(toStop, 0, 0, 0, null)), parameters, null);
+                if (route == null || Double.isInfinite(route.getTotalCosts())) {
+                    Assert.assertEquals(message, Integer.MAX_VALUE, actual);
+                    continue;
+                }
+                RaptorRoute.RoutePart firstPtPart = null;
+                RaptorRoute.RoutePart lastPtPart = null;
+                for (RaptorRoute.RoutePart part : route.getParts()) {
+                    if (part.line != null) {
+                        firstPtPart = firstPtPart == null ? part : firstPtPart;
+                        lastPtPart = part;
+                    }
+                }
+                Assert.assertNotNull(message, lastPtPart);
+                double expected = route.getDepartureTime() + route.getTravelTime();
+                if (lastPtPart.toStop == toStop && firstPtPart.boardingTime <= latestDepTime && route.getNumberOfTransfers() <= MAX_TRANSFERS) {
+                    // reached by vehicle, with a departure within the range and not too many transfers
+                    Assert.assertEquals(message, expected, actual, 0.0);
+                } else {
+                    // walking at the end, departing after the range or too many transfers: the profile cannot be better
+                    Assert.assertTrue(message, actual >= expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelProfiles() {
+        Fixture f = new Fixture();
+        f.init();
+        SwissRailRaptor raptor = createRaptor(f);
+
+        Map<String, List<InitialStop>> origins = new HashMap<>();
+        for (int stop : new int[] { 0, 7, 18, 23 }) {
+            origins.put("origin" + stop, createStartStops(f, stop));
+        }
+        Map<String, Map<Id<TransitStopFacility>, List<ProfileEntry>>> results = new ConcurrentHashMap<>();
+        SwissRailRaptorProfiles.calcProfiles(raptor.getUnderlyingData(), origins, 7 * 3600, 8 * 3600, MAX_TRANSFERS, 2, results::put);
+
+        Assert.assertEquals(origins.size(), results.size());
+        for (Map.Entry<String, List<InitialStop>> e : origins.entrySet()) {
+            Map<Id<TransitStopFacility>, List<ProfileEntry>> expected = raptor.calcProfile(e.getValue(), 7 * 3600, 8 * 3600, MAX_TRANSFERS);
+            Map<Id<TransitStopFacility>, List<ProfileEntry>> actual = results.get(e.getKey());
+            Assert.assertEquals(expected.keySet(), actual.keySet());
+            for (Id<TransitStopFacility> stopId : expected.keySet()) {
+                Assert.assertEquals(expected.get(stopId).toString(), actual.get(stopId).toString());
+            }
+        }
+    }
+
+    private static SwissRailRaptor createRaptor(Fixture f) {
+        RaptorStaticConfig config = RaptorUtils.createStaticConfig(f.config);
+        config.setOptimization(RaptorStaticConfig.RaptorOptimization.OneToAllRouting);
+        SwissRailRaptorData data = SwissRailRaptorData.create(f.scenario.getTransitSchedule(), null, config, f.scenario.getNetwork(), null);
+        return new SwissRailRaptor.Builder(data, f.scenario.getConfig()).build();
+    }
+
+    private static List<InitialStop> createStartStops(Fixture f, int stopId) {
+        TransitStopFacility stop = f.schedule.getFacilities().get(Id.create(stopId, TransitStopFacility.class));
+        return Collections.singletonList(new InitialStop(stop, 0, 0, 0, null));
+    }
+
+    private static ProfileEntry findEntry(List<ProfileEntry> entries, double departureTime) {
+        for (ProfileEntry entry : entries) {
+            if (entry.departureTime == departureTime) {
+                return entry;
+            }
+        }
+        return null;
+    }
+}
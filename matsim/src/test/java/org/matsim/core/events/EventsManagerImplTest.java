@@ -69,6 +69,22 @@ public class EventsManagerImplTest {
 		}
 	}
 
+	@Test
+	public void testProcessEvent_SeveralHandlersOfSameClass() {
+		EventsManager manager = EventsUtils.createEventsManager();
+		CountingMyEventHandler handler1 = new CountingMyEventHandler();
+		CountingMyEventHandler handler2 = new CountingMyEventHandler();
+		manager.addHandler(handler1);
+		manager.addHandler(handler2);
+		manager.initProcessing();
+		manager.processEvent(new MyEvent(1.0));
+		manager.removeHandler(handler1);
+		manager.processEvent(new MyEvent(2.0));
+		manager.finishProcessing();
+		Assert.assertEquals("removed EventHandler was called.", 1, handler1.counter);
+		Assert.assertEquals("EventHandler was not called.", 2, handler2.counter);
+	}
+
 	/*package*/ static class MyEvent extends Event {
 		public MyEvent(final double time) {
 			super(time);
@@ -0,0 +1,114 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.events.HasPersonId;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.PersonDepartureEvent;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.algorithms.EventWriterBinary;
+import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.testcases.utils.EventsCollector;
+
+public class IndexedEventsReaderTest {
+
+	@Rule public MatsimTestUtils utils = new MatsimTestUtils();
+
+	private String writeEvents() {
+		String filename = utils.getOutputDirectory() + "events.bin";
+		// small blocks, so the index has something to skip
+		EventWriterBinary writer = new EventWriterBinary(filename, 10);
+		for (int i = 0; i < 1000; i++) {
+			writer.handleEvent(new PersonDepartureEvent(i * 10.0, Id.createPersonId(i % 100), Id.createLinkId(i % 13), "car", "car"));
+			writer.handleEvent(new LinkEnterEvent(i * 10.0 + 5, Id.createVehicleId(i % 100), Id.createLinkId(i % 13)));
+		}
+		writer.closeFile();
+		return filename;
+	}
+
+	private static List<Event> readAll(String filename) {
+		EventsManager events = EventsUtils.createEventsManager();
+		EventsCollector collector = new EventsCollector();
+		events.addHandler(collector);
+		events.initProcessing();
+		EventsUtils.readEvents(events, filename);
+		events.finishProcessing();
+		return new ArrayList<>(collector.getEvents());
+	}
+
+	@Test
+	public void testReadTimeWindow() {
+		String filename = writeEvents();
+		Assert.assertTrue(EventsIndex.exists(filename));
+
+		EventsManager events = EventsUtils.createEventsManager();
+		EventsCollector collector = new EventsCollector();
+		events.addHandler(collector);
+		events.initProcessing();
+		EventsUtils.readEvents(events, filename, 2000.0, 3000.0);
+		events.finishProcessing();
+
+		List<Event> expected = new ArrayList<>();
+		for (Event event : readAll(filename)) {
+			if (event.getTime() >= 2000.0 && event.getTime() < 3000.0) {
+				expected.add(event);
+			}
+		}
+		Assert.assertEquals(200, expected.size());
+		Assert.assertEquals(expected.toString(), collector.getEvents().toString());
+	}
+
+	@Test
+	public void testReadEventsOfPersons() {
+		String filename = writeEvents();
+		Set<Id<Person>> persons = Set.of(Id.createPersonId(3), Id.createPersonId(42));
+
+		EventsManager events = EventsUtils.createEventsManager();
+		EventsCollector collector = new EventsCollector();
+		events.addHandler(collector);
+		events.initProcessing();
+		new IndexedEventsReader(events, filename).readEvents(0.0, Double.POSITIVE_INFINITY, "person", persons);
+		events.finishProcessing();
+
+		Assert.assertEquals(20, collector.getEvents().size());
+		for (Event event : collector.getEvents()) {
+			Assert.assertTrue(persons.contains(((HasPersonId) event).getPersonId()));
+		}
+	}
+
+	@Test
+	public void testIndexSkipsBlocks() {
+		String filename = writeEvents();
+		EventsIndex index = EventsIndex.read(filename);
+		Assert.assertEquals(200, index.getNumberOfBlocks());
+		Assert.assertEquals(20, index.getBlocks(2000.0, 3000.0).cardinality());
+		Assert.assertEquals(10, index.getBlocks("person", Set.of("3")).cardinality());
+	}
+}
@@ -0,0 +1,84 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * RingBufferEventsManagerTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.PersonStuckEvent;
+import org.matsim.api.core.v01.events.handler.LinkEnterEventHandler;
+import org.matsim.api.core.v01.events.handler.PersonStuckEventHandler;
+
+public class RingBufferEventsManagerTest {
+
+	@Rule
+	public Timeout globalTimeout = new Timeout(60000);
+
+	@Test
+	public void testAllHandlersSeeAllEvents() {
+		// the buffer is much smaller than the number of events, so it wraps around many times
+		RingBufferEventsManager events = new RingBufferEventsManager(true, null, 16);
+		EventsManagerImplTest.CountingMyEventHandler handler1 = new EventsManagerImplTest.CountingMyEventHandler();
+		EventsManagerImplTest.CountingMyEventHandler handler2 = new EventsManagerImplTest.CountingMyEventHandler();
+		events.addHandler(handler1);
+		events.addHandler(handler2);
+		events.initProcessing();
+		for (int step = 0; step < 100; step++) {
+			for (int i = 0; i < 100; i++) {
+				events.processEvent(new EventsManagerImplTest.MyEvent(step));
+			}
+			events.afterSimStep(step);
+			assertEquals((step + 1) * 100, handler1.counter);
+			assertEquals((step + 1) * 100, handler2.counter);
+		}
+		events.finishProcessing();
+	}
+
+	@Test
+	public void testEventHandlerCanProduceAdditionalEvents() {
+		RingBufferEventsManager events = new RingBufferEventsManager(true, 2, 4);
+		events.addHandler((LinkEnterEventHandler) event ->
+				events.processEvent(new PersonStuckEvent(event.getTime(), Id.createPersonId(0), Id.createLinkId(0), "car")));
+		int[] stuck = new int[1];
+		events.addHandler((PersonStuckEventHandler) event -> stuck[0]++);
+		events.initProcessing();
+		for (int i = 0; i < 50; i++) {
+			events.processEvent(new LinkEnterEvent(i, Id.createVehicleId(0), Id.createLinkId(0)));
+		}
+		events.afterSimStep(0.0);
+		assertEquals(50, stuck[0]);
+		events.finishProcessing();
+	}
+
+	@Test
+	public void testExceptionInEventHandler() {
+		RingBufferEventsManager events = new RingBufferEventsManager(true, null, 16);
+		events.addHandler(new EventsManagerImplTest.CrashingMyEventHandler());
+		events.initProcessing();
+		events.processEvent(new EventsManagerImplTest.MyEvent(0.0));
+		assertThrows(RuntimeException.class, () -> events.afterSimStep(0.0));
+	}
+}
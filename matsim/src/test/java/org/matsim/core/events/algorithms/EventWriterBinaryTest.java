@@ -0,0 +1,144 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.events.algorithms;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.events.GenericEvent;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.LinkLeaveEvent;
+import org.matsim.api.core.v01.events.PersonDepartureEvent;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.groups.ControlerConfigGroup;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.MatsimEventsReader;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.testcases.utils.EventsCollector;
+import org.matsim.vehicles.Vehicle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventWriterBinaryTest {
+
+	@Rule public MatsimTestUtils utils = new MatsimTestUtils();
+
+	private static List<Event> createEvents() {
+		List<Event> events = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			events.add(new LinkEnterEvent(3600.0 + i, Id.create("vehicle>" + (i % 7), Vehicle.class), Id.create("link" + (i % 5), Link.class)));
+			events.add(new PersonDepartureEvent(3600.5 + i, Id.createPersonId(i % 7), Id.createLinkId(i % 5), "car", "car"));
+			events.add(new LinkLeaveEvent(3601.0 + i, Id.create("vehicle>" + (i % 7), Vehicle.class), Id.create("link" + (i % 5), Link.class)));
+		}
+		GenericEvent generic = new GenericEvent("TEST", 7200.0);
+		generic.getAttributes().put("dummy", "äöü \"quoted\"");
+		events.add(generic);
+		// events are not always ordered by time when written
+		events.add(new LinkLeaveEvent(10.0, Id.create("vehicle1", Vehicle.class), Id.create("link1", Link.class)));
+		return events;
+	}
+
+	private static List<Event> read(byte[] bytes) {
+		EventsManager events = EventsUtils.createEventsManager();
+		EventsCollector collector = new EventsCollector();
+		events.addHandler(collector);
+		events.initProcessing();
+		new MatsimEventsReader(events).readStream(new ByteArrayInputStream(bytes), ControlerConfigGroup.EventsFileFormat.bin);
+		events.finishProcessing();
+		return collector.getEvents();
+	}
+
+	@Test
+	public void testRoundTrip() {
+		List<Event> expected = createEvents();
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		// small blocks, so the events are spread over several blocks which are decoded in parallel
+		EventWriterBinary writer = new EventWriterBinary(baos, 8);
+		expected.forEach(writer::handleEvent);
+		writer.closeFile();
+
+		List<Event> actual = read(baos.toByteArray());
+
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+			Assert.assertEquals(expected.get(i).getAttributes(), actual.get(i).getAttributes());
+		}
+	}
+
+	@Test
+	public void testNullAttribute() {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		EventWriterBinary writer = new EventWriterBinary(baos);
+		GenericEvent event = new GenericEvent("TEST", 3600.0);
+		event.getAttributes().put("dummy", null);
+		writer.handleEvent(event);
+		writer.closeFile();
+
+		List<Event> actual = read(baos.toByteArray());
+
+		Assert.assertEquals("there must be 1 event.", 1, actual.size());
+		// same as with xml
+		Assert.assertEquals("null", actual.get(0).getAttributes().get("dummy"));
+	}
+
+	@Test
+	public void testFormatIsDetectedByContent() {
+		String filename = utils.getOutputDirectory() + "events.xml";
+		List<Event> expected = createEvents();
+		EventWriterBinary writer = new EventWriterBinary(filename);
+		expected.forEach(writer::handleEvent);
+		writer.closeFile();
+
+		EventsManager events = EventsUtils.createEventsManager();
+		EventsCollector collector = new EventsCollector();
+		events.addHandler(collector);
+		events.initProcessing();
+		new MatsimEventsReader(events).readFile(filename);
+		events.finishProcessing();
+
+		Assert.assertEquals(expected.size(), collector.getEvents().size());
+	}
+
+	@Test
+	public void testFormatOfUrlIsDetectedByContent() {
+		String filename = utils.getOutputDirectory() + "events.xml";
+		List<Event> expected = createEvents();
+		EventWriterBinary writer = new EventWriterBinary(filename);
+		expected.forEach(writer::handleEvent);
+		writer.closeFile();
+
+		EventsManager events = EventsUtils.createEventsManager();
+		EventsCollector collector = new EventsCollector();
+		events.addHandler(collector);
+		events.initProcessing();
+		new MatsimEventsReader(events).readURL(IOUtils.resolveFileOrResource(filename));
+		events.finishProcessing();
+
+		Assert.assertEquals(expected.size(), collector.getEvents().size());
+	}
+}
@@ -237,6 +237,136 @@ public class HermesTest {
 		Assert.assertEquals("wrong time in second event.", 7.0*3600 + 11, collector.events.get(3).getTime(), MatsimTestCase.EPSILON);
 	}
 
+	/**
+	 * Same as {@link #testTwoAgent()}, but each link belongs to another realm.
+	 */
+	@Test
+	public void testTwoAgentParallelRealms() {
+		Fixture f = new Fixture();
+		f.config.hermes().setNumberOfRealms(3);
+
+		for (int i = 0; i < 2; i++) {
+			addCarCommuter(f, i, (6 + i) * 3600);
+		}
+
+		EventsManager events = EventsUtils.createEventsManager();
+		LinkEnterEventCollector collector = new LinkEnterEventCollector();
+		events.addHandler(collector);
+
+		createHermes(f, events).run();
+
+		Assert.assertEquals("wrong number of link enter events.", 4, collector.events.size());
+		Assert.assertEquals("wrong time in first event.", 6.0*3600, collector.events.get(0).getTime(), MatsimTestCase.EPSILON);
+		Assert.assertEquals("wrong time in second event.", 6.0*3600 + 11, collector.events.get(1).getTime(), MatsimTestCase.EPSILON);
+		Assert.assertEquals("wrong time in first event.", 7.0*3600, collector.events.get(2).getTime(), MatsimTestCase.EPSILON);
+		Assert.assertEquals("wrong time in second event.", 7.0*3600 + 11, collector.events.get(3).getTime(), MatsimTestCase.EPSILON);
+	}
+
+	/**
+	 * Many agents compete for the links at the realm borders, the result must not depend on the scheduling of the realm threads.
+	 */
+	@Test
+	public void testParallelRealmsDeterministic() {
+		Fixture f = new Fixture();
+		f.config.hermes().setNumberOfRealms(3);
+
+		for (int i = 0; i < 200; i++) {
+			addCarCommuter(f, i, 6 * 3600);
+		}
+
+		List<String> firstRun = runAndCollectEvents(f);
+		List<String> secondRun = runAndCollectEvents(f);
+
+		Assert.assertEquals("wrong number of link enter events.", 400, firstRun.stream().filter(e -> e.contains("type=\"entered link\"")).count());
+		Assert.assertEquals("events differ between runs", firstRun, secondRun);
+	}
+
+	/**
+	 * Flushing the events in small windows on a separate thread must not change the events.
+	 */
+	@Test
+	public void testFlushEventsInBackground() {
+		Fixture f = new Fixture();
+		for (int i = 0; i < 50; i++) {
+			addCarCommuter(f, i, 6 * 3600 + i * 7);
+		}
+
+		List<String> expected = runAndCollectEvents(f);
+
+		f.config.hermes().setEventsFlushPeriod(60);
+		f.config.hermes().setFlushingEventsInBackground(true);
+		List<String> inBackground = runAndCollectEvents(f);
+
+		Assert.assertEquals("events differ when flushed in background", expected, inBackground);
+	}
+
+	/**
+	 * Runs Hermes twice with the same scenario and events manager, so that the imported scenario is re-used. Only the changed plan
+	 * must be encoded again, and the result must be the same as when importing everything.
+	 */
+	@Test
+	public void testIncrementalPlanImport() {
+		Fixture f = new Fixture();
+		f.config.hermes().setIncrementalPlanImport(true);
+		for (int i = 0; i < 20; i++) {
+			addCarCommuter(f, i, 6 * 3600 + i * 10);
+		}
+
+		List<String> collected = new ArrayList<>();
+		EventsManager events = EventsUtils.createEventsManager();
+		events.addHandler((BasicEventHandler) event -> collected.add(event.toString()));
+
+		createHermes(f, events).run();
+		List<String> firstRun = new ArrayList<>(collected);
+
+		Person changed = f.plans.getPersons().get(Id.create(5, Person.class));
+		((Activity) changed.getSelectedPlan().getPlanElements().get(0)).setEndTime(7 * 3600);
+		collected.clear();
+		createHermes(f, events).run();
+		List<String> secondRun = new ArrayList<>(collected);
+
+		List<String> expected = runAndCollectEvents(f);
+
+		Assert.assertNotEquals("changed plan was not encoded again", firstRun, secondRun);
+		Assert.assertEquals("events differ from a complete import", expected, secondRun);
+
+		// a change which only affects the content of the events, but not the simulation
+		Person moved = f.plans.getPersons().get(Id.create(7, Person.class));
+		((Activity) moved.getSelectedPlan().getPlanElements().get(0)).setCoord(new Coord(-100, 0));
+		collected.clear();
+		createHermes(f, events).run();
+		List<String> thirdRun = new ArrayList<>(collected);
+
+		Assert.assertEquals("events differ from a complete import after moving an activity", runAndCollectEvents(f), thirdRun);
+	}
+
+	private static void addCarCommuter(Fixture f, int id, double departureTime) {
+		Person person = PopulationUtils.getFactory().createPerson(Id.create(id, Person.class));
+		Plan plan = PersonUtils.createAndAddPlan(person, true);
+		Activity a1 = PopulationUtils.createAndAddActivityFromLinkId(plan, "h", f.link1.getId());
+		a1.setEndTime(departureTime);
+		Leg leg = PopulationUtils.createAndAddLeg( plan, TransportMode.car );
+		TripStructureUtils.setRoutingMode( leg, TransportMode.car );
+		NetworkRoute route = f.scenario.getPopulation().getFactory().getRouteFactories().createRoute(NetworkRoute.class, f.link1.getId(), f.link3.getId());
+		route.setLinkIds(f.link1.getId(), f.linkIds2, f.link3.getId());
+		leg.setRoute(route);
+		PopulationUtils.createAndAddActivityFromLinkId(plan, "w", f.link3.getId());
+		f.plans.addPerson(person);
+	}
+
+	private static List<String> runAndCollectEvents(Fixture f) {
+		ScenarioImporter.flush();
+		EventsManager events = EventsUtils.createEventsManager();
+		EventsCollector collector = new EventsCollector();
+		events.addHandler(collector);
+		createHermes(f, events).run();
+		List<String> result = new ArrayList<>();
+		for (Event event : collector.getEvents()) {
+			result.add(event.toString());
+		}
+		return result;
+	}
+
 	/**
 	 * A single agent is simulated that uses teleportation for its one and only leg.
 	 *
@@ -0,0 +1,159 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.events.ActivityEndEvent;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.Route;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.QSimConfigGroup.ActivityEndsQueue;
+import org.matsim.core.controler.PrepareForSimUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.mobsim.framework.MobsimAgent;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeSimStepEvent;
+import org.matsim.core.mobsim.framework.listeners.MobsimBeforeSimStepListener;
+import org.matsim.core.mobsim.qsim.agents.WithinDayAgentUtils;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.population.PersonUtils;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.testcases.utils.EventsCollector;
+
+public class ActivityEngineWithCalendarQueueTest {
+
+	/**
+	 * Runs the same scenario, including agents with the same and with fractional activity end times and within-day
+	 * rescheduling of activity ends, with both queues and compares the events.
+	 */
+	@Test
+	public void testSameEventsAsPriorityQueue() {
+		List<String> expected = runScenario(ActivityEndsQueue.priorityQueue);
+		List<String> actual = runScenario(ActivityEndsQueue.calendarQueue);
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals("event " + i, expected.get(i), actual.get(i));
+		}
+	}
+
+	private static List<String> runScenario(ActivityEndsQueue queue) {
+		Config config = ConfigUtils.createConfig();
+		config.qsim().setActivityEndsQueue(queue);
+		config.qsim().setEndTime(30 * 3600);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+
+		Network network = scenario.getNetwork();
+		Node node1 = NetworkUtils.createAndAddNode(network, Id.createNodeId(1), new Coord(0, 0));
+		Node node2 = NetworkUtils.createAndAddNode(network, Id.createNodeId(2), new Coord(1000, 0));
+		Link link1 = NetworkUtils.createAndAddLink(network, Id.createLinkId(1), node1, node2, 1000, 10, 3600, 1);
+		Link link2 = NetworkUtils.createAndAddLink(network, Id.createLinkId(2), node2, node1, 1000, 10, 3600, 1);
+
+		Random random = new Random(2026);
+		for (int i = 0; i < 500; i++) {
+			Person person = PopulationUtils.getFactory().createPerson(Id.create(i, Person.class));
+			Plan plan = PersonUtils.createAndAddPlan(person, true);
+			Activity home = PopulationUtils.createAndAddActivityFromLinkId(plan, "h", link1.getId());
+			// few different values, so several agents end their activities at the same time
+			home.setEndTime(6 * 3600 + random.nextInt(20) * 300 + (i % 7 == 0 ? 0.5 : 0.0));
+			addLeg(scenario, plan, link1, link2, 60 + random.nextInt(600));
+			Activity work = PopulationUtils.createAndAddActivityFromLinkId(plan, "w", link2.getId());
+			work.setEndTime(home.getEndTime().seconds() + 3600 + random.nextInt(8 * 3600));
+			addLeg(scenario, plan, link2, link1, 60 + random.nextInt(600));
+			PopulationUtils.createAndAddActivityFromLinkId(plan, "h", link1.getId());
+			scenario.getPopulation().addPerson(person);
+		}
+
+		EventsManager events = EventsUtils.createEventsManager();
+		EventsCollector collector = new EventsCollector();
+		events.addHandler(collector);
+
+		PrepareForSimUtils.createDefaultPrepareForSim(scenario).run();
+		QSim qsim = new QSimBuilder(config).useDefaults().build(scenario, events);
+		qsim.addQueueSimulationListeners((MobsimBeforeSimStepListener) e -> reschedule(qsim, e));
+		qsim.run();
+
+		List<String> result = new ArrayList<>();
+		int activityEnds = 0;
+		for (Event event : collector.getEvents()) {
+			result.add(event.toString());
+			if (event instanceof ActivityEndEvent) {
+				activityEnds++;
+			}
+		}
+		Assert.assertTrue(activityEnds > 500);
+		return result;
+	}
+
+	private static void reschedule(QSim qsim, MobsimBeforeSimStepEvent e) {
+		double now = e.getSimulationTime();
+		if (now != 10 * 3600 && now != 10 * 3600 + 1) {
+			return;
+		}
+		for (MobsimAgent agent : qsim.getAgents().values()) {
+			if (agent.getState() != MobsimAgent.State.ACTIVITY || agent.getId().index() % 3 != 0) {
+				continue;
+			}
+			Activity activity = (Activity) WithinDayAgentUtils.getCurrentPlanElement(agent);
+			if (!activity.getEndTime().isDefined()) {
+				continue;
+			}
+			// some activities end earlier, even in the past, some later, and some become the last activity
+			int variant = (agent.getId().index() / 3) % 4;
+			if (variant == 0) {
+				activity.setEndTime(now - 1800);
+			} else if (variant == 1) {
+				activity.setEndTime(now + 1800.5);
+			} else if (variant == 2) {
+				activity.setEndTimeUndefined();
+			} else {
+				activity.setEndTime(now);
+			}
+			WithinDayAgentUtils.resetCaches(agent);
+			qsim.rescheduleActivityEnd(agent);
+		}
+	}
+
+	private static void addLeg(Scenario scenario, Plan plan, Link from, Link to, double travelTime) {
+		Leg leg = PopulationUtils.createAndAddLeg(plan, TransportMode.walk);
+		Route route = scenario.getPopulation().getFactory().getRouteFactories().createRoute(Route.class, from.getId(), to.getId());
+		route.setTravelTime(travelTime);
+		route.setDistance(1000);
+		leg.setRoute(route);
+		leg.setTravelTime(travelTime);
+	}
+}
@@ -0,0 +1,166 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * QNetsimEngineWithLocalClocksTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.mobsim.qsim.qnetsimengine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.events.handler.LinkEnterEventHandler;
+import org.matsim.api.core.v01.events.handler.PersonArrivalEventHandler;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.groups.QSimConfigGroup.NetsimEngineScheduling;
+import org.matsim.core.controler.AbstractModule;
+import org.matsim.core.controler.PrepareForSimUtils;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.handler.BasicEventHandler;
+import org.matsim.core.events.handler.EventHandler;
+import org.matsim.core.gbl.MatsimRandom;
+import org.matsim.core.mobsim.qsim.QSimBuilder;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.examples.ExamplesUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class QNetsimEngineWithLocalClocksTest {
+
+	@Rule
+	public MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Rule
+	public Timeout globalTimeout = new Timeout(60000);
+
+	@Test
+	public void testSameTrafficAsWithBarriers() {
+		int[] withBarriers = runEquil(NetsimEngineScheduling.roundRobinWithBarriers, 1);
+		int[] withLocalClocks = runEquil(NetsimEngineScheduling.partitionedWithLocalClocks, 4);
+
+		Assert.assertTrue("no vehicles moved", withBarriers[0] > 0);
+		Assert.assertEquals("wrong number of link enter events", withBarriers[0], withLocalClocks[0]);
+		Assert.assertEquals("wrong number of arrivals", withBarriers[1], withLocalClocks[1]);
+	}
+
+	@Test
+	public void testMoreRunnersThanNodes() {
+		// equil has 15 nodes, so some runners do not get any node at all
+		int[] withLocalClocks = runEquil(NetsimEngineScheduling.partitionedWithLocalClocks, 20);
+		int[] withBarriers = runEquil(NetsimEngineScheduling.roundRobinWithBarriers, 1);
+
+		Assert.assertEquals("wrong number of arrivals", withBarriers[1], withLocalClocks[1]);
+	}
+
+	@Test
+	public void testRepartitioningFromPreviousIteration() {
+		int numberOfRunners = 3;
+		// shared by both runs, as it is by the iterations of a Controler
+		QNetsimEngineLoadHistory loadHistory = new QNetsimEngineLoadHistory();
+
+		// first run: partitioned by link counts
+		List<Event> eventsWithoutRepartitioning = Collections.synchronizedList(new ArrayList<>());
+		runEquil(NetsimEngineScheduling.partitionedWithLocalClocks, numberOfRunners, loadHistory,
+				(BasicEventHandler) eventsWithoutRepartitioning::add);
+		int[] runnersByLinkCount = loadHistory.getNodeRunners();
+		double[] measuredLoads = loadHistory.getNodeLoads();
+
+		// second run: partitioned by the load measured in the first run
+		List<Event> eventsWithRepartitioning = Collections.synchronizedList(new ArrayList<>());
+		runEquil(NetsimEngineScheduling.partitionedWithLocalClocks, numberOfRunners, loadHistory,
+				(BasicEventHandler) eventsWithRepartitioning::add);
+		int[] runnersByLoad = loadHistory.getNodeRunners();
+
+		Assert.assertFalse("partitions not changed", Arrays.equals(runnersByLinkCount, runnersByLoad));
+		Assert.assertTrue("measured load not better balanced", maxRunnerLoad(measuredLoads, runnersByLoad,
+				numberOfRunners) <= maxRunnerLoad(measuredLoads, runnersByLinkCount, numberOfRunners));
+
+		Assert.assertFalse("no events", eventsWithoutRepartitioning.isEmpty());
+		Assert.assertEquals("different events", toSortedStrings(eventsWithoutRepartitioning),
+				toSortedStrings(eventsWithRepartitioning));
+	}
+
+	private static double maxRunnerLoad(double[] nodeLoads, int[] nodeRunners, int numberOfRunners) {
+		double[] runnerLoads = new double[numberOfRunners];
+		for (int index = 0; index < nodeRunners.length; index++) {
+			if (nodeRunners[index] >= 0) {
+				runnerLoads[nodeRunners[index]] += nodeLoads[index];
+			}
+		}
+		return Arrays.stream(runnerLoads).max().getAsDouble();
+	}
+
+	/*
+	 * The runners process their parts of the network concurrently, so only the order of the events within a time step may differ.
+	 */
+	private static List<String> toSortedStrings(List<Event> events) {
+		return events.stream()
+				.sorted(Comparator.comparingDouble(Event::getTime).thenComparing(Event::toString))
+				.map(Event::toString)
+				.collect(Collectors.toList());
+	}
+
+	private int[] runEquil(NetsimEngineScheduling scheduling, int numberOfThreads) {
+		AtomicInteger linkEnters = new AtomicInteger();
+		AtomicInteger arrivals = new AtomicInteger();
+		runEquil(scheduling, numberOfThreads, null, (LinkEnterEventHandler) event -> linkEnters.incrementAndGet(),
+				(PersonArrivalEventHandler) event -> arrivals.incrementAndGet());
+		return new int[] { linkEnters.get(), arrivals.get() };
+	}
+
+	private void runEquil(NetsimEngineScheduling scheduling, int numberOfThreads, QNetsimEngineLoadHistory loadHistory,
+			EventHandler... handlers) {
+		Config config = utils.loadConfig(IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "config.xml"));
+		config.qsim().setNetsimEngineScheduling(scheduling);
+		config.qsim().setNumberOfThreads(numberOfThreads);
+
+		Scenario scenario = ScenarioUtils.loadScenario(config);
+		PrepareForSimUtils.createDefaultPrepareForSim(scenario).run();
+
+		EventsManager events = EventsUtils.createEventsManager();
+		for (EventHandler handler : handlers) {
+			events.addHandler(handler);
+		}
+
+		QSimBuilder qSimBuilder = new QSimBuilder(config).useDefaults();
+		if (loadHistory != null) {
+			qSimBuilder.addOverridingModule(new AbstractModule() {
+				@Override
+				public void install() {
+					bind(QNetsimEngineLoadHistory.class).toInstance(loadHistory);
+				}
+			});
+		}
+
+		MatsimRandom.reset();// same random numbers (e.g. of the nodes) in every run
+		events.initProcessing();
+		qSimBuilder.build(scenario, events).run();
+		events.finishProcessing();
+	}
+}
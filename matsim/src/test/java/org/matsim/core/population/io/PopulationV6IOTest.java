@@ -428,4 +428,41 @@ public class PopulationV6IOTest {
 		Assert.assertEquals(((Activity) pp1.getPlanElements().get(4)).getLinkId(), linkId);
 	}
 
+	@Test
+	public void testParallelReaderKeepsOrder() {
+		final Population population = PopulationUtils.createPopulation(ConfigUtils.createConfig());
+		final PopulationFactory factory = population.getFactory();
+		for (int i = 0; i < 1000; i++) {
+			// not sorted by id
+			final Person person = factory.createPerson(Id.createPersonId((i * 7919) % 1000));
+			person.getAttributes().putAttribute("index", i);
+			final Plan plan = factory.createPlan();
+			plan.addActivity(factory.createActivityFromLinkId("home", Id.createLinkId(i % 17)));
+			final Leg leg = factory.createLeg(TransportMode.walk);
+			leg.setRoute(new GenericRouteImpl(Id.createLinkId(i % 17), Id.createLinkId(i % 13)));
+			leg.getAttributes().putAttribute("leg", "attribute " + i);
+			plan.addLeg(leg);
+			plan.addActivity(factory.createActivityFromCoord("work", new Coord(i, -i)));
+			person.addPlan(plan);
+			population.addPerson(person);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new PopulationWriter(population).write(out);
+
+		String[] written = new String[2];
+		int[] numbersOfThreads = {1, 4};
+		for (int i = 0; i < numbersOfThreads.length; i++) {
+			Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+			scenario.getConfig().global().setNumberOfThreads(numbersOfThreads[i]);
+			scenario.getConfig().plans().setParallelReading(true);
+			new PopulationReader(scenario).parse(new ByteArrayInputStream(out.toByteArray()));
+			Assert.assertEquals(1000, scenario.getPopulation().getPersons().size());
+
+			ByteArrayOutputStream rewritten = new ByteArrayOutputStream();
+			new PopulationWriter(scenario.getPopulation()).write(rewritten);
+			written[i] = rewritten.toString();
+		}
+		Assert.assertEquals(written[0], written[1]);
+	}
+
 }
@@ -37,6 +37,8 @@ import org.matsim.core.replanning.selectors.PlanSelector;
 import org.matsim.core.replanning.selectors.RandomPlanSelector;
 import org.matsim.core.scenario.ScenarioUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -427,6 +429,67 @@ public class StrategyManagerTest {
 
 	}
 
+	@Test
+	public void testParallelSelection() {
+		List<String> sequence2 = new ArrayList<>();
+		List<String> selected2 = runParallelSelection(2, sequence2);
+		List<String> sequence4 = new ArrayList<>();
+		List<String> selected4 = runParallelSelection(4, sequence4);
+
+		// the results must not depend on the number of threads
+		assertEquals(selected2, selected4);
+		assertEquals(sequence2, sequence4);
+
+		// the plans must be handed to the modules in the order of the persons
+		List<String> sorted = new ArrayList<>(sequence2);
+		Collections.sort(sorted);
+		assertEquals(sorted, sequence2);
+		assertFalse(sequence2.isEmpty());
+	}
+
+	private static List<String> runParallelSelection(int numberOfThreads, List<String> moduleSequence) {
+		Population population = ScenarioUtils.createScenario(ConfigUtils.createConfig()).getPopulation();
+		for (int i = 0; i < 2500; i++) {
+			Person person = PopulationUtils.getFactory().createPerson(Id.create(String.format("%05d", i), Person.class));
+			for (int p = 0; p < 4; p++) {
+				Plan plan = PersonUtils.createAndAddPlan(person, p == 0);
+				plan.setScore((double) ((i * 7 + p * 13) % 10));
+				plan.getAttributes().putAttribute("index", p);
+			}
+			population.addPerson(person);
+		}
+
+		StrategyManager manager = new StrategyManager();
+		manager.setMaxPlansPerAgent(3);
+		manager.setParallelSelection(numberOfThreads, 42);
+		manager.addStrategy(new PlanStrategyImpl(new RandomPlanSelector<>()), null, 0.7);
+		PlanStrategyImpl innovation = new PlanStrategyImpl(new RandomPlanSelector<>());
+		innovation.addStrategyModule(new PlanStrategyModule() {
+			@Override
+			public void prepareReplanning(ReplanningContext replanningContext) {
+			}
+
+			@Override
+			public void handlePlan(Plan plan) {
+				moduleSequence.add(plan.getPerson().getId().toString());
+			}
+
+			@Override
+			public void finishReplanning() {
+			}
+		});
+		manager.addStrategy(innovation, null, 0.3);
+
+		manager.run(population, 3, null);
+
+		List<String> selected = new ArrayList<>();
+		for (Person person : population.getPersons().values()) {
+			assertEquals(moduleSequence.contains(person.getId().toString()) ? 4 : 3, person.getPlans().size());
+			selected.add(person.getId() + ":" + person.getSelectedPlan().getAttributes().getAttribute("index"));
+		}
+		return selected;
+	}
+
 	/**
 	 * A simple PlanSelector that throws an UnsupportedOperationException whenever
 	 * it should select a plan.
@@ -27,8 +27,13 @@ import org.junit.Test;
 import org.matsim.api.core.v01.population.Plan;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.GlobalConfigGroup;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.population.algorithms.BatchPlanAlgorithm;
 import org.matsim.core.population.algorithms.PlanAlgorithm;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * @author mrieser
  */
@@ -61,6 +66,58 @@ public class AbstractMultithreadedModuleTest {
 
 	}
 
+	@Test
+	public void testDynamicPlanDistribution() {
+		for (boolean batch : new boolean[] { false, true }) {
+			GlobalConfigGroup globalConfig = new GlobalConfigGroup();
+			globalConfig.setNumberOfThreads(4);
+			globalConfig.setDynamicPlanDistribution(true);
+			CountingModule testee = new CountingModule(globalConfig, batch);
+
+			List<Plan> plans = new ArrayList<>();
+			for (int i = 0; i < 1234; i++) {
+				plans.add(PopulationUtils.createPlan());
+			}
+			testee.prepareReplanning(null);
+			for (Plan plan : plans) {
+				testee.handlePlan(plan);
+			}
+			testee.finishReplanning();
+
+			for (Plan plan : plans) {
+				Assert.assertEquals("every plan must be handled exactly once", 1.0, plan.getScore(), 0.0);
+			}
+		}
+	}
+
+	private static class CountingModule extends AbstractMultithreadedModule {
+		private final boolean batch;
+		public CountingModule(GlobalConfigGroup globalConfigGroup, boolean batch) {
+			super(globalConfigGroup);
+			this.batch = batch;
+		}
+		@Override
+		public PlanAlgorithm getPlanAlgoInstance() {
+			return this.batch ? new CountingBatchPlanAlgo() : new CountingPlanAlgo();
+		}
+	}
+
+	private static class CountingPlanAlgo implements PlanAlgorithm {
+		@Override
+		public void run(Plan plan) {
+			plan.setScore(plan.getScore() == null ? 1.0 : plan.getScore() + 1.0);
+		}
+	}
+
+	private static class CountingBatchPlanAlgo extends CountingPlanAlgo implements BatchPlanAlgorithm {
+		@Override
+		public void run(List<Plan> plans) {
+			for (Plan plan : plans) {
+				run(plan);
+			}
+		}
+	}
+
 	private static class DummyAbstractMultithreadedModule extends AbstractMultithreadedModule {
 		public DummyAbstractMultithreadedModule(GlobalConfigGroup globalConfigGroup) {
 			super(globalConfigGroup);
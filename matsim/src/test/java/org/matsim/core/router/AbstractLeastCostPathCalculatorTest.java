@@ -35,6 +35,8 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author mrieser
@@ -81,4 +83,26 @@ public abstract class AbstractLeastCostPathCalculatorTest extends MatsimTestCase
 		assertEquals(network.getNodes().get(Id.create("12", Node.class)), path.nodes.get(0));
 	}
 
+	public void testCalcLeastCostPaths_OneToMany() {
+		Scenario scenario = ScenarioUtils.createScenario(loadConfig(null));
+		Network network = scenario.getNetwork();
+		new MatsimNetworkReader(scenario.getNetwork()).readFile("test/scenarios/equil/network.xml");
+		Node node12 = network.getNodes().get(Id.create("12", Node.class));
+		List<Node> toNodes = new ArrayList<>();
+		for (String nodeId : new String[] { "15", "2", "12", "7", "15" }) {
+			toNodes.add(network.getNodes().get(Id.create(nodeId, Node.class)));
+		}
+
+		LeastCostPathCalculator routerAlgo = getLeastCostPathCalculator(network);
+		List<Path> paths = routerAlgo.calcLeastCostPaths(node12, toNodes, 8.0*3600, null, null);
+
+		assertEquals(toNodes.size(), paths.size());
+		for (int i = 0; i < toNodes.size(); i++) {
+			Path expected = routerAlgo.calcLeastCostPath(node12, toNodes.get(i), 8.0*3600, null, null);
+			assertEquals(expected.links, paths.get(i).links);
+			assertEquals(expected.travelCost, paths.get(i).travelCost, 1e-8);
+			assertEquals(toNodes.get(i), paths.get(i).getToNode());
+		}
+	}
+
 }
@@ -19,6 +19,7 @@
 
 package org.matsim.core.router;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Assert;
@@ -40,6 +41,8 @@ import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.population.routes.NetworkRoute;
 import org.matsim.core.router.costcalculators.FreespeedTravelTimeAndDisutility;
 import org.matsim.core.router.costcalculators.RandomizingTimeDistanceTravelDisutilityFactory;
+import org.matsim.core.router.speedy.SpeedyDijkstra;
+import org.matsim.core.router.speedy.SpeedyGraph;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.core.router.util.TravelTime;
@@ -144,6 +147,34 @@ public class NetworkRoutingModuleTest {
 		}
 	}
 
+	@Test
+	public void testCalcRoutesInBatch() {
+		Fixture f = new Fixture();
+		FreespeedTravelTimeAndDisutility freespeed = new FreespeedTravelTimeAndDisutility(-6.0/3600, +6.0/3600, 0.0);
+		LeastCostPathCalculator routeAlgo = new SpeedyDijkstra(new SpeedyGraph(f.s.getNetwork()), freespeed, freespeed);
+		NetworkRoutingModule batchRouter = new NetworkRoutingModule(TransportMode.car, f.s.getPopulation().getFactory(), f.s.getNetwork(), routeAlgo, 900);
+		NetworkRoutingModule router = new NetworkRoutingModule(TransportMode.car, f.s.getPopulation().getFactory(), f.s.getNetwork(), routeAlgo);
+
+		Person person = PopulationUtils.getFactory().createPerson(Id.create(1, Person.class));
+		List<RoutingRequest> requests = new ArrayList<>();
+		for (String toLinkId : new String[] { "3", "2", "1", "3" }) {
+			Activity fromAct = PopulationUtils.createActivityFromLinkId("h", Id.create("1", Link.class));
+			Activity toAct = PopulationUtils.createActivityFromLinkId("w", Id.create(toLinkId, Link.class));
+			requests.add(DefaultRoutingRequest.withoutAttributes(FacilitiesUtils.toFacility(fromAct, null), FacilitiesUtils.toFacility(toAct, null),
+					7.0 * 3600 + 60 * requests.size(), person));
+		}
+
+		List<List<? extends PlanElement>> results = batchRouter.calcRoutes(requests);
+		Assert.assertEquals(requests.size(), results.size());
+		for (int i = 0; i < requests.size(); i++) {
+			Leg expected = (Leg) router.calcRoute(requests.get(i)).get(0);
+			Leg actual = (Leg) results.get(i).get(0);
+			Assert.assertEquals(expected.getRoute().getRouteDescription(), actual.getRoute().getRouteDescription());
+			Assert.assertEquals(expected.getTravelTime().seconds(), actual.getTravelTime().seconds(), 1e-8);
+			Assert.assertEquals(requests.get(i).getDepartureTime(), actual.getDepartureTime().seconds(), 1e-8);
+		}
+	}
+
 	private static class Fixture {
 		public final Scenario s = ScenarioUtils.createScenario(ConfigUtils.createConfig());
 
@@ -0,0 +1,113 @@
+package org.matsim.core.router.speedy;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.costcalculators.RandomizingTimeDistanceTravelDisutilityFactory;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+import org.matsim.vehicles.VehicleUtils;
+
+import java.util.Random;
+
+public class MaterializedTravelTimeTest {
+
+	/**
+	 * A travel time which is constant within time bins of 15 minutes, and gets slower during the day.
+	 */
+	private static final TravelTime BINNED_TRAVEL_TIME = new TravelTime() {
+		@Override
+		public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+			int bin = Math.min((int) time / 900, 120);
+			return link.getLength() / link.getFreespeed() * (1 + bin / 20.0);
+		}
+	};
+
+	@Test
+	public void testSameTravelTimes() {
+		Network network = createGrid(5);
+		MaterializedTravelTime materialized = new MaterializedTravelTime(network, BINNED_TRAVEL_TIME, 900, 30 * 3600, 2);
+		Assert.assertSame(BINNED_TRAVEL_TIME, materialized.getOriginalTravelTime());
+
+		for (Link link : network.getLinks().values()) {
+			for (double time = 0; time < 32 * 3600; time += 450) {
+				Assert.assertEquals(BINNED_TRAVEL_TIME.getLinkTravelTime(link, time, null, null), materialized.getLinkTravelTime(link, time, null, null), 1e-3);
+			}
+		}
+	}
+
+	@Test
+	public void testVehicleMaximumVelocity() {
+		Network network = createGrid(2);
+		MaterializedTravelTime materialized = new MaterializedTravelTime(network, BINNED_TRAVEL_TIME, 900, 30 * 3600, 1);
+		Link link = network.getLinks().values().iterator().next();
+
+		VehicleType type = VehicleUtils.createVehicleType(Id.create("slow", VehicleType.class));
+		type.setMaximumVelocity(1.0);
+		Vehicle vehicle = VehicleUtils.createVehicle(Id.createVehicleId("slow"), type);
+
+		Assert.assertEquals(link.getLength(), materialized.getLinkTravelTime(link, 0, null, vehicle), 1e-3);
+		Assert.assertEquals(BINNED_TRAVEL_TIME.getLinkTravelTime(link, 0, null, null), materialized.getLinkTravelTime(link, 0, null, null), 1e-3);
+	}
+
+	@Test
+	public void testSameRoutes() {
+		Network network = createGrid(10);
+		Config config = ConfigUtils.createConfig();
+		config.plansCalcRoute().setRoutingRandomness(0);
+		RandomizingTimeDistanceTravelDisutilityFactory disutilityFactory = new RandomizingTimeDistanceTravelDisutilityFactory(TransportMode.car, config);
+		MaterializedTravelTime materialized = new MaterializedTravelTime(network, BINNED_TRAVEL_TIME, 900, 30 * 3600, 1);
+
+		SpeedyGraph graph = new SpeedyGraph(network);
+		LeastCostPathCalculator expected = new SpeedyDijkstra(graph, BINNED_TRAVEL_TIME, disutilityFactory.createTravelDisutility(BINNED_TRAVEL_TIME));
+		LeastCostPathCalculator actual = new SpeedyDijkstra(graph, materialized, disutilityFactory.createTravelDisutility(materialized));
+
+		Node[] nodes = network.getNodes().values().toArray(new Node[0]);
+		Random random = new Random(2026);
+		for (int i = 0; i < 100; i++) {
+			Node from = nodes[random.nextInt(nodes.length)];
+			Node to = nodes[random.nextInt(nodes.length)];
+			double time = random.nextInt(24 * 3600);
+			Path expectedPath = expected.calcLeastCostPath(from, to, time, null, null);
+			Path actualPath = actual.calcLeastCostPath(from, to, time, null, null);
+			Assert.assertEquals(expectedPath.travelTime, actualPath.travelTime, 1e-2);
+			Assert.assertEquals(expectedPath.travelCost, actualPath.travelCost, 1e-2);
+		}
+	}
+
+	private static Network createGrid(int size) {
+		Network network = NetworkUtils.createNetwork();
+		Node[][] nodes = new Node[size][size];
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				nodes[x][y] = NetworkUtils.createAndAddNode(network, Id.createNodeId("m" + x + "_" + y), new Coord(x * 100, y * 100));
+			}
+		}
+		int linkId = 0;
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				if (x + 1 < size) {
+					NetworkUtils.createAndAddLink(network, Id.createLinkId("m" + linkId++), nodes[x][y], nodes[x + 1][y], 100, 5 + (x * y) % 10, 1000, 1);
+					NetworkUtils.createAndAddLink(network, Id.createLinkId("m" + linkId++), nodes[x + 1][y], nodes[x][y], 100, 5 + (x + y) % 10, 1000, 1);
+				}
+				if (y + 1 < size) {
+					NetworkUtils.createAndAddLink(network, Id.createLinkId("m" + linkId++), nodes[x][y], nodes[x][y + 1], 100, 5 + (x + 2 * y) % 10, 1000, 1);
+					NetworkUtils.createAndAddLink(network, Id.createLinkId("m" + linkId++), nodes[x][y + 1], nodes[x][y], 100, 5 + (2 * x + y) % 10, 1000, 1);
+				}
+			}
+		}
+		return network;
+	}
+}
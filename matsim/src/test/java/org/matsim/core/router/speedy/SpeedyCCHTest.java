@@ -0,0 +1,195 @@
+package org.matsim.core.router.speedy;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.PlanCalcScoreConfigGroup;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.router.AbstractLeastCostPathCalculatorTest;
+import org.matsim.core.router.costcalculators.FreespeedTravelTimeAndDisutility;
+import org.matsim.core.router.costcalculators.OnlyTimeDependentTravelDisutility;
+import org.matsim.core.router.costcalculators.RandomizingTimeDistanceTravelDisutilityFactory;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
+
+import java.util.Random;
+
+public class SpeedyCCHTest extends AbstractLeastCostPathCalculatorTest {
+
+	@Override
+	protected LeastCostPathCalculator getLeastCostPathCalculator(final Network network) {
+		FreespeedTravelTimeAndDisutility travelTimeCostCalculator = new FreespeedTravelTimeAndDisutility(new PlanCalcScoreConfigGroup());
+		return new SpeedyCCHFactory().createPathCalculator(network, travelTimeCostCalculator, travelTimeCostCalculator);
+	}
+
+	public void testSameCostsAsDijkstra() {
+		Network network = createGrid(25, new Random(2026));
+		FreespeedTravelTimeAndDisutility travelTimeCostCalculator = new FreespeedTravelTimeAndDisutility(new PlanCalcScoreConfigGroup());
+		LeastCostPathCalculator dijkstra = new SpeedyDijkstra(new SpeedyGraph(network), travelTimeCostCalculator, travelTimeCostCalculator);
+		LeastCostPathCalculator cch = new SpeedyCCHFactory(3600, 30 * 3600, 4).createPathCalculator(network, travelTimeCostCalculator, travelTimeCostCalculator);
+
+		Node[] nodes = network.getNodes().values().toArray(new Node[0]);
+		Random random = new Random(42);
+		for (int i = 0; i < 500; i++) {
+			Node from = nodes[random.nextInt(nodes.length)];
+			Node to = nodes[random.nextInt(nodes.length)];
+			Path expected = dijkstra.calcLeastCostPath(from, to, 8 * 3600, null, null);
+			Path actual = cch.calcLeastCostPath(from, to, 8 * 3600, null, null);
+			assertEquals(expected == null, actual == null);
+			if (expected == null) {
+				continue;
+			}
+			assertEquals(expected.travelCost, actual.travelCost, 1e-3);
+			assertEquals(from, actual.nodes.get(0));
+			assertEquals(to, actual.nodes.get(actual.nodes.size() - 1));
+			for (int l = 0; l < actual.links.size(); l++) {
+				assertEquals(actual.nodes.get(l), actual.links.get(l).getFromNode());
+				assertEquals(actual.nodes.get(l + 1), actual.links.get(l).getToNode());
+			}
+		}
+	}
+
+	public void testSameCostsAsDijkstraWithCongestion() {
+		Network network = createGrid(15, new Random(2026));
+		// congested travel times, constant within each hour (i.e. within each time bin of the customization)
+		TravelTime travelTime = (link, time, person, vehicle) -> {
+			int hour = (int) (time / 3600);
+			return (1 + (link.getId().index() * 31 + hour * 17) % 3) * link.getLength() / link.getFreespeed();
+		};
+		TravelDisutility travelDisutility = new OnlyTimeDependentTravelDisutility(travelTime);
+		LeastCostPathCalculator dijkstra = new SpeedyDijkstra(new SpeedyGraph(network), travelTime, travelDisutility);
+		LeastCostPathCalculator cch = new SpeedyCCHFactory(3600, 30 * 3600, 4).createPathCalculator(network, travelDisutility, travelTime);
+
+		Node[] nodes = network.getNodes().values().toArray(new Node[0]);
+		Random random = new Random(42);
+		for (int i = 0; i < 300; i++) {
+			Node from = nodes[random.nextInt(nodes.length)];
+			Node to = nodes[random.nextInt(nodes.length)];
+			// early in the hour, so the paths (at most about 30 min) do not reach the next one
+			double departureTime = random.nextInt(24) * 3600 + random.nextInt(600);
+			Path expected = dijkstra.calcLeastCostPath(from, to, departureTime, null, null);
+			Path actual = cch.calcLeastCostPath(from, to, departureTime, null, null);
+			assertEquals(expected == null, actual == null);
+			if (expected == null) {
+				continue;
+			}
+			assertEquals(expected.travelCost, actual.travelCost, 1e-3);
+			assertEquals(expected.travelTime, actual.travelTime, 1e-3);
+		}
+	}
+
+	public void testRandomizedTravelDisutility() {
+		Network network = createGrid(10, new Random(2026));
+		Config config = ConfigUtils.createConfig();
+		assertTrue(config.plansCalcRoute().getRoutingRandomness() > 0);// the default
+		config.planCalcScore().getModes().get(TransportMode.car).setMonetaryDistanceRate(-0.001);
+		TravelTime travelTime = new FreeSpeedTravelTime();
+		TravelDisutility randomized = new RandomizingTimeDistanceTravelDisutilityFactory(TransportMode.car, config).createTravelDisutility(travelTime);
+		config.plansCalcRoute().setRoutingRandomness(0);
+		TravelDisutility expected = new RandomizingTimeDistanceTravelDisutilityFactory(TransportMode.car, config).createTravelDisutility(travelTime);
+
+		LeastCostPathCalculator dijkstra = new SpeedyDijkstra(new SpeedyGraph(network), travelTime, expected);
+		LeastCostPathCalculator cch = new SpeedyCCHFactory(3600, 30 * 3600, 2).createPathCalculator(network, randomized, travelTime);
+
+		Node[] nodes = network.getNodes().values().toArray(new Node[0]);
+		Random random = new Random(42);
+		for (int i = 0; i < 100; i++) {
+			Node from = nodes[random.nextInt(nodes.length)];
+			Node to = nodes[random.nextInt(nodes.length)];
+			Person person = PopulationUtils.getFactory().createPerson(Id.createPersonId(i));
+			Path expectedPath = dijkstra.calcLeastCostPath(from, to, 8 * 3600, null, null);
+			Path actual = cch.calcLeastCostPath(from, to, 8 * 3600, person, null);
+			assertEquals(expectedPath == null, actual == null);
+			if (expectedPath == null) {
+				continue;
+			}
+			// the path is chosen by the expected costs, but its costs are the ones of the person
+			assertEquals(expectedPath.travelCost, sumCosts(actual, expected, null), 1e-3);
+			assertEquals(sumCosts(actual, randomized, person), actual.travelCost, 1e-3);
+		}
+	}
+
+	public void testCustomizationPerTravelDisutility() {
+		Network network = createGrid(10, new Random(2026));
+		TravelTime travelTime = new FreeSpeedTravelTime();
+		SpeedyCCHFactory factory = new SpeedyCCHFactory(3600, 30 * 3600, 2);
+
+		// same class of travel disutility, but different costs: must not share the customization
+		for (double monetaryDistanceRate : new double[] { 0, -0.1 }) {
+			Config config = ConfigUtils.createConfig();
+			config.plansCalcRoute().setRoutingRandomness(0);
+			config.planCalcScore().getModes().get(TransportMode.car).setMonetaryDistanceRate(monetaryDistanceRate);
+			TravelDisutility travelDisutility = new RandomizingTimeDistanceTravelDisutilityFactory(TransportMode.car, config).createTravelDisutility(travelTime);
+			LeastCostPathCalculator dijkstra = new SpeedyDijkstra(new SpeedyGraph(network), travelTime, travelDisutility);
+			LeastCostPathCalculator cch = factory.createPathCalculator(network, travelDisutility, travelTime);
+
+			Node[] nodes = network.getNodes().values().toArray(new Node[0]);
+			Random random = new Random(42);
+			for (int i = 0; i < 100; i++) {
+				Node from = nodes[random.nextInt(nodes.length)];
+				Node to = nodes[random.nextInt(nodes.length)];
+				Path expected = dijkstra.calcLeastCostPath(from, to, 8 * 3600, null, null);
+				Path actual = cch.calcLeastCostPath(from, to, 8 * 3600, null, null);
+				assertEquals(expected == null, actual == null);
+				if (expected != null) {
+					assertEquals(expected.travelCost, actual.travelCost, 1e-3);
+				}
+			}
+		}
+	}
+
+	private static double sumCosts(Path path, TravelDisutility travelDisutility, Person person) {
+		double cost = 0;
+		for (Link link : path.links) {
+			cost += travelDisutility.getLinkTravelDisutility(link, 8 * 3600, person, null);
+		}
+		return cost;
+	}
+
+	/**
+	 * A grid with random speeds, where some links only exist in one direction and some are missing.
+	 */
+	private static Network createGrid(int size, Random random) {
+		Network network = NetworkUtils.createNetwork();
+		Node[][] nodes = new Node[size][size];
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				nodes[x][y] = NetworkUtils.createAndAddNode(network, Id.createNodeId(x + "_" + y), new Coord(x * 100, y * 100));
+			}
+		}
+		int linkId = 0;
+		for (int x = 0; x < size; x++) {
+			for (int y = 0; y < size; y++) {
+				if (x + 1 < size) {
+					linkId = addLinks(network, nodes[x][y], nodes[x + 1][y], linkId, random);
+				}
+				if (y + 1 < size) {
+					linkId = addLinks(network, nodes[x][y], nodes[x][y + 1], linkId, random);
+				}
+			}
+		}
+		return network;
+	}
+
+	private static int addLinks(Network network, Node a, Node b, int linkId, Random random) {
+		double r = random.nextDouble();
+		if (r < 0.9) {
+			NetworkUtils.createAndAddLink(network, Id.create(linkId++, Link.class), a, b, 100, 5 + random.nextInt(20), 1000, 1);
+		}
+		if (r > 0.1) {
+			NetworkUtils.createAndAddLink(network, Id.create(linkId++, Link.class), b, a, 100, 5 + random.nextInt(20), 1000, 1);
+		}
+		return linkId;
+	}
+
+}
@@ -22,6 +22,7 @@
  package org.matsim.core.scoring;
 
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
 import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
@@ -37,18 +38,27 @@ import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Population;
 import org.matsim.api.core.v01.population.PopulationFactory;
 import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
 import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.controler.ControlerListenerManagerImpl;
 import org.matsim.core.events.EventsUtils;
 import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.router.TripStructureUtils;
 import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
 
 /**
  * @author mrieser / Simunto GmbH
  */
 public class ScoringFunctionsForPopulationTest {
 
+	@Rule
+	public MatsimTestUtils utils = new MatsimTestUtils();
+
 	@Test
 	public void testTripScoring() {
 		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
@@ -135,6 +145,55 @@ public class ScoringFunctionsForPopulationTest {
 		Assert.assertEquals(1.234+2.345, rsf.separateScoreSum, 1e-7);
 	}
 
+	@Test
+	public void testPartialScores() throws IOException {
+		Config config = ConfigUtils.createConfig();
+		config.planCalcScore().setWriteExperiencedPlans(true);
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		Population population = scenario.getPopulation();
+		PopulationFactory pf = population.getFactory();
+		Id<Person> personId = Id.create(1, Person.class);
+		population.addPerson(pf.createPerson(personId));
+
+		ControlerListenerManagerImpl controlerListenerManager = new ControlerListenerManagerImpl();
+		EventsManager eventsManager = EventsUtils.createEventsManager();
+		ScoringFunctionFactory scoringFunctionFactory = agentId -> new SummingScoringFunction();
+		ScoringFunctionsForPopulation sf = new ScoringFunctionsForPopulation(controlerListenerManager, eventsManager, new EventsToActivities(), new EventsToLegs(scenario), population, scoringFunctionFactory, config);
+
+		// first iteration: 12 partial scores, more than the initially reserved space
+		controlerListenerManager.fireControlerIterationStartsEvent(0, false);
+		for (int i = 0; i < 6; i++) {
+			sf.getScoringFunctionForAgent(personId).addScore(1.0);
+			sf.handleActivity(new PersonExperiencedActivity(personId, pf.createActivityFromCoord("home", new Coord(100, 100))));
+			sf.handleLeg(new PersonExperiencedLeg(personId, pf.createLeg("walk")));
+		}
+		sf.finishScoringFunctions();
+		String filename = this.utils.getOutputDirectory() + "partialScores0.txt";
+		sf.writePartialScores(filename);
+		try (BufferedReader reader = IOUtils.getBufferedReader(filename)) {
+			String[] parts = reader.readLine().split("\t");
+			Assert.assertEquals(1 + 13, parts.length);
+			Assert.assertEquals("1", parts[0]);
+			Assert.assertEquals(1.0, Double.parseDouble(parts[1]), 1e-9);
+			Assert.assertEquals(6.0, Double.parseDouble(parts[12]), 1e-9);
+			Assert.assertEquals(6.0, Double.parseDouble(parts[13]), 1e-9);
+		}
+
+		// second iteration: the scores of the first iteration must be gone
+		controlerListenerManager.fireControlerIterationStartsEvent(1, false);
+		sf.getScoringFunctionForAgent(personId).addScore(2.0);
+		sf.handleActivity(new PersonExperiencedActivity(personId, pf.createActivityFromCoord("home", new Coord(100, 100))));
+		sf.finishScoringFunctions();
+		filename = this.utils.getOutputDirectory() + "partialScores1.txt";
+		sf.writePartialScores(filename);
+		try (BufferedReader reader = IOUtils.getBufferedReader(filename)) {
+			String[] parts = reader.readLine().split("\t");
+			Assert.assertEquals(1 + 2, parts.length);
+			Assert.assertEquals(2.0, Double.parseDouble(parts[1]), 1e-9);
+			Assert.assertEquals(2.0, Double.parseDouble(parts[2]), 1e-9);
+		}
+	}
+
 	private static class RecordingScoringFunction implements ScoringFunction {
 
 		int tripCounter = 0;
@@ -184,4 +243,15 @@ public class ScoringFunctionsForPopulationTest {
 		}
 	}
 
+	/**
+	 * Returns the sum of the added scores, so that the partial scores change with every added score.
+	 */
+	private static class SummingScoringFunction extends RecordingScoringFunction {
+
+		@Override
+		public double getScore() {
+			return this.separateScoreSum;
+		}
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CompactTravelTimeCalculatorTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.trafficmonitoring;
+
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.TransportMode;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.LinkLeaveEvent;
+import org.matsim.api.core.v01.events.VehicleEntersTrafficEvent;
+import org.matsim.api.core.v01.events.VehicleLeavesTrafficEvent;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.handler.EventHandler;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+public class CompactTravelTimeCalculatorTest {
+
+	@Test
+	public void testSameTravelTimesAsTravelTimeCalculator() {
+		Network network = NetworkUtils.createNetwork();
+		Node node0 = NetworkUtils.createAndAddNode(network, Id.createNodeId("compact0"), new Coord(0, 0));
+		Node node1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("compact1"), new Coord(1000, 0));
+		Node node2 = NetworkUtils.createAndAddNode(network, Id.createNodeId("compact2"), new Coord(2000, 0));
+		Link[] links = {
+				NetworkUtils.createAndAddLink(network, Id.createLinkId("compact01"), node0, node1, 1000, 20, 2000, 1),
+				NetworkUtils.createAndAddLink(network, Id.createLinkId("compact12"), node1, node2, 1000, 10, 2000, 1)
+		};
+
+		TravelTimeCalculatorConfigGroup config = new TravelTimeCalculatorConfigGroup();
+		TravelTimeCalculator.Builder builder = new TravelTimeCalculator.Builder(network);
+		builder.setTimeslice(config.getTraveltimeBinSize());
+		builder.setMaxTime(config.getMaxTime());
+		builder.setFilterModes(true);
+		builder.setAnalyzedModes(Collections.singleton(TransportMode.car));
+		builder.configure(config);
+		TravelTimeCalculator expected = builder.build();
+		CompactTravelTimeCalculator compact = new CompactTravelTimeCalculator(config, Collections.singleton(TransportMode.car), 3);
+
+		EventsManager events = EventsUtils.createEventsManager();
+		events.addHandler(expected);
+		for (EventHandler handler : compact.getEventHandlers()) {
+			events.addHandler(handler);
+		}
+
+		// vehicles drive over both links, some of them by bike, which must be ignored:
+		Random random = new Random(2026);
+		events.initProcessing();
+		for (int i = 0; i < 200; i++) {
+			Id<Person> personId = Id.createPersonId("compact" + i);
+			Id<Vehicle> vehicleId = Id.createVehicleId("compact" + i);
+			String mode = i % 5 == 0 ? TransportMode.bike : TransportMode.car;
+			double time = 6 * 3600 + i * 60;
+			events.processEvent(new VehicleEntersTrafficEvent(time, personId, links[0].getId(), vehicleId, mode, 1.0));
+			events.processEvent(new LinkLeaveEvent(time, vehicleId, links[0].getId()));
+			time += 1;
+			for (int l = 1; l < links.length; l++) {
+				events.processEvent(new LinkEnterEvent(time, vehicleId, links[l].getId()));
+				time += 100 + random.nextInt(600);
+				events.processEvent(new LinkLeaveEvent(time, vehicleId, links[l].getId()));
+			}
+			events.processEvent(new VehicleLeavesTrafficEvent(time, personId, links[links.length - 1].getId(), vehicleId, mode, 1.0));
+		}
+		events.finishProcessing();
+
+		TravelTime expectedTimes = expected.getLinkTravelTimes();
+		TravelTime actualTimes = compact.getLinkTravelTimes();
+		for (Link link : links) {
+			for (double time = 0; time < 30 * 3600; time += 300) {
+				Assert.assertEquals(expectedTimes.getLinkTravelTime(link, time, null, null), actualTimes.getLinkTravelTime(link, time, null, null), 1e-6);
+			}
+		}
+		Assert.assertTrue(actualTimes.getLinkTravelTime(links[1], 7 * 3600, null, null) > 100);
+	}
+
+	@Test
+	public void testReset() {
+		Network network = NetworkUtils.createNetwork();
+		Node node0 = NetworkUtils.createAndAddNode(network, Id.createNodeId("compactReset0"), new Coord(0, 0));
+		Node node1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("compactReset1"), new Coord(1000, 0));
+		Link link = NetworkUtils.createAndAddLink(network, Id.createLinkId("compactReset01"), node0, node1, 1000, 10, 2000, 1);
+
+		CompactTravelTimeCalculator compact = new CompactTravelTimeCalculator(new TravelTimeCalculatorConfigGroup(), null, 2);
+		EventsManager events = EventsUtils.createEventsManager();
+		for (EventHandler handler : compact.getEventHandlers()) {
+			events.addHandler(handler);
+		}
+		Id<Vehicle> vehicleId = Id.createVehicleId("compactReset");
+		events.initProcessing();
+		events.processEvent(new LinkEnterEvent(100, vehicleId, link.getId()));
+		events.processEvent(new LinkLeaveEvent(400, vehicleId, link.getId()));
+		events.finishProcessing();
+
+		TravelTime travelTimes = compact.getLinkTravelTimes();
+		Assert.assertEquals(300.0, travelTimes.getLinkTravelTime(link, 100, null, null), 1e-6);
+
+		events.resetHandlers(1);
+		Assert.assertEquals(100.0, travelTimes.getLinkTravelTime(link, 100, null, null), 1e-6);
+	}
+
+}